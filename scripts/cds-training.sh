@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+# Builds the AOT-processed jar, extracts it and records an AppCDS archive from a
+# training run that exercises the movie, showtime and booking controllers.
+# Requires the PostgreSQL instance from compose.yml to be running.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+PORT="${PORT:-8080}"
+BASE="http://localhost:${PORT}"
+OUT="target/cds"
+JAR="popcorn-palace-0.0.1-SNAPSHOT.jar"
+
+./mvnw -B -q -Pcds -DskipTests package
+rm -rf "${OUT}"
+java -Djarmode=tools -jar "target/${JAR}" extract --destination "${OUT}"
+
+java -XX:ArchiveClassesAtExit="${OUT}/app.jsa" -Dspring.aot.enabled=true \
+    -jar "${OUT}/${JAR}" --server.port="${PORT}" &
+PID=$!
+trap 'kill "${PID}" 2>/dev/null || true' EXIT
+
+until curl -sf "${BASE}/movies/all" > /dev/null; do
+    sleep 0.2
+done
+
+# Touch every endpoint once so their classes end up in the archive
+scripts/exercise-endpoints.sh "${BASE}"
+
+# A regular shutdown makes the JVM write the archive
+kill -TERM "${PID}"
+wait "${PID}" || true
+trap - EXIT
+
+echo "AppCDS archive written to ${OUT}/app.jsa"
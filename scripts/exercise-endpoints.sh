@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Calls every movie, showtime and booking endpoint once against a running instance
+# and fails on the first unexpected status code.
+# Usage: scripts/exercise-endpoints.sh [base-url]
+set -euo pipefail
+
+BASE="${1:-http://localhost:8080}"
+TITLE="Exercise $$"
+TITLE_PATH="${TITLE// /%20}"
+
+MOVIE_ID=$(curl -sf -H 'Content-Type: application/json' -X POST "${BASE}/movies" \
+    -d "{\"title\":\"${TITLE}\",\"genre\":\"Drama\",\"duration\":120,\"rating\":\"PG\",\"releaseYear\":2025}" \
+    | sed -E 's/.*"id":([0-9]+).*/\1/')
+curl -sf "${BASE}/movies/all" > /dev/null
+curl -sf "${BASE}/movies/${MOVIE_ID}" > /dev/null
+curl -sf -H 'Content-Type: application/json' -X POST "${BASE}/movies/update/${TITLE_PATH}" \
+    -d "{\"title\":\"${TITLE}\",\"genre\":\"Drama\",\"duration\":121,\"rating\":\"PG\",\"releaseYear\":2025}" > /dev/null
+
+SHOWTIME_ID=$(curl -sf -H 'Content-Type: application/json' -X POST "${BASE}/showtimes" \
+    -d "{\"movieId\":${MOVIE_ID},\"theater\":\"${TITLE}\",\"startTime\":\"2099-01-01T10:00:00Z\",\"endTime\":\"2099-01-01T12:00:00Z\",\"price\":10.0}" \
+    | sed -E 's/.*"id":([0-9]+).*/\1/')
+curl -sf "${BASE}/showtimes" > /dev/null
+curl -sf "${BASE}/showtimes/${SHOWTIME_ID}" > /dev/null
+curl -sf -H 'Content-Type: application/json' -X POST "${BASE}/showtimes/update/${SHOWTIME_ID}" \
+    -d "{\"movieId\":${MOVIE_ID},\"theater\":\"${TITLE}\",\"startTime\":\"2099-01-01T10:00:00Z\",\"endTime\":\"2099-01-01T12:30:00Z\",\"price\":11.0}" > /dev/null
+
+BOOKING_ID=$(curl -sf -H 'Content-Type: application/json' -X POST "${BASE}/bookings" \
+    -d "{\"showtimeId\":${SHOWTIME_ID},\"userId\":\"84438967-f68f-4fa0-b620-0f08217e76af\",\"seatNumber\":1}" \
+    | sed -E 's/.*"bookingId":"([^"]+)".*/\1/')
+curl -sf "${BASE}/bookings" > /dev/null
+curl -sf "${BASE}/bookings/${BOOKING_ID}" > /dev/null
+curl -sf "${BASE}/bookings/showtime/${SHOWTIME_ID}" > /dev/null
+
+# Error paths: validation failure, business rule violation and not found
+expect() {
+    local status
+    status=$(curl -s -o /dev/null -w '%{http_code}' "${@:2}")
+    if [ "${status}" != "$1" ]; then
+        echo "Expected $1 but got ${status} for ${*:2}" >&2
+        exit 1
+    fi
+}
+expect 400 -H 'Content-Type: application/json' -X POST "${BASE}/movies" -d '{"title":""}'
+expect 400 -H 'Content-Type: application/json' -X POST "${BASE}/bookings" \
+    -d "{\"showtimeId\":${SHOWTIME_ID},\"userId\":\"84438967-f68f-4fa0-b620-0f08217e76af\",\"seatNumber\":1}"
+expect 404 "${BASE}/movies/999999999"
+
+curl -sf -X DELETE "${BASE}/bookings/${BOOKING_ID}" > /dev/null
+curl -sf -X DELETE "${BASE}/showtimes/${SHOWTIME_ID}" > /dev/null
+curl -sf -X DELETE "${BASE}/movies/${TITLE_PATH}" > /dev/null
@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Builds the JVM jar and the GraalVM native executable, then reports for each the
+# time to the first successful GET /movies/all and the resident set size after a
+# full pass of scripts/exercise-endpoints.sh.
+# Requires GraalVM (native-image on the PATH) and the PostgreSQL from compose.yml.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+PORT="${PORT:-8080}"
+BASE="http://localhost:${PORT}"
+
+./mvnw -B -q -DskipTests package
+cp target/popcorn-palace-0.0.1-SNAPSHOT.jar target/popcorn-palace-jvm.jar
+./mvnw -B -q -Pnative -DskipTests native:compile
+
+measure() {
+    local name="$1"
+    shift
+    local start elapsed pid rss
+    start=$(date +%s%N)
+    "$@" --server.port="${PORT}" --spring.profiles.active=prod > "target/${name}.log" 2>&1 &
+    pid=$!
+    until curl -sf "${BASE}/movies/all" > /dev/null; do
+        sleep 0.02
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    scripts/exercise-endpoints.sh "${BASE}"
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/${pid}/status")
+    kill -TERM "${pid}"
+    wait "${pid}" || true
+    printf '%-7s first GET /movies/all: %6d ms   RSS: %7d KiB\n' "${name}" "${elapsed}" "${rss}"
+}
+
+measure jvm java -jar target/popcorn-palace-jvm.jar
+measure native target/popcorn-palace
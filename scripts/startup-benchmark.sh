@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Reports the time from JVM launch to the first successful GET /movies/all.
+# Usage: scripts/startup-benchmark.sh [jvm|aot|cds] [runs]
+#   jvm - plain executable jar
+#   aot - AOT-processed jar (./mvnw -Pcds package)
+#   cds - AOT-processed jar with the archive from scripts/cds-training.sh
+# Requires the PostgreSQL instance from compose.yml to be running.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+MODE="${1:-cds}"
+RUNS="${2:-5}"
+PORT="${PORT:-8080}"
+JAR="popcorn-palace-0.0.1-SNAPSHOT.jar"
+
+case "${MODE}" in
+    jvm) CMD=(java -jar "target/${JAR}") ;;
+    aot) CMD=(java -Dspring.aot.enabled=true -jar "target/cds/${JAR}") ;;
+    cds) CMD=(java -XX:SharedArchiveFile=target/cds/app.jsa -Xshare:auto -Dspring.aot.enabled=true -jar "target/cds/${JAR}") ;;
+    *) echo "Unknown mode: ${MODE}" >&2; exit 1 ;;
+esac
+
+TOTAL=0
+for RUN in $(seq 1 "${RUNS}"); do
+    START=$(date +%s%N)
+    "${CMD[@]}" --server.port="${PORT}" --spring.profiles.active=prod > /dev/null 2>&1 &
+    PID=$!
+    until curl -sf "http://localhost:${PORT}/movies/all" > /dev/null; do
+        sleep 0.05
+    done
+    ELAPSED=$(( ($(date +%s%N) - START) / 1000000 ))
+    kill -TERM "${PID}"
+    wait "${PID}" || true
+    TOTAL=$(( TOTAL + ELAPSED ))
+    echo "${MODE} run ${RUN}: ${ELAPSED} ms"
+done
+
+echo "${MODE} average: $(( TOTAL / RUNS )) ms over ${RUNS} runs"
@@ -1,9 +1,18 @@
 package com.att.tdp.popcorn_palace;
 
+import com.att.tdp.popcorn_palace.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
-@SpringBootApplication
+// The R2DBC pool of the reactive profile is set up by ReactiveConfiguration; the auto-configured one
+// would also start without that profile, and its transaction manager would compete with JPA's
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class PopcornPalaceApplication {
 
 	public static void main(String[] args) {
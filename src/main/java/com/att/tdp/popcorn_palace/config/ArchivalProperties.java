@@ -0,0 +1,59 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+/**
+ * Archival of finished showtimes and their bookings
+ * @param enabled Whether this node moves finished showtimes to the archive tables
+ * @param age How long after its end a showtime is archived
+ * @param batchSize Showtimes moved per transaction
+ * @param batchPause Pause between two batches, which leaves the database to other work
+ * @param windowStart Local time of day at which archiving may start
+ * @param windowEnd Local time of day after which no new batch is started; may be before the
+ *                  start for a window that spans midnight, or equal to it for no restriction
+ * @param checkInterval How often the archiver looks for work while inside the window
+ */
+@ConfigurationProperties("popcorn-palace.archival")
+public record ArchivalProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("90d") Duration age,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("1s") Duration batchPause,
+        @DefaultValue("02:00") LocalTime windowStart,
+        @DefaultValue("06:00") LocalTime windowEnd,
+        @DefaultValue("15m") Duration checkInterval) {
+
+    public ArchivalProperties {
+        if (age.isNegative() || age.isZero()) {
+            throw new IllegalArgumentException("Archival age must be positive");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Archival batch size must be positive");
+        }
+        if (batchPause.isNegative()) {
+            throw new IllegalArgumentException("Archival batch pause cannot be negative");
+        }
+        if (checkInterval.isNegative() || checkInterval.isZero()) {
+            throw new IllegalArgumentException("Archival check interval must be positive");
+        }
+    }
+
+    /**
+     * Check whether a time of day falls inside the archival window
+     * @param time Local time of day
+     * @return true if a batch may start at that time
+     */
+    public boolean isInWindow(LocalTime time) {
+        if (windowStart.equals(windowEnd)) {
+            return true;
+        }
+        if (windowStart.isBefore(windowEnd)) {
+            return !time.isBefore(windowStart) && time.isBefore(windowEnd);
+        }
+        return !time.isBefore(windowStart) || time.isBefore(windowEnd);
+    }
+}
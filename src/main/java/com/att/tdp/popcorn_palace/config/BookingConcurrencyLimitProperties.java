@@ -0,0 +1,37 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Adaptive limit on the number of bookings in progress at once
+ * @param enabled Whether bookings over the limit are refused with 503 Service Unavailable
+ * @param initialLimit Limit at startup
+ * @param minLimit Limit never lowered below this
+ * @param maxLimit Limit never raised above this
+ * @param latencyThreshold Booking latency above which the limit is lowered
+ * @param backoffRatio Factor the limit is multiplied by when it is lowered
+ */
+@ConfigurationProperties("popcorn-palace.booking.concurrency-limit")
+public record BookingConcurrencyLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("2") int minLimit,
+        @DefaultValue("200") int maxLimit,
+        @DefaultValue("100ms") Duration latencyThreshold,
+        @DefaultValue("0.9") double backoffRatio) {
+
+    public BookingConcurrencyLimitProperties {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Booking concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (latencyThreshold.isNegative() || latencyThreshold.isZero()) {
+            throw new IllegalArgumentException("Booking latency threshold must be positive");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Booking backoff ratio must be between 0 and 1");
+        }
+    }
+}
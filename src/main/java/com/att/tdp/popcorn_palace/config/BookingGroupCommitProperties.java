@@ -0,0 +1,29 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Group commit of synchronous booking inserts
+ * @param enabled Whether concurrent bookings share one insert batch and commit
+ * @param maxBatchSize Largest number of bookings inserted in one commit
+ * @param maxWait How long a batch stays open for more bookings after the first one arrives; 0 only
+ *                takes the bookings that queued up during the previous commit
+ */
+@ConfigurationProperties("popcorn-palace.booking.group-commit")
+public record BookingGroupCommitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100") int maxBatchSize,
+        @DefaultValue("2ms") Duration maxWait) {
+
+    public BookingGroupCommitProperties {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Group commit batch size must be positive");
+        }
+        if (maxWait.isNegative()) {
+            throw new IllegalArgumentException("Group commit wait cannot be negative");
+        }
+    }
+}
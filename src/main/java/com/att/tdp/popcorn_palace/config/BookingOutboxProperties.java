@@ -0,0 +1,58 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Transactional outbox of booking events and their delivery to downstream systems
+ * @param enabled Whether booking writes record events and this node delivers them
+ * @param sink Where events are delivered
+ * @param file File the FILE sink appends events to, one JSON object per line
+ * @param webhookUrl URL the WEBHOOK sink posts each batch of events to, as a JSON array
+ * @param webhookTimeout Connect and read timeout of a webhook call
+ * @param batchSize Largest number of events delivered in one batch
+ * @param pollInterval How often the outbox is checked for new events
+ * @param retryDelay Pause after a failed delivery before the same events are tried again
+ * @param claimTimeout How long a batch stays with the node delivering it before another node may
+ *                     deliver it again, so a node that stops mid-delivery cannot hold up the outbox
+ */
+@ConfigurationProperties("popcorn-palace.booking.outbox")
+public record BookingOutboxProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("FILE") Sink sink,
+        @DefaultValue("data/outbox/booking-events.ndjson") Path file,
+        URI webhookUrl,
+        @DefaultValue("5s") Duration webhookTimeout,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("200ms") Duration pollInterval,
+        @DefaultValue("5s") Duration retryDelay,
+        @DefaultValue("1m") Duration claimTimeout) {
+
+    public enum Sink {
+        FILE,
+        WEBHOOK
+    }
+
+    public BookingOutboxProperties {
+        if (sink == Sink.WEBHOOK && webhookUrl == null) {
+            throw new IllegalArgumentException("Outbox webhook URL is required for the webhook sink");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Outbox batch size must be positive");
+        }
+        if (pollInterval.isNegative() || pollInterval.isZero()) {
+            throw new IllegalArgumentException("Outbox poll interval must be positive");
+        }
+        if (retryDelay.isNegative()) {
+            throw new IllegalArgumentException("Outbox retry delay cannot be negative");
+        }
+        // A batch must not be handed to another node while its webhook call may still succeed
+        if (claimTimeout.compareTo(webhookTimeout.multipliedBy(2)) <= 0) {
+            throw new IllegalArgumentException("Outbox claim timeout must be more than twice the webhook timeout");
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Write-behind booking persistence, where bookings are confirmed from a local journal and
+ * written to the database in batches
+ * @param enabled Whether bookings are written behind; when off every booking is saved synchronously
+ * @param journalDirectory Directory of the journal segment files; must survive restarts
+ * @param segmentSize Size of each of the two journal segment files
+ * @param batchSize Largest number of bookings written to the database in one transaction
+ * @param fullWait How long a booking waits for journal space before it fails
+ * @param leaseDuration How long this node's claim to be the only write-behind node lasts unless renewed
+ */
+@ConfigurationProperties("popcorn-palace.booking.write-behind")
+public record BookingWriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/journal") Path journalDirectory,
+        @DefaultValue("16MB") DataSize segmentSize,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("5s") Duration fullWait,
+        @DefaultValue("30s") Duration leaseDuration) {
+
+    public BookingWriteBehindProperties {
+        if (segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal segment size must be below 2GB");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Write-behind batch size must be positive");
+        }
+        if (leaseDuration.compareTo(Duration.ofSeconds(3)) < 0) {
+            throw new IllegalArgumentException("Write-behind lease duration must be at least 3s");
+        }
+    }
+}
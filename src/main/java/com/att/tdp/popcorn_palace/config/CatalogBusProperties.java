@@ -0,0 +1,33 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Cross-node catalog invalidation through PostgreSQL LISTEN/NOTIFY
+ * @param enabled Whether catalog writes are announced to, and received from, the other nodes; the
+ *                bus also runs whenever the cluster is enabled
+ * @param channel Notification channel shared by all nodes of one deployment
+ * @param reconnectDelay How long the listener waits before reconnecting after losing its connection
+ */
+@ConfigurationProperties("popcorn-palace.catalog-bus")
+public record CatalogBusProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("popcorn_palace_catalog") String channel,
+        @DefaultValue("5s") Duration reconnectDelay) {
+
+    // LISTEN takes an identifier, not a bind parameter
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+
+    public CatalogBusProperties {
+        if (!IDENTIFIER.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Catalog bus channel must be a lower-case SQL identifier");
+        }
+        if (reconnectDelay.isNegative() || reconnectDelay.isZero()) {
+            throw new IllegalArgumentException("Catalog bus reconnect delay must be positive");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * HTTP caching settings for the movie and showtime read endpoints
+ * @param maxAge How long browsers may reuse a response without revalidating
+ * @param sharedMaxAge How long shared caches such as the CDN edge may reuse a response
+ */
+@ConfigurationProperties("popcorn-palace.catalog-cache")
+public record CatalogCacheProperties(
+        @DefaultValue("0s") Duration maxAge,
+        @DefaultValue("30s") Duration sharedMaxAge) {
+
+    /**
+     * Build the Cache-Control header for catalog responses
+     * @return Public cache control with the configured lifetimes
+     */
+    public CacheControl toCacheControl() {
+        return CacheControl.maxAge(maxAge)
+                .sMaxAge(sharedMaxAge)
+                .cachePublic();
+    }
+}
@@ -0,0 +1,43 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Showtime ownership among the nodes of a deployment
+ * @param enabled Whether bookings are routed to the node that owns their showtime
+ * @param advertisedUrl Base URL at which the other nodes reach this one, such as http://10.0.0.5:8080
+ * @param heartbeatInterval How often this node refreshes its membership and reloads the member list
+ * @param memberTimeout How long a node may miss heartbeats before it loses its showtimes
+ * @param virtualNodes Points per node on the hash ring; more points spread showtimes more evenly
+ * @param forwardTimeout Connect and read timeout of a booking forwarded to its owner
+ * @param secret Key shared by all nodes, with which they sign the bookings they forward to each
+ *               other; set it from the environment (POPCORN_PALACE_CLUSTER_SECRET), not in a file
+ */
+@ConfigurationProperties("popcorn-palace.cluster")
+public record ClusterProperties(
+        @DefaultValue("false") boolean enabled,
+        String advertisedUrl,
+        @DefaultValue("2s") Duration heartbeatInterval,
+        @DefaultValue("10s") Duration memberTimeout,
+        @DefaultValue("100") int virtualNodes,
+        @DefaultValue("3s") Duration forwardTimeout,
+        String secret) {
+
+    public ClusterProperties {
+        if (enabled && (advertisedUrl == null || advertisedUrl.isBlank())) {
+            throw new IllegalArgumentException("Cluster advertised URL is required when the cluster is enabled");
+        }
+        if (memberTimeout.compareTo(heartbeatInterval.multipliedBy(2)) < 0) {
+            throw new IllegalArgumentException("Cluster member timeout must be at least two heartbeat intervals");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Cluster virtual nodes must be positive");
+        }
+        if (enabled && (secret == null || secret.length() < 32)) {
+            throw new IllegalArgumentException("Cluster secret of at least 32 characters is required when the cluster is enabled");
+        }
+    }
+}
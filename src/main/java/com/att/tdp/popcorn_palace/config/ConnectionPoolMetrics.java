@@ -0,0 +1,100 @@
+package com.att.tdp.popcorn_palace.config;
+
+import com.att.tdp.popcorn_palace.dto.ConnectionPoolStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection wait times, timeouts and usage of every Hikari pool in the context
+ * Registered as the metrics tracker of each HikariDataSource bean, whether auto-configured or
+ * one of the read replica pools. Waiting threads and a rising mean acquire time with few active
+ * connections point at the application; all connections active with long waits point at the
+ * pool or the database behind it.
+ */
+@Component
+public class ConnectionPoolMetrics implements MetricsTrackerFactory, BeanPostProcessor {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final ConcurrentMap<String, PoolTracker> pools = new ConcurrentSkipListMap<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource && dataSource.getMetricsTrackerFactory() == null) {
+            dataSource.setMetricsTrackerFactory(this);
+        }
+        return bean;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolTracker tracker = new PoolTracker(poolName, poolStats);
+        pools.put(poolName, tracker);
+        return tracker;
+    }
+
+    /**
+     * Get the usage of every started pool
+     * A pool opens its connections on first use, so it is missing until then
+     * @return Pool usage ordered by pool name
+     */
+    public List<ConnectionPoolStatus> status() {
+        return pools.values().stream().map(PoolTracker::status).toList();
+    }
+
+    private final class PoolTracker implements IMetricsTracker {
+        private final String poolName;
+        private final PoolStats stats;
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final AtomicLong maxAcquireNanos = new AtomicLong();
+        private final LongAdder timeouts = new LongAdder();
+
+        PoolTracker(String poolName, PoolStats stats) {
+            this.poolName = poolName;
+            this.stats = stats;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquired.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        @Override
+        public void close() {
+            pools.remove(poolName, this);
+        }
+
+        ConnectionPoolStatus status() {
+            long count = acquired.sum();
+            return new ConnectionPoolStatus(
+                    poolName,
+                    stats.getActiveConnections(),
+                    stats.getIdleConnections(),
+                    stats.getTotalConnections(),
+                    stats.getMaxConnections(),
+                    stats.getPendingThreads(),
+                    count,
+                    count == 0 ? 0 : acquireNanos.sum() / NANOS_PER_MILLI / count,
+                    maxAcquireNanos.get() / NANOS_PER_MILLI,
+                    timeouts.sum());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.att.tdp.popcorn_palace.config;
+
+import com.att.tdp.popcorn_palace.dto.BookingEvent;
+import com.att.tdp.popcorn_palace.dto.BookingResponse;
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMovieResponse;
+import com.att.tdp.popcorn_palace.dto.UserBookingResponse;
+import com.att.tdp.popcorn_palace.exception.ErrorResponse;
+import com.att.tdp.popcorn_palace.model.Booking;
+import com.att.tdp.popcorn_palace.model.Movie;
+import com.att.tdp.popcorn_palace.model.Showtime;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Runtime hints for the GraalVM native image
+ * Covers what Spring's AOT processing does not infer on its own
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> REFLECTIVE_TYPES = List.of(
+            Movie.class, Showtime.class, Booking.class, ErrorResponse.class,
+            MovieResponse.class, ShowtimeResponse.class, ShowtimeWithMovieResponse.class, BookingResponse.class,
+            UserBookingResponse.class, BookingEvent.class);
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Entities are bound by Jackson, checked by Hibernate Validator and hydrated by Hibernate;
+        // response records are instantiated by JPQL constructor expressions, and booking events are
+        // serialized by the outbox sinks outside of any controller
+        for (Class<?> type : REFLECTIVE_TYPES) {
+            hints.reflection().registerType(type, MemberCategory.values());
+        }
+
+        // Boot only registers the default Flyway location
+        hints.resources().registerPattern("db/demo/*.sql");
+        hints.resources().registerPattern("db/postgresql/*.sql");
+        hints.resources().registerPattern("db/partitioning/*.sql");
+    }
+}
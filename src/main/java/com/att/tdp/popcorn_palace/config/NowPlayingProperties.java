@@ -0,0 +1,26 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the now-playing schedule snapshot
+ * @param horizon How far ahead of now the snapshot reaches, and the longest span a client may ask for
+ * @param refreshInterval How often the snapshot is rebuilt when nothing is written
+ */
+@ConfigurationProperties("popcorn-palace.now-playing")
+public record NowPlayingProperties(
+        @DefaultValue("24h") Duration horizon,
+        @DefaultValue("1m") Duration refreshInterval) {
+
+    public NowPlayingProperties {
+        if (horizon.isNegative() || horizon.isZero()) {
+            throw new IllegalArgumentException("Now-playing horizon must be positive");
+        }
+        if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("Now-playing refresh interval must be positive");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Maintenance of the monthly showtime and booking partitions, which need PostgreSQL
+ * @param enabled Whether this node creates and detaches partitions
+ * @param monthsAhead Months after the current one that must have their partitions
+ * @param retainedMonths Months before the current one whose partitions stay attached
+ * @param checkInterval How often the partitions are checked
+ */
+@ConfigurationProperties("popcorn-palace.partitioning")
+public record PartitioningProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("3") int monthsAhead,
+        @DefaultValue("24") int retainedMonths,
+        @DefaultValue("6h") Duration checkInterval) {
+
+    public PartitioningProperties {
+        if (monthsAhead < 1) {
+            throw new IllegalArgumentException("Partitioning months ahead must be positive");
+        }
+        if (retainedMonths < 1) {
+            throw new IllegalArgumentException("Partitioning retained months must be positive");
+        }
+        if (checkInterval.isNegative() || checkInterval.isZero()) {
+            throw new IllegalArgumentException("Partitioning check interval must be positive");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Per-client request limits of the booking endpoints
+ * @param enabled Whether requests over a client's limit are rejected with 429 Too Many Requests
+ * @param maxClients Largest number of clients tracked per endpoint; idle clients are evicted first
+ * @param createBooking Limit of POST /bookings, applied per client IP and per user id
+ * @param showtimeBookings Limit of GET /bookings/showtime/{showtimeId}, applied per client IP
+ */
+@ConfigurationProperties("popcorn-palace.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100000") int maxClients,
+        Limit createBooking,
+        Limit showtimeBookings) {
+
+    /**
+     * Token bucket of one endpoint
+     * @param capacity Requests a client may make in a burst
+     * @param refillInterval Time in which one request is added back, up to the capacity
+     */
+    public record Limit(int capacity, Duration refillInterval) {
+
+        public Limit {
+            if (capacity < 1) {
+                throw new IllegalArgumentException("Rate limit capacity must be positive");
+            }
+            if (refillInterval == null || refillInterval.toMillis() < 1) {
+                throw new IllegalArgumentException("Rate limit refill interval must be at least 1ms");
+            }
+        }
+    }
+
+    public RateLimitProperties {
+        if (maxClients < 1) {
+            throw new IllegalArgumentException("Rate limit max clients must be positive");
+        }
+        if (createBooking == null) {
+            createBooking = new Limit(5, Duration.ofSeconds(2));
+        }
+        if (showtimeBookings == null) {
+            showtimeBookings = new Limit(20, Duration.ofMillis(100));
+        }
+    }
+}
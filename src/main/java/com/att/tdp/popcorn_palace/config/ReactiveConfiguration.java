@@ -0,0 +1,74 @@
+package com.att.tdp.popcorn_palace.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import java.util.List;
+
+/**
+ * R2DBC connection pool of the reactive booking and showtime APIs
+ * Active only in a reactive web application, which the reactive profile selects. The pool takes
+ * the spring.r2dbc settings, pool size included. Features that only hook into the servlet booking
+ * path are refused at startup rather than silently left out.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveConfiguration {
+
+    private static final List<String> SERVLET_ONLY_FEATURES = List.of(
+            "popcorn-palace.cluster.enabled",
+            "popcorn-palace.rate-limit.enabled",
+            "popcorn-palace.booking.concurrency-limit.enabled",
+            "popcorn-palace.booking.write-behind.enabled",
+            "popcorn-palace.booking.outbox.enabled");
+
+    public ReactiveConfiguration(Environment environment) {
+        for (String feature : SERVLET_ONLY_FEATURES) {
+            if (environment.getProperty(feature, Boolean.class, false)) {
+                throw new IllegalArgumentException(feature + " is not supported by the reactive profile");
+            }
+        }
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool connectionFactory(R2dbcProperties properties) {
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        R2dbcProperties.Pool pool = properties.getPool();
+        ConnectionPoolConfiguration.Builder configuration = ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("reactive")
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime());
+        if (pool.getMaxAcquireTime() != null) {
+            configuration.maxAcquireTime(pool.getMaxAcquireTime());
+        }
+        return new ConnectionPool(configuration.build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactions(ConnectionFactory connectionFactory) {
+        // The transaction manager stays out of the context: a second one would leave @Transactional
+        // unable to choose between it and JPA's
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
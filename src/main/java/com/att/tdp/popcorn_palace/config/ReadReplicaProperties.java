@@ -0,0 +1,35 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Read replica that serves the read-only service methods
+ * @param enabled Whether read-only transactions of HTTP requests go to the replica
+ * @param url JDBC URL of the replica
+ * @param username Replica user name
+ * @param password Replica password
+ * @param maximumPoolSize Largest number of replica connections
+ * @param stickiness How long a client keeps reading from the primary after a write of its own,
+ *                   which must cover the usual replication lag
+ */
+@ConfigurationProperties("popcorn-palace.read-replica")
+public record ReadReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        String url,
+        String username,
+        String password,
+        @DefaultValue("10") int maximumPoolSize,
+        @DefaultValue("5s") Duration stickiness) {
+
+    public ReadReplicaProperties {
+        if (enabled && (url == null || url.isBlank())) {
+            throw new IllegalArgumentException("Read replica URL is required when the read replica is enabled");
+        }
+        if (stickiness.isNegative()) {
+            throw new IllegalArgumentException("Read replica stickiness cannot be negative");
+        }
+    }
+}
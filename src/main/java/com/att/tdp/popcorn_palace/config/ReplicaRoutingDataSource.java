@@ -0,0 +1,72 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends the read-only transactions of HTTP requests to the replica and everything else to the primary
+ * Must sit behind a LazyConnectionDataSourceProxy, so that the connection is chosen at the first
+ * statement, once the transaction's read-only flag is known.
+ *
+ * Read-only work outside a request stays on the primary. So does a request carrying
+ * READ_PRIMARY_ATTRIBUTE, set for clients that just wrote, and any read made through
+ * readFromPrimary: reads labelled with a CatalogVersions tag, and cache rebuilds, since a lagging
+ * replica would pair a new tag with old rows or leave the cache stale until the next write.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Request attribute that keeps a request's reads on the primary
+     */
+    public static final String READ_PRIMARY_ATTRIBUTE = ReplicaRoutingDataSource.class.getName() + ".READ_PRIMARY";
+
+    private static final ThreadLocal<Boolean> READ_PRIMARY = new ThreadLocal<>();
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Run reads on the primary, whether or not they are made for a request
+     * CatalogVersions counts the writes committed on the primary, so whatever is labelled with its
+     * tag has to be read from there. Without a read replica this only runs the reads.
+     * @param reads Reads to run; transactions must begin inside, since the connection is chosen then
+     * @return Result of the reads
+     */
+    public static <T> T readFromPrimary(Supplier<T> reads) {
+        boolean outermost = READ_PRIMARY.get() == null;
+        READ_PRIMARY.set(Boolean.TRUE);
+        try {
+            return reads.get();
+        } finally {
+            if (outermost) {
+                READ_PRIMARY.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || READ_PRIMARY.get() != null) {
+            return Target.PRIMARY;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null || request.getAttribute(READ_PRIMARY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+}
@@ -0,0 +1,24 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * gzip settings for JSON responses
+ * @param enabled Whether responses are compressed at all
+ * @param minResponseSize Smallest body worth compressing
+ * @param level Deflate level, 1 (fastest) to 9 (smallest)
+ */
+@ConfigurationProperties("popcorn-palace.compression")
+public record ResponseCompressionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2KB") DataSize minResponseSize,
+        @DefaultValue("1") int level) {
+
+    public ResponseCompressionProperties {
+        if (level < 1 || level > 9) {
+            throw new IllegalArgumentException("Compression level must be between 1 and 9");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * In-memory cache of upcoming showtimes used by the showtime query API
+ * @param hotWindow How far ahead of now the cached showtimes reach
+ * @param refreshInterval How long a cached window is used before it is reloaded to slide forward
+ */
+@ConfigurationProperties("popcorn-palace.showtime-window")
+public record ShowtimeWindowProperties(
+        @DefaultValue("48h") Duration hotWindow,
+        @DefaultValue("5m") Duration refreshInterval) {
+
+    public ShowtimeWindowProperties {
+        if (hotWindow.isNegative() || hotWindow.isZero()) {
+            throw new IllegalArgumentException("Hot window must be positive");
+        }
+    }
+}
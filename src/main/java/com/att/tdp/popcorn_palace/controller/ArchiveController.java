@@ -0,0 +1,59 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.dto.BookingResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimePage;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.service.ArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/archive")
+public class ArchiveController {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private final ArchiveService archiveService;
+
+    @Autowired
+    public ArchiveController(ArchiveService archiveService) {
+        this.archiveService = archiveService;
+    }
+
+    /**
+     * Query archived showtimes by movie, theater and start time window
+     * Pages the same way as GET /showtimes, with a Link header with rel="next" to the following page
+     * @param movieId Movie id
+     * @param theater Theater name
+     * @param from Earliest start time, inclusive
+     * @param to Latest start time, exclusive
+     * @param cursor Cursor of the page to return, taken from the previous page's Link header
+     * @param limit Maximum number of showtimes per page
+     * @return Matching archived showtimes ordered by start time
+     */
+    @GetMapping("/showtimes")
+    public ResponseEntity<List<ShowtimeResponse>> getShowtimes(
+            @RequestParam(required = false) Long movieId,
+            @RequestParam(required = false) String theater,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        ShowtimePage page = archiveService.findShowtimes(movieId, theater, from, to, cursor, limit);
+        return PageLinks.next(ResponseEntity.ok(), page.nextCursor()).body(page.showtimes());
+    }
+
+    /**
+     * Get the bookings of an archived showtime
+     * @param showtimeId Showtime id
+     * @return Archived bookings ordered by seat number
+     */
+    @GetMapping("/showtimes/{showtimeId}/bookings")
+    public ResponseEntity<List<BookingResponse>> getBookings(@PathVariable Long showtimeId) {
+        return ResponseEntity.ok(archiveService.getBookingsByShowtimeId(showtimeId));
+    }
+}
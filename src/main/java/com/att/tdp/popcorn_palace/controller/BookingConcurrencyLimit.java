@@ -0,0 +1,118 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.config.BookingConcurrencyLimitProperties;
+import com.att.tdp.popcorn_palace.dto.BookingLimitStatus;
+import com.att.tdp.popcorn_palace.exception.ServiceOverloadedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive limit on bookings in progress, enabled with popcorn-palace.booking.concurrency-limit.enabled
+ * The limit follows the measured booking latency, additive increase / multiplicative decrease:
+ * a booking slower than the threshold, or failing on the database, multiplies it by the backoff
+ * ratio, and while bookings are fast and the limit is in use it grows by one per limit's worth of
+ * bookings. Once the database slows down, bookings over the limit are refused at once instead of
+ * queueing for a connection.
+ *
+ * Bookings that started before the last decrease do not lower the limit again, so one slow
+ * burst lowers it once rather than once per booking.
+ */
+@Component
+@ConditionalOnProperty(prefix = "popcorn-palace.booking.concurrency-limit", name = "enabled", havingValue = "true")
+public class BookingConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    // Guarded by this
+    private double estimate;
+    private long lastDecreaseNanos;
+
+    private volatile int limit;
+
+    @Autowired
+    public BookingConcurrencyLimit(BookingConcurrencyLimitProperties properties) {
+        this.minLimit = properties.minLimit();
+        this.maxLimit = properties.maxLimit();
+        this.latencyThresholdNanos = properties.latencyThreshold().toNanos();
+        this.backoffRatio = properties.backoffRatio();
+        this.estimate = properties.initialLimit();
+        this.limit = properties.initialLimit();
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Run a booking if the limit allows another one
+     * @param booking Call that books, typically through BookingService
+     * @return Result of the call
+     * @throws ServiceOverloadedException if the limit is reached
+     */
+    public <T> T execute(Supplier<T> booking) {
+        if (!tryAcquire()) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Too many bookings in progress; try again shortly");
+        }
+        long start = System.nanoTime();
+        boolean dropped = false;
+        try {
+            return booking.get();
+        } catch (RuntimeException e) {
+            // A refused booking (seat taken, unknown showtime) says nothing about database load
+            dropped = !(e instanceof IllegalArgumentException);
+            throw e;
+        } finally {
+            int current = inFlight.getAndDecrement();
+            onSample(start, System.nanoTime() - start, current, dropped);
+        }
+    }
+
+    public BookingLimitStatus status() {
+        return new BookingLimitStatus(limit, inFlight.get(), rejected.sum());
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    /**
+     * Adjust the limit after a booking finished
+     * @param startNanos System.nanoTime() when the booking started
+     * @param latencyNanos Time the booking took
+     * @param inFlight Bookings in progress when it finished, itself included
+     * @param dropped Whether it failed for a reason other than a business rule
+     */
+    synchronized void onSample(long startNanos, long latencyNanos, int inFlight, boolean dropped) {
+        if (dropped || latencyNanos > latencyThresholdNanos) {
+            if (startNanos - lastDecreaseNanos < 0) {
+                return;
+            }
+            estimate = Math.max(minLimit, estimate * backoffRatio);
+            lastDecreaseNanos = startNanos + latencyNanos;
+        } else if (inFlight * 2 >= estimate) {
+            // Raising the limit while most of it is unused would only let a later burst through
+            estimate = Math.min(maxLimit, estimate + 1 / estimate);
+        }
+        limit = (int) estimate;
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.att.tdp.popcorn_palace.controller;
 
+import com.att.tdp.popcorn_palace.dto.BookingResponse;
+import com.att.tdp.popcorn_palace.dto.UserBookingPage;
+import com.att.tdp.popcorn_palace.dto.UserBookingResponse;
 import com.att.tdp.popcorn_palace.model.Booking;
 import com.att.tdp.popcorn_palace.service.BookingService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -15,13 +21,25 @@ import java.util.Optional;
 
 @RestController
 @RequestMapping("/bookings")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookingController {
 
     private final BookingService bookingService;
+    // Present only when showtime ownership is enabled
+    private final BookingForwarder forwarder;
+    // Present only when rate limiting is enabled
+    private final BookingRateLimiter rateLimiter;
+    // Present only when the booking concurrency limit is enabled
+    private final BookingConcurrencyLimit concurrencyLimit;
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, @Nullable BookingForwarder forwarder,
+                             @Nullable BookingRateLimiter rateLimiter,
+                             @Nullable BookingConcurrencyLimit concurrencyLimit) {
         this.bookingService = bookingService;
+        this.forwarder = forwarder;
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimit = concurrencyLimit;
     }
 
     /**
@@ -29,8 +47,8 @@ public class BookingController {
      * @return List of all bookings
      */
     @GetMapping
-    public ResponseEntity<List<Booking>> getAllBookings() {
-        List<Booking> bookings = bookingService.getAllBookings();
+    public ResponseEntity<List<BookingResponse>> getAllBookings() {
+        List<BookingResponse> bookings = bookingService.getAllBookings();
         return new ResponseEntity<>(bookings, HttpStatus.OK);
     }
 
@@ -40,8 +58,8 @@ public class BookingController {
      * @return Booking if found, 404 Not Found otherwise
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Booking> getBookingById(@PathVariable String id) {
-        Optional<Booking> booking = bookingService.getBookingById(id);
+    public ResponseEntity<BookingResponse> getBookingById(@PathVariable String id) {
+        Optional<BookingResponse> booking = bookingService.getBookingById(id);
         return booking.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
@@ -49,22 +67,67 @@ public class BookingController {
     /**
      * Get all bookings for a specific showtime
      * @param showtimeId Showtime id
-     * @return List of bookings for the showtime
+     * @param request Request, for the client IP
+     * @return List of bookings for the showtime, or 429 Too Many Requests over the client's limit
      */
     @GetMapping("/showtime/{showtimeId}")
-    public ResponseEntity<List<Booking>> getBookingsByShowtimeId(@PathVariable Long showtimeId) {
-        List<Booking> bookings = bookingService.getBookingsByShowtimeId(showtimeId);
+    public ResponseEntity<List<BookingResponse>> getBookingsByShowtimeId(@PathVariable Long showtimeId,
+                                                                         HttpServletRequest request) {
+        if (rateLimiter != null) {
+            rateLimiter.checkShowtimeBookings(request.getRemoteAddr());
+        }
+        List<BookingResponse> bookings = bookingService.getBookingsByShowtimeId(showtimeId);
         return new ResponseEntity<>(bookings, HttpStatus.OK);
     }
 
+    /**
+     * Get a user's bookings with their showtimes, most recent first
+     * Returned one page at a time; a Link header with rel="next" points to the following page
+     * @param userId User id
+     * @param cursor Cursor of the page to return, taken from the previous page's Link header
+     * @param limit Maximum number of bookings per page
+     * @return Bookings of the user with showtime details
+     */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<UserBookingResponse>> getBookingsByUserId(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        UserBookingPage page = bookingService.getBookingsByUserId(userId, cursor, limit);
+        return PageLinks.next(ResponseEntity.ok(), page.nextCursor()).body(page.bookings());
+    }
+
     /**
      * Create a new booking
+     * In a cluster the booking is forwarded to the node that owns its showtime, and that node's
+     * response is returned
      * @param booking Booking to create
-     * @return Created booking with generated id
+     * @param forwardedBy Signed id of the node that forwarded the booking, if any; ignored unless the
+     *                    signature matches, as anyone can send the header
+     * @param request Request, for the client IP
+     * @return Created booking with generated id, 429 Too Many Requests over the client's limit, or
+     *         503 Service Unavailable while the database is overloaded
      */
     @PostMapping
-    public ResponseEntity<?> createBooking(@Valid @RequestBody Booking booking) {
-        Booking createdBooking = bookingService.createBooking(booking);
+    public ResponseEntity<?> createBooking(
+            @Valid @RequestBody Booking booking,
+            @RequestHeader(value = BookingForwarder.FORWARDED_HEADER, required = false) String forwardedBy,
+            HttpServletRequest request) {
+        boolean forwarded = forwarder != null && forwarder.isForwarded(forwardedBy, booking);
+        // A forwarded booking was counted by the node the client sent it to
+        if (rateLimiter != null && !forwarded) {
+            rateLimiter.checkCreateBooking(request.getRemoteAddr(), booking.getUserId());
+        }
+        // A forwarded booking stays here even if this node no longer sees itself as the owner
+        if (forwarder != null && !forwarded) {
+            ResponseEntity<byte[]> ownerResponse = forwarder.forward(booking);
+            if (ownerResponse != null) {
+                return ownerResponse;
+            }
+        }
+        Booking createdBooking = concurrencyLimit != null
+                ? concurrencyLimit.execute(() -> bookingService.createBooking(booking))
+                : bookingService.createBooking(booking);
         Map<String, String> response = new HashMap<>();
         response.put("bookingId", createdBooking.getId());
         return new ResponseEntity<>(response, HttpStatus.OK);
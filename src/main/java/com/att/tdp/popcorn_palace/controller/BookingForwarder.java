@@ -0,0 +1,197 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.config.ClusterProperties;
+import com.att.tdp.popcorn_palace.exception.ServiceOverloadedException;
+import com.att.tdp.popcorn_palace.model.Booking;
+import com.att.tdp.popcorn_palace.service.ClusterMembership;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sends a booking to the node that owns its showtime
+ * Keeping each showtime's bookings on one node means concurrent requests for its seats no longer
+ * race each other across nodes. The unique seat constraint still settles any booking made while
+ * the nodes disagree on an owner, such as right after a join or leave.
+ */
+@Component
+@ConditionalOnProperty(prefix = "popcorn-palace.cluster", name = "enabled", havingValue = "true")
+public class BookingForwarder {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingForwarder.class);
+
+    /**
+     * Marks a forwarded booking, which its receiver handles itself instead of forwarding it again
+     * The value is the forwarding node's id and a signature of the booking with the cluster secret,
+     * as nodeId;signature, so that clients cannot set it to skip rate limiting
+     */
+    public static final String FORWARDED_HEADER = "X-Popcorn-Palace-Forwarded-By";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    // Lower case; RFC 9110 section 7.6.1, plus the length, which follows the relayed body
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-connection",
+            "proxy-authenticate", "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade",
+            "content-length");
+
+    private final ClusterMembership membership;
+    private final RestClient restClient;
+    private final SecretKeySpec key;
+
+    @Autowired
+    public BookingForwarder(ClusterMembership membership, RestClient.Builder restClientBuilder,
+                            ClusterProperties properties) {
+        this(membership, restClientBuilder.requestFactory(requestFactory(properties)).build(), properties.secret());
+    }
+
+    BookingForwarder(ClusterMembership membership, RestClient restClient, String secret) {
+        this.membership = membership;
+        this.restClient = restClient;
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    /**
+     * Check whether a booking was forwarded by another node of the cluster
+     * A replayed header only fits the very booking it was signed for, which the seat constraint
+     * lets through at most once.
+     * @param forwardedBy Value of the forwarded header, if any
+     * @param booking Booking as received
+     * @return true if the header carries a valid signature of this booking
+     */
+    public boolean isForwarded(String forwardedBy, Booking booking) {
+        if (forwardedBy == null) {
+            return false;
+        }
+        int separator = forwardedBy.lastIndexOf(';');
+        if (separator < 0) {
+            return false;
+        }
+        byte[] expected = sign(forwardedBy.substring(0, separator), booking).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = forwardedBy.substring(separator + 1).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    /**
+     * Forward a booking to the owner of its showtime unless this node is the owner
+     * @param booking Booking as received
+     * @return Owner's response with its end-to-end headers, relayed as is, or null if the booking
+     * should be handled here
+     * @throws ServiceOverloadedException if the owner was reached but did not answer in time, so the
+     * booking may or may not have been made there
+     */
+    public ResponseEntity<byte[]> forward(Booking booking) {
+        ClusterMembership.Member owner = membership.ownerOf(booking.getShowtimeId());
+        if (owner == null || owner.equals(membership.self())) {
+            return null;
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("showtimeId", booking.getShowtimeId());
+        body.put("userId", booking.getUserId());
+        body.put("seatNumber", booking.getSeatNumber());
+        try {
+            return restClient.post()
+                    .uri(owner.baseUrl() + "/bookings")
+                    .header(FORWARDED_HEADER, forwardedBy(membership.self().nodeId(), booking))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body)
+                    .exchange((request, response) -> ResponseEntity.status(response.getStatusCode())
+                            .headers(endToEndHeaders(response.getHeaders()))
+                            .body(StreamUtils.copyToByteArray(response.getBody())));
+        } catch (ResourceAccessException e) {
+            if (neverConnected(e)) {
+                // The owner is gone; it drops out of the ring once its heartbeats expire
+                log.warn("Owner {} of showtime {} is unreachable, booking locally", owner, booking.getShowtimeId(), e);
+                return null;
+            }
+            // The request may have reached the owner, which could still commit it; booking here as
+            // well could sell the seat twice, so the client has to retry
+            log.warn("Owner {} of showtime {} did not answer in time", owner, booking.getShowtimeId(), e);
+            throw new ServiceOverloadedException("Booking could not be confirmed, please retry");
+        }
+    }
+
+    /**
+     * Whether a failed forward is known not to have reached the owner
+     * A connect timeout cannot be told apart from a read timeout by its exception, so it is treated
+     * as one; the owner may then answer 503 until it drops out of the ring.
+     */
+    static boolean neverConnected(ResourceAccessException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException || cause instanceof NoRouteToHostException
+                    || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Select the headers of the owner's response that are relayed to the client
+     * Hop-by-hop headers describe the connection to the owner, not the response, and the length
+     * is set again for the relayed body; everything else, such as Retry-After of a 429 or 503,
+     * reaches the client as the owner sent it.
+     */
+    static HttpHeaders endToEndHeaders(HttpHeaders received) {
+        Set<String> excluded = new HashSet<>(HOP_BY_HOP_HEADERS);
+        // Connection may name further headers that only apply to this hop
+        for (String option : received.getConnection()) {
+            excluded.add(option.trim().toLowerCase(Locale.ROOT));
+        }
+        HttpHeaders headers = new HttpHeaders();
+        received.forEach((name, values) -> {
+            if (!excluded.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
+    String forwardedBy(String nodeId, Booking booking) {
+        return nodeId + ";" + sign(nodeId, booking);
+    }
+
+    private String sign(String nodeId, Booking booking) {
+        String content = nodeId + "\n" + booking.getShowtimeId() + "\n" + booking.getUserId() + "\n"
+                + booking.getSeatNumber();
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign forwarded bookings", e);
+        }
+    }
+
+    private static SimpleClientHttpRequestFactory requestFactory(ClusterProperties properties) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.forwardTimeout());
+        requestFactory.setReadTimeout(properties.forwardTimeout());
+        return requestFactory;
+    }
+}
@@ -0,0 +1,64 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.config.RateLimitProperties;
+import com.att.tdp.popcorn_palace.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Per-client limits of the booking endpoints, enabled with popcorn-palace.rate-limit.enabled
+ * Every client gets its own token bucket, so one client sending requests in a loop uses up its
+ * own share instead of everyone's. Requests are checked in the controller before any database
+ * access. Limits are kept in memory per node.
+ *
+ * The client IP is the connection's remote address; behind a load balancer the prod profile sets
+ * server.forward-headers-strategy so that it is taken from X-Forwarded-For.
+ */
+@Component
+@ConditionalOnProperty(prefix = "popcorn-palace.rate-limit", name = "enabled", havingValue = "true")
+public class BookingRateLimiter {
+
+    private final TokenBuckets createBooking;
+    private final TokenBuckets showtimeBookings;
+
+    @Autowired
+    public BookingRateLimiter(RateLimitProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    BookingRateLimiter(RateLimitProperties properties, Clock clock) {
+        this.createBooking = new TokenBuckets(properties.createBooking(), properties.maxClients(), clock);
+        this.showtimeBookings = new TokenBuckets(properties.showtimeBookings(), properties.maxClients(), clock);
+    }
+
+    /**
+     * Count a booking request against both its client IP and its user
+     * A request refused by one of them does not use up a token of the other.
+     * @param clientIp Address the request came from
+     * @param userId User the booking is for
+     * @throws TooManyRequestsException if either has used up its limit
+     */
+    public void checkCreateBooking(String clientIp, String userId) {
+        check(createBooking, "ip:" + clientIp, "user:" + userId);
+    }
+
+    /**
+     * Count a request for a showtime's bookings against its client IP
+     * @param clientIp Address the request came from
+     * @throws TooManyRequestsException if the IP has used up its limit
+     */
+    public void checkShowtimeBookings(String clientIp) {
+        check(showtimeBookings, "ip:" + clientIp);
+    }
+
+    private static void check(TokenBuckets buckets, String... clients) {
+        long wait = buckets.tryAcquireAll(clients);
+        if (wait > 0) {
+            throw new TooManyRequestsException("Too many requests; try again later", Duration.ofMillis(wait));
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.att.tdp.popcorn_palace.controller;
+
+/**
+ * Helpers for answering conditional requests from entity tags
+ */
+final class ConditionalGet {
+
+    // Appended to a strong tag for the gzip-compressed variant, which a strong tag must tell apart
+    static final String GZIP_SUFFIX = "-gzip";
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Check an If-None-Match header against the current entity tag
+     * Uses the weak comparison that RFC 9110 prescribes for If-None-Match. The gzip variant of the
+     * tag matches too, since it names the same content
+     * @param ifNoneMatch If-None-Match header value, may be null
+     * @param eTag Current entity tag, unquoted
+     * @return The client's matching tag, unquoted, for the 304 Not Modified; null if its copy is not current
+     */
+    static String notModifiedTag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return null;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            if (candidate.trim().equals("*")) {
+                return eTag;
+            }
+            String tag = opaqueTag(candidate);
+            if (tag != null && withoutGzipSuffix(tag).equals(eTag)) {
+                return tag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Build the entity tag of a single row
+     * The row version comes first, which is what an update takes in If-Match; the catalog tag it was
+     * read under follows, so that while the table has not changed since, a later If-None-Match can
+     * be answered without reading the row
+     * @param version Row version
+     * @param catalogTag Catalog tag read before the row
+     * @return Entity tag, unquoted, such as 3.s-1-7
+     */
+    static String rowTag(long version, String catalogTag) {
+        return version + "." + catalogTag;
+    }
+
+    /**
+     * Find a row tag in an If-None-Match header that was issued under the current catalog tag
+     * No write to the table has been made since such a tag was issued, so the row is unchanged
+     * @param ifNoneMatch If-None-Match header value, may be null
+     * @param catalogTag Current catalog tag
+     * @return The matching row tag, unquoted, or null if there is none
+     */
+    static String unchangedRowTag(String ifNoneMatch, String catalogTag) {
+        if (ifNoneMatch == null || catalogTag == null) {
+            return null;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = opaqueTag(candidate);
+            if (tag != null && withoutGzipSuffix(tag).endsWith("." + catalogTag) && isVersion(versionPart(tag))) {
+                return tag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check an If-None-Match header against the version of a row
+     * @param ifNoneMatch If-None-Match header value, may be null
+     * @param version Current row version
+     * @return true if the client holds a tag of this version, whatever catalog tag it was issued under
+     */
+    static boolean isNotModified(String ifNoneMatch, long version) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            if (candidate.trim().equals("*")) {
+                return true;
+            }
+            String tag = opaqueTag(candidate);
+            if (tag != null && versionPart(tag).equals(Long.toString(version))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read the row version an update is based on from its If-Match header
+     * Row versions are sent as strong tags such as "3", or "3.s-1-7" as returned by a GET of the
+     * row, with or without the gzip suffix; If-Match requires the strong comparison, so weak tags and lists are rejected rather than
+     * guessed at
+     * @param ifMatch If-Match header value, may be null
+     * @return Expected version, or null if the update is unconditional (no header, or *)
+     * @throws IllegalArgumentException if the header is not a single quoted row tag
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            String version = versionPart(tag.substring(1, tag.length() - 1));
+            if (isVersion(version)) {
+                return Long.parseLong(version);
+            }
+        }
+        throw new IllegalArgumentException("If-Match must be a single version tag such as \"3\", got: " + ifMatch);
+    }
+
+    /**
+     * Derive the ETag header of the gzip-compressed variant of a response
+     * @param eTag ETag header value of the uncompressed response
+     * @return ETag header value for the compressed body; weak tags already cover both codings and
+     * are returned as is
+     */
+    static String gzipVariant(String eTag) {
+        if (eTag.length() < 2 || !eTag.startsWith("\"") || !eTag.endsWith("\"")) {
+            return eTag;
+        }
+        return eTag.substring(0, eTag.length() - 1) + GZIP_SUFFIX + "\"";
+    }
+
+    /**
+     * Strip the weakness marker and quotes from one entry of an If-None-Match list
+     * @return Opaque tag, or null if the entry is not a quoted tag
+     */
+    private static String opaqueTag(String candidate) {
+        String tag = candidate.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        return tag.substring(1, tag.length() - 1);
+    }
+
+    private static String withoutGzipSuffix(String tag) {
+        return tag.endsWith(GZIP_SUFFIX) ? tag.substring(0, tag.length() - GZIP_SUFFIX.length()) : tag;
+    }
+
+    private static String versionPart(String tag) {
+        String identityTag = withoutGzipSuffix(tag);
+        int separator = identityTag.indexOf('.');
+        return separator < 0 ? identityTag : identityTag.substring(0, separator);
+    }
+
+    private static boolean isVersion(String value) {
+        // At most 18 digits, which always fit a long
+        return value.matches("\\d{1,18}");
+    }
+
+    /**
+     * Check whether the client accepts a gzip-encoded response
+     * @param acceptEncoding Accept-Encoding header value, may be null
+     * @return true if gzip is listed without a zero quality value
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,38 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.config.ConnectionPoolMetrics;
+import com.att.tdp.popcorn_palace.dto.DatabaseStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Connection pool usage and booking admission of this node, at /actuator/database
+ * Served on the management port rather than next to the public API, as it tells anyone who can
+ * reach it how close the node is to overload.
+ */
+@Component
+@Endpoint(id = "database")
+public class DatabaseEndpoint {
+
+    private final ConnectionPoolMetrics poolMetrics;
+    // Present only when the booking concurrency limit is enabled
+    private final BookingConcurrencyLimit bookingLimit;
+
+    @Autowired
+    public DatabaseEndpoint(ConnectionPoolMetrics poolMetrics, @Nullable BookingConcurrencyLimit bookingLimit) {
+        this.poolMetrics = poolMetrics;
+        this.bookingLimit = bookingLimit;
+    }
+
+    /**
+     * Get connection pool usage and the booking concurrency limit of this node
+     * @return Usage of each pool, and the booking limit if it is enabled
+     */
+    @ReadOperation
+    public DatabaseStatus status() {
+        return new DatabaseStatus(poolMetrics.status(), bookingLimit != null ? bookingLimit.status() : null);
+    }
+}
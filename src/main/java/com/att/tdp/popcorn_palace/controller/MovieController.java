@@ -1,10 +1,17 @@
 package com.att.tdp.popcorn_palace.controller;
 
+import com.att.tdp.popcorn_palace.config.CatalogCacheProperties;
+import com.att.tdp.popcorn_palace.config.ReplicaRoutingDataSource;
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
 import com.att.tdp.popcorn_palace.model.Movie;
+import com.att.tdp.popcorn_palace.service.MovieCatalogCache;
 import com.att.tdp.popcorn_palace.service.MovieService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,31 +23,92 @@ import java.util.Optional;
 public class MovieController {
 
     private final MovieService movieService;
+    private final MovieCatalogCache movieCatalogCache;
+    private final CacheControl cacheControl;
 
     @Autowired
-    public MovieController(MovieService movieService) {
+    public MovieController(MovieService movieService, MovieCatalogCache movieCatalogCache,
+                           CatalogCacheProperties cacheProperties) {
         this.movieService = movieService;
+        this.movieCatalogCache = movieCatalogCache;
+        this.cacheControl = cacheProperties.toCacheControl();
     }
 
     /**
      * Get all movies
-     * @return List of all movies
+     * Served from the pre-serialized catalog snapshot whenever it is current
+     * @param ifNoneMatch If-None-Match header, if any
+     * @param acceptEncoding Accept-Encoding header, if any
+     * @return List of all movies, or 304 Not Modified if the client's copy is current
      */
     @GetMapping("/all")
-    public ResponseEntity<List<Movie>> getAllMovies() {
-        List<Movie> movies = movieService.getAllMovies();
-        return new ResponseEntity<>(movies, HttpStatus.OK);
+    public ResponseEntity<?> getAllMovies(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Read the tag before the query so a concurrent write can only make it stale, never too new
+        String tag = movieService.getCatalogTag();
+        String notModified = ConditionalGet.notModifiedTag(ifNoneMatch, tag);
+        if (notModified != null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(notModified).cacheControl(cacheControl).build();
+        }
+
+        MovieCatalogCache.Snapshot snapshot = movieCatalogCache.getSnapshot(tag);
+        if (snapshot == null) {
+            // The snapshot is being rebuilt; answer from the database meanwhile, from the primary
+            // since a lagging replica could be older than the tag
+            List<MovieResponse> movies = ReplicaRoutingDataSource.readFromPrimary(movieService::getAllMovies);
+            return ResponseEntity.ok().eTag(tag).cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING).body(movies);
+        }
+
+        boolean gzip = ConditionalGet.acceptsGzip(acceptEncoding);
+        // Each encoding is its own representation and needs its own strong tag
+        String eTag = gzip ? tag + ConditionalGet.GZIP_SUFFIX : tag;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING).contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+
+    /**
+     * Search movies
+     * Answered from the in-memory search index without querying the database
+     * @param q Title words; each must match a title word exactly, as a prefix or with a small typo
+     * @param genre Genre, case-insensitive
+     * @param rating Rating, case-insensitive
+     * @param year Release year
+     * @param limit Maximum number of results
+     * @return Matching movies, best matches first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<MovieResponse>> searchMovies(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) String rating,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(movieService.searchMovies(q, genre, rating, year, limit));
     }
 
     /**
      * Get movie by id
      * @param id Movie id
-     * @return Movie if found, 404 Not Found otherwise
+     * @param ifNoneMatch If-None-Match header, if any
+     * @return Movie if found, 304 Not Modified if the client's copy is current, 404 Not Found otherwise
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Movie> getMovieById(@PathVariable Long id) {
-        Optional<Movie> movie = movieService.getMovieById(id);
-        return movie.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+    public ResponseEntity<MovieResponse> getMovieById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String tag = movieService.getCatalogTag();
+        String notModified = ConditionalGet.notModifiedTag(ifNoneMatch, tag);
+        if (notModified != null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(notModified).cacheControl(cacheControl).build();
+        }
+        Optional<MovieResponse> movie = ReplicaRoutingDataSource.readFromPrimary(() -> movieService.getMovieById(id));
+        return movie.map(value -> ResponseEntity.ok().eTag(tag).cacheControl(cacheControl).body(value))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
@@ -52,18 +120,24 @@ public class MovieController {
     @PostMapping
     public ResponseEntity<?> createMovie(@Valid @RequestBody Movie movie) {
         Movie createdMovie = movieService.createMovie(movie);
-        return new ResponseEntity<>(createdMovie, HttpStatus.OK);
+        return new ResponseEntity<>(MovieResponse.from(createdMovie), HttpStatus.OK);
     }
 
     /**
      * Update an existing movie by title
      * @param movieTitle Movie title to update
      * @param movieDetails Updated movie details
-     * @return 200 OK if updated, 404 Not Found otherwise
+     * @param ifMatch Version the update is based on, as returned in the movie's version field
+     * @return 200 OK if updated, 404 Not Found otherwise,
+     *         412 Precondition Failed if the movie is no longer at the If-Match version
      */
     @PostMapping("/update/{movieTitle}")
-    public ResponseEntity<Void> updateMovie(@PathVariable String movieTitle, @Valid @RequestBody Movie movieDetails) {
-        boolean updated = movieService.updateMovieByTitle(movieTitle, movieDetails);
+    public ResponseEntity<Void> updateMovie(
+            @PathVariable String movieTitle,
+            @Valid @RequestBody Movie movieDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        boolean updated = movieService.updateMovieByTitle(movieTitle, movieDetails,
+                ConditionalGet.expectedVersion(ifMatch));
         if (updated) {
             return new ResponseEntity<>(HttpStatus.OK);
         }
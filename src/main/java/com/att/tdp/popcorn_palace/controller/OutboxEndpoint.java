@@ -0,0 +1,34 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.dto.OutboxStatus;
+import com.att.tdp.popcorn_palace.service.BookingOutboxDispatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivery lag of the booking outbox, at /actuator/outbox on the management port
+ */
+@Component
+@Endpoint(id = "outbox")
+@ConditionalOnProperty(prefix = "popcorn-palace.booking.outbox", name = "enabled", havingValue = "true")
+public class OutboxEndpoint {
+
+    private final BookingOutboxDispatcher dispatcher;
+
+    @Autowired
+    public OutboxEndpoint(BookingOutboxDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Get the delivery lag of the booking outbox
+     * @return Pending events, age of the oldest, and this node's delivery counters
+     */
+    @ReadOperation
+    public OutboxStatus status() {
+        return dispatcher.status();
+    }
+}
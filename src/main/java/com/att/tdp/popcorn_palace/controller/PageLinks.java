@@ -0,0 +1,52 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Helpers for linking keyset-paginated responses to their next page
+ */
+final class PageLinks {
+
+    private PageLinks() {
+    }
+
+    /**
+     * Point a Link header with rel="next" at the current request with another cursor
+     * @param response Response being built
+     * @param nextCursor Cursor of the next page, or null if there is none
+     * @return The same response builder
+     */
+    static ResponseEntity.BodyBuilder next(ResponseEntity.BodyBuilder response, String nextCursor) {
+        if (nextCursor != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", nextCursor)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response;
+    }
+
+    /**
+     * Point a Link header with rel="next" at a reactive request with another cursor
+     * @param response Response being built
+     * @param nextCursor Cursor of the next page, or null if there is none
+     * @param request Request of the current page
+     * @return The same response builder
+     */
+    static ResponseEntity.BodyBuilder next(ResponseEntity.BodyBuilder response, String nextCursor,
+                                           ServerHttpRequest request) {
+        if (nextCursor != null) {
+            // The request URI is already encoded, and the cursor is URL-safe
+            String next = UriComponentsBuilder.fromUri(request.getURI())
+                    .replaceQueryParam("cursor", nextCursor)
+                    .build(true)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response;
+    }
+}
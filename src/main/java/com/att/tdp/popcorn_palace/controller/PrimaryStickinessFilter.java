@@ -0,0 +1,79 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.config.ReadReplicaProperties;
+import com.att.tdp.popcorn_palace.config.ReplicaRoutingDataSource;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Gives a client read-your-writes while reads go to a replica
+ * Every write request sets a short-lived cookie, and reads carrying an unexpired cookie are kept
+ * on the primary, so a client that just booked sees its booking even if the replica lags behind.
+ */
+@Component
+@ConditionalOnProperty(prefix = "popcorn-palace.read-replica", name = "enabled", havingValue = "true")
+public class PrimaryStickinessFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "pp_read_primary_until";
+
+    private final Duration stickiness;
+    private final Clock clock;
+
+    @Autowired
+    public PrimaryStickinessFilter(ReadReplicaProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    PrimaryStickinessFilter(ReadReplicaProperties properties, Clock clock) {
+        this.stickiness = properties.stickiness();
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = clock.millis();
+        if (isRead(request.getMethod())) {
+            if (stickyUntil(request) > now) {
+                request.setAttribute(ReplicaRoutingDataSource.READ_PRIMARY_ATTRIBUTE, Boolean.TRUE);
+            }
+        } else if (!stickiness.isZero()) {
+            // Set before the write runs, since the response may be committed by the time it returns
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + stickiness.toMillis()));
+            cookie.setMaxAge((int) Math.ceil(stickiness.toMillis() / 1000.0));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static boolean isRead(String method) {
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    private static long stickyUntil(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+        if (cookie == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
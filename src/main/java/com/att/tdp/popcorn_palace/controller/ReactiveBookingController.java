@@ -0,0 +1,111 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.dto.BookingResponse;
+import com.att.tdp.popcorn_palace.dto.UserBookingResponse;
+import com.att.tdp.popcorn_palace.model.Booking;
+import com.att.tdp.popcorn_palace.service.ReactiveBookingService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Booking API of the reactive profile, with the paths, status codes and bodies of BookingController
+ */
+@RestController
+@RequestMapping("/bookings")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingController {
+
+    private final ReactiveBookingService bookingService;
+
+    @Autowired
+    public ReactiveBookingController(ReactiveBookingService bookingService) {
+        this.bookingService = bookingService;
+    }
+
+    /**
+     * Get all bookings
+     * @return List of all bookings
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<BookingResponse>>> getAllBookings() {
+        return bookingService.getAllBookings().collectList()
+                .map(bookings -> new ResponseEntity<>(bookings, HttpStatus.OK));
+    }
+
+    /**
+     * Get booking by id
+     * @param id Booking id
+     * @return Booking if found, 404 Not Found otherwise
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<BookingResponse>> getBookingById(@PathVariable String id) {
+        return bookingService.getBookingById(id)
+                .map(booking -> new ResponseEntity<>(booking, HttpStatus.OK))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Get all bookings for a specific showtime
+     * @param showtimeId Showtime id
+     * @return List of bookings for the showtime
+     */
+    @GetMapping("/showtime/{showtimeId}")
+    public Mono<ResponseEntity<List<BookingResponse>>> getBookingsByShowtimeId(@PathVariable Long showtimeId) {
+        return bookingService.getBookingsByShowtimeId(showtimeId).collectList()
+                .map(bookings -> new ResponseEntity<>(bookings, HttpStatus.OK));
+    }
+
+    /**
+     * Get a user's bookings with their showtimes, most recent first
+     * Returned one page at a time; a Link header with rel="next" points to the following page
+     * @param userId User id
+     * @param cursor Cursor of the page to return, taken from the previous page's Link header
+     * @param limit Maximum number of bookings per page
+     * @param request Request, for the link to the next page
+     * @return Bookings of the user with showtime details
+     */
+    @GetMapping("/user/{userId}")
+    public Mono<ResponseEntity<List<UserBookingResponse>>> getBookingsByUserId(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            ServerHttpRequest request) {
+        return bookingService.getBookingsByUserId(userId, cursor, limit)
+                .map(page -> PageLinks.next(ResponseEntity.ok(), page.nextCursor(), request).body(page.bookings()));
+    }
+
+    /**
+     * Create a new booking
+     * @param booking Booking to create
+     * @return Created booking with generated id
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Map<String, String>>> createBooking(@Valid @RequestBody Booking booking) {
+        return bookingService.createBooking(booking).map(createdBooking -> {
+            Map<String, String> response = new HashMap<>();
+            response.put("bookingId", createdBooking.getId());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Delete a booking by id
+     * @param id Booking id to delete
+     * @return 200 OK if deleted, 404 Not Found otherwise
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteBooking(@PathVariable String id) {
+        return bookingService.deleteBooking(id)
+                .map(deleted -> new ResponseEntity<>(deleted ? HttpStatus.OK : HttpStatus.NOT_FOUND));
+    }
+}
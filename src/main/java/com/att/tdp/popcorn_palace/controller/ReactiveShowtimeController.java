@@ -0,0 +1,201 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.config.CatalogCacheProperties;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMovieResponse;
+import com.att.tdp.popcorn_palace.model.Showtime;
+import com.att.tdp.popcorn_palace.service.NowPlayingSchedule;
+import com.att.tdp.popcorn_palace.service.ReactiveShowtimeService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Showtime API of the reactive profile, with the paths, status codes, bodies and validators of
+ * ShowtimeController
+ * The R2DBC pool has no replica, so tagged responses are read from the primary without routing.
+ */
+@RestController
+@RequestMapping("/showtimes")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveShowtimeController {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    private final ReactiveShowtimeService showtimeService;
+    private final NowPlayingSchedule nowPlayingSchedule;
+    private final CacheControl cacheControl;
+
+    @Autowired
+    public ReactiveShowtimeController(ReactiveShowtimeService showtimeService, NowPlayingSchedule nowPlayingSchedule,
+                                      CatalogCacheProperties cacheProperties) {
+        this.showtimeService = showtimeService;
+        this.nowPlayingSchedule = nowPlayingSchedule;
+        this.cacheControl = cacheProperties.toCacheControl();
+    }
+
+    /**
+     * Get all showtimes, or query them by movie, theater and start time window
+     * @param movieId Movie id
+     * @param theater Theater name
+     * @param from Earliest start time, inclusive; defaults to now
+     * @param to Latest start time, exclusive
+     * @param cursor Cursor of the page to return, taken from the previous page's Link header
+     * @param limit Maximum number of showtimes per page
+     * @param ifNoneMatch If-None-Match header, if any
+     * @param request Request, for the link to the next page
+     * @return Matching showtimes, or 304 Not Modified if the client's copy is current
+     * @see ShowtimeController#getShowtimes(Long, String, Instant, Instant, String, Integer, String)
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<ShowtimeResponse>>> getShowtimes(
+            @RequestParam(required = false) Long movieId,
+            @RequestParam(required = false) String theater,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            ServerHttpRequest request) {
+        boolean query = movieId != null || theater != null || from != null || to != null
+                || cursor != null || limit != null;
+        // Read the tag before the query so a concurrent write can only make it stale, never too new
+        String tag = showtimeService.getCatalogTag();
+        // A window that starts at "now" changes as time passes, so it cannot be validated by the tag
+        boolean cacheable = !query || from != null;
+        String notModified = cacheable ? ConditionalGet.notModifiedTag(ifNoneMatch, tag) : null;
+        if (notModified != null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(notModified).cacheControl(cacheControl).build());
+        }
+        if (!query) {
+            return showtimeService.getAllShowtimes().collectList()
+                    .map(showtimes -> ResponseEntity.ok().eTag(tag).cacheControl(cacheControl).body(showtimes));
+        }
+
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        return showtimeService.findShowtimes(movieId, theater, from, to, cursor, pageSize).map(page -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (cacheable) {
+                response.eTag(tag).cacheControl(cacheControl);
+            }
+            return PageLinks.next(response, page.nextCursor(), request).body(page.showtimes());
+        });
+    }
+
+    /**
+     * Query showtimes with their movies by movie, theater and start time window
+     * @param movieId Movie id
+     * @param theater Theater name
+     * @param from Earliest start time, inclusive; defaults to now
+     * @param to Latest start time, exclusive
+     * @param cursor Cursor of the page to return, taken from the previous page's Link header
+     * @param limit Maximum number of showtimes per page
+     * @param request Request, for the link to the next page
+     * @return Matching showtimes with movie details
+     */
+    @GetMapping("/with-movies")
+    public Mono<ResponseEntity<List<ShowtimeWithMovieResponse>>> getShowtimesWithMovies(
+            @RequestParam(required = false) Long movieId,
+            @RequestParam(required = false) String theater,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            ServerHttpRequest request) {
+        return showtimeService.findShowtimesWithMovies(movieId, theater, from, to, cursor, limit)
+                .map(page -> PageLinks.next(ResponseEntity.ok(), page.nextCursor(), request).body(page.showtimes()));
+    }
+
+    /**
+     * Get the showtimes starting in the next hours, with their movies
+     * Served from the now-playing schedule snapshot without waiting for the database
+     * @param hours Number of hours from now
+     * @return Showtimes with movie details, ordered by start time
+     */
+    @GetMapping("/now-playing")
+    public ResponseEntity<List<ShowtimeWithMovieResponse>> getNowPlaying(@RequestParam(defaultValue = "6") int hours) {
+        return ResponseEntity.ok(nowPlayingSchedule.getNowPlaying(Duration.ofHours(hours)));
+    }
+
+    /**
+     * Get showtime by id
+     * @param id Showtime id
+     * @param ifNoneMatch If-None-Match header, if any
+     * @return Showtime if found, 304 Not Modified if the client's copy is current, 404 Not Found otherwise
+     * @see ShowtimeController#getShowtimeById(Long, String)
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ShowtimeResponse>> getShowtimeById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Read the tag before the row so a concurrent write can only make it stale, never too new
+        String catalogTag = showtimeService.getCatalogTag();
+        String unchanged = ConditionalGet.unchangedRowTag(ifNoneMatch, catalogTag);
+        if (unchanged != null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(unchanged).cacheControl(cacheControl).build());
+        }
+        return showtimeService.getShowtimeById(id)
+                .map(showtime -> {
+                    String eTag = ConditionalGet.rowTag(showtime.version(), catalogTag);
+                    if (ConditionalGet.isNotModified(ifNoneMatch, showtime.version())) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl)
+                                .<ShowtimeResponse>build();
+                    }
+                    return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(showtime);
+                })
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Create a new showtime
+     * @param showtime Showtime to create
+     * @return Created showtime with generated id
+     */
+    @PostMapping
+    public Mono<ResponseEntity<ShowtimeResponse>> createShowtime(@Valid @RequestBody Showtime showtime) {
+        return showtimeService.createShowtime(showtime)
+                .map(createdShowtime -> new ResponseEntity<>(ShowtimeResponse.from(createdShowtime), HttpStatus.OK));
+    }
+
+    /**
+     * Update an existing showtime
+     * @param id Showtime id to update
+     * @param showtimeDetails Updated showtime details
+     * @param ifMatch Version the update is based on, as returned in the showtime's ETag or version field
+     * @return Updated showtime with its new version as ETag if found, 404 Not Found otherwise,
+     *         412 Precondition Failed if the showtime is no longer at the If-Match version
+     */
+    @PostMapping("/update/{id}")
+    public Mono<ResponseEntity<ShowtimeResponse>> updateShowtime(
+            @PathVariable Long id,
+            @Valid @RequestBody Showtime showtimeDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return showtimeService.updateShowtime(id, showtimeDetails, ConditionalGet.expectedVersion(ifMatch))
+                .map(updatedShowtime -> ResponseEntity.ok()
+                        .eTag(String.valueOf(updatedShowtime.getVersion()))
+                        .body(ShowtimeResponse.from(updatedShowtime)))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Delete a showtime by id
+     * @param id Showtime id to delete
+     * @return 200 OK if deleted, 404 Not Found otherwise
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteShowtime(@PathVariable Long id) {
+        return showtimeService.deleteShowtime(id)
+                .map(deleted -> new ResponseEntity<>(deleted ? HttpStatus.OK : HttpStatus.NOT_FOUND));
+    }
+}
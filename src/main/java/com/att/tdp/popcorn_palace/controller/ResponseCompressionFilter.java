@@ -0,0 +1,322 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.config.ResponseCompressionProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * gzip-compresses JSON responses once they reach a size threshold
+ * The container's own compression cannot apply a size threshold to streamed Jackson output,
+ * which carries no Content-Length. Here the first bytes of a JSON body are held back until
+ * either the threshold is reached, and the rest is streamed through gzip, or the body ends below
+ * it and is sent as is. At most the threshold is ever buffered.
+ *
+ * The decision is made at the first write, once the headers are final: responses that already
+ * have a Content-Encoding, such as the pre-compressed movie catalog, and non-JSON responses are
+ * passed straight through without being buffered. So are asynchronous and non-blocking writes,
+ * which the held-back body cannot serve. Only responses that a different Accept-Encoding would
+ * have changed get Vary: Accept-Encoding, and a strong ETag of a compressed body gets the gzip
+ * suffix that the movie catalog's pre-compressed variant carries.
+ */
+@Component
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private final ResponseCompressionProperties properties;
+
+    @Autowired
+    public ResponseCompressionFilter(ResponseCompressionProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.enabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean gzip = ConditionalGet.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        CompressingResponse wrapper = new CompressingResponse(request, response, gzip,
+                (int) properties.minResponseSize().toBytes(), properties.level());
+        filterChain.doFilter(request, wrapper);
+        wrapper.finish();
+    }
+
+    /**
+     * Response whose body is held back until it is known whether to compress it
+     */
+    private static final class CompressingResponse extends HttpServletResponseWrapper {
+
+        private enum Mode {
+            UNDECIDED,
+            IDENTITY,
+            GZIP
+        }
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final boolean gzipAccepted;
+        private final int threshold;
+        private final int level;
+
+        private Mode mode = Mode.UNDECIDED;
+        private ByteArrayOutputStream buffer;
+        private OutputStream gzip;
+        // Content-Length set by the handler, applied only if the body goes out unchanged
+        private long declaredLength = -1;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CompressingResponse(HttpServletRequest request, HttpServletResponse response, boolean gzipAccepted,
+                            int threshold, int level) {
+            super(response);
+            this.request = request;
+            this.response = response;
+            this.gzipAccepted = gzipAccepted;
+            this.threshold = threshold;
+            this.level = level;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        write(new byte[] {(byte) b}, 0, 1);
+                    }
+
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException {
+                        CompressingResponse.this.write(bytes, offset, length);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        // While undecided a flush must not commit the headers
+                        if (mode == Mode.GZIP) {
+                            gzip.flush();
+                        } else if (mode == Mode.IDENTITY) {
+                            response.getOutputStream().flush();
+                        }
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        try {
+                            return mode != Mode.IDENTITY || response.getOutputStream().isReady();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        // Non-blocking writes go straight to the container's stream, uncompressed
+                        if (mode == Mode.GZIP) {
+                            throw new IllegalStateException("The response is already being compressed");
+                        }
+                        try {
+                            if (mode == Mode.UNDECIDED) {
+                                startIdentity(false);
+                            }
+                            response.getOutputStream().setWriteListener(listener);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (mode == Mode.IDENTITY) {
+                response.setContentLengthLong(length);
+            } else {
+                declaredLength = length;
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (mode != Mode.UNDECIDED) {
+                response.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (mode == Mode.UNDECIDED) {
+                buffer = null;
+            }
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            if (mode == Mode.UNDECIDED) {
+                buffer = null;
+                declaredLength = -1;
+            }
+            super.reset();
+        }
+
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            if (mode == Mode.UNDECIDED) {
+                if (!mayCompress()) {
+                    startIdentity(compressible());
+                } else {
+                    if (buffer == null) {
+                        buffer = new ByteArrayOutputStream(threshold);
+                    }
+                    if (buffer.size() + length < threshold) {
+                        buffer.write(bytes, offset, length);
+                        return;
+                    }
+                    startGzip();
+                }
+            }
+            if (mode == Mode.GZIP) {
+                gzip.write(bytes, offset, length);
+            } else {
+                response.getOutputStream().write(bytes, offset, length);
+            }
+        }
+
+        /**
+         * Send whatever is still held back once the handler is done
+         */
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (mode == Mode.UNDECIDED) {
+                // Ended below the threshold, or had no body at all, so the same for any Accept-Encoding
+                startIdentity(false);
+            } else if (mode == Mode.GZIP) {
+                gzip.close();
+            }
+        }
+
+        private boolean mayCompress() {
+            return gzipAccepted && compressible();
+        }
+
+        /**
+         * Whether a client that accepts gzip would get this response compressed
+         */
+        private boolean compressible() {
+            if (request.isAsyncStarted() || response.containsHeader(HttpHeaders.CONTENT_ENCODING)
+                    || (declaredLength >= 0 && declaredLength < threshold)) {
+                return false;
+            }
+            String contentType = response.getContentType();
+            return contentType != null
+                    && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+        }
+
+        private void startIdentity(boolean vary) throws IOException {
+            mode = Mode.IDENTITY;
+            if (vary) {
+                addVary();
+            }
+            if (declaredLength >= 0) {
+                response.setContentLengthLong(declaredLength);
+            } else if (buffer != null && !response.isCommitted()) {
+                response.setContentLength(buffer.size());
+            }
+            if (buffer != null) {
+                buffer.writeTo(response.getOutputStream());
+                buffer = null;
+            }
+        }
+
+        private void startGzip() throws IOException {
+            mode = Mode.GZIP;
+            addVary();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            String eTag = response.getHeader(HttpHeaders.ETAG);
+            if (eTag != null) {
+                // A strong tag must differ between the identity and the gzip body
+                response.setHeader(HttpHeaders.ETAG, ConditionalGet.gzipVariant(eTag));
+            }
+            gzip = new GZIPOutputStream(response.getOutputStream(), 8192) {
+                {
+                    def.setLevel(level);
+                }
+            };
+            buffer.writeTo(gzip);
+            buffer = null;
+        }
+
+        /**
+         * Tell shared caches to keep the encoded and identity variants apart, unless the handler
+         * already did
+         */
+        private void addVary() {
+            for (String vary : response.getHeaders(HttpHeaders.VARY)) {
+                for (String name : vary.split(",")) {
+                    if (name.trim().equals("*") || name.trim().equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING)) {
+                        return;
+                    }
+                }
+            }
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+}
@@ -1,47 +1,165 @@
 package com.att.tdp.popcorn_palace.controller;
 
+import com.att.tdp.popcorn_palace.config.CatalogCacheProperties;
+import com.att.tdp.popcorn_palace.config.ReplicaRoutingDataSource;
+import com.att.tdp.popcorn_palace.dto.ShowtimePage;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMoviePage;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMovieResponse;
 import com.att.tdp.popcorn_palace.model.Showtime;
+import com.att.tdp.popcorn_palace.service.NowPlayingSchedule;
 import com.att.tdp.popcorn_palace.service.ShowtimeService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/showtimes")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ShowtimeController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
     private final ShowtimeService showtimeService;
+    private final NowPlayingSchedule nowPlayingSchedule;
+    private final CacheControl cacheControl;
 
     @Autowired
-    public ShowtimeController(ShowtimeService showtimeService) {
+    public ShowtimeController(ShowtimeService showtimeService, NowPlayingSchedule nowPlayingSchedule,
+                              CatalogCacheProperties cacheProperties) {
         this.showtimeService = showtimeService;
+        this.nowPlayingSchedule = nowPlayingSchedule;
+        this.cacheControl = cacheProperties.toCacheControl();
     }
 
     /**
-     * Get all showtimes
-     * @return List of all showtimes
+     * Get all showtimes, or query them by movie, theater and start time window
+     * Without query parameters every showtime is returned. With any of them, showtimes are returned
+     * one page at a time ordered by start time, and a Link header with rel="next" points to the
+     * following page.
+     * @param movieId Movie id
+     * @param theater Theater name
+     * @param from Earliest start time, inclusive; defaults to now
+     * @param to Latest start time, exclusive
+     * @param cursor Cursor of the page to return, taken from the previous page's Link header
+     * @param limit Maximum number of showtimes per page
+     * @param ifNoneMatch If-None-Match header, if any
+     * @return Matching showtimes, or 304 Not Modified if the client's copy is current
      */
     @GetMapping
-    public ResponseEntity<List<Showtime>> getAllShowtimes() {
-        List<Showtime> showtimes = showtimeService.getAllShowtimes();
-        return new ResponseEntity<>(showtimes, HttpStatus.OK);
+    public ResponseEntity<List<ShowtimeResponse>> getShowtimes(
+            @RequestParam(required = false) Long movieId,
+            @RequestParam(required = false) String theater,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        boolean query = movieId != null || theater != null || from != null || to != null
+                || cursor != null || limit != null;
+        // Read the tag before the query so a concurrent write can only make it stale, never too new
+        String tag = showtimeService.getCatalogTag();
+        // A window that starts at "now" changes as time passes, so it cannot be validated by the tag
+        boolean cacheable = !query || from != null;
+        String notModified = cacheable ? ConditionalGet.notModifiedTag(ifNoneMatch, tag) : null;
+        if (notModified != null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(notModified).cacheControl(cacheControl).build();
+        }
+        if (!query) {
+            // Tagged responses are read from the primary, whose writes the tag counts
+            List<ShowtimeResponse> showtimes = ReplicaRoutingDataSource.readFromPrimary(showtimeService::getAllShowtimes);
+            return ResponseEntity.ok().eTag(tag).cacheControl(cacheControl).body(showtimes);
+        }
+
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        ShowtimePage page = cacheable
+                ? ReplicaRoutingDataSource.readFromPrimary(
+                        () -> showtimeService.findShowtimes(movieId, theater, from, to, cursor, pageSize))
+                : showtimeService.findShowtimes(movieId, theater, from, to, cursor, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (cacheable) {
+            response.eTag(tag).cacheControl(cacheControl);
+        }
+        return PageLinks.next(response, page.nextCursor()).body(page.showtimes());
+    }
+
+    /**
+     * Query showtimes with their movies by movie, theater and start time window
+     * Takes the same parameters and pages the same way as GET /showtimes, and saves clients a
+     * request to /movies/{id} per showtime
+     * @param movieId Movie id
+     * @param theater Theater name
+     * @param from Earliest start time, inclusive; defaults to now
+     * @param to Latest start time, exclusive
+     * @param cursor Cursor of the page to return, taken from the previous page's Link header
+     * @param limit Maximum number of showtimes per page
+     * @return Matching showtimes with movie details
+     */
+    @GetMapping("/with-movies")
+    public ResponseEntity<List<ShowtimeWithMovieResponse>> getShowtimesWithMovies(
+            @RequestParam(required = false) Long movieId,
+            @RequestParam(required = false) String theater,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        ShowtimeWithMoviePage page = showtimeService.findShowtimesWithMovies(movieId, theater, from, to, cursor, limit);
+        return PageLinks.next(ResponseEntity.ok(), page.nextCursor()).body(page.showtimes());
+    }
+
+    /**
+     * Get the showtimes starting in the next hours, with their movies
+     * Served from the now-playing schedule snapshot without waiting for the database
+     * @param hours Number of hours from now
+     * @return Showtimes with movie details, ordered by start time
+     */
+    @GetMapping("/now-playing")
+    public ResponseEntity<List<ShowtimeWithMovieResponse>> getNowPlaying(@RequestParam(defaultValue = "6") int hours) {
+        return ResponseEntity.ok(nowPlayingSchedule.getNowPlaying(Duration.ofHours(hours)));
     }
 
     /**
      * Get showtime by id
+     * The ETag is the showtime's row version followed by the catalog tag it was read under, such
+     * as "3.s-1-7". The version part is what an update takes in If-Match. While no showtime has
+     * been written since the client's tag was issued, 304 is answered without reading the row;
+     * otherwise the row is read and its version compared.
      * @param id Showtime id
-     * @return Showtime if found, 404 Not Found otherwise
+     * @param ifNoneMatch If-None-Match header, if any
+     * @return Showtime if found, 304 Not Modified if the client's copy is current, 404 Not Found otherwise
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Showtime> getShowtimeById(@PathVariable Long id) {
-        Optional<Showtime> showtime = showtimeService.getShowtimeById(id);
-        return showtime.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
-                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    public ResponseEntity<ShowtimeResponse> getShowtimeById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Read the tag before the row so a concurrent write can only make it stale, never too new
+        String catalogTag = showtimeService.getCatalogTag();
+        String unchanged = ConditionalGet.unchangedRowTag(ifNoneMatch, catalogTag);
+        if (unchanged != null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(unchanged).cacheControl(cacheControl).build();
+        }
+        // From the primary, whose writes the catalog tag counts; a lagging replica's row would be
+        // labelled with a tag newer than it
+        Optional<ShowtimeResponse> showtime = ReplicaRoutingDataSource.readFromPrimary(
+                () -> showtimeService.getShowtimeById(id));
+        if (showtime.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        String eTag = ConditionalGet.rowTag(showtime.get().version(), catalogTag);
+        if (ConditionalGet.isNotModified(ifNoneMatch, showtime.get().version())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(showtime.get());
     }
 
     /**
@@ -52,22 +170,30 @@ public class ShowtimeController {
     @PostMapping
     public ResponseEntity<?> createShowtime(@Valid @RequestBody Showtime showtime) {
         Showtime createdShowtime = showtimeService.createShowtime(showtime);
-        return new ResponseEntity<>(createdShowtime, HttpStatus.OK);
+        return new ResponseEntity<>(ShowtimeResponse.from(createdShowtime), HttpStatus.OK);
     }
 
     /**
      * Update an existing showtime
      * @param id Showtime id to update
      * @param showtimeDetails Updated showtime details
-     * @return Updated showtime if found, 404 Not Found otherwise
+     * @param ifMatch Version the update is based on, as returned in the showtime's ETag or version field
+     * @return Updated showtime with its new version as ETag if found, 404 Not Found otherwise,
+     *         412 Precondition Failed if the showtime is no longer at the If-Match version
      */
     @PostMapping("/update/{id}")
-    public ResponseEntity<?> updateShowtime(@PathVariable Long id, @Valid @RequestBody Showtime showtimeDetails) {
-        Showtime updatedShowtime = showtimeService.updateShowtime(id, showtimeDetails);
+    public ResponseEntity<?> updateShowtime(
+            @PathVariable Long id,
+            @Valid @RequestBody Showtime showtimeDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Showtime updatedShowtime = showtimeService.updateShowtime(id, showtimeDetails,
+                ConditionalGet.expectedVersion(ifMatch));
         if (updatedShowtime == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
-        return new ResponseEntity<>(updatedShowtime, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(updatedShowtime.getVersion()))
+                .body(ShowtimeResponse.from(updatedShowtime));
     }
 
     /**
@@ -84,4 +210,3 @@ public class ShowtimeController {
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 }
-
@@ -0,0 +1,113 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.config.RateLimitProperties;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets of many clients sharing one limit, in a map of bounded size
+ * Each bucket is a single AtomicLong holding the time at which it will be full again (the
+ * generic cell rate algorithm): taking a token moves that time one refill interval later, and a
+ * request is refused while it lies more than capacity - 1 intervals ahead. Buckets are updated
+ * by compare-and-set, without locks.
+ *
+ * A full bucket behaves exactly like a missing one, so when the map reaches its size limit the
+ * full buckets are removed. If every tracked client is still mid-burst, new clients are refused
+ * until some bucket fills up.
+ */
+final class TokenBuckets {
+
+    private final long intervalMillis;
+    private final long burstMillis;
+    private final int maxClients;
+    private final Clock clock;
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    TokenBuckets(RateLimitProperties.Limit limit, int maxClients, Clock clock) {
+        this.intervalMillis = limit.refillInterval().toMillis();
+        this.burstMillis = (limit.capacity() - 1) * intervalMillis;
+        this.maxClients = maxClients;
+        this.clock = clock;
+    }
+
+    /**
+     * Take a token from a client's bucket
+     * @param client Key of the client
+     * @return 0 if the request may proceed, otherwise the milliseconds until it would be accepted
+     */
+    long tryAcquire(String client) {
+        long now = clock.millis();
+        AtomicLong bucket = buckets.get(client);
+        if (bucket == null) {
+            if (buckets.size() >= maxClients) {
+                evictFull(now);
+                if (buckets.size() >= maxClients) {
+                    return intervalMillis;
+                }
+            }
+            bucket = buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long start = Math.max(fullAt, now);
+            long wait = start - burstMillis - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, start + intervalMillis)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Take a token from each of several clients' buckets, or from none of them
+     * A token taken before another bucket refuses the request is put back, so a client is not
+     * charged for a request that was refused on someone else's account.
+     * @param clients Keys of the clients
+     * @return 0 if the request may proceed, otherwise the milliseconds until the refusing bucket would accept it
+     */
+    long tryAcquireAll(String... clients) {
+        for (int i = 0; i < clients.length; i++) {
+            long wait = tryAcquire(clients[i]);
+            if (wait > 0) {
+                for (int taken = 0; taken < i; taken++) {
+                    refund(clients[taken]);
+                }
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private void refund(String client) {
+        AtomicLong bucket = buckets.get(client);
+        // A full-at time in the past reads as a full bucket, so this cannot overfill it
+        if (bucket != null) {
+            bucket.addAndGet(-intervalMillis);
+        }
+    }
+
+    private void evictFull(long now) {
+        // One thread sweeps; the others check the size again once it is done or find it still full
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // A request racing the removal of its bucket may take a token from the removed copy,
+            // which only ever costs a full bucket one token
+            buckets.values().removeIf(bucket -> bucket.get() <= now);
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import java.time.Instant;
+
+/**
+ * Booking change delivered to downstream systems through the booking outbox
+ * Unlike BookingResponse it carries the user id, which ticketing and email need.
+ * @param id Position in the outbox; increases with every event, so consumers can drop duplicates
+ * @param type What happened to the booking
+ * @param bookingId Booking id
+ * @param showtimeId Showtime id
+ * @param userId User id
+ * @param seatNumber Seat number
+ * @param occurredAt When the booking was made or cancelled
+ */
+public record BookingEvent(
+        Long id,
+        Type type,
+        String bookingId,
+        Long showtimeId,
+        String userId,
+        Integer seatNumber,
+        Instant occurredAt) {
+
+    public enum Type {
+        BOOKING_CREATED,
+        BOOKING_CANCELLED
+    }
+}
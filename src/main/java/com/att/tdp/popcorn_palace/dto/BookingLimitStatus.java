@@ -0,0 +1,13 @@
+package com.att.tdp.popcorn_palace.dto;
+
+/**
+ * State of the adaptive concurrency limit on booking creation
+ * @param limit Bookings currently allowed in progress at once
+ * @param inFlight Bookings in progress
+ * @param rejected Bookings refused since this node started
+ */
+public record BookingLimitStatus(
+        int limit,
+        int inFlight,
+        long rejected) {
+}
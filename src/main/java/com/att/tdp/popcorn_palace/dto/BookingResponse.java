@@ -0,0 +1,29 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import com.att.tdp.popcorn_palace.model.Booking;
+
+import java.time.Instant;
+
+/**
+ * Read-only view of a booking returned by the API
+ * The user id is deliberately left out
+ */
+public record BookingResponse(
+        String id,
+        Long showtimeId,
+        Integer seatNumber,
+        Instant bookingTime) {
+
+    /**
+     * Create a response from a booking entity
+     * @param booking Booking entity
+     * @return Response with the entity's public values
+     */
+    public static BookingResponse from(Booking booking) {
+        return new BookingResponse(
+                booking.getId(),
+                booking.getShowtimeId(),
+                booking.getSeatNumber(),
+                booking.getBookingTime());
+    }
+}
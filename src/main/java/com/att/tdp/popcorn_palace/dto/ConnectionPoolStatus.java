@@ -0,0 +1,28 @@
+package com.att.tdp.popcorn_palace.dto;
+
+/**
+ * Usage of one database connection pool
+ * Counters and timings cover the time since this node started
+ * @param pool Pool name, such as primary or replica
+ * @param active Connections lent out to requests
+ * @param idle Connections waiting in the pool
+ * @param total Open connections
+ * @param maximum Largest number of connections the pool opens
+ * @param waiting Threads waiting for a connection
+ * @param acquired Connections handed out
+ * @param meanAcquireMillis Mean time a thread waited for a connection
+ * @param maxAcquireMillis Longest time a thread waited for a connection
+ * @param acquireTimeouts Threads that gave up waiting for a connection
+ */
+public record ConnectionPoolStatus(
+        String pool,
+        int active,
+        int idle,
+        int total,
+        int maximum,
+        int waiting,
+        long acquired,
+        double meanAcquireMillis,
+        double maxAcquireMillis,
+        long acquireTimeouts) {
+}
@@ -0,0 +1,15 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Connection pool usage and booking admission of this node
+ * @param pools Every connection pool, by name
+ * @param bookingLimit Adaptive booking concurrency limit, or null if it is disabled
+ */
+public record DatabaseStatus(
+        List<ConnectionPoolStatus> pools,
+        @JsonInclude(JsonInclude.Include.NON_NULL) BookingLimitStatus bookingLimit) {
+}
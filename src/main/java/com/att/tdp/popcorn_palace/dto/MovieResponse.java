@@ -0,0 +1,41 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import com.att.tdp.popcorn_palace.model.Movie;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Read-only view of a movie returned by the API
+ * The version is the one an update can name in If-Match; views that do not carry it leave it out.
+ */
+public record MovieResponse(
+        Long id,
+        String title,
+        String genre,
+        Integer duration,
+        String rating,
+        Integer releaseYear,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long version) {
+
+    /**
+     * Create a response without a version, for views that are never the basis of an update
+     */
+    public MovieResponse(Long id, String title, String genre, Integer duration, String rating, Integer releaseYear) {
+        this(id, title, genre, duration, rating, releaseYear, null);
+    }
+
+    /**
+     * Create a response from a movie entity
+     * @param movie Movie entity
+     * @return Response with the entity's values
+     */
+    public static MovieResponse from(Movie movie) {
+        return new MovieResponse(
+                movie.getId(),
+                movie.getTitle(),
+                movie.getGenre(),
+                movie.getDuration(),
+                movie.getRating(),
+                movie.getReleaseYear(),
+                movie.getVersion());
+    }
+}
@@ -0,0 +1,18 @@
+package com.att.tdp.popcorn_palace.dto;
+
+/**
+ * Delivery progress of the booking outbox
+ * @param pending Events waiting to be delivered
+ * @param oldestPendingAgeMillis Age of the oldest waiting event, or 0 if none are waiting
+ * @param delivered Events delivered by this node since it started
+ * @param failedAttempts Failed delivery attempts of this node since it started
+ * @param lastDeliveryLagMillis Time between the last delivered event and its delivery, or null
+ *                              if this node delivered none yet
+ */
+public record OutboxStatus(
+        long pending,
+        long oldestPendingAgeMillis,
+        long delivered,
+        long failedAttempts,
+        Long lastDeliveryLagMillis) {
+}
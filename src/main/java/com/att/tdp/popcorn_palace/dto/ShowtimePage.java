@@ -0,0 +1,11 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import java.util.List;
+
+/**
+ * One page of showtimes ordered by start time
+ * @param showtimes Showtimes on this page
+ * @param nextCursor Cursor for the following page, or null if this is the last page
+ */
+public record ShowtimePage(List<ShowtimeResponse> showtimes, String nextCursor) {
+}
@@ -0,0 +1,43 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import com.att.tdp.popcorn_palace.model.Showtime;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * Read-only view of a showtime returned by the API
+ * The version is the one an update can name in If-Match; views that do not carry it leave it out.
+ */
+public record ShowtimeResponse(
+        Long id,
+        Long movieId,
+        String theater,
+        Instant startTime,
+        Instant endTime,
+        Double price,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long version) {
+
+    /**
+     * Create a response without a version, for views that are never the basis of an update
+     */
+    public ShowtimeResponse(Long id, Long movieId, String theater, Instant startTime, Instant endTime, Double price) {
+        this(id, movieId, theater, startTime, endTime, price, null);
+    }
+
+    /**
+     * Create a response from a showtime entity
+     * @param showtime Showtime entity
+     * @return Response with the entity's values
+     */
+    public static ShowtimeResponse from(Showtime showtime) {
+        return new ShowtimeResponse(
+                showtime.getId(),
+                showtime.getMovieId(),
+                showtime.getTheater(),
+                showtime.getStartTime(),
+                showtime.getEndTime(),
+                showtime.getPrice(),
+                showtime.getVersion());
+    }
+}
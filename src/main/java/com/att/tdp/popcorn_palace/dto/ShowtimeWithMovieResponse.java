@@ -0,0 +1,26 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import java.time.Instant;
+
+/**
+ * Read-only view of a showtime together with the movie it screens
+ */
+public record ShowtimeWithMovieResponse(
+        Long id,
+        String theater,
+        Instant startTime,
+        Instant endTime,
+        Double price,
+        MovieResponse movie) {
+
+    /**
+     * Create a response from the flat columns of a showtime joined to its movie
+     * Used by JPQL constructor expressions, which cannot build the nested movie themselves
+     */
+    public ShowtimeWithMovieResponse(
+            Long id, String theater, Instant startTime, Instant endTime, Double price,
+            Long movieId, String title, String genre, Integer duration, String rating, Integer releaseYear) {
+        this(id, theater, startTime, endTime, price,
+                new MovieResponse(movieId, title, genre, duration, rating, releaseYear));
+    }
+}
@@ -0,0 +1,11 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user's bookings, most recent first
+ * @param bookings Bookings on this page
+ * @param nextCursor Cursor for the following page, or null if this is the last page
+ */
+public record UserBookingPage(List<UserBookingResponse> bookings, String nextCursor) {
+}
@@ -0,0 +1,24 @@
+package com.att.tdp.popcorn_palace.dto;
+
+import java.time.Instant;
+
+/**
+ * Read-only view of one of a user's bookings, together with its showtime
+ */
+public record UserBookingResponse(
+        String id,
+        Integer seatNumber,
+        Instant bookingTime,
+        ShowtimeResponse showtime) {
+
+    /**
+     * Create a response from the flat columns of a booking joined to its showtime
+     * Used by JPQL constructor expressions, which cannot build the nested showtime themselves
+     */
+    public UserBookingResponse(
+            String id, Integer seatNumber, Instant bookingTime,
+            Long showtimeId, Long movieId, String theater, Instant startTime, Instant endTime, Double price) {
+        this(id, seatNumber, bookingTime,
+                new ShowtimeResponse(showtimeId, movieId, theater, startTime, endTime, price));
+    }
+}
@@ -0,0 +1,112 @@
+package com.att.tdp.popcorn_palace.exception;
+
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exception handler of the reactive profile
+ * Answers with the status codes and messages of GlobalExceptionHandler, including for the WebFlux
+ * counterparts of the binding exceptions Spring MVC raises
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+
+    /**
+     * Handle validation exceptions from @Valid annotations
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationExceptions(
+            WebExchangeBindException ex, ServerHttpRequest request) {
+
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach((error) -> {
+            String fieldName = ((FieldError) error).getField();
+            String errorMessage = error.getDefaultMessage();
+            errors.put(fieldName, errorMessage);
+        });
+
+        return respond(HttpStatus.BAD_REQUEST, "Validation error: " + errors.toString(), request);
+    }
+
+    /**
+     * Handle constraint violation exceptions
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ErrorResponse> handleConstraintViolationException(
+            ConstraintViolationException ex, ServerHttpRequest request) {
+        return respond(HttpStatus.BAD_REQUEST, "Validation error: " + ex.getMessage(), request);
+    }
+
+    /**
+     * Handle illegal argument exceptions (used for business rule validations)
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleIllegalArgumentException(
+            IllegalArgumentException ex, ServerHttpRequest request) {
+        return respond(HttpStatus.BAD_REQUEST, ex.getMessage(), request);
+    }
+
+    /**
+     * Handle request input that cannot be read, such as a parameter that cannot be converted to its
+     * declared type
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleServerWebInputException(
+            ServerWebInputException ex, ServerHttpRequest request) {
+        MethodParameter parameter = ex.getMethodParameter();
+        if (ex.getCause() instanceof TypeMismatchException mismatch && parameter != null) {
+            return respond(HttpStatus.BAD_REQUEST,
+                    "Invalid value for parameter '" + parameter.getParameterName() + "': " + mismatch.getValue(),
+                    request);
+        }
+        return respond(HttpStatus.BAD_REQUEST, ex.getReason(), request);
+    }
+
+    /**
+     * Handle updates that lost a race to another update of the same row
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex, ServerHttpRequest request) {
+        return respond(HttpStatus.PRECONDITION_FAILED, ex.getMessage(), request);
+    }
+
+    /**
+     * Handle requests WebFlux itself rejects, such as unknown paths, with their own status
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatusException(
+            ResponseStatusException ex, ServerHttpRequest request) {
+        return respond(HttpStatus.valueOf(ex.getStatusCode().value()), ex.getReason(), request);
+    }
+
+    /**
+     * Handle all other exceptions
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleAllExceptions(
+            Exception ex, ServerHttpRequest request) {
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred: " + ex.getMessage(), request);
+    }
+
+    private static ResponseEntity<ErrorResponse> respond(HttpStatus status, String message, ServerHttpRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(status.value(), message, request.getPath().value());
+        return new ResponseEntity<>(errorResponse, status);
+    }
+}
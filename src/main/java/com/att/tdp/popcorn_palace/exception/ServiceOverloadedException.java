@@ -0,0 +1,13 @@
+package com.att.tdp.popcorn_palace.exception;
+
+/**
+ * Thrown when a request is refused to keep the database from queueing more work than it can handle,
+ * or when its outcome on another node is unknown and it has to be retried
+ * Handled as 503 Service Unavailable with a Retry-After header
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,25 @@
+package com.att.tdp.popcorn_palace.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a client has used up its request limit
+ * Handled as 429 Too Many Requests with a Retry-After header
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    /**
+     * @param message Reason shown to the client
+     * @param retryAfter Time until the client's next request would be accepted
+     */
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -1,5 +1,6 @@
 package com.att.tdp.popcorn_palace.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.time.Instant;
@@ -16,6 +17,11 @@ public class Booking {
     @Column(name = "showtime_id", nullable = false)
     private Long showtimeId;
 
+    // Start time of the showtime, copied in as the partition key of the booking table
+    @JsonIgnore
+    @Column(name = "showtime_start")
+    private Instant showtimeStart;
+
     @NotBlank(message = "User ID is required")
     @Size(max = 36, message = "User ID cannot exceed 36 characters")
     @Column(name = "user_id", nullable = false, length = 36)
@@ -60,6 +66,14 @@ public class Booking {
         this.showtimeId = showtimeId;
     }
 
+    public Instant getShowtimeStart() {
+        return showtimeStart;
+    }
+
+    public void setShowtimeStart(Instant showtimeStart) {
+        this.showtimeStart = showtimeStart;
+    }
+
     public String getUserId() {
         return userId;
     }
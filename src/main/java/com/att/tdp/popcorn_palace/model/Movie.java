@@ -1,5 +1,6 @@
 package com.att.tdp.popcorn_palace.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 
@@ -37,6 +38,12 @@ public class Movie {
     @Column(name = "release_year", nullable = false)
     private Integer releaseYear;
 
+    // Incremented by every update; set by the server only
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Default constructor
     public Movie() {
     }
@@ -51,6 +58,14 @@ public class Movie {
     }
 
     // Getters and Setters
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -1,5 +1,6 @@
 package com.att.tdp.popcorn_palace.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.time.Instant;
@@ -34,6 +35,12 @@ public class Showtime {
     @Column(nullable = false)
     private Double price;
 
+    // Incremented by every update; set by the server only
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Default constructor
     public Showtime() {
     }
@@ -48,6 +55,14 @@ public class Showtime {
     }
 
     // Getters and Setters
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -1,9 +1,17 @@
 package com.att.tdp.popcorn_palace.repository;
 
+import com.att.tdp.popcorn_palace.dto.BookingResponse;
+import com.att.tdp.popcorn_palace.dto.UserBookingResponse;
 import com.att.tdp.popcorn_palace.model.Booking;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,10 +35,75 @@ public interface BookingRepository extends JpaRepository<Booking, String> {
 
     /**
      * Check if a seat is already booked for a specific showtime
+     * The showtime's start time is the partition key, so only the partition of its month is searched
      * @param showtimeId Showtime ID
+     * @param showtimeStart Start time of the showtime
      * @param seatNumber Seat number
      * @return true if seat is already booked, false otherwise
      */
-    boolean existsByShowtimeIdAndSeatNumber(Long showtimeId, Integer seatNumber);
-}
+    boolean existsByShowtimeIdAndShowtimeStartAndSeatNumber(Long showtimeId, Instant showtimeStart, Integer seatNumber);
 
+    /**
+     * Find all bookings as read-only responses, without loading entities
+     * @return List of booking responses
+     */
+    @Query("SELECT new com.att.tdp.popcorn_palace.dto.BookingResponse(" +
+            "b.id, b.showtimeId, b.seatNumber, b.bookingTime) FROM Booking b")
+    List<BookingResponse> findAllResponses();
+
+    /**
+     * Find a booking by id as a read-only response, without loading the entity
+     * @param id Booking id
+     * @return Optional of BookingResponse if found, empty Optional otherwise
+     */
+    @Query("SELECT new com.att.tdp.popcorn_palace.dto.BookingResponse(" +
+            "b.id, b.showtimeId, b.seatNumber, b.bookingTime) FROM Booking b WHERE b.id = :id")
+    Optional<BookingResponse> findResponseById(@Param("id") String id);
+
+    /**
+     * Find all bookings for a specific showtime as read-only responses
+     * Joining on the showtime's start time as well as its id hands the partition key to the booking
+     * scan, so PostgreSQL prunes the booking partitions of every other month at execution time
+     * @param showtimeId Showtime ID
+     * @return List of booking responses for the showtime
+     */
+    @Query("SELECT new com.att.tdp.popcorn_palace.dto.BookingResponse(" +
+            "b.id, b.showtimeId, b.seatNumber, b.bookingTime) " +
+            "FROM Showtime s JOIN Booking b ON b.showtimeId = s.id AND b.showtimeStart = s.startTime " +
+            "WHERE s.id = :showtimeId")
+    List<BookingResponse> findResponsesByShowtimeId(@Param("showtimeId") Long showtimeId);
+
+    /**
+     * Find a user's bookings joined to their showtimes, newest first, in one statement
+     * Pages by keyset: returns bookings strictly before (beforeTime, beforeId) in that order.
+     * The redundant upper bound on booking time lets the index range scan start at beforeTime.
+     * Joining on the start time as well as the id lets each showtime lookup visit one partition.
+     * @param userId User id
+     * @param beforeTime Booking time of the last booking already returned
+     * @param beforeId Id of the last booking already returned
+     * @param limit Maximum number of bookings
+     * @return User bookings with showtime details in keyset order
+     */
+    @Query("SELECT new com.att.tdp.popcorn_palace.dto.UserBookingResponse(" +
+            "b.id, b.seatNumber, b.bookingTime, " +
+            "s.id, s.movieId, s.theater, s.startTime, s.endTime, s.price) " +
+            "FROM Booking b JOIN Showtime s ON s.id = b.showtimeId AND s.startTime = b.showtimeStart " +
+            "WHERE b.userId = :userId AND b.bookingTime <= :beforeTime " +
+            "AND (b.bookingTime < :beforeTime OR b.id < :beforeId) " +
+            "ORDER BY b.bookingTime DESC, b.id DESC")
+    List<UserBookingResponse> findPageByUserId(
+            @Param("userId") String userId,
+            @Param("beforeTime") Instant beforeTime,
+            @Param("beforeId") String beforeId,
+            Limit limit);
+
+    /**
+     * Delete a booking by id in a single statement
+     * @param id Booking id
+     * @return Number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id = :id")
+    int removeById(@Param("id") String id);
+}
@@ -0,0 +1,24 @@
+package com.att.tdp.popcorn_palace.repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Conversion between instants and the TIMESTAMP columns of the schema, for statements run over R2DBC
+ * The columns hold local date-times in the JVM's time zone, which is how JDBC writes an instant
+ * into them for JPA and the batch inserts, so rows written by either stack read back the same.
+ */
+final class LocalTimestamps {
+
+    private LocalTimestamps() {
+    }
+
+    static LocalDateTime toColumn(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    static Instant fromColumn(LocalDateTime value) {
+        return value == null ? null : value.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
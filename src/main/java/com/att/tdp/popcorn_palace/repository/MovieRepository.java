@@ -1,10 +1,17 @@
 package com.att.tdp.popcorn_palace.repository;
 
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
 import com.att.tdp.popcorn_palace.model.Movie;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,4 +25,125 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
      * @return Optional of Movie if found, empty Optional otherwise
      */
     Optional<Movie> findByTitle(String title);
+
+    /**
+     * Find all movies as read-only responses, without loading entities
+     * @return List of movie responses
+     */
+    @Query("SELECT new com.att.tdp.popcorn_palace.dto.MovieResponse(" +
+            "m.id, m.title, m.genre, m.duration, m.rating, m.releaseYear, m.version) FROM Movie m")
+    List<MovieResponse> findAllResponses();
+
+    /**
+     * Find a movie by id as a read-only response, without loading the entity
+     * @param id Movie id
+     * @return Optional of MovieResponse if found, empty Optional otherwise
+     */
+    @Query("SELECT new com.att.tdp.popcorn_palace.dto.MovieResponse(" +
+            "m.id, m.title, m.genre, m.duration, m.rating, m.releaseYear, m.version) FROM Movie m WHERE m.id = :id")
+    Optional<MovieResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Find several movies by id as read-only responses, in one statement
+     * @param ids Movie ids
+     * @return Responses of the movies that exist, in no particular order
+     */
+    @Query("SELECT new com.att.tdp.popcorn_palace.dto.MovieResponse(" +
+            "m.id, m.title, m.genre, m.duration, m.rating, m.releaseYear, m.version) FROM Movie m WHERE m.id IN :ids")
+    List<MovieResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Update all columns of a movie by id in a single statement, incrementing its version
+     * With an expected version the row is only updated if nobody else updated it since that version
+     * was read, as in updateByTitleAndIdIn.
+     * @param id Movie id to update
+     * @param version Version the update is based on, or null to update whatever version is current
+     * @param title New title
+     * @param genre New genre
+     * @param duration New duration
+     * @param rating New rating
+     * @param releaseYear New release year
+     * @return Number of rows updated
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Movie m SET m.title = :title, m.genre = :genre, m.duration = :duration, " +
+            "m.rating = :rating, m.releaseYear = :releaseYear, m.version = m.version + 1 " +
+            "WHERE m.id = :id AND (m.version = :version OR :version IS NULL)")
+    int updateById(
+            @Param("id") Long id,
+            @Param("version") Long version,
+            @Param("title") String title,
+            @Param("genre") String genre,
+            @Param("duration") Integer duration,
+            @Param("rating") String rating,
+            @Param("releaseYear") Integer releaseYear);
+
+    /**
+     * Update all columns of the movies with a title in a single statement, incrementing their versions
+     * Only the given movies are updated, and only while they still have the title. With an expected
+     * version a row is only updated if nobody else updated it since that version was read; a lost
+     * race then shows as zero rows updated instead of a silently overwritten update.
+     * @param ids Ids of the movies found with the title
+     * @param currentTitle Movie title to update
+     * @param version Version the update is based on, or null to update whatever version is current
+     * @param title New title
+     * @param genre New genre
+     * @param duration New duration
+     * @param rating New rating
+     * @param releaseYear New release year
+     * @return Number of rows updated
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Movie m SET m.title = :title, m.genre = :genre, m.duration = :duration, " +
+            "m.rating = :rating, m.releaseYear = :releaseYear, m.version = m.version + 1 " +
+            "WHERE m.id IN :ids AND m.title = :currentTitle AND (m.version = :version OR :version IS NULL)")
+    int updateByTitleAndIdIn(
+            @Param("ids") Collection<Long> ids,
+            @Param("currentTitle") String currentTitle,
+            @Param("version") Long version,
+            @Param("title") String title,
+            @Param("genre") String genre,
+            @Param("duration") Integer duration,
+            @Param("rating") String rating,
+            @Param("releaseYear") Integer releaseYear);
+
+    /**
+     * Delete a movie by id in a single statement
+     * @param id Movie id
+     * @return Number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Movie m WHERE m.id = :id")
+    int removeById(@Param("id") Long id);
+
+    /**
+     * Find the ids of the movies with a title
+     * @param title Movie title
+     * @return Ids of the movies with that title
+     */
+    @Query("SELECT m.id FROM Movie m WHERE m.title = :title")
+    List<Long> findIdsByTitle(@Param("title") String title);
+
+    /**
+     * Delete movies by id in a single statement
+     * @param ids Movie ids
+     * @return Number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Movie m WHERE m.id IN :ids")
+    int removeByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete movies by title in a single statement
+     * @param title Movie title
+     * @return Number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Movie m WHERE m.title = :title")
+    int removeByTitle(@Param("title") String title);
 }
@@ -0,0 +1,163 @@
+package com.att.tdp.popcorn_palace.repository;
+
+import com.att.tdp.popcorn_palace.dto.BookingResponse;
+import com.att.tdp.popcorn_palace.dto.UserBookingResponse;
+import com.att.tdp.popcorn_palace.model.Booking;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static com.att.tdp.popcorn_palace.repository.LocalTimestamps.fromColumn;
+import static com.att.tdp.popcorn_palace.repository.LocalTimestamps.toColumn;
+
+/**
+ * Booking statements of the reactive booking API, over R2DBC
+ * Each statement is the SQL counterpart of a BookingRepository query and keeps its join on the
+ * showtime's start time, so it uses the same indexes and prunes the same partitions.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingRepository {
+
+    private static final String COLUMNS = "b.id, b.showtime_id, b.seat_number, b.booking_time";
+
+    private final DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactiveBookingRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Check if a seat is already booked for a showtime
+     * @param showtimeId Showtime id
+     * @param showtimeStart Start time of the showtime
+     * @param seatNumber Seat number
+     * @return true if the seat is already booked, false otherwise
+     */
+    public Mono<Boolean> existsByShowtimeIdAndShowtimeStartAndSeatNumber(Long showtimeId, Instant showtimeStart,
+                                                                         Integer seatNumber) {
+        return databaseClient.sql("SELECT 1 FROM booking WHERE showtime_id = :showtimeId " +
+                        "AND showtime_start = :showtimeStart AND seat_number = :seatNumber")
+                .bind("showtimeId", showtimeId)
+                .bind("showtimeStart", toColumn(showtimeStart))
+                .bind("seatNumber", seatNumber)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Find all bookings as read-only responses
+     * @return Booking responses
+     */
+    public Flux<BookingResponse> findAllResponses() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM booking b")
+                .map(ReactiveBookingRepository::toResponse)
+                .all();
+    }
+
+    /**
+     * Find a booking by id as a read-only response
+     * @param id Booking id
+     * @return Booking response if found, empty otherwise
+     */
+    public Mono<BookingResponse> findResponseById(String id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM booking b WHERE b.id = :id")
+                .bind("id", id)
+                .map(ReactiveBookingRepository::toResponse)
+                .first();
+    }
+
+    /**
+     * Find all bookings for a specific showtime as read-only responses
+     * @param showtimeId Showtime id
+     * @return Booking responses of the showtime
+     * @see BookingRepository#findResponsesByShowtimeId(Long)
+     */
+    public Flux<BookingResponse> findResponsesByShowtimeId(Long showtimeId) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM showtime s " +
+                        "JOIN booking b ON b.showtime_id = s.id AND b.showtime_start = s.start_time " +
+                        "WHERE s.id = :showtimeId")
+                .bind("showtimeId", showtimeId)
+                .map(ReactiveBookingRepository::toResponse)
+                .all();
+    }
+
+    /**
+     * Find a user's bookings joined to their showtimes, newest first
+     * @param userId User id
+     * @param beforeTime Booking time of the last booking already returned
+     * @param beforeId Id of the last booking already returned
+     * @param limit Maximum number of bookings
+     * @return User bookings with showtime details in keyset order
+     * @see BookingRepository#findPageByUserId(String, Instant, String, org.springframework.data.domain.Limit)
+     */
+    public Flux<UserBookingResponse> findPageByUserId(String userId, Instant beforeTime, String beforeId, int limit) {
+        return databaseClient.sql("SELECT b.id, b.seat_number, b.booking_time, " +
+                        "s.id AS showtime_id, s.movie_id, s.theater, s.start_time, s.end_time, s.price " +
+                        "FROM booking b JOIN showtime s ON s.id = b.showtime_id AND s.start_time = b.showtime_start " +
+                        "WHERE b.user_id = :userId AND b.booking_time <= :beforeTime " +
+                        "AND (b.booking_time < :beforeTime OR b.id < :beforeId) " +
+                        "ORDER BY b.booking_time DESC, b.id DESC LIMIT :limit")
+                .bind("userId", userId)
+                .bind("beforeTime", toColumn(beforeTime))
+                .bind("beforeId", beforeId)
+                .bind("limit", limit)
+                .map(row -> new UserBookingResponse(
+                        row.get("id", String.class),
+                        row.get("seat_number", Integer.class),
+                        fromColumn(row.get("booking_time", LocalDateTime.class)),
+                        row.get("showtime_id", Long.class),
+                        row.get("movie_id", Long.class),
+                        row.get("theater", String.class),
+                        fromColumn(row.get("start_time", LocalDateTime.class)),
+                        fromColumn(row.get("end_time", LocalDateTime.class)),
+                        row.get("price", Double.class)))
+                .all();
+    }
+
+    /**
+     * Insert a new booking
+     * @param booking Booking with its id and showtime start time set
+     * @return Completion once inserted
+     */
+    public Mono<Void> insert(Booking booking) {
+        return databaseClient.sql("INSERT INTO booking (id, showtime_id, showtime_start, user_id, seat_number, booking_time) " +
+                        "VALUES (:id, :showtimeId, :showtimeStart, :userId, :seatNumber, :bookingTime)")
+                .bind("id", booking.getId())
+                .bind("showtimeId", booking.getShowtimeId())
+                .bind("showtimeStart", toColumn(booking.getShowtimeStart()))
+                .bind("userId", booking.getUserId())
+                .bind("seatNumber", booking.getSeatNumber())
+                .bind("bookingTime", toColumn(booking.getBookingTime()))
+                .then();
+    }
+
+    /**
+     * Delete a booking by id
+     * @param id Booking id
+     * @return Number of rows deleted
+     */
+    public Mono<Long> removeById(String id) {
+        return databaseClient.sql("DELETE FROM booking WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static BookingResponse toResponse(Readable row) {
+        return new BookingResponse(
+                row.get("id", String.class),
+                row.get("showtime_id", Long.class),
+                row.get("seat_number", Integer.class),
+                fromColumn(row.get("booking_time", LocalDateTime.class)));
+    }
+}
@@ -0,0 +1,60 @@
+package com.att.tdp.popcorn_palace.repository;
+
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Movie lookups of the reactive showtime API, over R2DBC
+ * The statements match those of MovieRepository that the showtime service uses.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMovieRepository {
+
+    private final DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactiveMovieRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Check whether a movie exists
+     * @param id Movie id
+     * @return true if the movie exists, false otherwise
+     */
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("SELECT 1 FROM movie WHERE id = :id")
+                .bind("id", id)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Find movies by id as read-only responses
+     * @param ids Movie ids
+     * @return Responses of the movies that exist, in no particular order
+     */
+    public Flux<MovieResponse> findResponsesByIdIn(Collection<Long> ids) {
+        return databaseClient.sql("SELECT id, title, genre, duration, rating, release_year, version FROM movie " +
+                        "WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(row -> new MovieResponse(
+                        row.get("id", Long.class),
+                        row.get("title", String.class),
+                        row.get("genre", String.class),
+                        row.get("duration", Integer.class),
+                        row.get("rating", String.class),
+                        row.get("release_year", Integer.class),
+                        row.get("version", Long.class)))
+                .all();
+    }
+}
@@ -0,0 +1,227 @@
+package com.att.tdp.popcorn_palace.repository;
+
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.model.Showtime;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static com.att.tdp.popcorn_palace.repository.LocalTimestamps.fromColumn;
+import static com.att.tdp.popcorn_palace.repository.LocalTimestamps.toColumn;
+
+/**
+ * Showtime statements of the reactive showtime and booking APIs, over R2DBC
+ * Each statement is the SQL counterpart of a ShowtimeRepository query and keeps its bounds, so it
+ * uses the same indexes and prunes the same partitions.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveShowtimeRepository {
+
+    private static final String COLUMNS = "s.id, s.movie_id, s.theater, s.start_time, s.end_time, s.price, s.version";
+
+    private final DatabaseClient databaseClient;
+
+    @Autowired
+    public ReactiveShowtimeRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Check whether a showtime exists
+     * @param id Showtime id
+     * @return true if the showtime exists, false otherwise
+     */
+    public Mono<Boolean> existsById(Long id) {
+        return databaseClient.sql("SELECT 1 FROM showtime WHERE id = :id")
+                .bind("id", id)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Check whether a theater has a showtime overlapping a time range
+     * @param theater Theater name
+     * @param earliestStart Earliest start time of a showtime that can still overlap
+     * @param startTime Start time of the range
+     * @param endTime End time of the range
+     * @param id Showtime id to leave out, for updates; null for new showtimes
+     * @return true if an overlapping showtime exists, false otherwise
+     * @see ShowtimeRepository#findOverlappingShowtimes(String, Instant, Instant, Instant, Long)
+     */
+    public Mono<Boolean> existsOverlapping(String theater, Instant earliestStart, Instant startTime, Instant endTime,
+                                           Long id) {
+        String sql = "SELECT 1 FROM showtime s WHERE s.theater = :theater " +
+                "AND s.start_time >= :earliestStart AND s.start_time <= :endTime " +
+                "AND ((s.start_time <= :endTime AND s.end_time >= :startTime) " +
+                "OR (s.start_time >= :startTime AND s.start_time <= :endTime) " +
+                "OR (s.end_time >= :startTime AND s.end_time <= :endTime))";
+        DatabaseClient.GenericExecuteSpec statement = databaseClient.sql(id != null ? sql + " AND s.id <> :id" : sql)
+                .bind("theater", theater)
+                .bind("earliestStart", toColumn(earliestStart))
+                .bind("startTime", toColumn(startTime))
+                .bind("endTime", toColumn(endTime));
+        if (id != null) {
+            statement = statement.bind("id", id);
+        }
+        return statement.map(row -> true).first().defaultIfEmpty(false);
+    }
+
+    /**
+     * Find the start time of a showtime, the partition key of its bookings
+     * @param id Showtime id
+     * @return Start time if the showtime exists, empty otherwise
+     */
+    public Mono<Instant> findStartTimeById(Long id) {
+        return databaseClient.sql("SELECT start_time FROM showtime WHERE id = :id")
+                .bind("id", id)
+                .map(row -> fromColumn(row.get("start_time", LocalDateTime.class)))
+                .first();
+    }
+
+    /**
+     * Find the current version of a showtime
+     * @param id Showtime id
+     * @return Version if the showtime exists, empty otherwise
+     */
+    public Mono<Long> findVersionById(Long id) {
+        return databaseClient.sql("SELECT version FROM showtime WHERE id = :id")
+                .bind("id", id)
+                .map(row -> row.get("version", Long.class))
+                .first();
+    }
+
+    /**
+     * Find all showtimes as read-only responses
+     * @return Showtime responses
+     */
+    public Flux<ShowtimeResponse> findAllResponses() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM showtime s")
+                .map(ReactiveShowtimeRepository::toResponse)
+                .all();
+    }
+
+    /**
+     * Find a showtime by id as a read-only response
+     * @param id Showtime id
+     * @return Showtime response if found, empty otherwise
+     */
+    public Mono<ShowtimeResponse> findResponseById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM showtime s WHERE s.id = :id")
+                .bind("id", id)
+                .map(ReactiveShowtimeRepository::toResponse)
+                .first();
+    }
+
+    /**
+     * Find showtimes starting in a time window, ordered by start time and id, optionally of one
+     * movie and in one theater
+     * Pages by keyset like the findPage queries of ShowtimeRepository. Only the filters given take
+     * part in the statement, so each combination runs as a range scan of its own composite index.
+     * @param movieId Movie id filter, may be null
+     * @param theater Theater filter, may be null
+     * @param afterStart Start time of the last showtime already returned, or the window start
+     * @param afterId Id of the last showtime already returned, or 0 for the window start
+     * @param to Exclusive upper bound of the start time
+     * @param limit Maximum number of showtimes
+     * @return Showtime responses in keyset order
+     * @see ShowtimeRepository#findPage(Instant, Long, Instant, org.springframework.data.domain.Limit)
+     */
+    public Flux<ShowtimeResponse> findPage(Long movieId, String theater, Instant afterStart, long afterId,
+                                           Instant to, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM showtime s WHERE ");
+        if (movieId != null) {
+            sql.append("s.movie_id = :movieId AND ");
+        }
+        if (theater != null) {
+            sql.append("s.theater = :theater AND ");
+        }
+        sql.append("s.start_time >= :afterStart AND s.start_time < :to ")
+                .append("AND (s.start_time > :afterStart OR s.id > :afterId) ")
+                .append("ORDER BY s.start_time, s.id LIMIT :limit");
+        DatabaseClient.GenericExecuteSpec statement = databaseClient.sql(sql.toString())
+                .bind("afterStart", toColumn(afterStart))
+                .bind("afterId", afterId)
+                .bind("to", toColumn(to))
+                .bind("limit", limit);
+        if (movieId != null) {
+            statement = statement.bind("movieId", movieId);
+        }
+        if (theater != null) {
+            statement = statement.bind("theater", theater);
+        }
+        return statement.map(ReactiveShowtimeRepository::toResponse).all();
+    }
+
+    /**
+     * Insert a new showtime at version 0
+     * @param showtime Showtime to insert
+     * @return Generated id
+     */
+    public Mono<Long> insert(Showtime showtime) {
+        return databaseClient.sql("INSERT INTO showtime (movie_id, theater, start_time, end_time, price, version) " +
+                        "VALUES (:movieId, :theater, :startTime, :endTime, :price, 0)")
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .bind("movieId", showtime.getMovieId())
+                .bind("theater", showtime.getTheater())
+                .bind("startTime", toColumn(showtime.getStartTime()))
+                .bind("endTime", toColumn(showtime.getEndTime()))
+                .bind("price", showtime.getPrice())
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    /**
+     * Update all columns of a showtime by id, if it is still at a given version
+     * @param id Showtime id to update
+     * @param version Version the update is based on
+     * @param showtime New values
+     * @return Number of rows updated; zero if the showtime does not exist or is at another version
+     * @see ShowtimeRepository#updateById(Long, Long, Long, String, Instant, Instant, Double)
+     */
+    public Mono<Long> updateById(Long id, long version, Showtime showtime) {
+        return databaseClient.sql("UPDATE showtime SET movie_id = :movieId, theater = :theater, " +
+                        "start_time = :startTime, end_time = :endTime, price = :price, version = version + 1 " +
+                        "WHERE id = :id AND version = :version")
+                .bind("id", id)
+                .bind("version", version)
+                .bind("movieId", showtime.getMovieId())
+                .bind("theater", showtime.getTheater())
+                .bind("startTime", toColumn(showtime.getStartTime()))
+                .bind("endTime", toColumn(showtime.getEndTime()))
+                .bind("price", showtime.getPrice())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Delete a showtime by id; its bookings go with it
+     * @param id Showtime id
+     * @return Number of rows deleted
+     */
+    public Mono<Long> removeById(Long id) {
+        return databaseClient.sql("DELETE FROM showtime WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static ShowtimeResponse toResponse(Readable row) {
+        return new ShowtimeResponse(
+                row.get("id", Long.class),
+                row.get("movie_id", Long.class),
+                row.get("theater", String.class),
+                fromColumn(row.get("start_time", LocalDateTime.class)),
+                fromColumn(row.get("end_time", LocalDateTime.class)),
+                row.get("price", Double.class),
+                row.get("version", Long.class));
+    }
+}
@@ -1,33 +1,222 @@
 package com.att.tdp.popcorn_palace.repository;
 
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMovieResponse;
 import com.att.tdp.popcorn_palace.model.Showtime;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ShowtimeRepository extends JpaRepository<Showtime, Long> {
 
     /**
      * Find overlapping showtimes for a specific theater
+     * An overlapping showtime starts no later than endTime, and no earlier than startTime minus the
+     * longest allowed showtime. Bounding the start time on both sides lets PostgreSQL prune every
+     * showtime partition outside those months.
      * @param theater Theater name
+     * @param earliestStart Earliest start time of a showtime that can still overlap
      * @param startTime Start time of the showtime
      * @param endTime End time of the showtime
      * @param id Showtime ID (for update operations, to exclude current showtime)
      * @return List of overlapping showtimes
      */
     @Query("SELECT s FROM Showtime s WHERE s.theater = :theater " +
+            "AND s.startTime >= :earliestStart AND s.startTime <= :endTime " +
             "AND ((s.startTime <= :endTime AND s.endTime >= :startTime) " +
             "OR (s.startTime >= :startTime AND s.startTime <= :endTime) " +
             "OR (s.endTime >= :startTime AND s.endTime <= :endTime)) " +
             "AND (s.id != :id OR :id IS NULL)")
     List<Showtime> findOverlappingShowtimes(
             @Param("theater") String theater,
+            @Param("earliestStart") Instant earliestStart,
             @Param("startTime") Instant startTime,
             @Param("endTime") Instant endTime,
             @Param("id") Long id);
+
+    /**
+     * Find the start time of a showtime, the partition key of its bookings
+     * @param id Showtime id
+     * @return Optional of the start time if the showtime exists, empty Optional otherwise
+     */
+    @Query("SELECT s.startTime FROM Showtime s WHERE s.id = :id")
+    Optional<Instant> findStartTimeById(@Param("id") Long id);
+
+    /**
+     * Find the current version of a showtime
+     * @param id Showtime id
+     * @return Optional of the version if the showtime exists, empty Optional otherwise
+     */
+    @Query("SELECT s.version FROM Showtime s WHERE s.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Find all showtimes as read-only responses, without loading entities
+     * @return List of showtime responses
+     */
+    @Query("SELECT new com.att.tdp.popcorn_palace.dto.ShowtimeResponse(" +
+            "s.id, s.movieId, s.theater, s.startTime, s.endTime, s.price, s.version) FROM Showtime s")
+    List<ShowtimeResponse> findAllResponses();
+
+    /**
+     * Find a showtime by id as a read-only response, without loading the entity
+     * @param id Showtime id
+     * @return Optional of ShowtimeResponse if found, empty Optional otherwise
+     */
+    @Query("SELECT new com.att.tdp.popcorn_palace.dto.ShowtimeResponse(" +
+            "s.id, s.movieId, s.theater, s.startTime, s.endTime, s.price, s.version) FROM Showtime s WHERE s.id = :id")
+    Optional<ShowtimeResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Find showtimes starting in a time window, ordered by start time and id
+     * Pages by keyset: returns showtimes strictly after (afterStart, afterId) in that order.
+     * The redundant lower bound on start time lets the index range scan start at afterStart,
+     * and together with the upper bound prunes the partitions of months outside the window.
+     * @param afterStart Start time of the last showtime already returned, or the window start
+     * @param afterId Id of the last showtime already returned, or 0 for the window start
+     * @param to Exclusive upper bound of the start time
+     * @param limit Maximum number of showtimes
+     * @return Showtime responses in keyset order
+     */
+    @Query("SELECT new com.att.tdp.popcorn_palace.dto.ShowtimeResponse(" +
+            "s.id, s.movieId, s.theater, s.startTime, s.endTime, s.price, s.version) FROM Showtime s " +
+            "WHERE s.startTime >= :afterStart AND s.startTime < :to " +
+            "AND (s.startTime > :afterStart OR s.id > :afterId) " +
+            "ORDER BY s.startTime, s.id")
+    List<ShowtimeResponse> findPage(
+            @Param("afterStart") Instant afterStart,
+            @Param("afterId") Long afterId,
+            @Param("to") Instant to,
+            Limit limit);
+
+    /**
+     * Find showtimes of a movie starting in a time window, ordered by start time and id
+     * @param movieId Movie id
+     * @param afterStart Start time of the last showtime already returned, or the window start
+     * @param afterId Id of the last showtime already returned, or 0 for the window start
+     * @param to Exclusive upper bound of the start time
+     * @param limit Maximum number of showtimes
+     * @return Showtime responses in keyset order
+     * @see #findPage(Instant, Long, Instant, Limit)
+     */
+    @Query("SELECT new com.att.tdp.popcorn_palace.dto.ShowtimeResponse(" +
+            "s.id, s.movieId, s.theater, s.startTime, s.endTime, s.price, s.version) FROM Showtime s " +
+            "WHERE s.movieId = :movieId AND s.startTime >= :afterStart AND s.startTime < :to " +
+            "AND (s.startTime > :afterStart OR s.id > :afterId) " +
+            "ORDER BY s.startTime, s.id")
+    List<ShowtimeResponse> findPageByMovieId(
+            @Param("movieId") Long movieId,
+            @Param("afterStart") Instant afterStart,
+            @Param("afterId") Long afterId,
+            @Param("to") Instant to,
+            Limit limit);
+
+    /**
+     * Find showtimes in a theater starting in a time window, ordered by start time and id
+     * @param theater Theater name
+     * @param afterStart Start time of the last showtime already returned, or the window start
+     * @param afterId Id of the last showtime already returned, or 0 for the window start
+     * @param to Exclusive upper bound of the start time
+     * @param limit Maximum number of showtimes
+     * @return Showtime responses in keyset order
+     * @see #findPage(Instant, Long, Instant, Limit)
+     */
+    @Query("SELECT new com.att.tdp.popcorn_palace.dto.ShowtimeResponse(" +
+            "s.id, s.movieId, s.theater, s.startTime, s.endTime, s.price, s.version) FROM Showtime s " +
+            "WHERE s.theater = :theater AND s.startTime >= :afterStart AND s.startTime < :to " +
+            "AND (s.startTime > :afterStart OR s.id > :afterId) " +
+            "ORDER BY s.startTime, s.id")
+    List<ShowtimeResponse> findPageByTheater(
+            @Param("theater") String theater,
+            @Param("afterStart") Instant afterStart,
+            @Param("afterId") Long afterId,
+            @Param("to") Instant to,
+            Limit limit);
+
+    /**
+     * Find showtimes of a movie in a theater starting in a time window, ordered by start time and id
+     * @param movieId Movie id
+     * @param theater Theater name
+     * @param afterStart Start time of the last showtime already returned, or the window start
+     * @param afterId Id of the last showtime already returned, or 0 for the window start
+     * @param to Exclusive upper bound of the start time
+     * @param limit Maximum number of showtimes
+     * @return Showtime responses in keyset order
+     * @see #findPage(Instant, Long, Instant, Limit)
+     */
+    @Query("SELECT new com.att.tdp.popcorn_palace.dto.ShowtimeResponse(" +
+            "s.id, s.movieId, s.theater, s.startTime, s.endTime, s.price, s.version) FROM Showtime s " +
+            "WHERE s.movieId = :movieId AND s.theater = :theater " +
+            "AND s.startTime >= :afterStart AND s.startTime < :to " +
+            "AND (s.startTime > :afterStart OR s.id > :afterId) " +
+            "ORDER BY s.startTime, s.id")
+    List<ShowtimeResponse> findPageByMovieIdAndTheater(
+            @Param("movieId") Long movieId,
+            @Param("theater") String theater,
+            @Param("afterStart") Instant afterStart,
+            @Param("afterId") Long afterId,
+            @Param("to") Instant to,
+            Limit limit);
+
+    /**
+     * Find showtimes starting in a time window joined to their movies, in one statement
+     * @param from Inclusive lower bound of the start time
+     * @param to Exclusive upper bound of the start time
+     * @return Showtimes with movie details, ordered by start time and id
+     */
+    @Query("SELECT new com.att.tdp.popcorn_palace.dto.ShowtimeWithMovieResponse(" +
+            "s.id, s.theater, s.startTime, s.endTime, s.price, " +
+            "m.id, m.title, m.genre, m.duration, m.rating, m.releaseYear) " +
+            "FROM Showtime s JOIN Movie m ON m.id = s.movieId " +
+            "WHERE s.startTime >= :from AND s.startTime < :to " +
+            "ORDER BY s.startTime, s.id")
+    List<ShowtimeWithMovieResponse> findWithMovieStartingBetween(
+            @Param("from") Instant from,
+            @Param("to") Instant to);
+
+    /**
+     * Update all columns of a showtime by id in a single statement, if it is still at a given version
+     * The version is incremented with the update. Zero rows updated means the showtime does not exist
+     * or was updated by someone else since the version was read.
+     * @param id Showtime id to update
+     * @param version Version the update is based on
+     * @param movieId New movie id
+     * @param theater New theater name
+     * @param startTime New start time
+     * @param endTime New end time
+     * @param price New price
+     * @return Number of rows updated
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Showtime s SET s.movieId = :movieId, s.theater = :theater, s.startTime = :startTime, " +
+            "s.endTime = :endTime, s.price = :price, s.version = s.version + 1 " +
+            "WHERE s.id = :id AND s.version = :version")
+    int updateById(
+            @Param("id") Long id,
+            @Param("version") Long version,
+            @Param("movieId") Long movieId,
+            @Param("theater") String theater,
+            @Param("startTime") Instant startTime,
+            @Param("endTime") Instant endTime,
+            @Param("price") Double price);
+
+    /**
+     * Delete a showtime by id in a single statement
+     * @param id Showtime id
+     * @return Number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Showtime s WHERE s.id = :id")
+    int removeById(@Param("id") Long id);
 }
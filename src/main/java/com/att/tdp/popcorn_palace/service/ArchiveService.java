@@ -0,0 +1,122 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.BookingResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimePage;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only access to the showtimes and bookings moved to the archive tables by ShowtimeArchiver
+ */
+@Service
+public class ArchiveService {
+
+    public static final int MAX_PAGE_SIZE = ShowtimeService.MAX_PAGE_SIZE;
+
+    private static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
+    static final String SHOWTIMES_SQL = "SELECT id, movie_id, theater, start_time, end_time, price "
+            + "FROM showtime_archive WHERE start_time >= ? AND start_time < ? AND (start_time > ? OR id > ?)";
+    static final String BOOKINGS_SQL = "SELECT id, showtime_id, seat_number, booking_time FROM booking_archive "
+            + "WHERE showtime_id = ? ORDER BY seat_number";
+
+    private static final RowMapper<ShowtimeResponse> SHOWTIME_MAPPER = (resultSet, rowNum) -> new ShowtimeResponse(
+            resultSet.getLong("id"),
+            resultSet.getLong("movie_id"),
+            resultSet.getString("theater"),
+            resultSet.getTimestamp("start_time").toInstant(),
+            resultSet.getTimestamp("end_time").toInstant(),
+            resultSet.getDouble("price"));
+
+    private static final RowMapper<BookingResponse> BOOKING_MAPPER = (resultSet, rowNum) -> {
+        Timestamp bookingTime = resultSet.getTimestamp("booking_time");
+        return new BookingResponse(
+                resultSet.getString("id"),
+                resultSet.getLong("showtime_id"),
+                resultSet.getInt("seat_number"),
+                bookingTime != null ? bookingTime.toInstant() : null);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ArchiveService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Find archived showtimes by movie, theater and start time window, one page at a time
+     * Pages are ordered by start time and id, with the cursors of ShowtimeService.findShowtimes
+     * @param movieId Movie id filter, may be null
+     * @param theater Theater filter, may be null
+     * @param from Inclusive lower bound of the start time, or null for no bound
+     * @param to Exclusive upper bound of the start time, or null for no bound
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of showtimes per page, between 1 and MAX_PAGE_SIZE
+     * @return Page of archived showtimes with the cursor of the next page
+     * @throws IllegalArgumentException if the limit, the window or the cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public ShowtimePage findShowtimes(Long movieId, String theater, Instant from, Instant to, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Instant windowStart = from != null ? from : Instant.EPOCH;
+        Instant windowEnd = to != null ? to : END_OF_TIME;
+        if (!windowStart.isBefore(windowEnd)) {
+            throw new IllegalArgumentException("From must be before to");
+        }
+
+        Instant afterStart = windowStart;
+        long afterId = 0L;
+        if (cursor != null) {
+            KeysetCursor last = KeysetCursor.decode(cursor);
+            if (!last.time().isBefore(windowStart)) {
+                afterStart = last.time();
+                afterId = last.longId();
+            }
+        }
+
+        StringBuilder sql = new StringBuilder(SHOWTIMES_SQL);
+        List<Object> args = new ArrayList<>(List.of(
+                Timestamp.from(afterStart), Timestamp.from(windowEnd), Timestamp.from(afterStart), afterId));
+        if (movieId != null) {
+            sql.append(" AND movie_id = ?");
+            args.add(movieId);
+        }
+        if (theater != null && !theater.isBlank()) {
+            sql.append(" AND theater = ?");
+            args.add(theater);
+        }
+        // Fetch one extra row to learn whether another page follows
+        sql.append(" ORDER BY start_time, id LIMIT ?");
+        args.add(limit + 1);
+
+        List<ShowtimeResponse> showtimes = jdbcTemplate.query(sql.toString(), SHOWTIME_MAPPER, args.toArray());
+        if (showtimes.size() <= limit) {
+            return new ShowtimePage(showtimes, null);
+        }
+        List<ShowtimeResponse> page = List.copyOf(showtimes.subList(0, limit));
+        ShowtimeResponse last = page.get(limit - 1);
+        return new ShowtimePage(page, KeysetCursor.of(last.startTime(), last.id()).encode());
+    }
+
+    /**
+     * Get the bookings of an archived showtime
+     * @param showtimeId Showtime id
+     * @return Archived bookings ordered by seat number, empty if the showtime has none or is not archived
+     */
+    @Transactional(readOnly = true)
+    public List<BookingResponse> getBookingsByShowtimeId(Long showtimeId) {
+        return jdbcTemplate.query(BOOKINGS_SQL, BOOKING_MAPPER, showtimeId);
+    }
+}
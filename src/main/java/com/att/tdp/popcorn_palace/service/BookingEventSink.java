@@ -0,0 +1,26 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.BookingEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the events BookingOutboxDispatcher takes from the outbox
+ * Delivery is at least once. A whole batch is delivered again when deliver throws, even if the
+ * destination had received some of it, when its removal from the outbox did not commit, and when
+ * the delivering node stopped or outlasted its claim before removing it. Every event carries the
+ * unique id of its outbox row, so receivers drop events whose id they have already seen. Ids are
+ * not a high-water mark: a transaction that commits late can add an event with a lower id after
+ * higher ones were delivered. Implementations must not return before the destination durably
+ * accepted the batch.
+ */
+interface BookingEventSink {
+
+    /**
+     * Deliver a batch of events, returning only once the destination has accepted all of them
+     * @param events Events in outbox order
+     * @throws IOException if the batch could not be delivered
+     */
+    void deliver(List<BookingEvent> events) throws IOException;
+}
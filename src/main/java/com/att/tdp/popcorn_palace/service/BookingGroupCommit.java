@@ -0,0 +1,248 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.BookingGroupCommitProperties;
+import com.att.tdp.popcorn_palace.model.Booking;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gathers concurrent booking inserts into one JDBC batch and one commit
+ * Callers block until the batch holding their booking commits and each gets its own result, so
+ * under load the number of commits grows with the number of batches rather than of bookings.
+ * A seat conflict is reported per booking through ON CONFLICT on the seat constraint instead of
+ * failing the whole batch; any other constraint, such as a duplicate id, still fails as an error.
+ * That conflict target is the seat constraint of the PostgreSQL migration V5, so the bean is only
+ * created when enabled explicitly, against a PostgreSQL schema migrated past V5.
+ */
+@Component
+@ConditionalOnProperty(prefix = "popcorn-palace.booking.group-commit", name = "enabled", havingValue = "true")
+public class BookingGroupCommit {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingGroupCommit.class);
+
+    // Update counts tell inserted (1) from conflicting (0) rows; this needs a driver that reports
+    // per-statement counts, which pgjdbc does unless reWriteBatchedInserts is on
+    static final String INSERT_SQL = "INSERT INTO booking (id, showtime_id, showtime_start, user_id, seat_number, "
+            + "booking_time) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (showtime_id, showtime_start, seat_number) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    // Present only when the booking outbox is enabled
+    private final BookingOutbox outbox;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Claim> queue = new LinkedBlockingQueue<>();
+    private final Thread committer = new Thread(this::commitLoop, "booking-group-commit");
+
+    private volatile boolean running = true;
+
+    private record Claim(Booking booking, CompletableFuture<Boolean> result) {
+    }
+
+    private record SeatKey(Long showtimeId, Integer seatNumber) {
+    }
+
+    public BookingGroupCommit(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              BookingGroupCommitProperties properties, @Nullable BookingOutbox outbox) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.outbox = outbox;
+        this.maxBatchSize = properties.maxBatchSize();
+        this.maxWaitNanos = properties.maxWait().toNanos();
+        committer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        committer.start();
+    }
+
+    /**
+     * Insert a booking with the next batch and wait for it to commit
+     * @param booking Booking with its id, showtime, user, seat and booking time set
+     * @return true if the booking was inserted, false if its seat was already taken
+     * @throws DataAccessException if the booking could not be inserted for any other reason
+     */
+    public boolean insert(Booking booking) {
+        Claim claim = new Claim(booking, new CompletableFuture<>());
+        if (!running) {
+            throw new IllegalStateException("Booking group commit is shut down");
+        }
+        queue.add(claim);
+        try {
+            return claim.result().get();
+        } catch (InterruptedException e) {
+            // Withdraw the claim while it is still queued; once in a batch its outcome must be awaited,
+            // or the caller would report a failure for a booking that gets committed
+            if (queue.remove(claim)) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the booking commit", e);
+            }
+            try {
+                return awaitUninterruptibly(claim);
+            } finally {
+                Thread.currentThread().interrupt();
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static boolean awaitUninterruptibly(Claim claim) {
+        while (true) {
+            try {
+                return claim.result().get();
+            } catch (InterruptedException e) {
+                // Interrupt status is restored by the caller
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            }
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return new IllegalStateException(e.getCause());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        committer.join(TimeUnit.SECONDS.toMillis(30));
+        Claim claim;
+        while ((claim = queue.poll()) != null) {
+            claim.result().completeExceptionally(new IllegalStateException("Booking group commit is shut down"));
+        }
+    }
+
+    private void commitLoop() {
+        List<Claim> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Claim first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Everything that queued up during the previous commit joins this one
+                queue.drainTo(batch, maxBatchSize - 1);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Claim next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Failed to commit {} bookings", batch.size(), e);
+                batch.forEach(claim -> claim.result().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Claim> batch) {
+        // The first claim of a seat in the batch wins; later ones conflict without reaching the database
+        Set<SeatKey> seats = new HashSet<>();
+        List<Claim> inserts = new ArrayList<>(batch.size());
+        for (Claim claim : batch) {
+            if (seats.add(new SeatKey(claim.booking().getShowtimeId(), claim.booking().getSeatNumber()))) {
+                inserts.add(claim);
+            } else {
+                claim.result().complete(false);
+            }
+        }
+
+        int[] counts;
+        try {
+            counts = transactionTemplate.execute(status -> {
+                int[] inserted = jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        Booking booking = inserts.get(i).booking();
+                        statement.setString(1, booking.getId());
+                        statement.setLong(2, booking.getShowtimeId());
+                        statement.setTimestamp(3, Timestamp.from(booking.getShowtimeStart()));
+                        statement.setString(4, booking.getUserId());
+                        statement.setInt(5, booking.getSeatNumber());
+                        statement.setTimestamp(6, Timestamp.from(booking.getBookingTime()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return inserts.size();
+                    }
+                });
+                if (outbox != null) {
+                    List<Booking> created = new ArrayList<>(inserts.size());
+                    for (int i = 0; i < inserts.size(); i++) {
+                        if (inserted[i] != 0) {
+                            created.add(inserts.get(i).booking());
+                        }
+                    }
+                    outbox.bookingsCreated(created);
+                }
+                return inserted;
+            });
+        } catch (DataAccessException e) {
+            // Some row broke a constraint other than the seat (its showtime was just deleted);
+            // insert one by one so the other bookings still go through
+            inserts.forEach(this::commitOne);
+            return;
+        }
+        for (int i = 0; i < inserts.size(); i++) {
+            inserts.get(i).result().complete(counts[i] != 0);
+        }
+    }
+
+    private void commitOne(Claim claim) {
+        Booking booking = claim.booking();
+        try {
+            Integer count = transactionTemplate.execute(status -> {
+                int inserted = jdbcTemplate.update(INSERT_SQL, booking.getId(), booking.getShowtimeId(),
+                        Timestamp.from(booking.getShowtimeStart()), booking.getUserId(), booking.getSeatNumber(),
+                        Timestamp.from(booking.getBookingTime()));
+                if (inserted != 0 && outbox != null) {
+                    outbox.bookingsCreated(List.of(booking));
+                }
+                return inserted;
+            });
+            claim.result().complete(count != null && count != 0);
+        } catch (RuntimeException e) {
+            claim.result().completeExceptionally(e);
+        }
+    }
+}
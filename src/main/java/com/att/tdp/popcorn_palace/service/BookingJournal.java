@@ -0,0 +1,316 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.model.Booking;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of confirmed bookings that are not yet in the database
+ * Two memory-mapped segment files are used in turn: new bookings go to the active one, and the
+ * other is cleared once everything in it has been flushed. Concurrent callers of awaitDurable
+ * share one fsync (group commit).
+ *
+ * Segment layout: an 8-byte checkpoint (highest sequence number known to be in the database),
+ * then records of [int body length][int CRC32 of body][body], where the body starts with the
+ * record's sequence number. A zero length ends the records.
+ *
+ * Waiting for an fsync uses a ReentrantLock rather than a monitor, so a virtual thread that waits
+ * releases its carrier thread.
+ */
+final class BookingJournal implements Closeable {
+
+    private static final int CHECKPOINT_SIZE = Long.BYTES;
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+    private static final int SEGMENTS = 2;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int capacity;
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+
+    // Guarded by this
+    private int active;
+    private long lastSeq;
+
+    // Guarded by syncLock
+    private long durableSeq;
+    private boolean syncing;
+
+    /**
+     * A recovered booking together with its position in the journal
+     * @param seq Sequence number
+     * @param booking Booking as confirmed to the client
+     */
+    record Entry(long seq, Booking booking) {
+    }
+
+    private static final class Segment {
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int position = CHECKPOINT_SIZE;
+        long lastSeq;
+
+        Segment(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        boolean isEmpty() {
+            return position == CHECKPOINT_SIZE;
+        }
+    }
+
+    /**
+     * Open the journal in a directory, creating its segment files if needed
+     * Call recover() before appending, to learn which bookings were not flushed
+     * @param directory Directory of the segment files
+     * @param capacity Size of each segment file in bytes
+     * @throws IOException if the files cannot be created or mapped
+     */
+    BookingJournal(Path directory, int capacity) throws IOException {
+        if (capacity < 1024) {
+            throw new IllegalArgumentException("Journal segment size must be at least 1KB");
+        }
+        this.capacity = capacity;
+        Files.createDirectories(directory);
+        for (int i = 0; i < SEGMENTS; i++) {
+            FileChannel channel = FileChannel.open(directory.resolve("booking-journal-" + i + ".log"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segments[i] = new Segment(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        }
+    }
+
+    /**
+     * Read back the bookings that were journaled after the last checkpoint
+     * Reading a segment stops at its first torn or corrupt record; records after it were never
+     * acknowledged, since a record is only confirmed once it and all before it are durable.
+     * The returned bookings must be written to the database and checkpointed before the next
+     * append, which would otherwise overwrite them.
+     * @return Unflushed bookings in journal order
+     */
+    synchronized List<Entry> recover() {
+        long checkpoint = 0;
+        List<Entry> entries = new ArrayList<>();
+        for (Segment segment : segments) {
+            checkpoint = Math.max(checkpoint, segment.buffer.getLong(0));
+            int position = CHECKPOINT_SIZE;
+            while (position + RECORD_HEADER_SIZE <= capacity) {
+                int length = segment.buffer.getInt(position);
+                if (length <= Long.BYTES || position + RECORD_HEADER_SIZE + length > capacity) {
+                    break;
+                }
+                byte[] body = new byte[length];
+                segment.buffer.get(position + RECORD_HEADER_SIZE, body);
+                if (crc(body) != segment.buffer.getInt(position + Integer.BYTES)) {
+                    break;
+                }
+                Entry entry = decode(body);
+                entries.add(entry);
+                lastSeq = Math.max(lastSeq, entry.seq());
+                position += RECORD_HEADER_SIZE + length;
+            }
+        }
+        lastSeq = Math.max(lastSeq, checkpoint);
+        syncLock.lock();
+        try {
+            durableSeq = lastSeq;
+        } finally {
+            syncLock.unlock();
+        }
+        long flushed = checkpoint;
+        // Cleared segments keep their old records behind the terminator; the checkpoint filters them
+        return entries.stream()
+                .filter(entry -> entry.seq() > flushed)
+                .sorted(Comparator.comparingLong(Entry::seq))
+                .toList();
+    }
+
+    /**
+     * Append a booking
+     * The record is not durable until awaitDurable returns for its sequence number
+     * @param booking Booking to journal
+     * @return Sequence number of the record, or -1 if both segments are full until the next checkpoint
+     */
+    synchronized long append(Booking booking) {
+        long seq = lastSeq + 1;
+        byte[] body = encode(seq, booking);
+        int size = RECORD_HEADER_SIZE + body.length;
+        if (size + Integer.BYTES > capacity - CHECKPOINT_SIZE) {
+            throw new IllegalArgumentException("Booking does not fit in a journal segment");
+        }
+
+        Segment segment = segments[active];
+        Segment other = segments[1 - active];
+        // Switch early while the other segment is free, so the full one can be cleared once flushed
+        boolean pastHalf = segment.position > capacity / 2;
+        boolean full = segment.position + size + Integer.BYTES > capacity;
+        if ((pastHalf || full) && other.isEmpty()) {
+            active = 1 - active;
+            segment = other;
+        } else if (full) {
+            return -1;
+        }
+
+        int position = segment.position;
+        ByteBuffer buffer = segment.buffer;
+        buffer.putInt(position + Integer.BYTES, crc(body));
+        buffer.put(position + RECORD_HEADER_SIZE, body);
+        buffer.putInt(position + size, 0);
+        buffer.putInt(position, body.length);
+        segment.position += size;
+        segment.lastSeq = seq;
+        lastSeq = seq;
+        return seq;
+    }
+
+    /**
+     * Block until a record and every record before it are on disk
+     * Whoever finds no fsync in progress performs one for everything appended so far; the others
+     * wait for it, so a burst of bookings costs a single fsync
+     * @param seq Sequence number returned by append
+     */
+    void awaitDurable(long seq) {
+        syncLock.lock();
+        try {
+            while (true) {
+                if (durableSeq >= seq) {
+                    return;
+                }
+                if (!syncing) {
+                    syncing = true;
+                    break;
+                }
+                try {
+                    synced.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the booking journal", e);
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+
+        long target;
+        synchronized (this) {
+            target = lastSeq;
+        }
+        boolean forced = false;
+        try {
+            force();
+            forced = true;
+        } finally {
+            syncLock.lock();
+            try {
+                syncing = false;
+                if (forced) {
+                    durableSeq = Math.max(durableSeq, target);
+                }
+                synced.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Record that every booking up to a sequence number is in the database
+     * Segments holding nothing newer are then cleared for reuse
+     * @param flushedSeq Highest sequence number written to the database
+     */
+    void checkpoint(long flushedSeq) {
+        synchronized (this) {
+            for (Segment segment : segments) {
+                segment.buffer.putLong(0, flushedSeq);
+            }
+        }
+        // The checkpoint must be on disk before a cleared segment is overwritten
+        force();
+        synchronized (this) {
+            for (Segment segment : segments) {
+                if (!segment.isEmpty() && segment.lastSeq <= flushedSeq) {
+                    segment.buffer.putInt(CHECKPOINT_SIZE, 0);
+                    segment.position = CHECKPOINT_SIZE;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.channel.close();
+        }
+    }
+
+    private void force() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    private static int crc(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encode(long seq, Booking booking) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(seq);
+            out.writeUTF(booking.getId());
+            out.writeLong(booking.getShowtimeId());
+            out.writeUTF(booking.getUserId());
+            out.writeInt(booking.getSeatNumber());
+            out.writeLong(booking.getBookingTime().getEpochSecond());
+            out.writeInt(booking.getBookingTime().getNano());
+            out.writeLong(booking.getShowtimeStart().getEpochSecond());
+            out.writeInt(booking.getShowtimeStart().getNano());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Entry decode(byte[] body) {
+        // readUTF undoes writeUTF's modified UTF-8, which encodes NUL and supplementary characters
+        // differently from standard UTF-8
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body))) {
+            long seq = in.readLong();
+            String id = in.readUTF();
+            long showtimeId = in.readLong();
+            String userId = in.readUTF();
+            int seatNumber = in.readInt();
+            Instant bookingTime = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            Booking booking = new Booking(id, showtimeId, userId, seatNumber);
+            booking.setBookingTime(bookingTime);
+            // Records journaled before bookings carried their showtime's start time end here
+            if (in.available() > 0) {
+                booking.setShowtimeStart(Instant.ofEpochSecond(in.readLong(), in.readInt()));
+            }
+            return new Entry(seq, booking);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.BookingEvent;
+import com.att.tdp.popcorn_palace.model.Booking;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records booking events in the booking_outbox table
+ * Every method must be called inside the transaction that writes the bookings, so an event is
+ * committed exactly when its booking change is. That includes bookings removed by the cascade of a
+ * movie or showtime delete and by archival, which are recorded as cancelled before the delete.
+ * BookingOutboxDispatcher delivers the events.
+ */
+@Component
+@ConditionalOnProperty(prefix = "popcorn-palace.booking.outbox", name = "enabled", havingValue = "true")
+public class BookingOutbox {
+
+    static final String INSERT_SQL = "INSERT INTO booking_outbox (event_type, booking_id, showtime_id, user_id, "
+            + "seat_number, occurred_at) VALUES (?, ?, ?, ?, ?, ?)";
+    // Booking inserts take a key share lock on their showtime, which these row locks conflict with,
+    // so no booking can be added between recording the cancellations and the cascading delete
+    static final String LOCK_MOVIES_SQL = "SELECT id FROM movie WHERE id IN ";
+    static final String LOCK_MOVIE_SHOWTIMES_SQL = "SELECT id FROM showtime WHERE movie_id IN ";
+    static final String LOCK_SHOWTIMES_SQL = "SELECT id FROM showtime WHERE id IN ";
+    static final String FOR_UPDATE = " FOR UPDATE";
+    static final String CANCEL_SHOWTIME_BOOKINGS_SQL = "INSERT INTO booking_outbox (event_type, booking_id, "
+            + "showtime_id, user_id, seat_number, occurred_at) SELECT '" + BookingEvent.Type.BOOKING_CANCELLED.name()
+            + "', id, showtime_id, user_id, seat_number, ? FROM booking WHERE showtime_id IN ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    @Autowired
+    public BookingOutbox(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, Clock.systemUTC());
+    }
+
+    BookingOutbox(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    /**
+     * Record that bookings were made, in one batch
+     * @param bookings Bookings inserted by the current transaction
+     */
+    public void bookingsCreated(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                set(statement, BookingEvent.Type.BOOKING_CREATED, bookings.get(i), bookings.get(i).getBookingTime());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return bookings.size();
+            }
+        });
+    }
+
+    /**
+     * Record that a booking was cancelled
+     * @param booking Booking deleted by the current transaction
+     */
+    public void bookingCancelled(Booking booking) {
+        jdbcTemplate.update(INSERT_SQL, statement ->
+                set(statement, BookingEvent.Type.BOOKING_CANCELLED, booking, clock.instant()));
+    }
+
+    /**
+     * Record that every booking of some movies is cancelled, ahead of deleting the movies
+     * Must be called in the transaction that deletes them, before the delete, whose cascade removes
+     * their showtimes and bookings. Locks the movies and their showtimes until that transaction ends.
+     * @param movieIds Ids of the movies about to be deleted
+     */
+    public void movieBookingsCancelled(List<Long> movieIds) {
+        if (movieIds.isEmpty()) {
+            return;
+        }
+        Object[] ids = movieIds.toArray();
+        String in = in(ids.length);
+        // Locking the movies first keeps showtimes from being added to them in the meantime
+        jdbcTemplate.queryForList(LOCK_MOVIES_SQL + in + FOR_UPDATE, Long.class, ids);
+        List<Long> showtimeIds = jdbcTemplate.queryForList(LOCK_MOVIE_SHOWTIMES_SQL + in + FOR_UPDATE, Long.class, ids);
+        cancelShowtimeBookings(showtimeIds);
+    }
+
+    /**
+     * Record that every booking of some showtimes is cancelled, ahead of deleting the showtimes
+     * Must be called in the transaction that deletes them, before the delete, whose cascade removes
+     * their bookings. Locks the showtimes until that transaction ends.
+     * @param showtimeIds Ids of the showtimes about to be deleted
+     */
+    public void showtimeBookingsCancelled(List<Long> showtimeIds) {
+        if (showtimeIds.isEmpty()) {
+            return;
+        }
+        Object[] ids = showtimeIds.toArray();
+        jdbcTemplate.queryForList(LOCK_SHOWTIMES_SQL + in(ids.length) + FOR_UPDATE, Long.class, ids);
+        cancelShowtimeBookings(showtimeIds);
+    }
+
+    private void cancelShowtimeBookings(List<Long> showtimeIds) {
+        if (showtimeIds.isEmpty()) {
+            return;
+        }
+        List<Object> args = new ArrayList<>(showtimeIds.size() + 1);
+        args.add(Timestamp.from(clock.instant()));
+        args.addAll(showtimeIds);
+        jdbcTemplate.update(CANCEL_SHOWTIME_BOOKINGS_SQL + in(showtimeIds.size()), args.toArray());
+    }
+
+    private static String in(int count) {
+        return "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
+    private static void set(PreparedStatement statement, BookingEvent.Type type, Booking booking, Instant occurredAt)
+            throws SQLException {
+        statement.setString(1, type.name());
+        statement.setString(2, booking.getId());
+        statement.setLong(3, booking.getShowtimeId());
+        statement.setString(4, booking.getUserId());
+        statement.setInt(5, booking.getSeatNumber());
+        statement.setTimestamp(6, Timestamp.from(occurredAt));
+    }
+}
@@ -0,0 +1,239 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.BookingOutboxProperties;
+import com.att.tdp.popcorn_palace.dto.BookingEvent;
+import com.att.tdp.popcorn_palace.dto.OutboxStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers the events in the booking outbox to the configured sink, in batches
+ * The oldest events are claimed in a short transaction, delivered outside of it, and deleted once
+ * the sink accepted them, so no row lock or connection is held while the sink is called. While a
+ * live claim exists no other dispatcher claims anything, so with several nodes one delivers at a
+ * time and events leave in outbox order: a showtime's events arrive in the order they were
+ * recorded, and a booking's cancellation never overtakes its creation. A failed batch is released
+ * and delivered again after a pause, ahead of anything newer; a batch whose node stopped
+ * mid-delivery is delivered again once its claim expires.
+ */
+@Component
+@ConditionalOnProperty(prefix = "popcorn-palace.booking.outbox", name = "enabled", havingValue = "true")
+public class BookingOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingOutboxDispatcher.class);
+
+    // Locks the oldest events only for the claim transaction, which serializes the dispatchers' claims
+    static final String BATCH_SQL = "SELECT id, event_type, booking_id, showtime_id, user_id, seat_number, "
+            + "occurred_at FROM booking_outbox ORDER BY id LIMIT ? FOR UPDATE";
+    static final String LIVE_CLAIMS_SQL = "SELECT COUNT(*) FROM booking_outbox WHERE claimed_until > CURRENT_TIMESTAMP";
+    static final String CLAIM_SQL = "UPDATE booking_outbox SET claimed_until = CURRENT_TIMESTAMP + make_interval(secs => ?) "
+            + "WHERE id IN ";
+    static final String RELEASE_SQL = "UPDATE booking_outbox SET claimed_until = NULL WHERE id IN ";
+    static final String DELETE_SQL = "DELETE FROM booking_outbox WHERE id IN ";
+    static final String PENDING_SQL = "SELECT COUNT(*), MIN(occurred_at) FROM booking_outbox";
+
+    private static final RowMapper<BookingEvent> EVENT_MAPPER = (resultSet, rowNum) -> new BookingEvent(
+            resultSet.getLong("id"),
+            BookingEvent.Type.valueOf(resultSet.getString("event_type")),
+            resultSet.getString("booking_id"),
+            resultSet.getLong("showtime_id"),
+            resultSet.getString("user_id"),
+            resultSet.getInt("seat_number"),
+            resultSet.getTimestamp("occurred_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingEventSink sink;
+    private final BookingOutboxProperties properties;
+    private final Clock clock;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "booking-outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private volatile Duration lastDeliveryLag;
+    private volatile boolean running = true;
+
+    @Autowired
+    public BookingOutboxDispatcher(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   ObjectMapper objectMapper, RestClient.Builder restClientBuilder,
+                                   BookingOutboxProperties properties) {
+        this(jdbcTemplate, transactionTemplate, sink(properties, objectMapper, restClientBuilder), properties,
+                Clock.systemUTC());
+    }
+
+    BookingOutboxDispatcher(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            BookingEventSink sink, BookingOutboxProperties properties, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sink = sink;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        long intervalMillis = properties.pollInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::dispatch, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        // An interrupted delivery keeps its claim until it expires, and is then delivered again
+        executor.shutdownNow();
+    }
+
+    /**
+     * Report how far delivery is behind
+     * @return Pending events and the age of the oldest, with this node's delivery counters
+     */
+    public OutboxStatus status() {
+        Instant now = clock.instant();
+        Duration lag = lastDeliveryLag;
+        return jdbcTemplate.queryForObject(PENDING_SQL, (resultSet, rowNum) -> {
+            Timestamp oldest = resultSet.getTimestamp(2);
+            return new OutboxStatus(
+                    resultSet.getLong(1),
+                    oldest == null ? 0 : Math.max(0, Duration.between(oldest.toInstant(), now).toMillis()),
+                    delivered.get(),
+                    failedAttempts.get(),
+                    lag == null ? null : lag.toMillis());
+        });
+    }
+
+    /**
+     * Deliver batches until the outbox is drained
+     * After a failure the dispatcher pauses for the retry delay and leaves the batch to the next run
+     * @return Number of events delivered
+     */
+    int dispatch() {
+        int dispatched = 0;
+        try {
+            while (running) {
+                int count = dispatchBatch();
+                dispatched += count;
+                if (count < properties.batchSize()) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            failedAttempts.incrementAndGet();
+            log.warn("Failed to deliver booking events, retrying in {}", properties.retryDelay(), e);
+            try {
+                Thread.sleep(properties.retryDelay());
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return dispatched;
+    }
+
+    /**
+     * Claim the oldest batch of events, deliver it and remove it from the outbox
+     * @return Number of events delivered
+     */
+    int dispatchBatch() {
+        List<BookingEvent> events = claimBatch();
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+        String in = events.stream().map(event -> "?").collect(Collectors.joining(", ", "(", ")"));
+        Object[] ids = events.stream().map(BookingEvent::id).toArray();
+        try {
+            sink.deliver(events);
+        } catch (IOException e) {
+            release(in, ids);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            release(in, ids);
+            throw e;
+        }
+        // If this delete is lost, the claim expires and the batch is delivered again
+        jdbcTemplate.update(DELETE_SQL + in, ids);
+        delivered.addAndGet(events.size());
+        lastDeliveryLag = Duration.between(events.get(events.size() - 1).occurredAt(), clock.instant());
+        log.debug("Delivered {} booking events, {} behind", events.size(), lastDeliveryLag);
+        return events.size();
+    }
+
+    /**
+     * Claim the oldest events, unless another dispatcher holds a live claim
+     * @return Claimed events in outbox order, empty if there are none or another dispatcher is delivering
+     */
+    private List<BookingEvent> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            List<BookingEvent> batch = jdbcTemplate.query(BATCH_SQL, EVENT_MAPPER, properties.batchSize());
+            if (batch.isEmpty()) {
+                return batch;
+            }
+            // Read after the lock is held, so a claim committed while this one waited is seen
+            Integer claimed = jdbcTemplate.queryForObject(LIVE_CLAIMS_SQL, Integer.class);
+            if (claimed != null && claimed > 0) {
+                return List.<BookingEvent>of();
+            }
+            String in = batch.stream().map(event -> "?").collect(Collectors.joining(", ", "(", ")"));
+            List<Object> args = new ArrayList<>(batch.size() + 1);
+            args.add(properties.claimTimeout().toMillis() / 1000.0);
+            batch.forEach(event -> args.add(event.id()));
+            jdbcTemplate.update(CLAIM_SQL + in, args.toArray());
+            return batch;
+        });
+    }
+
+    /**
+     * Hand a batch that failed back to the outbox, so it is retried after the retry delay rather
+     * than once its claim expires
+     */
+    private void release(String in, Object[] ids) {
+        try {
+            jdbcTemplate.update(RELEASE_SQL + in, ids);
+        } catch (DataAccessException e) {
+            log.warn("Failed to release booking events, they are retried once their claim expires", e);
+        }
+    }
+
+    private static BookingEventSink sink(BookingOutboxProperties properties, ObjectMapper objectMapper,
+                                         RestClient.Builder restClientBuilder) {
+        return switch (properties.sink()) {
+            case FILE -> new NdjsonFileSink(properties.file(), objectMapper);
+            case WEBHOOK -> {
+                SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+                requestFactory.setConnectTimeout(properties.webhookTimeout());
+                requestFactory.setReadTimeout(properties.webhookTimeout());
+                yield new WebhookSink(restClientBuilder.requestFactory(requestFactory).build(),
+                        properties.webhookUrl());
+            }
+        };
+    }
+}
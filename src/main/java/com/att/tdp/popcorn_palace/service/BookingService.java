@@ -1,11 +1,19 @@
 package com.att.tdp.popcorn_palace.service;
 
+import com.att.tdp.popcorn_palace.dto.BookingResponse;
+import com.att.tdp.popcorn_palace.dto.UserBookingPage;
+import com.att.tdp.popcorn_palace.dto.UserBookingResponse;
 import com.att.tdp.popcorn_palace.model.Booking;
 import com.att.tdp.popcorn_palace.repository.BookingRepository;
 import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,21 +21,40 @@ import java.util.UUID;
 @Service
 public class BookingService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Starting point of the first history page; later than any booking time
+    private static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
     private final BookingRepository bookingRepository;
     private final ShowtimeRepository showtimeRepository;
+    // Present only when write-behind persistence is enabled
+    private final WriteBehindBookingWriter writeBehind;
+    // Present unless group commit is disabled
+    private final BookingGroupCommit groupCommit;
+    private final TransactionTemplate transactionTemplate;
+    // Present only when the booking outbox is enabled
+    private final BookingOutbox outbox;
 
     @Autowired
-    public BookingService(BookingRepository bookingRepository, ShowtimeRepository showtimeRepository) {
+    public BookingService(BookingRepository bookingRepository, ShowtimeRepository showtimeRepository,
+                          @Nullable WriteBehindBookingWriter writeBehind, @Nullable BookingGroupCommit groupCommit,
+                          TransactionTemplate transactionTemplate, @Nullable BookingOutbox outbox) {
         this.bookingRepository = bookingRepository;
         this.showtimeRepository = showtimeRepository;
+        this.writeBehind = writeBehind;
+        this.groupCommit = groupCommit;
+        this.transactionTemplate = transactionTemplate;
+        this.outbox = outbox;
     }
 
     /**
      * Get all bookings
      * @return List of all bookings
      */
-    public List<Booking> getAllBookings() {
-        return bookingRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<BookingResponse> getAllBookings() {
+        return bookingRepository.findAllResponses();
     }
 
     /**
@@ -35,8 +62,9 @@ public class BookingService {
      * @param id Booking id
      * @return Booking if found, empty Optional otherwise
      */
-    public Optional<Booking> getBookingById(String id) {
-        return bookingRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<BookingResponse> getBookingById(String id) {
+        return bookingRepository.findResponseById(id);
     }
 
     /**
@@ -44,47 +72,112 @@ public class BookingService {
      * @param showtimeId Showtime id
      * @return List of bookings for the showtime
      */
-    public List<Booking> getBookingsByShowtimeId(Long showtimeId) {
-        return bookingRepository.findByShowtimeId(showtimeId);
+    @Transactional(readOnly = true)
+    public List<BookingResponse> getBookingsByShowtimeId(Long showtimeId) {
+        return bookingRepository.findResponsesByShowtimeId(showtimeId);
+    }
+
+    /**
+     * Get a user's bookings with their showtimes, most recent first, one page at a time
+     * Each page is a single indexed query that joins the showtime, so no per-booking lookups follow
+     * @param userId User id
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of bookings per page, between 1 and MAX_PAGE_SIZE
+     * @return Page of bookings with the cursor of the next page
+     * @throws IllegalArgumentException if the limit or the cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public UserBookingPage getBookingsByUserId(String userId, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Instant beforeTime = END_OF_TIME;
+        String beforeId = "";
+        if (cursor != null) {
+            KeysetCursor last = KeysetCursor.decode(cursor);
+            beforeTime = last.time();
+            beforeId = last.id();
+        }
+
+        // Fetch one extra row to learn whether another page follows
+        List<UserBookingResponse> bookings = bookingRepository.findPageByUserId(
+                userId, beforeTime, beforeId, Limit.of(limit + 1));
+        if (bookings.size() <= limit) {
+            return new UserBookingPage(bookings, null);
+        }
+        List<UserBookingResponse> page = List.copyOf(bookings.subList(0, limit));
+        UserBookingResponse last = page.get(limit - 1);
+        return new UserBookingPage(page, KeysetCursor.of(last.bookingTime(), last.id()).encode());
     }
 
     /**
      * Create a new booking
+     * With write-behind enabled the booking is confirmed once it is journaled, and it reaches
+     * the database, and the read endpoints, shortly after
      * @param booking Booking to create
      * @return Created booking with generated id
      * @throws IllegalArgumentException if validation fails
      */
     public Booking createBooking(Booking booking) {
-        // Validate showtime exists
-        if (!showtimeRepository.existsById(booking.getShowtimeId())) {
-            throw new IllegalArgumentException("Showtime with ID " + booking.getShowtimeId() + " does not exist");
+        // Validate showtime exists, and copy its start time into the booking's partition key
+        Instant showtimeStart = showtimeRepository.findStartTimeById(booking.getShowtimeId())
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Showtime with ID " + booking.getShowtimeId() + " does not exist"));
+        booking.setShowtimeStart(showtimeStart);
+
+        // Always generate the id: the booking table's key also holds the partition key, so the
+        // database cannot keep ids unique across showtime months, and a random UUID does
+        booking.setId(UUID.randomUUID().toString());
+
+        // Confirm from the journal; the seat check happens after the seat is claimed in memory
+        if (writeBehind != null) {
+            writeBehind.submit(booking);
+            return booking;
+        }
+
+        // Insert with concurrent bookings in one commit; a taken seat comes back as a conflict
+        if (groupCommit != null) {
+            if (!groupCommit.insert(booking)) {
+                throw new IllegalArgumentException("Seat " + booking.getSeatNumber() + " is already booked for this showtime");
+            }
+            return booking;
         }
 
         // Check if seat is already booked
-        if (bookingRepository.existsByShowtimeIdAndSeatNumber(booking.getShowtimeId(), booking.getSeatNumber())) {
+        if (bookingRepository.existsByShowtimeIdAndShowtimeStartAndSeatNumber(
+                booking.getShowtimeId(), showtimeStart, booking.getSeatNumber())) {
             throw new IllegalArgumentException("Seat " + booking.getSeatNumber() + " is already booked for this showtime");
         }
 
-        // Generate UUID for booking id if not provided
-        if (booking.getId() == null || booking.getId().isEmpty()) {
-            booking.setId(UUID.randomUUID().toString());
+        if (outbox == null) {
+            return bookingRepository.save(booking);
         }
-
-        return bookingRepository.save(booking);
+        return transactionTemplate.execute(status -> {
+            Booking savedBooking = bookingRepository.save(booking);
+            outbox.bookingsCreated(List.of(savedBooking));
+            return savedBooking;
+        });
     }
 
     /**
      * Delete a booking by id
+     * With the outbox enabled a cancellation event is recorded in the same transaction
      * @param id Booking id to delete
      * @return true if deleted, false if not found
      */
     public boolean deleteBooking(String id) {
-        Optional<Booking> booking = bookingRepository.findById(id);
-        if (booking.isPresent()) {
-            bookingRepository.deleteById(id);
-            return true;
+        if (outbox == null) {
+            return bookingRepository.removeById(id) > 0;
         }
-        return false;
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Optional<Booking> booking = bookingRepository.findById(id);
+            // A concurrent delete may remove the booking first; only the one that does records the event
+            if (booking.isEmpty() || bookingRepository.removeById(id) == 0) {
+                return false;
+            }
+            outbox.bookingCancelled(booking.get());
+            return true;
+        }));
     }
 }
 
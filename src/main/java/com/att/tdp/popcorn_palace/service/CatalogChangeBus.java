@@ -0,0 +1,184 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.CatalogBusProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the in-process catalog caches of several nodes consistent through PostgreSQL LISTEN/NOTIFY
+ * Every catalog write made by this node is announced on a channel once committed; a listener
+ * thread receives the announcements of the other nodes and replays them through
+ * CatalogVersions, so every cache that follows CatalogChangedEvent reloads within milliseconds.
+ *
+ * The listener holds its own connection to the primary for as long as the application runs, opened
+ * outside the connection pool so that it never takes a connection away from requests. Announcements
+ * sent while it is reconnecting are lost, so after a reconnect both tables are treated as changed.
+ *
+ * Without it a node answers 304 and serves its snapshot and search index as of its own writes only,
+ * so it also runs whenever the cluster is enabled, whatever the catalog-bus setting.
+ */
+@Component
+@ConditionalOnExpression("${popcorn-palace.catalog-bus.enabled:false} or ${popcorn-palace.cluster.enabled:false}")
+public class CatalogChangeBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogChangeBus.class);
+
+    static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+
+    private static final int POLL_MILLIS = 500;
+
+    private final CatalogVersions catalogVersions;
+    private final JdbcTemplate jdbcTemplate;
+    // Unpooled; every connection it hands out is closed again when the listener stops or reconnects
+    private final DataSource listenerDataSource;
+    private final String channel;
+    private final Duration reconnectDelay;
+    // Lets the listener skip its own announcements, which PostgreSQL delivers to the sender too
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Thread listener = new Thread(this::listenLoop, "catalog-change-bus");
+
+    private volatile boolean running = true;
+    private volatile boolean listening;
+
+    @Autowired
+    public CatalogChangeBus(CatalogVersions catalogVersions, JdbcTemplate jdbcTemplate,
+                            DataSourceProperties dataSourceProperties, CatalogBusProperties properties) {
+        this(catalogVersions, jdbcTemplate, dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class).build(), properties);
+    }
+
+    /**
+     * @param listenerDataSource Unpooled DataSource of the primary database the listener connects with
+     */
+    CatalogChangeBus(CatalogVersions catalogVersions, JdbcTemplate jdbcTemplate, DataSource listenerDataSource,
+                     CatalogBusProperties properties) {
+        this.catalogVersions = catalogVersions;
+        this.jdbcTemplate = jdbcTemplate;
+        this.listenerDataSource = listenerDataSource;
+        this.channel = properties.channel();
+        this.reconnectDelay = properties.reconnectDelay();
+        listener.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        listener.start();
+    }
+
+    /**
+     * Announce a write made by this node to the others
+     * A failed announcement only delays the other nodes until their caches refresh on their own
+     * schedule, so it is logged rather than failing the write that has already committed
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+        try {
+            // Outside a transaction NOTIFY is sent at once; inside one, PostgreSQL holds it until commit
+            jdbcTemplate.queryForList(NOTIFY_SQL, channel, event.table() + " " + nodeId);
+        } catch (DataAccessException e) {
+            log.warn("Failed to announce a {} change to the other nodes", event.table(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        listener.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    boolean isListening() {
+        return listening;
+    }
+
+    /**
+     * Apply an announcement received on the channel
+     * @param payload Table name and the id of the announcing node, separated by a space
+     */
+    void handle(String payload) {
+        int separator = payload.indexOf(' ');
+        if (separator < 0) {
+            log.debug("Ignoring malformed catalog change payload '{}'", payload);
+            return;
+        }
+        if (payload.substring(separator + 1).equals(nodeId)) {
+            return;
+        }
+        CatalogChangedEvent.Table table;
+        try {
+            table = CatalogChangedEvent.Table.valueOf(payload.substring(0, separator));
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring catalog change payload for unknown table '{}'", payload);
+            return;
+        }
+        try {
+            catalogVersions.remoteChanged(table);
+        } catch (RuntimeException e) {
+            // A cache that fails to reload must not take the listener down with it
+            log.warn("Failed to apply a {} change from another node", table, e);
+        }
+    }
+
+    private void listenLoop() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = listenerDataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    // LISTEN takes no bind parameters; the channel is a validated identifier, and quoting
+                    // keeps it exactly as pg_notify receives it
+                    statement.execute("LISTEN \"" + channel + "\"");
+                }
+                listening = true;
+                if (reconnecting) {
+                    catalogVersions.remoteChanged(CatalogChangedEvent.Table.MOVIES);
+                    catalogVersions.remoteChanged(CatalogChangedEvent.Table.SHOWTIMES);
+                }
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                listening = false;
+                if (!running) {
+                    return;
+                }
+                log.warn("Catalog change listener lost its connection, reconnecting in {}", reconnectDelay, e);
+                reconnecting = true;
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        listening = false;
+    }
+}
@@ -0,0 +1,25 @@
+package com.att.tdp.popcorn_palace.service;
+
+/**
+ * Published after a committed write to the movie or showtime catalog
+ * @param table Table that changed
+ * @param remote Whether the write was made by another node and announced through the CatalogChangeBus
+ */
+public record CatalogChangedEvent(Table table, boolean remote) {
+
+    /**
+     * Event for a write made by this node
+     * @param table Table that changed
+     */
+    public CatalogChangedEvent(Table table) {
+        this(table, false);
+    }
+
+    /**
+     * Catalog tables tracked by {@link CatalogVersions}
+     */
+    public enum Table {
+        MOVIES,
+        SHOWTIMES
+    }
+}
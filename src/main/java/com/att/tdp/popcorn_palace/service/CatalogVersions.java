@@ -0,0 +1,72 @@
+package com.att.tdp.popcorn_palace.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-table version counters for the movie and showtime catalog
+ * Bumped after every committed write so HTTP validators can be derived without querying the database
+ * Every bump also publishes a {@link CatalogChangedEvent} for in-process caches
+ * The counters only see the writes of other nodes through CatalogChangeBus, which must therefore
+ * run wherever more than one node serves the catalog
+ */
+@Component
+public class CatalogVersions {
+
+    // Distinguishes counters of different process lifetimes, which all start at zero
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong movies = new AtomicLong();
+    private final AtomicLong showtimes = new AtomicLong();
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public CatalogVersions(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Get the current version tag of the movie table
+     * @return Opaque tag that changes on every movie write
+     */
+    public String getMovieTag() {
+        return "m-" + epoch + "-" + movies.get();
+    }
+
+    /**
+     * Get the current version tag of the showtime table
+     * @return Opaque tag that changes on every showtime write
+     */
+    public String getShowtimeTag() {
+        return "s-" + epoch + "-" + showtimes.get();
+    }
+
+    /**
+     * Record a committed change to the movie table
+     */
+    public void movieChanged() {
+        movies.incrementAndGet();
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Table.MOVIES));
+    }
+
+    /**
+     * Record a committed change to the showtime table
+     */
+    public void showtimeChanged() {
+        showtimes.incrementAndGet();
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Table.SHOWTIMES));
+    }
+
+    /**
+     * Record a committed change made by another node
+     * @param table Table that changed
+     */
+    public void remoteChanged(CatalogChangedEvent.Table table) {
+        (table == CatalogChangedEvent.Table.MOVIES ? movies : showtimes).incrementAndGet();
+        eventPublisher.publishEvent(new CatalogChangedEvent(table, true));
+    }
+}
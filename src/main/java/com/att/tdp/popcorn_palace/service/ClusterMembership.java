@@ -0,0 +1,121 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.ClusterProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Membership of this node in the cluster, and the showtime ownership derived from it
+ * Every node heartbeats its row in the cluster_member table, removes the rows of nodes that stopped
+ * heartbeating, and rebuilds its hash ring whenever the member list changes. All nodes read the
+ * same table, so they agree on every owner within one heartbeat interval of a join or leave.
+ */
+@Component
+@ConditionalOnProperty(prefix = "popcorn-palace.cluster", name = "enabled", havingValue = "true")
+public class ClusterMembership {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMembership.class);
+
+    static final String HEARTBEAT_SQL = "INSERT INTO cluster_member (node_id, base_url, heartbeat_at) "
+            + "VALUES (?, ?, CURRENT_TIMESTAMP) "
+            + "ON CONFLICT (node_id) DO UPDATE SET base_url = EXCLUDED.base_url, heartbeat_at = EXCLUDED.heartbeat_at";
+    static final String EXPIRE_SQL = "DELETE FROM cluster_member WHERE heartbeat_at < CURRENT_TIMESTAMP - make_interval(secs => ?)";
+    static final String MEMBERS_SQL = "SELECT node_id, base_url FROM cluster_member ORDER BY node_id";
+    static final String LEAVE_SQL = "DELETE FROM cluster_member WHERE node_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Member self;
+    private final long heartbeatMillis;
+    private final double timeoutSeconds;
+    private final int virtualNodes;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cluster-membership");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile HashRing ring;
+
+    /**
+     * A live node of the cluster
+     * @param nodeId Id the node picked at startup
+     * @param baseUrl Base URL at which the node serves requests
+     */
+    public record Member(String nodeId, String baseUrl) {
+    }
+
+    @Autowired
+    public ClusterMembership(JdbcTemplate jdbcTemplate, ClusterProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.self = new Member(UUID.randomUUID().toString(), properties.advertisedUrl());
+        this.heartbeatMillis = properties.heartbeatInterval().toMillis();
+        this.timeoutSeconds = properties.memberTimeout().toMillis() / 1000.0;
+        this.virtualNodes = properties.virtualNodes();
+    }
+
+    /**
+     * Get the node that owns a showtime
+     * @param showtimeId Showtime id
+     * @return Owning node, or null before this node has joined
+     */
+    public Member ownerOf(long showtimeId) {
+        HashRing current = ring;
+        return current == null ? null : current.ownerOf(showtimeId);
+    }
+
+    /**
+     * Get this node
+     * @return This node's member entry
+     */
+    public Member self() {
+        return self;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        // Join only once this node serves requests, so nothing is forwarded to it before that
+        executor.scheduleWithFixedDelay(this::heartbeat, 0, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        // Leave at once, so the other nodes take over this node's showtimes on their next heartbeat
+        try {
+            jdbcTemplate.update(LEAVE_SQL, self.nodeId());
+        } catch (DataAccessException e) {
+            log.warn("Failed to leave the cluster; the other nodes will expire this node", e);
+        }
+    }
+
+    void heartbeat() {
+        try {
+            jdbcTemplate.update(HEARTBEAT_SQL, self.nodeId(), self.baseUrl());
+            jdbcTemplate.update(EXPIRE_SQL, timeoutSeconds);
+            List<Member> members = jdbcTemplate.query(MEMBERS_SQL,
+                    (resultSet, rowNum) -> new Member(resultSet.getString(1), resultSet.getString(2)));
+            HashRing current = ring;
+            if (current == null || !current.members().equals(members)) {
+                ring = new HashRing(members, virtualNodes);
+                log.info("Cluster members changed to {}", members);
+            }
+        } catch (DataAccessException e) {
+            // Keep the last ring; bookings for an unreachable owner are handled locally meanwhile
+            log.warn("Failed to refresh cluster membership", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.att.tdp.popcorn_palace.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring assigning showtime ids to cluster members
+ * Each member is placed at many pseudo-random points, and a showtime belongs to the first point at
+ * or after its own hash. When a member joins or leaves, only the showtimes next to its points
+ * change owner; every other showtime keeps its owner.
+ */
+final class HashRing {
+
+    private final List<ClusterMembership.Member> members;
+    private final long[] points;
+    private final ClusterMembership.Member[] owners;
+
+    /**
+     * Build the ring of a member list
+     * @param members Members, in any order; every node derives the same ring from the same members
+     * @param virtualNodes Points per member
+     */
+    HashRing(List<ClusterMembership.Member> members, int virtualNodes) {
+        this.members = List.copyOf(members);
+        TreeMap<Long, ClusterMembership.Member> ring = new TreeMap<>();
+        for (ClusterMembership.Member member : members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(member.nodeId() + "#" + i), member);
+            }
+        }
+        points = new long[ring.size()];
+        owners = new ClusterMembership.Member[ring.size()];
+        int i = 0;
+        for (Map.Entry<Long, ClusterMembership.Member> point : ring.entrySet()) {
+            points[i] = point.getKey();
+            owners[i] = point.getValue();
+            i++;
+        }
+    }
+
+    List<ClusterMembership.Member> members() {
+        return members;
+    }
+
+    /**
+     * Find the owner of a showtime
+     * @param showtimeId Showtime id
+     * @return Owning member, or null if the ring is empty
+     */
+    ClusterMembership.Member ownerOf(long showtimeId) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, mix(showtimeId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        // Past the last point the ring wraps around to the first
+        return owners[index == points.length ? 0 : index];
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Spread sequential ids over the whole ring (MurmurHash3 finalizer)
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,57 @@
+package com.att.tdp.popcorn_palace.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last row of a page, carried between requests as an opaque cursor
+ * Pages are ordered by a timestamp with the row id as tie-breaker
+ * @param time Timestamp of the row
+ * @param id Id of the row
+ */
+record KeysetCursor(Instant time, String id) {
+
+    static KeysetCursor of(Instant time, Object id) {
+        return new KeysetCursor(time, id.toString());
+    }
+
+    /**
+     * Get the id as a number, for tables with numeric ids
+     * @return Numeric id
+     * @throws IllegalArgumentException if the id is not a number
+     */
+    long longId() {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Encode the position as a URL-safe string
+     * @return Cursor string
+     */
+    String encode() {
+        String position = time + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor string
+     * @param cursor String from encode()
+     * @return Decoded position
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    static KeysetCursor decode(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(',');
+            return new KeysetCursor(Instant.parse(position.substring(0, separator)), position.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
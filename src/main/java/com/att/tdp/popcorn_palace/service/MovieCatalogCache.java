@@ -0,0 +1,119 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.ReplicaRoutingDataSource;
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized JSON of the full movie catalog, in identity and gzip encodings
+ * Rebuilt in the background after every movie write, so serving GET /movies/all is a buffer copy
+ */
+@Component
+public class MovieCatalogCache {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieCatalogCache.class);
+
+    private final MovieService movieService;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "movie-catalog-cache");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public MovieCatalogCache(MovieService movieService, ObjectMapper objectMapper) {
+        this.movieService = movieService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Serialized catalog for one version of the movie table
+     * The arrays are shared between requests and must not be modified
+     * @param tag Catalog tag the snapshot was built for
+     * @param json UTF-8 JSON array of all movies
+     * @param gzip Gzip-compressed copy of json
+     */
+    public record Snapshot(String tag, byte[] json, byte[] gzip) {
+    }
+
+    /**
+     * Get the snapshot for a catalog tag
+     * @param tag Current catalog tag
+     * @return Snapshot built for that tag, or null while it is being (re)built
+     */
+    public Snapshot getSnapshot(String tag) {
+        Snapshot current = snapshot;
+        if (current != null && current.tag().equals(tag)) {
+            return current;
+        }
+        scheduleRebuild();
+        return null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.table() == CatalogChangedEvent.Table.MOVIES) {
+            scheduleRebuild();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a rebuild unless one is already waiting; bursts of writes collapse into one rebuild
+     */
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            executor.execute(this::rebuild);
+        }
+    }
+
+    void rebuild() {
+        // Clear the flag first so writes that land during the rebuild queue another one
+        rebuildScheduled.set(false);
+        try {
+            // Read the tag before loading so the snapshot is never labelled newer than its data
+            String tag = movieService.getCatalogTag();
+            List<MovieResponse> movies = ReplicaRoutingDataSource.readFromPrimary(movieService::getAllMovies);
+            byte[] json = objectMapper.writeValueAsBytes(movies);
+            snapshot = new Snapshot(tag, json, gzip(json));
+        } catch (Exception e) {
+            log.warn("Failed to rebuild the movie catalog snapshot", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+}
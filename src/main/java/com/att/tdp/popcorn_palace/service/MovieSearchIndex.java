@@ -0,0 +1,331 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over movie title words, genre, rating and release year
+ * Loaded once at startup and then kept current by MovieService after each write, so searches
+ * never reach the database. Writes made by other nodes only announce the table, so they reload it.
+ */
+@Component
+public class MovieSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int FUZZY_SCORE = 1;
+
+    private final MovieRepository movieRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, MovieResponse> movies = new HashMap<>();
+    // Sorted so that every term starting with a prefix is one contiguous sub-map
+    private final NavigableMap<String, Set<Long>> titleTerms = new TreeMap<>();
+    private final Map<String, Set<Long>> genres = new HashMap<>();
+    private final Map<String, Set<Long>> ratings = new HashMap<>();
+    private final Map<Integer, Set<Long>> releaseYears = new HashMap<>();
+    // Ids of removed movies. Ids are never reused and a deleted row gets no later version, so a put
+    // for one of them carries a version read before the delete and must not bring the movie back
+    private final Set<Long> removedIds = new HashSet<>();
+
+    @Autowired
+    public MovieSearchIndex(MovieRepository movieRepository) {
+        this.movieRepository = movieRepository;
+    }
+
+    /**
+     * Replace the whole index with the current contents of the movie table
+     */
+    @PostConstruct
+    public void rebuild() {
+        List<MovieResponse> all = movieRepository.findAllResponses();
+        lock.writeLock().lock();
+        try {
+            // Movies deleted since the last load, such as by another node, are removed as well
+            Set<Long> remaining = new HashSet<>(movies.keySet());
+            all.forEach(movie -> remaining.remove(movie.id()));
+            removedIds.addAll(remaining);
+            movies.clear();
+            titleTerms.clear();
+            genres.clear();
+            ratings.clear();
+            releaseYears.clear();
+            all.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.remote() && event.table() == CatalogChangedEvent.Table.MOVIES) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Add a movie to the index, replacing any earlier version with the same id
+     * A version older than the indexed one is ignored, so that concurrent updates of one movie
+     * cannot leave the index at whichever of them happened to reach it last; so is any version of
+     * a removed movie, whose update may reach the index after its delete
+     * @param movie Movie as stored, with its version
+     */
+    public void put(MovieResponse movie) {
+        lock.writeLock().lock();
+        try {
+            if (removedIds.contains(movie.id())) {
+                return;
+            }
+            MovieResponse previous = movies.get(movie.id());
+            if (previous != null) {
+                if (previous.version() != null && movie.version() != null && previous.version() > movie.version()) {
+                    return;
+                }
+                remove(previous);
+            }
+            add(movie);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a movie from the index for good
+     * @param id Movie id
+     */
+    public void removeById(Long id) {
+        lock.writeLock().lock();
+        try {
+            removedIds.add(id);
+            MovieResponse previous = movies.get(id);
+            if (previous != null) {
+                remove(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove every movie with a given title from the index for good
+     * @param title Movie title
+     */
+    public void removeByTitle(String title) {
+        lock.writeLock().lock();
+        try {
+            for (MovieResponse movie : moviesWithTitle(title)) {
+                removedIds.add(movie.id());
+                remove(movie);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search the index
+     * Every word of the query must match a title word exactly, as a prefix, or, when neither
+     * matches, within a small edit distance. Filters are exact and case-insensitive.
+     * @param query Free-text title query, may be null
+     * @param genre Genre filter, may be null
+     * @param rating Rating filter, may be null
+     * @param releaseYear Release year filter, may be null
+     * @param limit Maximum number of results
+     * @return Matching movies, best matches first
+     */
+    public List<MovieResponse> search(String query, String genre, String rating, Integer releaseYear, int limit) {
+        List<String> queryTerms = query == null ? List.of() : tokenize(query);
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = null;
+            if (genre != null) {
+                candidates = intersect(candidates, genres.get(normalize(genre)));
+            }
+            if (rating != null) {
+                candidates = intersect(candidates, ratings.get(normalize(rating)));
+            }
+            if (releaseYear != null) {
+                candidates = intersect(candidates, releaseYears.get(releaseYear));
+            }
+
+            Map<Long, Integer> scores = new HashMap<>();
+            for (String term : queryTerms) {
+                Map<Long, Integer> termScores = matchTerm(term);
+                if (candidates != null) {
+                    termScores.keySet().retainAll(candidates);
+                }
+                candidates = termScores.keySet();
+                termScores.forEach((id, score) -> scores.merge(id, score, Integer::sum));
+                if (candidates.isEmpty()) {
+                    return List.of();
+                }
+            }
+            if (candidates == null) {
+                return List.of();
+            }
+
+            return candidates.stream()
+                    .map(movies::get)
+                    .sorted(Comparator.<MovieResponse>comparingInt(movie -> -scores.getOrDefault(movie.id(), 0))
+                            .thenComparing(MovieResponse::title, String.CASE_INSENSITIVE_ORDER)
+                            .thenComparing(MovieResponse::id))
+                    .limit(limit)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Score every movie whose title contains a word matching one query word
+     * @param term Normalized query word
+     * @return Best score per matching movie id
+     */
+    private Map<Long, Integer> matchTerm(String term) {
+        Map<Long, Integer> matches = new HashMap<>();
+        for (Map.Entry<String, Set<Long>> entry : titleTerms.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            int score = entry.getKey().equals(term) ? EXACT_SCORE : PREFIX_SCORE;
+            entry.getValue().forEach(id -> matches.merge(id, score, Math::max));
+        }
+        if (!matches.isEmpty()) {
+            return matches;
+        }
+
+        // Only fall back to typo tolerance when nothing matched as typed
+        int maxEdits = term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+        if (maxEdits == 0) {
+            return matches;
+        }
+        for (Map.Entry<String, Set<Long>> entry : titleTerms.entrySet()) {
+            String candidate = entry.getKey();
+            // Compare against the word and against its start, so a mistyped prefix still matches
+            String head = candidate.length() > term.length() ? candidate.substring(0, term.length()) : candidate;
+            if (editDistance(term, candidate, maxEdits) <= maxEdits || editDistance(term, head, maxEdits) <= maxEdits) {
+                entry.getValue().forEach(id -> matches.put(id, FUZZY_SCORE));
+            }
+        }
+        return matches;
+    }
+
+    private List<MovieResponse> moviesWithTitle(String title) {
+        return movies.values().stream()
+                .filter(movie -> movie.title().equals(title))
+                .toList();
+    }
+
+    private void add(MovieResponse movie) {
+        movies.put(movie.id(), movie);
+        for (String term : tokenize(movie.title())) {
+            titleTerms.computeIfAbsent(term, key -> new HashSet<>()).add(movie.id());
+        }
+        genres.computeIfAbsent(normalize(movie.genre()), key -> new HashSet<>()).add(movie.id());
+        ratings.computeIfAbsent(normalize(movie.rating()), key -> new HashSet<>()).add(movie.id());
+        releaseYears.computeIfAbsent(movie.releaseYear(), key -> new HashSet<>()).add(movie.id());
+    }
+
+    private void remove(MovieResponse movie) {
+        movies.remove(movie.id());
+        for (String term : tokenize(movie.title())) {
+            unlink(titleTerms, term, movie.id());
+        }
+        unlink(genres, normalize(movie.genre()), movie.id());
+        unlink(ratings, normalize(movie.rating()), movie.id());
+        unlink(releaseYears, movie.releaseYear(), movie.id());
+    }
+
+    private static <K> void unlink(Map<K, Set<Long>> postings, K key, Long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static Set<Long> intersect(Set<Long> candidates, Set<Long> ids) {
+        if (ids == null) {
+            return new HashSet<>();
+        }
+        if (candidates == null) {
+            return new HashSet<>(ids);
+        }
+        candidates.retainAll(ids);
+        return candidates;
+    }
+
+    /**
+     * Lower-case a value and strip accents so that "Amélie" and "amelie" index alike
+     * @param value Raw value
+     * @return Normalized value
+     */
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Split text into normalized alphanumeric words
+     * @param text Raw text
+     * @return Distinct words in order of appearance
+     */
+    static List<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : NON_ALPHANUMERIC.split(normalize(text))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions)
+     * Stops early once every alignment exceeds the bound
+     * @param a First word
+     * @param b Second word
+     * @param bound Largest distance of interest
+     * @return Distance, or bound + 1 if it exceeds the bound
+     */
+    static int editDistance(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return bound + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > bound) {
+                return bound + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], bound + 1);
+    }
+}
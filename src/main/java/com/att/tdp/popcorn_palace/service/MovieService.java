@@ -1,9 +1,14 @@
 package com.att.tdp.popcorn_palace.service;
 
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
 import com.att.tdp.popcorn_palace.model.Movie;
 import com.att.tdp.popcorn_palace.repository.MovieRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,19 +16,40 @@ import java.util.Optional;
 @Service
 public class MovieService {
 
+    public static final int MAX_SEARCH_RESULTS = 100;
+
     private final MovieRepository movieRepository;
+    private final CatalogVersions catalogVersions;
+    private final MovieSearchIndex searchIndex;
+    private final TransactionTemplate transactionTemplate;
+    // Present only when the booking outbox is enabled
+    private final BookingOutbox outbox;
 
     @Autowired
-    public MovieService(MovieRepository movieRepository) {
+    public MovieService(MovieRepository movieRepository, CatalogVersions catalogVersions, MovieSearchIndex searchIndex,
+                        TransactionTemplate transactionTemplate, @Nullable BookingOutbox outbox) {
         this.movieRepository = movieRepository;
+        this.catalogVersions = catalogVersions;
+        this.searchIndex = searchIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.outbox = outbox;
+    }
+
+    /**
+     * Get the version tag of the movie catalog without touching the database
+     * @return Tag that changes whenever a movie is written
+     */
+    public String getCatalogTag() {
+        return catalogVersions.getMovieTag();
     }
 
     /**
      * Get all movies
      * @return List of all movies
      */
-    public List<Movie> getAllMovies() {
-        return movieRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<MovieResponse> getAllMovies() {
+        return movieRepository.findAllResponses();
     }
 
     /**
@@ -31,8 +57,35 @@ public class MovieService {
      * @param id Movie id
      * @return Movie if found, empty Optional otherwise
      */
-    public Optional<Movie> getMovieById(Long id) {
-        return movieRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<MovieResponse> getMovieById(Long id) {
+        return movieRepository.findResponseById(id);
+    }
+
+    /**
+     * Search movies by title words, genre, rating and release year
+     * Served from the in-memory search index; title words match by prefix and tolerate small typos
+     * @param query Free-text title query, may be null
+     * @param genre Genre filter, may be null
+     * @param rating Rating filter, may be null
+     * @param releaseYear Release year filter, may be null
+     * @param limit Maximum number of results, between 1 and MAX_SEARCH_RESULTS
+     * @return Matching movies, best matches first
+     * @throws IllegalArgumentException if no criterion is given or the limit is out of range
+     */
+    public List<MovieResponse> searchMovies(String query, String genre, String rating, Integer releaseYear, int limit) {
+        if (isBlank(query) && isBlank(genre) && isBlank(rating) && releaseYear == null) {
+            throw new IllegalArgumentException("At least one of q, genre, rating or year is required");
+        }
+        if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        return searchIndex.search(
+                isBlank(query) ? null : query,
+                isBlank(genre) ? null : genre,
+                isBlank(rating) ? null : rating,
+                releaseYear,
+                limit);
     }
 
     /**
@@ -50,76 +103,161 @@ public class MovieService {
      * @return Created movie with generated id
      */
     public Movie createMovie(Movie movie) {
-        return movieRepository.save(movie);
+        Movie createdMovie = movieRepository.save(movie);
+        catalogVersions.movieChanged();
+        searchIndex.put(MovieResponse.from(createdMovie));
+        return createdMovie;
     }
 
     /**
      * Update an existing movie
      * @param id Movie id to update
      * @param movieDetails Updated movie details
-     * @return Updated movie if found, null otherwise
+     * @param expectedVersion Version the update is based on, or null to overwrite whatever is current
+     * @return Updated movie with its new version if found, null otherwise
+     * @throws OptimisticLockingFailureException if the movie is no longer at the expected version
      */
-    public Movie updateMovie(Long id, Movie movieDetails) {
-        Optional<Movie> movie = movieRepository.findById(id);
-        if (movie.isPresent()) {
-            Movie existingMovie = movie.get();
-            existingMovie.setTitle(movieDetails.getTitle());
-            existingMovie.setGenre(movieDetails.getGenre());
-            existingMovie.setDuration(movieDetails.getDuration());
-            existingMovie.setRating(movieDetails.getRating());
-            existingMovie.setReleaseYear(movieDetails.getReleaseYear());
-            return movieRepository.save(existingMovie);
+    public Movie updateMovie(Long id, Movie movieDetails, Long expectedVersion) {
+        MovieResponse stored = transactionTemplate.execute(status -> {
+            int updated = movieRepository.updateById(
+                    id,
+                    expectedVersion,
+                    movieDetails.getTitle(),
+                    movieDetails.getGenre(),
+                    movieDetails.getDuration(),
+                    movieDetails.getRating(),
+                    movieDetails.getReleaseYear()
+            );
+            if (updated == 0) {
+                if (expectedVersion != null && movieRepository.existsById(id)) {
+                    throw new OptimisticLockingFailureException(
+                            "Movie with ID " + id + " was updated by someone else since version " + expectedVersion);
+                }
+                return null;
+            }
+            // Read back while the update still holds the row, for the version it wrote
+            return movieRepository.findResponseById(id).orElseThrow();
+        });
+        if (stored == null) {
+            return null;
         }
-        return null;
+        catalogVersions.movieChanged();
+        searchIndex.put(stored);
+        movieDetails.setId(id);
+        movieDetails.setVersion(stored.version());
+        return movieDetails;
     }
 
     /**
-     * Update an existing movie by title
+     * Update the movies with a title
+     * Every movie with the title is updated, as deleteMovieByTitle deletes every one.
      * @param title Movie title to update
      * @param movieDetails Updated movie details
+     * @param expectedVersion Version the update is based on, or null to overwrite whatever is current
      * @return true if updated, false if not found
+     * @throws OptimisticLockingFailureException if the movie is no longer at the expected version
      */
-    public boolean updateMovieByTitle(String title, Movie movieDetails) {
-        Optional<Movie> movie = movieRepository.findByTitle(title);
-        if (movie.isPresent()) {
-            Movie existingMovie = movie.get();
-            existingMovie.setTitle(movieDetails.getTitle());
-            existingMovie.setGenre(movieDetails.getGenre());
-            existingMovie.setDuration(movieDetails.getDuration());
-            existingMovie.setRating(movieDetails.getRating());
-            existingMovie.setReleaseYear(movieDetails.getReleaseYear());
-            movieRepository.save(existingMovie);
-            return true;
+    public boolean updateMovieByTitle(String title, Movie movieDetails, Long expectedVersion) {
+        List<MovieResponse> stored = transactionTemplate.execute(status -> {
+            // Update and read back exactly these movies; others may already have the new title
+            List<Long> ids = movieRepository.findIdsByTitle(title);
+            if (ids.isEmpty()) {
+                return null;
+            }
+            int updated = movieRepository.updateByTitleAndIdIn(
+                    ids,
+                    title,
+                    expectedVersion,
+                    movieDetails.getTitle(),
+                    movieDetails.getGenre(),
+                    movieDetails.getDuration(),
+                    movieDetails.getRating(),
+                    movieDetails.getReleaseYear()
+            );
+            if (updated == 0) {
+                if (expectedVersion != null && !movieRepository.findIdsByTitle(title).isEmpty()) {
+                    throw new OptimisticLockingFailureException(
+                            "Movie '" + title + "' was updated by someone else since version " + expectedVersion);
+                }
+                return null;
+            }
+            // Read back while the update still holds the rows, for the versions it wrote
+            return movieRepository.findResponsesByIdIn(ids);
+        });
+        if (stored == null) {
+            return false;
         }
-        return false;
+        catalogVersions.movieChanged();
+        // Index updates of concurrent writes may arrive in any order; put keeps the newest version
+        stored.forEach(searchIndex::put);
+        return true;
     }
 
     /**
      * Delete a movie by id
+     * With the outbox enabled the cancellation of every booking of the movie's showtimes is
+     * recorded in the same transaction
      * @param id Movie id to delete
      * @return true if deleted, false if not found
      */
     public boolean deleteMovie(Long id) {
-        Optional<Movie> movie = movieRepository.findById(id);
-        if (movie.isPresent()) {
-            movieRepository.deleteById(id);
-            return true;
+        Integer deleted = transactionTemplate.execute(status -> {
+            if (outbox != null) {
+                outbox.movieBookingsCancelled(List.of(id));
+            }
+            return movieRepository.removeById(id);
+        });
+        if (!moviesDeleted(deleted)) {
+            return false;
         }
-        return false;
+        searchIndex.removeById(id);
+        return true;
     }
 
     /**
      * Delete a movie by title
+     * With the outbox enabled the cancellation of every booking of the movie's showtimes is
+     * recorded in the same transaction
      * @param title Movie title to delete
      * @return true if deleted, false if not found
      */
     public boolean deleteMovieByTitle(String title) {
-        Optional<Movie> movie = movieRepository.findByTitle(title);
-        if (movie.isPresent()) {
-            movieRepository.delete(movie.get());
-            return true;
+        Integer deleted = transactionTemplate.execute(status -> {
+            if (outbox == null) {
+                return movieRepository.removeByTitle(title);
+            }
+            // Deletes exactly the movies whose bookings were recorded, even if another movie is
+            // given the title in the meantime
+            List<Long> ids = movieRepository.findIdsByTitle(title);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            outbox.movieBookingsCancelled(ids);
+            return movieRepository.removeByIdIn(ids);
+        });
+        if (!moviesDeleted(deleted)) {
+            return false;
         }
-        return false;
+        searchIndex.removeByTitle(title);
+        return true;
     }
-}
 
+    /**
+     * Record the outcome of a movie delete
+     * @param deleted Number of rows deleted
+     * @return true if any movie was deleted
+     */
+    private boolean moviesDeleted(Integer deleted) {
+        if (deleted == null || deleted == 0) {
+            return false;
+        }
+        catalogVersions.movieChanged();
+        // Showtimes of deleted movies are removed by the ON DELETE CASCADE foreign key
+        catalogVersions.showtimeChanged();
+        return true;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
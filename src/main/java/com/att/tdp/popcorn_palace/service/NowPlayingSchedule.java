@@ -0,0 +1,150 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.NowPlayingProperties;
+import com.att.tdp.popcorn_palace.config.ReplicaRoutingDataSource;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMovieResponse;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Immutable snapshot of the upcoming showtimes joined to their movies, ordered by start time
+ * Rebuilt in the background on a fixed schedule and after every movie or showtime write, then
+ * swapped in with a single reference write. Readers never wait for a rebuild and never see a
+ * partly built snapshot; after a write they keep getting the previous one until the rebuild lands.
+ */
+@Component
+public class NowPlayingSchedule {
+
+    private static final Logger log = LoggerFactory.getLogger(NowPlayingSchedule.class);
+
+    private final ShowtimeRepository showtimeRepository;
+    private final Duration horizon;
+    private final Duration refreshInterval;
+    private final Clock clock;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "now-playing-schedule");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public NowPlayingSchedule(ShowtimeRepository showtimeRepository, NowPlayingProperties properties) {
+        this(showtimeRepository, properties, Clock.systemUTC());
+    }
+
+    NowPlayingSchedule(ShowtimeRepository showtimeRepository, NowPlayingProperties properties, Clock clock) {
+        this.showtimeRepository = showtimeRepository;
+        this.horizon = properties.horizon();
+        this.refreshInterval = properties.refreshInterval();
+        this.clock = clock;
+    }
+
+    /**
+     * Showtimes starting in [from, to) with their movies
+     * @param from Inclusive lower bound of the start times, the time the snapshot was built
+     * @param to Exclusive upper bound of the start times
+     * @param showtimes Showtimes ordered by start time and id; immutable
+     */
+    record Snapshot(Instant from, Instant to, List<ShowtimeWithMovieResponse> showtimes) {
+    }
+
+    /**
+     * Get the showtimes starting within a span of time from now, with their movies
+     * @param within Span of time from now, at most the horizon
+     * @return Showtimes ordered by start time
+     * @throws IllegalArgumentException if the span is not positive or exceeds the horizon
+     */
+    public List<ShowtimeWithMovieResponse> getNowPlaying(Duration within) {
+        if (within.isNegative() || within.isZero() || within.compareTo(horizon) > 0) {
+            throw new IllegalArgumentException("Hours must be between 1 and " + horizon.toHours());
+        }
+        Instant now = clock.instant();
+        Instant end = now.plus(within);
+        Snapshot current = snapshot;
+        if (current == null || end.isAfter(current.to())) {
+            // Not built yet, or the scheduled refresh fell behind; answer from the database meanwhile
+            scheduleRebuild();
+            return showtimeRepository.findWithMovieStartingBetween(now, end);
+        }
+
+        List<ShowtimeWithMovieResponse> showtimes = current.showtimes();
+        return showtimes.subList(firstStartingAtOrAfter(showtimes, now), firstStartingAtOrAfter(showtimes, end));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        long delay = refreshInterval.toMillis();
+        executor.scheduleWithFixedDelay(this::scheduleRebuild, 0, delay, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // Both tables feed the snapshot: showtimes directly, movies through the joined details
+        scheduleRebuild();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a rebuild unless one is already waiting; bursts of writes collapse into one rebuild
+     */
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            executor.execute(this::rebuild);
+        }
+    }
+
+    void rebuild() {
+        // Clear the flag first so writes that land during the rebuild queue another one
+        rebuildScheduled.set(false);
+        try {
+            Instant from = clock.instant();
+            // Reach one refresh interval past the horizon so the snapshot covers it until the next rebuild
+            Instant to = from.plus(horizon).plus(refreshInterval);
+            List<ShowtimeWithMovieResponse> showtimes = ReplicaRoutingDataSource.readFromPrimary(
+                    () -> showtimeRepository.findWithMovieStartingBetween(from, to));
+            snapshot = new Snapshot(from, to, List.copyOf(showtimes));
+        } catch (Exception e) {
+            log.warn("Failed to rebuild the now-playing schedule", e);
+        }
+    }
+
+    /**
+     * Binary search for the first showtime starting at or after an instant
+     * @return Index of that showtime, or the list size if there is none
+     */
+    private static int firstStartingAtOrAfter(List<ShowtimeWithMovieResponse> showtimes, Instant instant) {
+        int low = 0;
+        int high = showtimes.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (showtimes.get(mid).startTime().isBefore(instant)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
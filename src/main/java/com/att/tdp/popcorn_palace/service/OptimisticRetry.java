@@ -0,0 +1,70 @@
+package com.att.tdp.popcorn_palace.service;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Bounded retries for read-validate-write updates that lost a race to another update
+ * Attempts are spaced by exponential backoff with full jitter, so writers that collided once do
+ * not collide again in lockstep. After the last attempt the conflict reaches the caller.
+ */
+final class OptimisticRetry {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private static final long BASE_DELAY_MILLIS = 5;
+
+    private OptimisticRetry() {
+    }
+
+    /**
+     * Run an update, retrying it while it fails on a version conflict
+     * @param attempt Update that re-reads whatever it depends on each time it runs
+     * @return Result of the first attempt that does not conflict
+     * @throws OptimisticLockingFailureException if every attempt conflicts
+     */
+    static <T> T run(Supplier<T> attempt) {
+        for (int attempts = 1; ; attempts++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempts >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(backoffMillis(attempts));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Retry a reactive update the same way, resubscribing to it while it fails on a version conflict
+     * The update must re-read whatever it depends on each time it is subscribed to, as Mono.defer does.
+     * @return Retry with the attempts and backoff of run, rethrowing the last conflict
+     */
+    static Retry reactive() {
+        return Retry.max(MAX_ATTEMPTS - 1)
+                .filter(OptimisticLockingFailureException.class::isInstance)
+                .doBeforeRetryAsync(signal -> Mono.delay(
+                        Duration.ofMillis(backoffMillis((int) signal.totalRetries() + 1))).then())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    /**
+     * Pick the pause after a conflicting attempt
+     * @param attempts Attempts made so far
+     * @return Random delay between zero and the base delay doubled for every earlier attempt
+     */
+    static long backoffMillis(int attempts) {
+        return ThreadLocalRandom.current().nextLong((BASE_DELAY_MILLIS << (attempts - 1)) + 1);
+    }
+}
@@ -0,0 +1,216 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.PartitioningProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of the showtime and booking tables in step with the calendar
+ * Partitions are created a few months ahead, and the partitions of long-past months are detached.
+ * Showtimes scheduled beyond the months created so far land in the default partition; once their
+ * month comes within reach, its partitions are created and those rows moved into them in one
+ * transaction, since PostgreSQL refuses a partition whose rows the default partition holds. A detached partition keeps its
+ * rows as an ordinary table, out of every query and of the indexes and vacuums of the live ones.
+ *
+ * Every node may run this; the statements are idempotent, and one that loses a race with another
+ * node fails harmlessly and is retried on the next check.
+ */
+@Component
+@ConditionalOnProperty(prefix = "popcorn-palace.partitioning", name = "enabled", havingValue = "true")
+public class PartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenance.class);
+
+    static final String PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+            + "WHERE p.relname = ? ORDER BY c.relname";
+
+    // Bookings reference showtimes, so their partitions are detached first
+    private static final List<String> TABLES = List.of("booking", "showtime");
+    private static final String FOREIGN_KEY = "booking_showtime_fk";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("[a-z]+_p(\\d{4})_(\\d{2})");
+
+    static final String DEFAULT_ROWS_SQL = "SELECT EXISTS (SELECT 1 FROM showtime_default "
+            + "WHERE start_time >= ? AND start_time < ?) OR EXISTS (SELECT 1 FROM booking_default "
+            + "WHERE showtime_start >= ? AND showtime_start < ?)";
+    // Both tables stay locked until the rows are back, so none of the month can reach the default
+    // partition in between; showtime first, in the order bookings lock them
+    static final String LOCK_SQL = "LOCK TABLE showtime, booking IN ACCESS EXCLUSIVE MODE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final int monthsAhead;
+    private final int retainedMonths;
+    private final long checkIntervalMillis;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "partition-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public PartitionMaintenance(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                PartitioningProperties properties) {
+        // Partition bounds are TIMESTAMP values in the zone Hibernate writes start times in
+        this(jdbcTemplate, transactionTemplate, properties, Clock.systemDefaultZone());
+    }
+
+    PartitionMaintenance(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                         PartitioningProperties properties, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.monthsAhead = properties.monthsAhead();
+        this.retainedMonths = properties.retainedMonths();
+        this.checkIntervalMillis = properties.checkInterval().toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        executor.scheduleWithFixedDelay(this::maintain, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Create the partitions of the coming months and detach those of months past retention
+     * Each statement runs on its own, so one failure does not hold back the others
+     */
+    void maintain() {
+        YearMonth current = YearMonth.now(clock);
+        for (int i = 0; i <= monthsAhead; i++) {
+            createMonth(current.plusMonths(i));
+        }
+
+        YearMonth oldestRetained = current.minusMonths(retainedMonths);
+        for (String table : TABLES) {
+            List<String> partitions;
+            try {
+                partitions = jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, table);
+            } catch (DataAccessException e) {
+                log.warn("Failed to list the partitions of {}", table, e);
+                continue;
+            }
+            for (String partition : partitions) {
+                YearMonth month = monthOf(partition);
+                if (month == null || !month.isBefore(oldestRetained)) {
+                    continue;
+                }
+                if (execute("ALTER TABLE " + table + " DETACH PARTITION " + partition) && table.equals("booking")) {
+                    // The detached table keeps a copy of the foreign key, which would block detaching
+                    // the showtime partition it references
+                    execute("ALTER TABLE " + partition + " DROP CONSTRAINT IF EXISTS " + FOREIGN_KEY);
+                }
+            }
+        }
+    }
+
+    /**
+     * Create the partitions of a month, moving its rows out of the default partitions if there are any
+     * @param month Month to create
+     */
+    private void createMonth(YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        Boolean stranded;
+        try {
+            stranded = jdbcTemplate.queryForObject(DEFAULT_ROWS_SQL, Boolean.class, from, to, from, to);
+        } catch (DataAccessException e) {
+            log.warn("Failed to check the default partitions for {}", month, e);
+            return;
+        }
+        if (!Boolean.TRUE.equals(stranded)) {
+            for (String table : TABLES) {
+                execute(createSql(table, month));
+            }
+            return;
+        }
+        try {
+            transactionTemplate.execute(status -> {
+                jdbcTemplate.execute(LOCK_SQL);
+                // Bookings first, so deleting their showtimes cascades to nothing
+                jdbcTemplate.execute("CREATE TEMP TABLE moving_booking ON COMMIT DROP AS SELECT * FROM booking WHERE "
+                        + range("showtime_start", month));
+                jdbcTemplate.execute("DELETE FROM booking WHERE " + range("showtime_start", month));
+                jdbcTemplate.execute("CREATE TEMP TABLE moving_showtime ON COMMIT DROP AS SELECT * FROM showtime WHERE "
+                        + range("start_time", month));
+                jdbcTemplate.execute("DELETE FROM showtime WHERE " + range("start_time", month));
+                jdbcTemplate.execute(createSql("showtime", month));
+                jdbcTemplate.execute(createSql("booking", month));
+                jdbcTemplate.execute("INSERT INTO showtime SELECT * FROM moving_showtime");
+                jdbcTemplate.execute("INSERT INTO booking SELECT * FROM moving_booking");
+                return null;
+            });
+            log.info("Moved the showtimes and bookings of {} out of the default partitions", month);
+        } catch (DataAccessException e) {
+            log.warn("Failed to move the rows of {} out of the default partitions", month, e);
+        }
+    }
+
+    private static String createSql(String table, YearMonth month) {
+        return "CREATE TABLE IF NOT EXISTS " + partitionName(table, month) + " PARTITION OF " + table
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+
+    private static String range(String column, YearMonth month) {
+        return column + " >= '" + month.atDay(1) + "' AND " + column + " < '" + month.plusMonths(1).atDay(1) + "'";
+    }
+
+    /**
+     * Get the name of a monthly partition
+     * @param table Partitioned table
+     * @param month Month the partition holds
+     * @return Partition name, such as showtime_p2025_04
+     */
+    static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    /**
+     * Get the month a partition holds from its name
+     * @param partition Partition name
+     * @return Month of a monthly partition, or null for the default partition or any other table
+     */
+    static YearMonth monthOf(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+
+    private boolean execute(String sql) {
+        try {
+            jdbcTemplate.execute(sql);
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Partition maintenance statement failed: {}", sql, e);
+            return false;
+        }
+    }
+}
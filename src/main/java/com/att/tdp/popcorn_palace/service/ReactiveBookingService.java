@@ -0,0 +1,141 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.BookingResponse;
+import com.att.tdp.popcorn_palace.dto.UserBookingPage;
+import com.att.tdp.popcorn_palace.dto.UserBookingResponse;
+import com.att.tdp.popcorn_palace.model.Booking;
+import com.att.tdp.popcorn_palace.repository.ReactiveBookingRepository;
+import com.att.tdp.popcorn_palace.repository.ReactiveShowtimeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Booking rules of BookingService for the reactive booking API
+ * Bookings are checked and inserted one at a time over R2DBC; write-behind, group commit and the
+ * outbox belong to the servlet stack and are not available here.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveBookingService {
+
+    // Starting point of the first history page; later than any booking time
+    private static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
+    private final ReactiveBookingRepository bookingRepository;
+    private final ReactiveShowtimeRepository showtimeRepository;
+
+    @Autowired
+    public ReactiveBookingService(ReactiveBookingRepository bookingRepository,
+                                  ReactiveShowtimeRepository showtimeRepository) {
+        this.bookingRepository = bookingRepository;
+        this.showtimeRepository = showtimeRepository;
+    }
+
+    /**
+     * Get all bookings
+     * @return All bookings
+     */
+    public Flux<BookingResponse> getAllBookings() {
+        return bookingRepository.findAllResponses();
+    }
+
+    /**
+     * Get booking by id
+     * @param id Booking id
+     * @return Booking if found, empty otherwise
+     */
+    public Mono<BookingResponse> getBookingById(String id) {
+        return bookingRepository.findResponseById(id);
+    }
+
+    /**
+     * Get all bookings for a specific showtime
+     * @param showtimeId Showtime id
+     * @return Bookings for the showtime
+     */
+    public Flux<BookingResponse> getBookingsByShowtimeId(Long showtimeId) {
+        return bookingRepository.findResponsesByShowtimeId(showtimeId);
+    }
+
+    /**
+     * Get a user's bookings with their showtimes, most recent first, one page at a time
+     * @param userId User id
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of bookings per page, between 1 and BookingService.MAX_PAGE_SIZE
+     * @return Page of bookings with the cursor of the next page
+     * @see BookingService#getBookingsByUserId(String, String, int)
+     */
+    public Mono<UserBookingPage> getBookingsByUserId(String userId, String cursor, int limit) {
+        return Mono.defer(() -> {
+            if (limit < 1 || limit > BookingService.MAX_PAGE_SIZE) {
+                return Mono.error(new IllegalArgumentException(
+                        "Limit must be between 1 and " + BookingService.MAX_PAGE_SIZE));
+            }
+            Instant beforeTime = END_OF_TIME;
+            String beforeId = "";
+            if (cursor != null) {
+                KeysetCursor last = KeysetCursor.decode(cursor);
+                beforeTime = last.time();
+                beforeId = last.id();
+            }
+
+            // Fetch one extra row to learn whether another page follows
+            return bookingRepository.findPageByUserId(userId, beforeTime, beforeId, limit + 1)
+                    .collectList()
+                    .map(bookings -> {
+                        if (bookings.size() <= limit) {
+                            return new UserBookingPage(bookings, null);
+                        }
+                        List<UserBookingResponse> page = List.copyOf(bookings.subList(0, limit));
+                        UserBookingResponse last = page.get(limit - 1);
+                        return new UserBookingPage(page, KeysetCursor.of(last.bookingTime(), last.id()).encode());
+                    });
+        });
+    }
+
+    /**
+     * Create a new booking
+     * @param booking Booking to create
+     * @return Created booking with generated id
+     * @throws IllegalArgumentException if the showtime does not exist or the seat is taken, as an error signal
+     */
+    public Mono<Booking> createBooking(Booking booking) {
+        // Validate showtime exists, and copy its start time into the booking's partition key
+        return showtimeRepository.findStartTimeById(booking.getShowtimeId())
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException(
+                        "Showtime with ID " + booking.getShowtimeId() + " does not exist")))
+                .flatMap(showtimeStart -> {
+                    booking.setShowtimeStart(showtimeStart);
+                    // Always generated, for the reason given in BookingService#createBooking
+                    booking.setId(UUID.randomUUID().toString());
+                    return bookingRepository.existsByShowtimeIdAndShowtimeStartAndSeatNumber(
+                            booking.getShowtimeId(), showtimeStart, booking.getSeatNumber());
+                })
+                .flatMap(booked -> booked
+                        ? Mono.error(seatAlreadyBooked(booking))
+                        : bookingRepository.insert(booking).thenReturn(booking))
+                // A concurrent booking of the same seat may pass the check first; the seat constraint stops it
+                .onErrorMap(DuplicateKeyException.class, e -> seatAlreadyBooked(booking));
+    }
+
+    /**
+     * Delete a booking by id
+     * @param id Booking id to delete
+     * @return true if deleted, false if not found
+     */
+    public Mono<Boolean> deleteBooking(String id) {
+        return bookingRepository.removeById(id).map(deleted -> deleted > 0);
+    }
+
+    private static IllegalArgumentException seatAlreadyBooked(Booking booking) {
+        return new IllegalArgumentException("Seat " + booking.getSeatNumber() + " is already booked for this showtime");
+    }
+}
@@ -0,0 +1,287 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimePage;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMoviePage;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMovieResponse;
+import com.att.tdp.popcorn_palace.model.Showtime;
+import com.att.tdp.popcorn_palace.repository.ReactiveMovieRepository;
+import com.att.tdp.popcorn_palace.repository.ReactiveShowtimeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Showtime rules of ShowtimeService for the reactive showtime API
+ * Reads and writes go over R2DBC; the catalog tags, the hot window and the now-playing schedule
+ * are the in-memory ones the servlet stack uses, so both stacks answer from the same state.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveShowtimeService {
+
+    // Upper bound for queries without one; PostgreSQL TIMESTAMP cannot hold Instant.MAX
+    private static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
+    private final ReactiveShowtimeRepository showtimeRepository;
+    private final ReactiveMovieRepository movieRepository;
+    private final CatalogVersions catalogVersions;
+    private final UpcomingShowtimesCache upcomingShowtimes;
+    private final TransactionalOperator transactions;
+
+    @Autowired
+    public ReactiveShowtimeService(ReactiveShowtimeRepository showtimeRepository,
+                                   ReactiveMovieRepository movieRepository, CatalogVersions catalogVersions,
+                                   UpcomingShowtimesCache upcomingShowtimes, TransactionalOperator transactions) {
+        this.showtimeRepository = showtimeRepository;
+        this.movieRepository = movieRepository;
+        this.catalogVersions = catalogVersions;
+        this.upcomingShowtimes = upcomingShowtimes;
+        this.transactions = transactions;
+    }
+
+    /**
+     * Get the version tag of the showtime catalog without touching the database
+     * @return Tag that changes whenever a showtime is written
+     */
+    public String getCatalogTag() {
+        return catalogVersions.getShowtimeTag();
+    }
+
+    /**
+     * Get all showtimes
+     * @return All showtimes
+     */
+    public Flux<ShowtimeResponse> getAllShowtimes() {
+        return showtimeRepository.findAllResponses();
+    }
+
+    /**
+     * Get showtime by id
+     * @param id Showtime id
+     * @return Showtime if found, empty otherwise
+     */
+    public Mono<ShowtimeResponse> getShowtimeById(Long id) {
+        return showtimeRepository.findResponseById(id);
+    }
+
+    /**
+     * Find showtimes by movie, theater and start time window, one page at a time
+     * @param movieId Movie id filter, may be null
+     * @param theater Theater filter, may be null
+     * @param from Inclusive lower bound of the start time, or null for now
+     * @param to Exclusive upper bound of the start time, may be null
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of showtimes per page, between 1 and ShowtimeService.MAX_PAGE_SIZE
+     * @return Page of showtimes with the cursor of the next page
+     * @see ShowtimeService#findShowtimes(Long, String, Instant, Instant, String, int)
+     */
+    public Mono<ShowtimePage> findShowtimes(Long movieId, String theater, Instant from, Instant to, String cursor,
+                                            int limit) {
+        return Mono.defer(() -> {
+            if (limit < 1 || limit > ShowtimeService.MAX_PAGE_SIZE) {
+                return Mono.error(new IllegalArgumentException(
+                        "Limit must be between 1 and " + ShowtimeService.MAX_PAGE_SIZE));
+            }
+            Instant windowStart = from != null ? from : Instant.now();
+            Instant windowEnd = to != null ? to : END_OF_TIME;
+            if (!windowStart.isBefore(windowEnd)) {
+                return Mono.error(new IllegalArgumentException("From must be before to"));
+            }
+            String theaterName = theater == null || theater.isBlank() ? null : theater;
+
+            Instant afterStart = windowStart;
+            long afterId = 0L;
+            if (cursor != null) {
+                KeysetCursor last = KeysetCursor.decode(cursor);
+                // A cursor from before the window start would re-read showtimes outside it
+                if (!last.time().isBefore(windowStart)) {
+                    afterStart = last.time();
+                    afterId = last.longId();
+                }
+            }
+
+            // Fetch one extra row to learn whether another page follows
+            List<ShowtimeResponse> cached = upcomingShowtimes.find(
+                    movieId, theaterName, afterStart, afterId, windowEnd, limit + 1);
+            Mono<List<ShowtimeResponse>> showtimes = cached != null
+                    ? Mono.just(cached)
+                    : showtimeRepository.findPage(movieId, theaterName, afterStart, afterId, windowEnd, limit + 1)
+                            .collectList();
+            return showtimes.map(rows -> {
+                if (rows.size() <= limit) {
+                    return new ShowtimePage(rows, null);
+                }
+                List<ShowtimeResponse> page = List.copyOf(rows.subList(0, limit));
+                ShowtimeResponse last = page.get(limit - 1);
+                return new ShowtimePage(page, KeysetCursor.of(last.startTime(), last.id()).encode());
+            });
+        });
+    }
+
+    /**
+     * Find showtimes with their movies, one page at a time
+     * Pages, filters and cursors are those of findShowtimes; the movies of a page are loaded in one
+     * batched query
+     * @param movieId Movie id filter, may be null
+     * @param theater Theater filter, may be null
+     * @param from Inclusive lower bound of the start time, or null for now
+     * @param to Exclusive upper bound of the start time, may be null
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of showtimes per page, between 1 and ShowtimeService.MAX_PAGE_SIZE
+     * @return Page of showtimes with movie details and the cursor of the next page
+     */
+    public Mono<ShowtimeWithMoviePage> findShowtimesWithMovies(Long movieId, String theater, Instant from, Instant to,
+                                                               String cursor, int limit) {
+        return findShowtimes(movieId, theater, from, to, cursor, limit).flatMap(page -> {
+            if (page.showtimes().isEmpty()) {
+                return Mono.just(new ShowtimeWithMoviePage(List.of(), page.nextCursor()));
+            }
+            List<Long> movieIds = page.showtimes().stream().map(ShowtimeResponse::movieId).distinct().toList();
+            return movieRepository.findResponsesByIdIn(movieIds)
+                    .collectMap(MovieResponse::id, Function.identity())
+                    .map(movies -> new ShowtimeWithMoviePage(withMovies(page.showtimes(), movies), page.nextCursor()));
+        });
+    }
+
+    /**
+     * Create a new showtime
+     * @param showtime Showtime to create
+     * @return Created showtime with generated id and version 0
+     * @throws IllegalArgumentException if validation fails, as an error signal
+     */
+    public Mono<Showtime> createShowtime(Showtime showtime) {
+        return validateShowtime(showtime, null)
+                .then(showtimeRepository.insert(showtime))
+                .map(id -> {
+                    showtime.setId(id);
+                    showtime.setVersion(0L);
+                    return showtime;
+                })
+                .flatMap(created -> showtimeChanged().thenReturn(created));
+    }
+
+    /**
+     * Update an existing showtime
+     * With an expected version the update is made only if the showtime is still at that version.
+     * Without one, the current version is read and the update retried as ShowtimeService does.
+     * Reading the version, validating and the versioned update share one transaction per attempt.
+     * @param id Showtime id to update
+     * @param showtimeDetails Updated showtime details
+     * @param expectedVersion Version the update is based on, or null to update the current version
+     * @return Updated showtime if found, empty otherwise
+     * @throws IllegalArgumentException if validation fails, as an error signal
+     * @throws OptimisticLockingFailureException if the showtime is no longer at the expected version,
+     *         or kept changing for every retry, as an error signal
+     */
+    public Mono<Showtime> updateShowtime(Long id, Showtime showtimeDetails, Long expectedVersion) {
+        if (expectedVersion != null) {
+            return updateShowtimeAt(id, showtimeDetails, expectedVersion);
+        }
+        return Mono.defer(() -> updateShowtimeAt(id, showtimeDetails, null)).retryWhen(OptimisticRetry.reactive());
+    }
+
+    private Mono<Showtime> updateShowtimeAt(Long id, Showtime showtimeDetails, Long expectedVersion) {
+        Mono<Long> version = expectedVersion != null
+                ? Mono.just(expectedVersion)
+                : showtimeRepository.findVersionById(id);
+        return transactions.transactional(version.flatMap(current -> applyUpdate(id, showtimeDetails, current)))
+                // Announced once committed, so caches reloading on the change read the new row
+                .flatMap(updated -> showtimeChanged().thenReturn(updated));
+    }
+
+    private Mono<Showtime> applyUpdate(Long id, Showtime showtimeDetails, long version) {
+        Mono<Boolean> valid = validateShowtime(showtimeDetails, id)
+                .thenReturn(true)
+                // An unknown showtime is reported as not found ahead of any validation error
+                .onErrorResume(IllegalArgumentException.class, e -> showtimeRepository.existsById(id)
+                        .flatMap(exists -> exists ? Mono.error(e) : Mono.just(false)));
+        return valid.filter(Boolean::booleanValue)
+                .flatMap(ok -> showtimeRepository.updateById(id, version, showtimeDetails))
+                .flatMap(updated -> {
+                    if (updated == 0) {
+                        return showtimeRepository.existsById(id).flatMap(exists -> exists
+                                ? Mono.error(new OptimisticLockingFailureException(
+                                        "Showtime with ID " + id + " was updated by someone else since version " + version))
+                                : Mono.empty());
+                    }
+                    // Every column was overwritten, so the details now reflect the stored row
+                    showtimeDetails.setId(id);
+                    showtimeDetails.setVersion(version + 1);
+                    return Mono.just(showtimeDetails);
+                });
+    }
+
+    /**
+     * Delete a showtime by id
+     * @param id Showtime id to delete
+     * @return true if deleted, false if not found
+     */
+    public Mono<Boolean> deleteShowtime(Long id) {
+        return showtimeRepository.removeById(id)
+                .flatMap(deleted -> deleted == 0 ? Mono.just(false) : showtimeChanged().thenReturn(true));
+    }
+
+    /**
+     * Validate showtime business rules, in the order ShowtimeService checks them
+     * @param showtime Showtime to validate
+     * @param id Showtime id to exclude from the overlap check, null for new showtimes
+     * @return Completion if valid, an IllegalArgumentException error signal otherwise
+     */
+    private Mono<Void> validateShowtime(Showtime showtime, Long id) {
+        return movieRepository.existsById(showtime.getMovieId()).flatMap(movieExists -> {
+            if (!movieExists) {
+                return Mono.error(new IllegalArgumentException(
+                        "Movie with ID " + showtime.getMovieId() + " does not exist"));
+            }
+            if (showtime.getStartTime().isAfter(showtime.getEndTime())) {
+                return Mono.error(new IllegalArgumentException("Start time must be before end time"));
+            }
+            if (Duration.between(showtime.getStartTime(), showtime.getEndTime())
+                    .compareTo(ShowtimeService.MAX_SHOWTIME_LENGTH) > 0) {
+                return Mono.error(new IllegalArgumentException(
+                        "Showtime cannot be longer than " + ShowtimeService.MAX_SHOWTIME_LENGTH.toHours() + " hours"));
+            }
+            return showtimeRepository.existsOverlapping(
+                            showtime.getTheater(),
+                            showtime.getStartTime().minus(ShowtimeService.MAX_SHOWTIME_LENGTH),
+                            showtime.getStartTime(),
+                            showtime.getEndTime(),
+                            id)
+                    .flatMap(overlapping -> overlapping
+                            ? Mono.error(new IllegalArgumentException(
+                                    "There is already a showtime scheduled in this theater during the specified time"))
+                            : Mono.<Void>empty());
+        });
+    }
+
+    /**
+     * Record a committed showtime write
+     * Run off the event loop: with the catalog bus enabled the change is announced over JDBC.
+     */
+    private Mono<Void> showtimeChanged() {
+        return Mono.fromRunnable(catalogVersions::showtimeChanged).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    private static List<ShowtimeWithMovieResponse> withMovies(List<ShowtimeResponse> showtimes,
+                                                              Map<Long, MovieResponse> movies) {
+        return showtimes.stream()
+                // A movie deleted since the page was read takes its showtimes with it
+                .filter(showtime -> movies.containsKey(showtime.movieId()))
+                .map(showtime -> new ShowtimeWithMovieResponse(showtime.id(), showtime.theater(),
+                        showtime.startTime(), showtime.endTime(), showtime.price(), movies.get(showtime.movieId())))
+                .toList();
+    }
+}
@@ -0,0 +1,154 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.ArchivalProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Moves finished showtimes and their bookings from the live tables to the archive tables
+ * Showtimes that ended longer ago than the configured age are moved in bounded batches, each in
+ * its own short transaction, with a pause between batches and only inside an off-peak window of
+ * the day. The live tables, and the overlap check and list queries that scan them, then only hold
+ * recent and upcoming showtimes. ArchiveService reads the archive. With the booking outbox enabled,
+ * the bookings leaving the live table are recorded as cancelled in the batch's transaction.
+ */
+@Component
+@ConditionalOnProperty(prefix = "popcorn-palace.archival", name = "enabled", havingValue = "true")
+public class ShowtimeArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(ShowtimeArchiver.class);
+
+    // Rows another node is archiving are skipped rather than waited for. The start time bound is
+    // implied by the end time one, and lets PostgreSQL prune the partitions of later months.
+    static final String BATCH_SQL = "SELECT id FROM showtime WHERE start_time < ? AND end_time < ? "
+            + "ORDER BY end_time, id LIMIT ? FOR UPDATE SKIP LOCKED";
+    static final String ARCHIVE_BOOKINGS_SQL = "INSERT INTO booking_archive (id, showtime_id, user_id, seat_number, "
+            + "booking_time) SELECT id, showtime_id, user_id, seat_number, booking_time FROM booking "
+            + "WHERE showtime_start < ? AND showtime_id IN ";
+    static final String ARCHIVE_SHOWTIMES_SQL = "INSERT INTO showtime_archive (id, movie_id, theater, start_time, "
+            + "end_time, price) SELECT id, movie_id, theater, start_time, end_time, price FROM showtime "
+            + "WHERE start_time < ? AND id IN ";
+    // Bookings of the deleted showtimes go with them through ON DELETE CASCADE
+    static final String DELETE_SHOWTIMES_SQL = "DELETE FROM showtime WHERE start_time < ? AND id IN ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogVersions catalogVersions;
+    private final ArchivalProperties properties;
+    // Present only when the booking outbox is enabled
+    private final BookingOutbox outbox;
+    private final Clock clock;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "showtime-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean running = true;
+
+    @Autowired
+    public ShowtimeArchiver(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            CatalogVersions catalogVersions, ArchivalProperties properties,
+                            @Nullable BookingOutbox outbox) {
+        this(jdbcTemplate, transactionTemplate, catalogVersions, properties, outbox, Clock.systemDefaultZone());
+    }
+
+    ShowtimeArchiver(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                     CatalogVersions catalogVersions, ArchivalProperties properties,
+                     @Nullable BookingOutbox outbox, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.catalogVersions = catalogVersions;
+        this.properties = properties;
+        this.outbox = outbox;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        long intervalMillis = properties.checkInterval().toMillis();
+        executor.scheduleWithFixedDelay(this::archive, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        executor.shutdownNow();
+    }
+
+    /**
+     * Archive batches of finished showtimes until none are left or the window closes
+     * @return Number of showtimes archived
+     */
+    int archive() {
+        int archived = 0;
+        try {
+            while (running && properties.isInWindow(LocalTime.now(clock))) {
+                int moved = archiveBatch();
+                archived += moved;
+                if (moved < properties.batchSize()) {
+                    break;
+                }
+                Thread.sleep(properties.batchPause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (DataAccessException e) {
+            // The failed batch was rolled back as a whole and is retried on the next check
+            log.warn("Failed to archive showtimes, retrying in {}", properties.checkInterval(), e);
+        }
+        if (archived > 0) {
+            // Archived showtimes have left the live table, which the catalog caches follow
+            catalogVersions.showtimeChanged();
+            log.info("Archived {} finished showtimes with their bookings", archived);
+        }
+        return archived;
+    }
+
+    /**
+     * Move one batch of finished showtimes and their bookings in a single transaction
+     * @return Number of showtimes moved
+     */
+    int archiveBatch() {
+        Timestamp cutoff = Timestamp.from(clock.instant().minus(properties.age()));
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(BATCH_SQL, Long.class, cutoff, cutoff, properties.batchSize());
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            String in = ids.stream().map(id -> "?").collect(Collectors.joining(", ", "(", ")"));
+            List<Object> args = new ArrayList<>(ids.size() + 1);
+            args.add(cutoff);
+            args.addAll(ids);
+            Object[] values = args.toArray();
+            jdbcTemplate.update(ARCHIVE_BOOKINGS_SQL + in, values);
+            jdbcTemplate.update(ARCHIVE_SHOWTIMES_SQL + in, values);
+            if (outbox != null) {
+                outbox.showtimeBookingsCancelled(ids);
+            }
+            jdbcTemplate.update(DELETE_SHOWTIMES_SQL + in, values);
+            return ids.size();
+        });
+        return moved != null ? moved : 0;
+    }
+}
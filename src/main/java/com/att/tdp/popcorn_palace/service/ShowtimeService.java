@@ -1,32 +1,75 @@
 package com.att.tdp.popcorn_palace.service;
 
+import com.att.tdp.popcorn_palace.dto.ShowtimePage;
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMoviePage;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMovieResponse;
 import com.att.tdp.popcorn_palace.model.Showtime;
 import com.att.tdp.popcorn_palace.repository.MovieRepository;
 import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ShowtimeService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+
+    // Longest showtime accepted; bounds how far back the overlap check has to look
+    public static final Duration MAX_SHOWTIME_LENGTH = Duration.ofHours(24);
+
+    // Upper bound for queries without one; PostgreSQL TIMESTAMP cannot hold Instant.MAX
+    private static final Instant END_OF_TIME = Instant.parse("9999-12-31T23:59:59Z");
+
     private final ShowtimeRepository showtimeRepository;
     private final MovieRepository movieRepository;
+    private final CatalogVersions catalogVersions;
+    private final UpcomingShowtimesCache upcomingShowtimes;
+    private final TransactionTemplate transactionTemplate;
+    // Present only when the booking outbox is enabled
+    private final BookingOutbox outbox;
 
     @Autowired
-    public ShowtimeService(ShowtimeRepository showtimeRepository, MovieRepository movieRepository) {
+    public ShowtimeService(ShowtimeRepository showtimeRepository, MovieRepository movieRepository,
+                           CatalogVersions catalogVersions, UpcomingShowtimesCache upcomingShowtimes,
+                           TransactionTemplate transactionTemplate, @Nullable BookingOutbox outbox) {
         this.showtimeRepository = showtimeRepository;
         this.movieRepository = movieRepository;
+        this.catalogVersions = catalogVersions;
+        this.upcomingShowtimes = upcomingShowtimes;
+        this.transactionTemplate = transactionTemplate;
+        this.outbox = outbox;
+    }
+
+    /**
+     * Get the version tag of the showtime catalog without touching the database
+     * @return Tag that changes whenever a showtime is written
+     */
+    public String getCatalogTag() {
+        return catalogVersions.getShowtimeTag();
     }
 
     /**
      * Get all showtimes
      * @return List of all showtimes
      */
-    public List<Showtime> getAllShowtimes() {
-        return showtimeRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<ShowtimeResponse> getAllShowtimes() {
+        return showtimeRepository.findAllResponses();
     }
 
     /**
@@ -34,97 +77,249 @@ public class ShowtimeService {
      * @param id Showtime id
      * @return Showtime if found, empty Optional otherwise
      */
-    public Optional<Showtime> getShowtimeById(Long id) {
-        return showtimeRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<ShowtimeResponse> getShowtimeById(Long id) {
+        return showtimeRepository.findResponseById(id);
     }
 
     /**
-     * Create a new showtime
-     * @param showtime Showtime to create
-     * @return Created showtime with generated id, or null if validation fails
-     * @throws IllegalArgumentException if validation fails
+     * Find showtimes by movie, theater and start time window, one page at a time
+     * Pages are ordered by start time and id. Queries inside the hot window are answered from
+     * memory; the rest use the keyset range queries of ShowtimeRepository.
+     * @param movieId Movie id filter, may be null
+     * @param theater Theater filter, may be null
+     * @param from Inclusive lower bound of the start time, or null for now
+     * @param to Exclusive upper bound of the start time, may be null
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of showtimes per page, between 1 and MAX_PAGE_SIZE
+     * @return Page of showtimes with the cursor of the next page
+     * @throws IllegalArgumentException if the limit, the window or the cursor is invalid
      */
-    public Showtime createShowtime(Showtime showtime) {
-        // Validate movie exists
-        if (!movieRepository.existsById(showtime.getMovieId())) {
-            throw new IllegalArgumentException("Movie with ID " + showtime.getMovieId() + " does not exist");
+    @Transactional(readOnly = true)
+    public ShowtimePage findShowtimes(Long movieId, String theater, Instant from, Instant to, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Instant windowStart = from != null ? from : Instant.now();
+        Instant windowEnd = to != null ? to : END_OF_TIME;
+        if (!windowStart.isBefore(windowEnd)) {
+            throw new IllegalArgumentException("From must be before to");
         }
+        String theaterName = theater == null || theater.isBlank() ? null : theater;
 
-        // Validate start time is before end time
-        if (showtime.getStartTime().isAfter(showtime.getEndTime())) {
-            throw new IllegalArgumentException("Start time must be before end time");
+        Instant afterStart = windowStart;
+        long afterId = 0L;
+        if (cursor != null) {
+            KeysetCursor last = KeysetCursor.decode(cursor);
+            // A cursor from before the window start would re-read showtimes outside it
+            if (!last.time().isBefore(windowStart)) {
+                afterStart = last.time();
+                afterId = last.longId();
+            }
         }
 
-        // Check for overlapping showtimes
-        List<Showtime> overlappingShowtimes = showtimeRepository.findOverlappingShowtimes(
-                showtime.getTheater(),
-                showtime.getStartTime(),
-                showtime.getEndTime(),
-                null
-        );
+        // Fetch one extra row to learn whether another page follows
+        List<ShowtimeResponse> showtimes = upcomingShowtimes.find(
+                movieId, theaterName, afterStart, afterId, windowEnd, limit + 1);
+        if (showtimes == null) {
+            showtimes = findPage(movieId, theaterName, afterStart, afterId, windowEnd, limit + 1);
+        }
+        if (showtimes.size() <= limit) {
+            return new ShowtimePage(showtimes, null);
+        }
+        List<ShowtimeResponse> page = List.copyOf(showtimes.subList(0, limit));
+        ShowtimeResponse last = page.get(limit - 1);
+        return new ShowtimePage(page, KeysetCursor.of(last.startTime(), last.id()).encode());
+    }
 
-        if (!overlappingShowtimes.isEmpty()) {
-            throw new IllegalArgumentException("There is already a showtime scheduled in this theater during the specified time");
+    /**
+     * Find showtimes with their movies, one page at a time
+     * Pages, filters and cursors are those of findShowtimes. The movies of a page are then
+     * loaded in one batched query, so a page costs at most two statements whatever its size.
+     * @param movieId Movie id filter, may be null
+     * @param theater Theater filter, may be null
+     * @param from Inclusive lower bound of the start time, or null for now
+     * @param to Exclusive upper bound of the start time, may be null
+     * @param cursor Cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of showtimes per page, between 1 and MAX_PAGE_SIZE
+     * @return Page of showtimes with movie details and the cursor of the next page
+     * @throws IllegalArgumentException if the limit, the window or the cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public ShowtimeWithMoviePage findShowtimesWithMovies(Long movieId, String theater, Instant from, Instant to,
+                                                         String cursor, int limit) {
+        ShowtimePage page = findShowtimes(movieId, theater, from, to, cursor, limit);
+        if (page.showtimes().isEmpty()) {
+            return new ShowtimeWithMoviePage(List.of(), page.nextCursor());
         }
 
-        return showtimeRepository.save(showtime);
+        List<Long> movieIds = page.showtimes().stream().map(ShowtimeResponse::movieId).distinct().toList();
+        Map<Long, MovieResponse> movies = movieRepository.findResponsesByIdIn(movieIds).stream()
+                .collect(Collectors.toMap(MovieResponse::id, Function.identity()));
+        List<ShowtimeWithMovieResponse> showtimes = page.showtimes().stream()
+                // A movie deleted since the page was read takes its showtimes with it
+                .filter(showtime -> movies.containsKey(showtime.movieId()))
+                .map(showtime -> new ShowtimeWithMovieResponse(showtime.id(), showtime.theater(),
+                        showtime.startTime(), showtime.endTime(), showtime.price(), movies.get(showtime.movieId())))
+                .toList();
+        return new ShowtimeWithMoviePage(showtimes, page.nextCursor());
+    }
+
+    /**
+     * Create a new showtime
+     * @param showtime Showtime to create
+     * @return Created showtime with generated id, or null if validation fails
+     * @throws IllegalArgumentException if validation fails
+     */
+    public Showtime createShowtime(Showtime showtime) {
+        validateShowtime(showtime, null);
+        Showtime createdShowtime = showtimeRepository.save(showtime);
+        catalogVersions.showtimeChanged();
+        return createdShowtime;
     }
 
     /**
      * Update an existing showtime
+     * With an expected version the update is made only if the showtime is still at that version.
+     * Without one, the current version is read and the update retried a few times if another update
+     * lands between the read and the write, so validation always ran against the state overwritten.
+     * Reading the version, validating and the versioned update share one transaction per attempt.
      * @param id Showtime id to update
      * @param showtimeDetails Updated showtime details
+     * @param expectedVersion Version the update is based on, or null to update the current version
      * @return Updated showtime if found and validation passes, null otherwise
      * @throws IllegalArgumentException if validation fails
+     * @throws OptimisticLockingFailureException if the showtime is no longer at the expected version,
+     *         or kept changing for every retry
      */
-    public Showtime updateShowtime(Long id, Showtime showtimeDetails) {
-        Optional<Showtime> showtime = showtimeRepository.findById(id);
-        if (showtime.isPresent()) {
-            // Validate movie exists
-            if (!movieRepository.existsById(showtimeDetails.getMovieId())) {
-                throw new IllegalArgumentException("Movie with ID " + showtimeDetails.getMovieId() + " does not exist");
-            }
+    public Showtime updateShowtime(Long id, Showtime showtimeDetails, Long expectedVersion) {
+        if (expectedVersion != null) {
+            return updateShowtimeAt(id, showtimeDetails, expectedVersion);
+        }
+        return OptimisticRetry.run(() -> updateShowtimeAt(id, showtimeDetails, null));
+    }
 
-            // Validate start time is before end time
-            if (showtimeDetails.getStartTime().isAfter(showtimeDetails.getEndTime())) {
-                throw new IllegalArgumentException("Start time must be before end time");
+    private Showtime updateShowtimeAt(Long id, Showtime showtimeDetails, Long expectedVersion) {
+        Showtime updated = transactionTemplate.execute(status -> {
+            Long version = expectedVersion;
+            if (version == null) {
+                Optional<Long> current = showtimeRepository.findVersionById(id);
+                if (current.isEmpty()) {
+                    return null;
+                }
+                version = current.get();
             }
+            return applyUpdate(id, showtimeDetails, version);
+        });
+        // Announced once committed, so caches reloading on the change read the new row
+        if (updated != null) {
+            catalogVersions.showtimeChanged();
+        }
+        return updated;
+    }
 
-            // Check for overlapping showtimes
-            List<Showtime> overlappingShowtimes = showtimeRepository.findOverlappingShowtimes(
-                    showtimeDetails.getTheater(),
-                    showtimeDetails.getStartTime(),
-                    showtimeDetails.getEndTime(),
-                    id
-            );
-
-            if (!overlappingShowtimes.isEmpty()) {
-                throw new IllegalArgumentException("There is already a showtime scheduled in this theater during the specified time");
+    private Showtime applyUpdate(Long id, Showtime showtimeDetails, long version) {
+        try {
+            validateShowtime(showtimeDetails, id);
+        } catch (IllegalArgumentException e) {
+            // An unknown showtime is reported as not found ahead of any validation error
+            if (!showtimeRepository.existsById(id)) {
+                return null;
             }
+            throw e;
+        }
 
-            Showtime existingShowtime = showtime.get();
-            existingShowtime.setMovieId(showtimeDetails.getMovieId());
-            existingShowtime.setTheater(showtimeDetails.getTheater());
-            existingShowtime.setStartTime(showtimeDetails.getStartTime());
-            existingShowtime.setEndTime(showtimeDetails.getEndTime());
-            existingShowtime.setPrice(showtimeDetails.getPrice());
-
-            return showtimeRepository.save(existingShowtime);
+        int updated = showtimeRepository.updateById(
+                id,
+                version,
+                showtimeDetails.getMovieId(),
+                showtimeDetails.getTheater(),
+                showtimeDetails.getStartTime(),
+                showtimeDetails.getEndTime(),
+                showtimeDetails.getPrice()
+        );
+        if (updated == 0) {
+            if (showtimeRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException(
+                        "Showtime with ID " + id + " was updated by someone else since version " + version);
+            }
+            return null;
         }
-        return null;
+        // Every column was overwritten, so the details now reflect the stored row
+        showtimeDetails.setId(id);
+        showtimeDetails.setVersion(version + 1);
+        return showtimeDetails;
     }
 
     /**
      * Delete a showtime by id
+     * With the outbox enabled the cancellation of every booking of the showtime is recorded in the
+     * same transaction
      * @param id Showtime id to delete
      * @return true if deleted, false if not found
      */
     public boolean deleteShowtime(Long id) {
-        Optional<Showtime> showtime = showtimeRepository.findById(id);
-        if (showtime.isPresent()) {
-            showtimeRepository.deleteById(id);
-            return true;
+        Integer deleted = transactionTemplate.execute(status -> {
+            if (outbox != null) {
+                outbox.showtimeBookingsCancelled(List.of(id));
+            }
+            return showtimeRepository.removeById(id);
+        });
+        if (deleted == null || deleted == 0) {
+            return false;
+        }
+        catalogVersions.showtimeChanged();
+        return true;
+    }
+
+    private List<ShowtimeResponse> findPage(Long movieId, String theater, Instant afterStart, long afterId,
+                                            Instant to, int limit) {
+        // One query per filter combination, so each runs as a range scan of its own composite index
+        if (movieId != null && theater != null) {
+            return showtimeRepository.findPageByMovieIdAndTheater(movieId, theater, afterStart, afterId, to, Limit.of(limit));
+        }
+        if (movieId != null) {
+            return showtimeRepository.findPageByMovieId(movieId, afterStart, afterId, to, Limit.of(limit));
+        }
+        if (theater != null) {
+            return showtimeRepository.findPageByTheater(theater, afterStart, afterId, to, Limit.of(limit));
+        }
+        return showtimeRepository.findPage(afterStart, afterId, to, Limit.of(limit));
+    }
+
+    /**
+     * Validate showtime business rules
+     * @param showtime Showtime to validate
+     * @param id Showtime id to exclude from the overlap check, null for new showtimes
+     * @throws IllegalArgumentException if validation fails
+     */
+    private void validateShowtime(Showtime showtime, Long id) {
+        // Validate movie exists
+        if (!movieRepository.existsById(showtime.getMovieId())) {
+            throw new IllegalArgumentException("Movie with ID " + showtime.getMovieId() + " does not exist");
+        }
+
+        // Validate start time is before end time
+        if (showtime.getStartTime().isAfter(showtime.getEndTime())) {
+            throw new IllegalArgumentException("Start time must be before end time");
+        }
+
+        // Validate length, which keeps the overlap check within a few partitions
+        if (Duration.between(showtime.getStartTime(), showtime.getEndTime()).compareTo(MAX_SHOWTIME_LENGTH) > 0) {
+            throw new IllegalArgumentException("Showtime cannot be longer than " + MAX_SHOWTIME_LENGTH.toHours() + " hours");
+        }
+
+        // Check for overlapping showtimes
+        List<Showtime> overlappingShowtimes = showtimeRepository.findOverlappingShowtimes(
+                showtime.getTheater(),
+                showtime.getStartTime().minus(MAX_SHOWTIME_LENGTH),
+                showtime.getStartTime(),
+                showtime.getEndTime(),
+                id
+        );
+
+        if (!overlappingShowtimes.isEmpty()) {
+            throw new IllegalArgumentException("There is already a showtime scheduled in this theater during the specified time");
         }
-        return false;
     }
 }
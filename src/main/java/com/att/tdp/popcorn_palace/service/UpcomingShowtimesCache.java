@@ -0,0 +1,180 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.ReplicaRoutingDataSource;
+import com.att.tdp.popcorn_palace.config.ShowtimeWindowProperties;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory copy of the showtimes starting within the hot window (the next 48 hours by default)
+ * Answers showtime queries that fall inside the window without touching the database. Reloaded
+ * in the background after every showtime write and periodically so the window slides forward.
+ */
+@Component
+public class UpcomingShowtimesCache {
+
+    private static final Logger log = LoggerFactory.getLogger(UpcomingShowtimesCache.class);
+
+    private final ShowtimeRepository showtimeRepository;
+    private final CatalogVersions catalogVersions;
+    private final Duration hotWindow;
+    private final Duration refreshInterval;
+    private final Clock clock;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "upcoming-showtimes-cache");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+    private volatile Window window;
+
+    @Autowired
+    public UpcomingShowtimesCache(ShowtimeRepository showtimeRepository, CatalogVersions catalogVersions,
+                                  ShowtimeWindowProperties properties) {
+        this(showtimeRepository, catalogVersions, properties, Clock.systemUTC());
+    }
+
+    UpcomingShowtimesCache(ShowtimeRepository showtimeRepository, CatalogVersions catalogVersions,
+                           ShowtimeWindowProperties properties, Clock clock) {
+        this.showtimeRepository = showtimeRepository;
+        this.catalogVersions = catalogVersions;
+        this.hotWindow = properties.hotWindow();
+        this.refreshInterval = properties.refreshInterval();
+        this.clock = clock;
+    }
+
+    /**
+     * Showtimes starting in [from, to) for one version of the showtime table
+     * The list is shared between requests and must not be modified
+     * @param tag Catalog tag the window was loaded for
+     * @param from Inclusive lower bound of the cached start times
+     * @param to Exclusive upper bound of the cached start times
+     * @param showtimes Showtimes ordered by start time and id
+     */
+    record Window(String tag, Instant from, Instant to, List<ShowtimeResponse> showtimes) {
+    }
+
+    /**
+     * Find showtimes in keyset order, as ShowtimeRepository#findPage does
+     * @param movieId Movie id filter, may be null
+     * @param theater Theater filter, may be null
+     * @param afterStart Start time of the last showtime already returned, or the window start
+     * @param afterId Id of the last showtime already returned, or 0 for the window start
+     * @param to Exclusive upper bound of the start time
+     * @param limit Maximum number of showtimes
+     * @return Matching showtimes, or null if the cached window cannot answer the query exactly
+     */
+    public List<ShowtimeResponse> find(Long movieId, String theater, Instant afterStart, long afterId,
+                                       Instant to, int limit) {
+        Window current = window;
+        if (current == null || !current.tag().equals(catalogVersions.getShowtimeTag())) {
+            scheduleRebuild();
+            return null;
+        }
+        if (clock.instant().isAfter(current.from().plus(refreshInterval))) {
+            // Still exact for its own range; reload so the range keeps covering the hot window
+            scheduleRebuild();
+        }
+        if (afterStart.isBefore(current.from())) {
+            return null;
+        }
+
+        List<ShowtimeResponse> showtimes = current.showtimes();
+        List<ShowtimeResponse> matches = new ArrayList<>(Math.min(limit, 64));
+        for (int i = firstAfter(showtimes, afterStart, afterId); i < showtimes.size(); i++) {
+            ShowtimeResponse showtime = showtimes.get(i);
+            if (!showtime.startTime().isBefore(to)) {
+                return matches;
+            }
+            if ((movieId == null || movieId.equals(showtime.movieId()))
+                    && (theater == null || theater.equals(showtime.theater()))) {
+                matches.add(showtime);
+                if (matches.size() == limit) {
+                    return matches;
+                }
+            }
+        }
+        // Ran out of cached showtimes: exact only if nothing later could still match
+        return to.isAfter(current.to()) ? null : matches;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.table() == CatalogChangedEvent.Table.SHOWTIMES) {
+            scheduleRebuild();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a rebuild unless one is already waiting; bursts of writes collapse into one rebuild
+     */
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            executor.execute(this::rebuild);
+        }
+    }
+
+    void rebuild() {
+        // Clear the flag first so writes that land during the rebuild queue another one
+        rebuildScheduled.set(false);
+        try {
+            // Read the tag before loading so the window is never labelled newer than its data
+            String tag = catalogVersions.getShowtimeTag();
+            Instant from = clock.instant();
+            Instant to = from.plus(hotWindow).plus(refreshInterval);
+            List<ShowtimeResponse> showtimes = ReplicaRoutingDataSource.readFromPrimary(
+                    () -> showtimeRepository.findPage(from, 0L, to, Limit.unlimited()));
+            window = new Window(tag, from, to, List.copyOf(showtimes));
+        } catch (Exception e) {
+            log.warn("Failed to rebuild the upcoming showtimes cache", e);
+        }
+    }
+
+    /**
+     * Binary search for the first showtime after a keyset position
+     * @return Index of the first showtime ordered after (afterStart, afterId)
+     */
+    private static int firstAfter(List<ShowtimeResponse> showtimes, Instant afterStart, long afterId) {
+        int low = 0;
+        int high = showtimes.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            ShowtimeResponse showtime = showtimes.get(mid);
+            int order = showtime.startTime().compareTo(afterStart);
+            if (order < 0 || (order == 0 && showtime.id() <= afterId)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,33 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.BookingEvent;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Posts each batch of booking events to a webhook as a JSON array
+ * Any 2xx response accepts the batch; anything else, or no response in time, fails it.
+ */
+final class WebhookSink implements BookingEventSink {
+
+    private final RestClient restClient;
+    private final URI url;
+
+    WebhookSink(RestClient restClient, URI url) {
+        this.restClient = restClient;
+        this.url = url;
+    }
+
+    @Override
+    public void deliver(List<BookingEvent> events) {
+        restClient.post()
+                .uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(events)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
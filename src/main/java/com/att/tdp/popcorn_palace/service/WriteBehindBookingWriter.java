@@ -0,0 +1,375 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.BookingWriteBehindProperties;
+import com.att.tdp.popcorn_palace.config.ClusterProperties;
+import com.att.tdp.popcorn_palace.model.Booking;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind persistence for bookings, enabled with popcorn-palace.booking.write-behind.enabled
+ * A booking is confirmed once its seat is claimed in memory and its record is durable in the local
+ * BookingJournal. A background thread then inserts the journaled bookings in batches, one database
+ * commit per batch instead of one per booking. Bookings left in the journal by a crash are inserted
+ * at startup, before any new booking is accepted.
+ *
+ * Until its batch is written, a booking is not visible to the booking read endpoints.
+ *
+ * Seat claims live in this node's memory, so only one node may confirm bookings: startup fails
+ * when the cluster is enabled or another node holds the WriteBehindLease, and bookings are
+ * refused whenever the lease could not be renewed in time. A journaled booking the database still
+ * rejects is moved to booking_dead_letter, with a cancellation event when the outbox is enabled,
+ * rather than being lost.
+ */
+@Component
+@ConditionalOnProperty(prefix = "popcorn-palace.booking.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindBookingWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindBookingWriter.class);
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+
+    static final String DEAD_LETTER_SQL = "INSERT INTO booking_dead_letter (booking_id, showtime_id, showtime_start, "
+            + "user_id, seat_number, booking_time, reason, failed_at) VALUES (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+    static final String SHOWTIME_START_QUERY = "SELECT s.startTime FROM Showtime s WHERE s.id = :id";
+
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingJournal journal;
+    private final WriteBehindLease lease;
+    private final JdbcTemplate jdbcTemplate;
+    // Present only when the booking outbox is enabled
+    private final BookingOutbox outbox;
+    private final int batchSize;
+    private final Duration fullWait;
+
+    // Seats of bookings that are confirmed but not yet in the database
+    private final ConcurrentMap<SeatKey, String> claims = new ConcurrentHashMap<>();
+    // Entries in sequence order; appended while holding appendLock
+    private final BlockingQueue<BookingJournal.Entry> pending = new LinkedBlockingQueue<>();
+    // Not a monitor, so a virtual thread waiting for journal space releases its carrier thread
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Condition journalSpace = appendLock.newCondition();
+    private final Thread writer = new Thread(this::writeLoop, "booking-write-behind");
+
+    private volatile boolean running = true;
+    // Set once the writer thread stopped with every confirmed booking in the database
+    private volatile boolean drained;
+
+    private record SeatKey(Long showtimeId, Integer seatNumber) {
+    }
+
+    @Autowired
+    public WriteBehindBookingWriter(BookingRepository bookingRepository, EntityManager entityManager,
+                                    TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate,
+                                    BookingWriteBehindProperties properties, ClusterProperties clusterProperties,
+                                    @Nullable BookingOutbox outbox)
+            throws IOException {
+        this(bookingRepository, entityManager, transactionTemplate, jdbcTemplate, properties,
+                new BookingJournal(properties.journalDirectory(), (int) properties.segmentSize().toBytes()),
+                new WriteBehindLease(jdbcTemplate, properties.journalDirectory(), properties.leaseDuration()), outbox);
+        if (clusterProperties.enabled()) {
+            journal.close();
+            throw new IllegalStateException("Write-behind bookings need a single node; "
+                    + "disable popcorn-palace.cluster or popcorn-palace.booking.write-behind");
+        }
+    }
+
+    WriteBehindBookingWriter(BookingRepository bookingRepository, EntityManager entityManager,
+                             TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate,
+                             BookingWriteBehindProperties properties, BookingJournal journal, WriteBehindLease lease,
+                             @Nullable BookingOutbox outbox) {
+        this.bookingRepository = bookingRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.journal = journal;
+        this.lease = lease;
+        this.outbox = outbox;
+        this.batchSize = properties.batchSize();
+        this.fullWait = properties.fullWait();
+        writer.setDaemon(true);
+    }
+
+    /**
+     * Take the lease, insert the bookings a previous run confirmed but did not write, then start
+     * the writer thread
+     * Fails startup if another node holds the lease, or if the database rejects the recovered
+     * bookings for any reason other than a constraint, so the journal is kept for the next attempt
+     */
+    @PostConstruct
+    public void start() {
+        if (!lease.acquire()) {
+            throw new IllegalStateException("Another node confirms bookings from its write-behind journal; "
+                    + "only one node may run with popcorn-palace.booking.write-behind enabled");
+        }
+        List<BookingJournal.Entry> recovered = journal.recover();
+        if (!recovered.isEmpty()) {
+            Set<String> existing = new HashSet<>();
+            bookingRepository.findAllById(recovered.stream().map(entry -> entry.booking().getId()).toList())
+                    .forEach(booking -> existing.add(booking.getId()));
+            List<BookingJournal.Entry> missing = new ArrayList<>();
+            for (BookingJournal.Entry entry : recovered) {
+                if (!existing.contains(entry.booking().getId()) && resolveShowtimeStart(entry.booking())) {
+                    missing.add(entry);
+                }
+            }
+            write(missing);
+            journal.checkpoint(recovered.get(recovered.size() - 1).seq());
+            log.info("Recovered {} journaled bookings, {} of them missing from the database",
+                    recovered.size(), missing.size());
+        }
+        writer.start();
+    }
+
+    /**
+     * Confirm a booking: claim its seat, journal it and wait for the journal to reach the disk
+     * @param booking Booking with its id, showtime, showtime start, user, seat and booking time set
+     * @throws IllegalArgumentException if the seat is already booked or claimed
+     * @throws IllegalStateException if this node does not hold the lease, or the journal stays full
+     *                               for longer than the configured wait
+     */
+    public void submit(Booking booking) {
+        if (!lease.isValid()) {
+            throw new IllegalStateException("Bookings are paused: the write-behind lease could not be renewed");
+        }
+        SeatKey seat = new SeatKey(booking.getShowtimeId(), booking.getSeatNumber());
+        // Claim before checking the table: a claim is only released after its booking is committed
+        if (claims.putIfAbsent(seat, booking.getId()) != null
+                || bookingRepository.existsByShowtimeIdAndShowtimeStartAndSeatNumber(
+                        booking.getShowtimeId(), booking.getShowtimeStart(), booking.getSeatNumber())) {
+            claims.remove(seat, booking.getId());
+            throw new IllegalArgumentException("Seat " + booking.getSeatNumber() + " is already booked for this showtime");
+        }
+
+        long seq;
+        try {
+            seq = append(booking);
+        } catch (RuntimeException e) {
+            claims.remove(seat, booking.getId());
+            throw e;
+        }
+        journal.awaitDurable(seq);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (drained) {
+            // Nothing is left to write, so another node may take over at once
+            try {
+                lease.release();
+            } catch (DataAccessException e) {
+                log.warn("Failed to release the write-behind lease; it expires on its own", e);
+            }
+        }
+        // Whatever is still queued stays in the journal and is written on the next start
+        journal.close();
+    }
+
+    private long append(Booking booking) {
+        long deadline = System.nanoTime() + fullWait.toNanos();
+        appendLock.lock();
+        try {
+            long seq;
+            while ((seq = journal.append(booking)) < 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Booking journal is full; bookings are not reaching the database");
+                }
+                try {
+                    journalSpace.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for journal space", e);
+                }
+            }
+            pending.add(new BookingJournal.Entry(seq, booking));
+            return seq;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void writeLoop() {
+        List<BookingJournal.Entry> batch = new ArrayList<>(batchSize);
+        while (running || !pending.isEmpty()) {
+            if (lease.isDue()) {
+                renewLease();
+            }
+            try {
+                if (batch.isEmpty()) {
+                    BookingJournal.Entry first = pending.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    // Whatever queued up during the previous write goes into this one
+                    pending.drainTo(batch, batchSize - 1);
+                }
+                write(batch);
+                journal.checkpoint(batch.get(batch.size() - 1).seq());
+                for (BookingJournal.Entry entry : batch) {
+                    Booking booking = entry.booking();
+                    claims.remove(new SeatKey(booking.getShowtimeId(), booking.getSeatNumber()), booking.getId());
+                }
+                batch.clear();
+                appendLock.lock();
+                try {
+                    journalSpace.signalAll();
+                } finally {
+                    appendLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Keep the batch and its claims; the bookings are safe in the journal meanwhile
+                log.warn("Failed to write {} bookings, retrying in {}", batch.size(), RETRY_DELAY, e);
+                if (!running) {
+                    return;
+                }
+                try {
+                    Thread.sleep(RETRY_DELAY);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        drained = batch.isEmpty();
+    }
+
+    /**
+     * Fill in the showtime start of a booking journaled before bookings carried it
+     * @param booking Recovered booking
+     * @return false if its showtime no longer exists, in which case the booking was dead-lettered
+     */
+    private boolean resolveShowtimeStart(Booking booking) {
+        if (booking.getShowtimeStart() != null) {
+            return true;
+        }
+        List<Instant> starts = entityManager.createQuery(SHOWTIME_START_QUERY, Instant.class)
+                .setParameter("id", booking.getShowtimeId())
+                .getResultList();
+        if (starts.isEmpty()) {
+            log.error("Moving journaled booking {} of a deleted showtime to booking_dead_letter", booking);
+            deadLetter(booking, "Showtime " + booking.getShowtimeId() + " no longer exists");
+            return false;
+        }
+        booking.setShowtimeStart(starts.get(0));
+        return true;
+    }
+
+    private void renewLease() {
+        try {
+            if (!lease.acquire()) {
+                log.error("Lost the write-behind lease to another node; refusing new bookings");
+            }
+        } catch (DataAccessException e) {
+            // Bookings are refused once the current lease runs out; confirmed ones keep being written
+            log.warn("Failed to renew the write-behind lease", e);
+        }
+    }
+
+    /**
+     * Insert bookings in one transaction, or one by one if the batch breaks a constraint
+     * A booking that breaks a constraint on its own (its showtime was deleted, or the seat was
+     * taken by a synchronous booking) can never be written and goes to the dead letter table
+     * @param entries Bookings to insert
+     */
+    private void write(List<BookingJournal.Entry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            insert(entries);
+        } catch (RuntimeException e) {
+            if (!isConstraintViolation(e)) {
+                throw e;
+            }
+            for (BookingJournal.Entry entry : entries) {
+                try {
+                    insert(List.of(entry));
+                } catch (RuntimeException single) {
+                    if (!isConstraintViolation(single)) {
+                        throw single;
+                    }
+                    log.error("Moving journaled booking {} that the database rejects to booking_dead_letter",
+                            entry.booking(), single);
+                    deadLetter(entry.booking(),
+                            String.valueOf(NestedExceptionUtils.getMostSpecificCause(single).getMessage()));
+                }
+            }
+        }
+    }
+
+    private void insert(List<BookingJournal.Entry> entries) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (BookingJournal.Entry entry : entries) {
+                entityManager.persist(entry.booking());
+            }
+            entityManager.flush();
+            entityManager.clear();
+            // Recorded when the bookings reach the database, not when they are confirmed
+            if (outbox != null) {
+                outbox.bookingsCreated(entries.stream().map(BookingJournal.Entry::booking).toList());
+            }
+        });
+    }
+
+    private void deadLetter(Booking booking, String message) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DEAD_LETTER_SQL, booking.getId(), booking.getShowtimeId(),
+                    booking.getShowtimeStart() != null ? Timestamp.from(booking.getShowtimeStart()) : null,
+                    booking.getUserId(), booking.getSeatNumber(), Timestamp.from(booking.getBookingTime()),
+                    message.length() > 255 ? message.substring(0, 255) : message);
+            // Downstream systems learn that the confirmed booking did not stand
+            if (outbox != null) {
+                outbox.bookingCancelled(booking);
+            }
+        });
+    }
+
+    private static boolean isConstraintViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            // SQLSTATE class 23: integrity constraint violation
+            if (cause instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("23")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+package com.att.tdp.popcorn_palace.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Exclusive lease of the node that confirms bookings from a write-behind journal
+ * Seat claims of unflushed bookings live only in that node's memory, so a second node confirming
+ * bookings on its own could hand out the same seat. The lease is one row of write_behind_lease,
+ * taken at startup and renewed by the writer thread; it expires on the database clock.
+ *
+ * The node id is kept in the journal directory, so a restarted node takes its own lease back at
+ * once instead of waiting for it to expire.
+ */
+class WriteBehindLease {
+
+    static final String ACQUIRE_SQL = "INSERT INTO write_behind_lease (id, node_id, expires_at) "
+            + "VALUES (1, ?, CURRENT_TIMESTAMP + make_interval(secs => ?)) "
+            + "ON CONFLICT (id) DO UPDATE SET node_id = EXCLUDED.node_id, expires_at = EXCLUDED.expires_at "
+            + "WHERE write_behind_lease.node_id = EXCLUDED.node_id OR write_behind_lease.expires_at < CURRENT_TIMESTAMP";
+    static final String RELEASE_SQL = "DELETE FROM write_behind_lease WHERE id = 1 AND node_id = ?";
+
+    private static final String NODE_ID_FILE = "node-id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+    private final long durationNanos;
+    private final double durationSeconds;
+
+    // System.nanoTime() until which this node may confirm bookings; 0 while not held
+    private volatile long validUntil;
+
+    WriteBehindLease(JdbcTemplate jdbcTemplate, Path journalDirectory, Duration duration) throws IOException {
+        this(jdbcTemplate, nodeId(journalDirectory), duration);
+    }
+
+    WriteBehindLease(JdbcTemplate jdbcTemplate, String nodeId, Duration duration) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = nodeId;
+        this.durationNanos = duration.toNanos();
+        this.durationSeconds = duration.toMillis() / 1000.0;
+    }
+
+    /**
+     * Take or renew the lease
+     * Validity is counted from before the statement is sent, so it never outlasts the row
+     * @return true if this node holds the lease
+     */
+    boolean acquire() {
+        long start = System.nanoTime();
+        boolean held = jdbcTemplate.update(ACQUIRE_SQL, nodeId, durationSeconds) == 1;
+        validUntil = held ? start + durationNanos : 0;
+        return held;
+    }
+
+    /**
+     * Check whether this node may still confirm bookings
+     * @return true if the last renewal has not yet run out
+     */
+    boolean isValid() {
+        long until = validUntil;
+        return until != 0 && System.nanoTime() - until < 0;
+    }
+
+    /**
+     * Check whether it is time to renew, a third of the way into the lease
+     * @return true if the lease should be renewed now
+     */
+    boolean isDue() {
+        return validUntil - System.nanoTime() < durationNanos * 2 / 3;
+    }
+
+    void release() {
+        validUntil = 0;
+        jdbcTemplate.update(RELEASE_SQL, nodeId);
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    private static String nodeId(Path journalDirectory) throws IOException {
+        Files.createDirectories(journalDirectory);
+        Path file = journalDirectory.resolve(NODE_ID_FILE);
+        if (Files.exists(file)) {
+            return Files.readString(file, StandardCharsets.UTF_8).trim();
+        }
+        String nodeId = UUID.randomUUID().toString();
+        Files.writeString(file, nodeId, StandardCharsets.UTF_8);
+        return nodeId;
+    }
+}
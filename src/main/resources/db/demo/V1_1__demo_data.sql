@@ -1,3 +1,5 @@
+-- Sample data, only applied when the demo profile is active
+
 -- Insert sample movies
 INSERT INTO movie (title, genre, duration, rating, release_year) VALUES
                                                                      ('The Avengers', 'Action', 143, 'PG-13', 2012),
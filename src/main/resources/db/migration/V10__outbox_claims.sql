@@ -0,0 +1,4 @@
+-- Batches of booking events are claimed by the dispatcher delivering them, in a short transaction,
+-- and delivered outside it. Until claimed_until passes no other dispatcher delivers anything,
+-- so events keep leaving in outbox order; a claim left by a node that stopped simply expires.
+ALTER TABLE booking_outbox ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP WITH TIME ZONE;
@@ -1,7 +1,5 @@
--- Drop tables if they exist to ensure clean schema
-DROP TABLE IF EXISTS booking;
-DROP TABLE IF EXISTS showtime;
-DROP TABLE IF EXISTS movie;
+-- Initial schema. IF NOT EXISTS lets databases created by the former
+-- schema.sql startup script be baselined without dropping their data.
 
 -- Create movie table
 CREATE TABLE IF NOT EXISTS movie (
@@ -0,0 +1,8 @@
+-- Composite indexes for the showtime query API. Each ends in (start_time, id), the keyset
+-- order of its pages, so a filtered page is a single forward index range scan.
+
+CREATE INDEX IF NOT EXISTS idx_showtime_start_time ON showtime (start_time, id);
+
+CREATE INDEX IF NOT EXISTS idx_showtime_movie_start_time ON showtime (movie_id, start_time, id);
+
+CREATE INDEX IF NOT EXISTS idx_showtime_theater_start_time ON showtime (theater, start_time, id);
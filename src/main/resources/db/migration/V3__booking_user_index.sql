@@ -0,0 +1,4 @@
+-- Backs the booking history of a user, paged newest first by (booking_time, id). PostgreSQL
+-- scans the index backwards for the descending order.
+
+CREATE INDEX IF NOT EXISTS idx_booking_user_booking_time ON booking (user_id, booking_time, id);
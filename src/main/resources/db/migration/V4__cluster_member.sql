@@ -0,0 +1,8 @@
+-- Live application nodes, used to assign each showtime to one owning node.
+-- Every node refreshes its row on a fixed interval and removes rows that stopped being refreshed.
+-- Heartbeats use the database clock, so the nodes' own clocks may disagree.
+CREATE TABLE IF NOT EXISTS cluster_member (
+    node_id VARCHAR(36) PRIMARY KEY,
+    base_url VARCHAR(255) NOT NULL,
+    heartbeat_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
@@ -0,0 +1,25 @@
+-- Finished showtimes and their bookings, moved out of the live tables by ShowtimeArchiver.
+-- No foreign keys: the archive is only appended to and read, and outlives the movies it refers to.
+
+CREATE TABLE IF NOT EXISTS showtime_archive (
+    id INTEGER PRIMARY KEY,
+    movie_id INTEGER NOT NULL,
+    theater VARCHAR(100) NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    price DECIMAL(10, 2) NOT NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Keyset order of the archived showtime pages
+CREATE INDEX IF NOT EXISTS idx_showtime_archive_start_time ON showtime_archive (start_time, id);
+
+CREATE TABLE IF NOT EXISTS booking_archive (
+    id VARCHAR(36) PRIMARY KEY,
+    showtime_id INTEGER NOT NULL,
+    user_id VARCHAR(36) NOT NULL,
+    seat_number INTEGER NOT NULL,
+    booking_time TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_archive_showtime ON booking_archive (showtime_id, seat_number);
@@ -0,0 +1,7 @@
+-- Row versions for optimistic locking. Every update of a movie or showtime increments its
+-- version, and an update that names the version it was based on fails once another update has
+-- landed in between, instead of silently overwriting it.
+
+ALTER TABLE movie ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE showtime ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
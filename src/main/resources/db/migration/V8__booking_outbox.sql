@@ -0,0 +1,14 @@
+-- Booking events waiting to be delivered to downstream systems by BookingOutboxDispatcher.
+-- Rows are written in the transaction that creates or deletes the booking, so an event exists
+-- exactly when its change committed, and are deleted once delivered.
+-- No foreign keys: a cancellation event outlives the booking it describes.
+
+CREATE TABLE IF NOT EXISTS booking_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(32) NOT NULL,
+    booking_id VARCHAR(36) NOT NULL,
+    showtime_id INTEGER NOT NULL,
+    user_id VARCHAR(36) NOT NULL,
+    seat_number INTEGER NOT NULL,
+    occurred_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,23 @@
+-- Single-row lease held by the node that confirms bookings from its write-behind journal.
+-- A second write-behind node cannot start while the lease is live, since two nodes with their
+-- own in-memory seat claims could both confirm the same seat.
+CREATE TABLE IF NOT EXISTS write_behind_lease (
+    id INTEGER PRIMARY KEY,
+    node_id VARCHAR(36) NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+-- Journaled bookings that were confirmed to the customer but that the database rejected, such as
+-- a seat taken in the meantime or a deleted showtime. Kept for follow-up with the customer; a
+-- BOOKING_CANCELLED outbox event is recorded alongside when the outbox is enabled.
+-- No foreign keys or unique constraints, so a rejected booking can always be recorded.
+CREATE TABLE IF NOT EXISTS booking_dead_letter (
+    booking_id VARCHAR(36) NOT NULL,
+    showtime_id INTEGER NOT NULL,
+    showtime_start TIMESTAMP,
+    user_id VARCHAR(36) NOT NULL,
+    seat_number INTEGER NOT NULL,
+    booking_time TIMESTAMP NOT NULL,
+    reason VARCHAR(255) NOT NULL,
+    failed_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,84 @@
+-- Range-partitions showtime by start month, and booking by the start month of its showtime, so
+-- that queries bounded by start time only visit the months they cover and a past month can be
+-- detached as a whole. This migration creates the months that already hold data and the next
+-- three; PartitionMaintenance keeps creating months ahead and detaches old ones.
+--
+-- Opt-in: only the partitioned profile adds this location, with out-of-order migrations so that it
+-- can join a schema already past V11. It relies on the booking.showtime_start copy of V5, as
+-- PostgreSQL requires the partition key in every primary key and unique constraint. PostgreSQL 15
+-- or later is required: older versions move a rescheduled showtime to its new partition as a
+-- delete and an insert, which would cascade-delete its bookings.
+
+CREATE TABLE showtime_rows AS SELECT id, movie_id, theater, start_time, end_time, price, version FROM showtime;
+CREATE TABLE booking_rows AS
+SELECT id, showtime_id, showtime_start, user_id, seat_number, booking_time FROM booking;
+
+-- Keep the id sequence when the table that owns it is dropped
+ALTER SEQUENCE showtime_id_seq OWNED BY NONE;
+DROP TABLE booking;
+DROP TABLE showtime;
+
+CREATE TABLE showtime (
+    id INTEGER NOT NULL DEFAULT nextval('showtime_id_seq'),
+    movie_id INTEGER NOT NULL,
+    theater VARCHAR(100) NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    price DECIMAL(10, 2) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id, start_time),
+    FOREIGN KEY (movie_id) REFERENCES movie(id) ON DELETE CASCADE,
+    CONSTRAINT no_overlapping_showtimes UNIQUE (theater, start_time, end_time)
+) PARTITION BY RANGE (start_time);
+
+ALTER SEQUENCE showtime_id_seq OWNED BY showtime.id;
+
+CREATE TABLE booking (
+    id VARCHAR(36) NOT NULL,
+    showtime_id INTEGER NOT NULL,
+    showtime_start TIMESTAMP NOT NULL,
+    user_id VARCHAR(36) NOT NULL,
+    seat_number INTEGER NOT NULL,
+    booking_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, showtime_start),
+    CONSTRAINT booking_showtime_fk FOREIGN KEY (showtime_id, showtime_start)
+        REFERENCES showtime (id, start_time) ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT unique_seat_booking UNIQUE (showtime_id, showtime_start, seat_number)
+) PARTITION BY RANGE (showtime_start);
+
+-- Rows outside every monthly partition, such as showtimes scheduled far ahead
+CREATE TABLE showtime_default PARTITION OF showtime DEFAULT;
+CREATE TABLE booking_default PARTITION OF booking DEFAULT;
+
+DO $$
+DECLARE
+    partition_month DATE := date_trunc('month', LEAST((SELECT min(start_time) FROM showtime_rows), LOCALTIMESTAMP));
+    last_month DATE := date_trunc('month', LOCALTIMESTAMP) + INTERVAL '3 months';
+BEGIN
+    WHILE partition_month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF showtime FOR VALUES FROM (%L) TO (%L)',
+                'showtime_p' || to_char(partition_month, 'YYYY_MM'), partition_month,
+                (partition_month + INTERVAL '1 month')::DATE);
+        EXECUTE format('CREATE TABLE %I PARTITION OF booking FOR VALUES FROM (%L) TO (%L)',
+                'booking_p' || to_char(partition_month, 'YYYY_MM'), partition_month,
+                (partition_month + INTERVAL '1 month')::DATE);
+        partition_month := partition_month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO showtime (id, movie_id, theater, start_time, end_time, price, version)
+SELECT id, movie_id, theater, start_time, end_time, price, version FROM showtime_rows;
+INSERT INTO booking (id, showtime_id, showtime_start, user_id, seat_number, booking_time)
+SELECT id, showtime_id, showtime_start, user_id, seat_number, booking_time FROM booking_rows;
+
+DROP TABLE booking_rows;
+DROP TABLE showtime_rows;
+
+-- The indexes of V2 and V3, now built on every partition
+CREATE INDEX idx_showtime_start_time ON showtime (start_time, id);
+
+CREATE INDEX idx_showtime_movie_start_time ON showtime (movie_id, start_time, id);
+
+CREATE INDEX idx_showtime_theater_start_time ON showtime (theater, start_time, id);
+
+CREATE INDEX idx_booking_user_booking_time ON booking (user_id, booking_time, id);
@@ -0,0 +1,27 @@
+-- Bookings carry a copy of their showtime's start time, so that the seat check and the bookings
+-- of a showtime are bounded by start time, and so that both tables can be partitioned by showtime
+-- month (db/partitioning, opt-in). ON UPDATE CASCADE keeps the copy in step when a showtime is
+-- rescheduled; the seat constraint takes the start time too, as partitioning requires.
+
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS showtime_start TIMESTAMP;
+UPDATE booking b SET showtime_start = s.start_time FROM showtime s WHERE s.id = b.showtime_id;
+ALTER TABLE booking ALTER COLUMN showtime_start SET NOT NULL;
+
+ALTER TABLE showtime ADD CONSTRAINT showtime_id_start_time UNIQUE (id, start_time);
+
+-- The foreign key to showtime(id) is unnamed in V1 and in databases created before it
+DO $$
+DECLARE
+    constraint_name TEXT;
+BEGIN
+    FOR constraint_name IN SELECT conname FROM pg_constraint
+            WHERE conrelid = 'booking'::regclass AND contype = 'f' LOOP
+        EXECUTE format('ALTER TABLE booking DROP CONSTRAINT %I', constraint_name);
+    END LOOP;
+END $$;
+
+ALTER TABLE booking ADD CONSTRAINT booking_showtime_fk FOREIGN KEY (showtime_id, showtime_start)
+    REFERENCES showtime (id, start_time) ON DELETE CASCADE ON UPDATE CASCADE;
+
+ALTER TABLE booking DROP CONSTRAINT IF EXISTS unique_seat_booking;
+ALTER TABLE booking ADD CONSTRAINT unique_seat_booking UNIQUE (showtime_id, showtime_start, seat_number);
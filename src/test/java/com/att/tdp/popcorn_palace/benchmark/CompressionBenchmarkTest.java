@@ -0,0 +1,90 @@
+package com.att.tdp.popcorn_palace.benchmark;
+
+import com.att.tdp.popcorn_palace.dto.BookingResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU cost versus bytes saved when gzip-compressing representative list responses
+ * Run with: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=CompressionBenchmarkTest
+ */
+@Tag("benchmark")
+public class CompressionBenchmarkTest {
+
+    private static final int[] SIZES = {1, 10, 100, 1_000, 10_000};
+    private static final int[] LEVELS = {Deflater.BEST_SPEED, Deflater.DEFAULT_COMPRESSION};
+    private static final long BUDGET_NANOS = Duration.ofMillis(300).toNanos();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void gzip_ShowtimeAndBookingLists() throws Exception {
+        System.out.printf("%n%-9s %6s %10s %10s %7s %12s %14s%n",
+                "payload", "items", "raw B", "gzip B", "ratio", "level", "us/op");
+        for (int size : SIZES) {
+            report("showtimes", size, objectMapper.writeValueAsBytes(showtimes(size)));
+            report("bookings", size, objectMapper.writeValueAsBytes(bookings(size)));
+        }
+    }
+
+    private void report(String name, int items, byte[] payload) throws IOException {
+        for (int level : LEVELS) {
+            byte[] compressed = gzip(payload, level);
+            // Repeat until the time budget is spent so small payloads get a stable average
+            long operations = 0;
+            long start = System.nanoTime();
+            while (System.nanoTime() - start < BUDGET_NANOS) {
+                gzip(payload, level);
+                operations++;
+            }
+            double micros = (System.nanoTime() - start) / 1_000.0 / operations;
+            System.out.printf("%-9s %6d %10d %10d %6.1f%% %12s %14.1f%n",
+                    name, items, payload.length, compressed.length,
+                    100.0 * compressed.length / payload.length,
+                    level == Deflater.BEST_SPEED ? "fastest" : "default", micros);
+        }
+    }
+
+    private static byte[] gzip(byte[] data, int level) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (OutputStream out = new GZIPOutputStream(buffer) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static List<ShowtimeResponse> showtimes(int count) {
+        Instant base = Instant.parse("2025-04-01T10:00:00Z");
+        return IntStream.range(0, count)
+                .mapToObj(i -> new ShowtimeResponse((long) i + 1, (long) (i % 50) + 1, "Theater " + (i % 12 + 1),
+                        base.plus(Duration.ofMinutes(30L * i)), base.plus(Duration.ofMinutes(30L * i + 150)),
+                        10.0 + (i % 7) * 1.5))
+                .toList();
+    }
+
+    private static List<BookingResponse> bookings(int count) {
+        Instant base = Instant.parse("2025-03-20T08:00:00.123456Z");
+        return IntStream.range(0, count)
+                .mapToObj(i -> new BookingResponse(UUID.nameUUIDFromBytes(Integer.toString(i).getBytes()).toString(),
+                        (long) (i % 20) + 1, i % 200 + 1, base.plusSeconds(i * 17L)))
+                .toList();
+    }
+}
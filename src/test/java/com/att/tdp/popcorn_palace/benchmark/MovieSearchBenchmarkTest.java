@@ -0,0 +1,68 @@
+package com.att.tdp.popcorn_palace.benchmark;
+
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.service.MovieSearchIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Search latency against an index of 10,000 movies
+ * Run with: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=MovieSearchBenchmarkTest
+ */
+@Tag("benchmark")
+public class MovieSearchBenchmarkTest {
+
+    private static final int MOVIES = 10_000;
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private static final String[] WORDS = {"dark", "knight", "star", "wars", "return", "king", "lost", "city",
+            "night", "river", "empire", "shadow", "storm", "dream", "silent", "garden", "iron", "ghost"};
+    private static final String[] GENRES = {"Action", "Drama", "Comedy", "Sci-Fi", "Horror", "Romance"};
+
+    @Test
+    void search_TenThousandMovies() {
+        MovieRepository movieRepository = mock(MovieRepository.class);
+        when(movieRepository.findAllResponses()).thenReturn(IntStream.range(0, MOVIES)
+                .mapToObj(i -> new MovieResponse((long) i + 1,
+                        WORDS[i % WORDS.length] + " " + WORDS[(i / 7) % WORDS.length] + " " + i,
+                        GENRES[i % GENRES.length], 90 + i % 60, i % 3 == 0 ? "R" : "PG-13", 1980 + i % 45))
+                .toList());
+        MovieSearchIndex searchIndex = new MovieSearchIndex(movieRepository);
+        searchIndex.rebuild();
+
+        Map<String, Object[]> queries = Map.of(
+                "exact word", new Object[] {"storm", null, null, null},
+                "prefix", new Object[] {"sha", null, null, null},
+                "two words", new Object[] {"dark kni", null, null, null},
+                "typo", new Object[] {"empier", null, null, null},
+                "filters only", new Object[] {null, "Drama", "R", 2001},
+                "word and genre", new Object[] {"river", "Horror", null, null});
+
+        System.out.printf("%n%-16s %8s %10s%n", "query", "results", "us/op");
+        queries.forEach((name, args) -> {
+            List<MovieResponse> result = run(searchIndex, args, WARMUP);
+            long start = System.nanoTime();
+            run(searchIndex, args, ITERATIONS);
+            double micros = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+            System.out.printf("%-16s %8d %10.2f%n", name, result.size(), micros);
+            assertFalse(result.isEmpty(), name);
+        });
+    }
+
+    private static List<MovieResponse> run(MovieSearchIndex searchIndex, Object[] args, int iterations) {
+        List<MovieResponse> result = null;
+        for (int i = 0; i < iterations; i++) {
+            result = searchIndex.search((String) args[0], (String) args[1], (String) args[2], (Integer) args[3], 20);
+        }
+        return result;
+    }
+}
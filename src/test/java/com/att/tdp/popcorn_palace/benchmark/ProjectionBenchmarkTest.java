@@ -0,0 +1,101 @@
+package com.att.tdp.popcorn_palace.benchmark;
+
+import com.att.tdp.popcorn_palace.model.Movie;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import com.att.tdp.popcorn_palace.service.MovieService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares serializing the full movie list from managed entities against the read-only projection
+ * Run with: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=ProjectionBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class ProjectionBenchmarkTest {
+
+    private static final int MOVIES = 10_000;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM movie");
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO movie (title, genre, duration, rating, release_year) VALUES (?, ?, ?, ?, ?)",
+                IntStream.range(0, MOVIES)
+                        .mapToObj(i -> new Object[] {"Movie " + i, "Drama", 90 + i % 60, "PG-13", 1990 + i % 35})
+                        .toList());
+    }
+
+    @Test
+    void listMovies_EntityVersusProjection() throws Exception {
+        // Entity path as it was before: read-write transaction with dirty-checking snapshots
+        Result entities = measure(() -> transactionTemplate.execute(status -> {
+            List<Movie> movies = movieRepository.findAll();
+            return serialize(movies);
+        }));
+        Result projections = measure(() -> serialize(movieService.getAllMovies()));
+
+        System.out.printf("%n%d movies, %d iterations%n", MOVIES, ITERATIONS);
+        System.out.printf("entities:    %8.2f ms/op %10d KiB allocated/op%n", entities.millis(), entities.kib());
+        System.out.printf("projections: %8.2f ms/op %10d KiB allocated/op%n", projections.millis(), projections.kib());
+
+        assertTrue(projections.kib() < entities.kib());
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Result measure(Callable<byte[]> operation) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < WARMUP; i++) {
+            operation.call();
+        }
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertNotNull(operation.call());
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(elapsed / 1e6 / ITERATIONS, allocated / 1024 / ITERATIONS);
+    }
+
+    private record Result(double millis, long kib) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.att.tdp.popcorn_palace.benchmark;
+
+import com.att.tdp.popcorn_palace.dto.ShowtimePage;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMoviePage;
+import com.att.tdp.popcorn_palace.service.MovieService;
+import com.att.tdp.popcorn_palace.service.ShowtimeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the requests and SQL statements needed to show a 500-showtime page with movie titles,
+ * per movie lookup against GET /showtimes/with-movies
+ * Run with: mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=ShowtimeWithMovieBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+public class ShowtimeWithMovieBenchmarkTest {
+
+    private static final int MOVIES = 50;
+    private static final int SHOWTIMES = 500;
+    // Outside the hot window, so every page is read from the database
+    private static final Instant FROM = Instant.parse("2030-01-01T00:00:00Z");
+
+    @Autowired
+    private ShowtimeService showtimeService;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM showtime");
+        jdbcTemplate.update("DELETE FROM movie");
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO movie (title, genre, duration, rating, release_year) VALUES (?, ?, ?, ?, ?)",
+                IntStream.range(0, MOVIES)
+                        .mapToObj(i -> new Object[] {"Movie " + i, "Drama", 90 + i, "PG-13", 2000 + i % 25})
+                        .toList());
+        List<Long> movieIds = jdbcTemplate.queryForList("SELECT id FROM movie ORDER BY id", Long.class);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO showtime (movie_id, theater, start_time, end_time, price) VALUES (?, ?, ?, ?, ?)",
+                IntStream.range(0, SHOWTIMES)
+                        .mapToObj(i -> {
+                            Instant start = FROM.plus(Duration.ofMinutes(10L * i));
+                            return new Object[] {movieIds.get(i % MOVIES), "Theater " + i % 10,
+                                    Timestamp.from(start), Timestamp.from(start.plus(Duration.ofHours(2))), 12.5};
+                        })
+                        .toList());
+    }
+
+    @Test
+    void showtimePage_PerMovieLookupsVersusBatchedRead() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Before: one request for the page, then one GET /movies/{id} per showtime
+        statistics.clear();
+        long start = System.nanoTime();
+        ShowtimePage page = showtimeService.findShowtimes(null, null, FROM, null, null, SHOWTIMES);
+        int requestsBefore = 1;
+        for (ShowtimeResponse showtime : page.showtimes()) {
+            assertTrue(movieService.getMovieById(showtime.movieId()).isPresent());
+            requestsBefore++;
+        }
+        double millisBefore = (System.nanoTime() - start) / 1e6;
+        long statementsBefore = statistics.getPrepareStatementCount();
+
+        // After: one request, the page plus one batched movie query
+        statistics.clear();
+        start = System.nanoTime();
+        ShowtimeWithMoviePage joined = showtimeService.findShowtimesWithMovies(null, null, FROM, null, null, SHOWTIMES);
+        double millisAfter = (System.nanoTime() - start) / 1e6;
+        long statementsAfter = statistics.getPrepareStatementCount();
+
+        System.out.printf("%n%d showtimes of %d movies%n", SHOWTIMES, MOVIES);
+        System.out.printf("per-movie lookups: %4d requests %4d statements %8.2f ms in process%n",
+                requestsBefore, statementsBefore, millisBefore);
+        System.out.printf("with-movies:       %4d requests %4d statements %8.2f ms in process%n",
+                1, statementsAfter, millisAfter);
+
+        assertEquals(SHOWTIMES, joined.showtimes().size());
+        assertEquals(SHOWTIMES + 1, requestsBefore);
+        assertTrue(statementsAfter <= 2);
+    }
+}
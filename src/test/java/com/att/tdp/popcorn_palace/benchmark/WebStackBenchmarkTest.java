@@ -0,0 +1,228 @@
+package com.att.tdp.popcorn_palace.benchmark;
+
+import com.att.tdp.popcorn_palace.PopcornPalaceApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares serving concurrent booking and showtime requests on Tomcat's platform thread pool, on
+ * the virtual-threads profile and on the reactive profile, under the same load against the same
+ * PostgreSQL database
+ * All runs share the connection pool size and the request mix; the platform and virtual runs also
+ * share the Tomcat thread limit, so the web stack is the only difference. Each run appends a row
+ * to target/benchmarks/web-stacks.csv for recording next to the build it measured.
+ * Run with a local database (see compose.yml):
+ * mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=WebStackBenchmarkTest
+ */
+@Tag("benchmark")
+public class WebStackBenchmarkTest {
+
+    private static final int CLIENTS = 1_000;
+    private static final int READS_PER_CLIENT = 5;
+    private static final int WARMUP_CLIENTS = 100;
+    private static final Path RESULTS = Path.of("target", "benchmarks", "web-stacks.csv");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void bookAndRead_PlatformVersusVirtualThreadsVersusReactive() throws Exception {
+        Result platform = run(null);
+        Result virtual = run("virtual-threads");
+        Result reactive = run("reactive");
+
+        System.out.printf("%n%d concurrent clients, 1 booking and %d showtime reads each, %d processors%n",
+                CLIENTS, READS_PER_CLIENT, Runtime.getRuntime().availableProcessors());
+        System.out.println("| Stack    | Elapsed ms | Requests/s | p50 ms | p99 ms | Peak JVM threads |");
+        System.out.println("|----------|-----------:|-----------:|-------:|-------:|-----------------:|");
+        platform.print("platform");
+        virtual.print("virtual");
+        reactive.print("reactive");
+        record(platform, virtual, reactive);
+
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+        assertEquals(0, reactive.errors());
+    }
+
+    private Result run(String profile) throws Exception {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(PopcornPalaceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=200",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.hibernate.ddl-auto=none",
+                        "spring.datasource.url=" + System.getProperty("postgres.url",
+                                "jdbc:postgresql://localhost:5432/popcorn-palace"),
+                        "spring.datasource.username=" + System.getProperty("postgres.username", "popcorn-palace"),
+                        "spring.datasource.password=" + System.getProperty("postgres.password", "popcorn-palace"),
+                        "spring.datasource.driverClassName=org.postgresql.Driver",
+                        // The schema of the main configuration, which the test configuration replaces
+                        "spring.flyway.locations=classpath:db/migration,classpath:db/{vendor}",
+                        "spring.flyway.baseline-on-migrate=true",
+                        "spring.flyway.baseline-version=0",
+                        "spring.datasource.hikari.maximum-pool-size=10",
+                        "spring.datasource.hikari.minimum-idle=10",
+                        // Used by the reactive run only, with the same 10 connections
+                        "spring.r2dbc.url=" + System.getProperty("postgres.r2dbc-url",
+                                "r2dbc:postgresql://localhost:5432/popcorn-palace"),
+                        "spring.r2dbc.username=" + System.getProperty("postgres.username", "popcorn-palace"),
+                        "spring.r2dbc.password=" + System.getProperty("postgres.password", "popcorn-palace"),
+                        "spring.r2dbc.pool.initial-size=10",
+                        "spring.r2dbc.pool.max-size=10",
+                        "popcorn-palace.rate-limit.enabled=false");
+        if (profile != null) {
+            // The profile itself, with its pool and timeout settings, rather than only the stack switch
+            application.profiles(profile);
+        }
+        try (ConfigurableApplicationContext context = application.run();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder().executor(clients).build();
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            long showtimeId = seed(http, baseUrl);
+
+            AtomicInteger seats = new AtomicInteger();
+            load(http, clients, baseUrl, showtimeId, seats, WARMUP_CLIENTS);
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            long start = System.nanoTime();
+            Load load = load(http, clients, baseUrl, showtimeId, seats, CLIENTS);
+            long elapsed = System.nanoTime() - start;
+            return new Result(elapsed / 1_000_000, CLIENTS * (1 + READS_PER_CLIENT), load.latencies(),
+                    threads.getPeakThreadCount(), load.errors());
+        }
+    }
+
+    private long seed(HttpClient http, String baseUrl) throws Exception {
+        String movie = post(http, baseUrl + "/movies",
+                "{\"title\":\"Benchmark\",\"genre\":\"Drama\",\"duration\":120,\"rating\":\"PG\",\"releaseYear\":2025}");
+        long movieId = objectMapper.readTree(movie).get("id").asLong();
+        // A theater of its own per run, since earlier runs' showtimes stay in the database
+        Instant startTime = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        String showtime = post(http, baseUrl + "/showtimes",
+                "{\"movieId\":" + movieId + ",\"theater\":\"Benchmark " + UUID.randomUUID() + "\",\"startTime\":\""
+                        + startTime + "\",\"endTime\":\"" + startTime.plus(2, ChronoUnit.HOURS) + "\",\"price\":20.0}");
+        return objectMapper.readTree(showtime).get("id").asLong();
+    }
+
+    private Load load(HttpClient http, ExecutorService clients, String baseUrl, long showtimeId,
+                      AtomicInteger seats, int count) throws Exception {
+        List<Future<long[]>> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(clients.submit(() -> {
+                long[] latencies = new long[1 + READS_PER_CLIENT];
+                long start = System.nanoTime();
+                post(http, baseUrl + "/bookings", "{\"showtimeId\":" + showtimeId + ",\"userId\":\""
+                        + UUID.randomUUID() + "\",\"seatNumber\":" + seats.incrementAndGet() + "}");
+                latencies[0] = System.nanoTime() - start;
+                for (int read = 0; read < READS_PER_CLIENT; read++) {
+                    start = System.nanoTime();
+                    get(http, baseUrl + "/showtimes/" + showtimeId);
+                    latencies[1 + read] = System.nanoTime() - start;
+                }
+                return latencies;
+            }));
+        }
+        long[] latencies = new long[count * (1 + READS_PER_CLIENT)];
+        int recorded = 0;
+        int errors = 0;
+        for (Future<long[]> result : results) {
+            try {
+                long[] clientLatencies = result.get();
+                System.arraycopy(clientLatencies, 0, latencies, recorded, clientLatencies.length);
+                recorded += clientLatencies.length;
+            } catch (Exception e) {
+                errors++;
+            }
+        }
+        long[] sorted = Arrays.copyOf(latencies, recorded);
+        Arrays.sort(sorted);
+        return new Load(sorted, errors);
+    }
+
+    private void record(Result platform, Result virtual, Result reactive) throws IOException {
+        Files.createDirectories(RESULTS.getParent());
+        if (!Files.exists(RESULTS)) {
+            Files.writeString(RESULTS, "time,java,processors,clients,stack,elapsed_ms,requests_per_s,"
+                    + "p50_ms,p99_ms,peak_threads,errors\n");
+        }
+        String prefix = Instant.now().truncatedTo(ChronoUnit.SECONDS) + "," + Runtime.version() + ","
+                + Runtime.getRuntime().availableProcessors() + "," + CLIENTS + ",";
+        Files.writeString(RESULTS, prefix + platform.csv("platform") + prefix + virtual.csv("virtual")
+                + prefix + reactive.csv("reactive"), StandardOpenOption.APPEND);
+    }
+
+    private static String post(HttpClient http, String url, String body) throws Exception {
+        return send(http, HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private static String get(HttpClient http, String url) throws Exception {
+        return send(http, HttpRequest.newBuilder(URI.create(url)).GET().build());
+    }
+
+    private static String send(HttpClient http, HttpRequest request) throws Exception {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private record Load(long[] latencies, int errors) {
+    }
+
+    private record Result(long millis, int requests, long[] latencies, int peakThreads, int errors) {
+
+        double requestsPerSecond() {
+            return requests * 1000.0 / Math.max(1, millis);
+        }
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+
+        void print(String stack) {
+            System.out.printf("| %-8s | %10d | %10.0f | %6.1f | %6.1f | %16d |%n", stack, millis,
+                    requestsPerSecond(), percentileMillis(50), percentileMillis(99), peakThreads);
+        }
+
+        String csv(String stack) {
+            return String.format(Locale.ROOT, "%s,%d,%.0f,%.1f,%.1f,%d,%d%n", stack, millis, requestsPerSecond(),
+                    percentileMillis(50), percentileMillis(99), peakThreads, errors);
+        }
+    }
+}
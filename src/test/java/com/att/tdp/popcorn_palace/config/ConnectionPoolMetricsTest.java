@@ -0,0 +1,74 @@
+package com.att.tdp.popcorn_palace.config;
+
+import com.att.tdp.popcorn_palace.dto.ConnectionPoolStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolMetricsTest {
+
+    private final ConnectionPoolMetrics metrics = new ConnectionPoolMetrics();
+
+    @Test
+    void postProcessAfterInitialization_ShouldRegisterWithHikariPools() {
+        // Arrange
+        HikariDataSource dataSource = new HikariDataSource();
+
+        // Act
+        metrics.postProcessAfterInitialization(dataSource, "dataSource");
+
+        // Assert
+        assertSame(metrics, dataSource.getMetricsTrackerFactory());
+    }
+
+    @Test
+    void status_ShouldReportPoolStatsAndAcquireTimes() {
+        // Arrange
+        IMetricsTracker tracker = metrics.create("primary", new FixedPoolStats(8, 2, 10, 3));
+        tracker.recordConnectionAcquiredNanos(1_000_000);
+        tracker.recordConnectionAcquiredNanos(5_000_000);
+        tracker.recordConnectionTimeout();
+
+        // Act
+        List<ConnectionPoolStatus> status = metrics.status();
+
+        // Assert
+        assertEquals(List.of(new ConnectionPoolStatus("primary", 8, 2, 10, 10, 3, 2, 3.0, 5.0, 1)), status);
+    }
+
+    @Test
+    void status_ShouldListPoolsByNameUntilClosed() throws Exception {
+        // Arrange
+        metrics.create("replica", new FixedPoolStats(0, 1, 1, 0));
+        IMetricsTracker primary = metrics.create("primary", new FixedPoolStats(0, 1, 1, 0));
+
+        // Act
+        List<String> before = metrics.status().stream().map(ConnectionPoolStatus::pool).toList();
+        primary.close();
+
+        // Assert
+        assertEquals(List.of("primary", "replica"), before);
+        assertEquals(List.of("replica"), metrics.status().stream().map(ConnectionPoolStatus::pool).toList());
+    }
+
+    private static final class FixedPoolStats extends PoolStats {
+
+        FixedPoolStats(int active, int idle, int max, int pending) {
+            super(60_000);
+            this.activeConnections = active;
+            this.idleConnections = idle;
+            this.totalConnections = active + idle;
+            this.maxConnections = max;
+            this.pendingThreads = pending;
+        }
+
+        @Override
+        protected void update() {
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.att.tdp.popcorn_palace.config;
+
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
+import com.att.tdp.popcorn_palace.exception.ErrorResponse;
+import com.att.tdp.popcorn_palace.model.Booking;
+import com.att.tdp.popcorn_palace.model.Movie;
+import com.att.tdp.popcorn_palace.model.Showtime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NativeRuntimeHintsTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_ShouldRegisterEntitiesForReflection() {
+        // Assert
+        for (Class<?> type : new Class<?>[] {Movie.class, Showtime.class, Booking.class, ErrorResponse.class}) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(type)
+                    .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS)
+                    .test(hints));
+        }
+    }
+
+    @Test
+    void registerHints_ShouldRegisterResponseConstructors() {
+        // Assert
+        assertTrue(RuntimeHintsPredicates.reflection().onType(MovieResponse.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .test(hints));
+    }
+
+    @Test
+    void registerHints_ShouldRegisterDemoMigrations() {
+        // Assert
+        assertTrue(RuntimeHintsPredicates.resource().forResource("db/demo/V1_1__demo_data.sql").test(hints));
+    }
+
+    @Test
+    void registerHints_ShouldRegisterPostgresqlMigrations() {
+        // Assert
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("db/postgresql/V5__booking_showtime_start.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("db/partitioning/V11__partition_by_showtime_month.sql").test(hints));
+    }
+}
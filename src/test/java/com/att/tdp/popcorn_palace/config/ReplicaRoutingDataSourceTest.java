@@ -0,0 +1,103 @@
+package com.att.tdp.popcorn_palace.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routes against two in-memory databases, where the replica has not yet received the primary's
+ * latest booking, as a lagging replica would
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM booking";
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("routing_primary", 1);
+        DataSource replica = database("routing_replica", 0);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+        request = new MockHttpServletRequest("GET", "/bookings");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyRequest_ShouldReadReplica() {
+        // Act & Assert
+        assertEquals(0, count(readOnly));
+    }
+
+    @Test
+    void readOnlyRequest_WithinStickiness_ShouldReadPrimary() {
+        // Arrange
+        request.setAttribute(ReplicaRoutingDataSource.READ_PRIMARY_ATTRIBUTE, Boolean.TRUE);
+
+        // Act & Assert
+        assertEquals(1, count(readOnly));
+    }
+
+    @Test
+    void readOnlyOutsideRequest_ShouldReadPrimary() {
+        // Arrange
+        RequestContextHolder.resetRequestAttributes();
+
+        // Act & Assert
+        assertEquals(1, count(readOnly));
+    }
+
+    @Test
+    void readOnlyRequest_ReadingFromPrimary_ShouldReadPrimary() {
+        // Act & Assert
+        assertEquals(1, ReplicaRoutingDataSource.readFromPrimary(() -> count(readOnly)));
+        assertEquals(0, count(readOnly));
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        // Act & Assert
+        assertEquals(1, count(readWrite));
+    }
+
+    private int count(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject(COUNT_SQL, Integer.class));
+    }
+
+    private static DataSource database(String name, int bookings) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS booking");
+        jdbcTemplate.execute("CREATE TABLE booking (id VARCHAR(36) PRIMARY KEY)");
+        for (int i = 0; i < bookings; i++) {
+            jdbcTemplate.update("INSERT INTO booking (id) VALUES (?)", "booking-" + i);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,77 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.config.ResponseCompressionProperties;
+import com.att.tdp.popcorn_palace.dto.BookingResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimePage;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.service.ArchiveService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ArchiveController.class)
+@EnableConfigurationProperties(ResponseCompressionProperties.class)
+public class ArchiveControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ArchiveService archiveService;
+
+    @Test
+    void getShowtimes_ShouldReturnPageWithNextLink() throws Exception {
+        // Arrange
+        Instant from = Instant.parse("2024-01-01T00:00:00Z");
+        ShowtimeResponse showtime = new ShowtimeResponse(1L, 1L, "Theater 1",
+                Instant.parse("2024-01-05T10:00:00Z"), Instant.parse("2024-01-05T12:30:00Z"), 12.50);
+        when(archiveService.findShowtimes(null, "Theater 1", from, null, null, 1))
+                .thenReturn(new ShowtimePage(List.of(showtime), "abc"));
+
+        // Act & Assert
+        mockMvc.perform(get("/archive/showtimes")
+                        .param("theater", "Theater 1")
+                        .param("from", from.toString())
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link", allOf(containsString("cursor=abc"), endsWith("; rel=\"next\""))))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    @Test
+    void getShowtimes_WithInvalidLimit_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(archiveService.findShowtimes(null, null, null, null, null, 0))
+                .thenThrow(new IllegalArgumentException("Limit must be between 1 and 500"));
+
+        // Act & Assert
+        mockMvc.perform(get("/archive/showtimes").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getBookings_ShouldReturnArchivedBookings() throws Exception {
+        // Arrange
+        when(archiveService.getBookingsByShowtimeId(1L)).thenReturn(List.of(
+                new BookingResponse("d1a6423b-4469-4b00-8c5f-e3cfc42eacae", 1L, 15,
+                        Instant.parse("2024-01-02T09:00:00Z"))));
+
+        // Act & Assert
+        mockMvc.perform(get("/archive/showtimes/1/bookings"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].seatNumber", is(15)));
+    }
+}
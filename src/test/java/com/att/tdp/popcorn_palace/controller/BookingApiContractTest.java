@@ -0,0 +1,189 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Booking API behaviour every web stack must keep, run over HTTP against the whole application
+ * Each subclass starts the application on one stack; the same requests must get the same answers.
+ */
+abstract class BookingApiContractTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private long showtimeId;
+
+    @BeforeEach
+    void setUp() {
+        // Each test gets its own movie and theater, since the in-memory database outlives the test
+        JsonNode movie = post("/movies", "{\"title\":\"Contract " + UUID.randomUUID()
+                + "\",\"genre\":\"Drama\",\"duration\":120,\"rating\":\"PG\",\"releaseYear\":2025}");
+        Instant startTime = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        JsonNode showtime = post("/showtimes", "{\"movieId\":" + movie.get("id").asLong()
+                + ",\"theater\":\"Contract " + UUID.randomUUID() + "\",\"startTime\":\"" + startTime
+                + "\",\"endTime\":\"" + startTime.plus(2, ChronoUnit.HOURS) + "\",\"price\":20.0}");
+        showtimeId = showtime.get("id").asLong();
+    }
+
+    @Test
+    void createBooking_ShouldBeReadableByIdAndShowtime() {
+        // Arrange
+        String userId = UUID.randomUUID().toString();
+
+        // Act
+        String bookingId = book(userId, 7).get("bookingId").asText();
+
+        // Assert
+        webTestClient.get().uri("/bookings/{id}", bookingId).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(bookingId)
+                .jsonPath("$.showtimeId").isEqualTo(showtimeId)
+                .jsonPath("$.seatNumber").isEqualTo(7);
+        webTestClient.get().uri("/bookings/showtime/{showtimeId}", showtimeId).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(bookingId);
+        webTestClient.get().uri("/bookings").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.id == '" + bookingId + "')]").exists();
+    }
+
+    @Test
+    void createBooking_WhenSeatIsTaken_ShouldReturnBadRequest() {
+        // Arrange
+        book(UUID.randomUUID().toString(), 7);
+
+        // Act & Assert
+        webTestClient.post().uri("/bookings").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(bookingJson(showtimeId, UUID.randomUUID().toString(), 7))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo("Seat 7 is already booked for this showtime")
+                .jsonPath("$.path").isEqualTo("/bookings");
+    }
+
+    @Test
+    void createBooking_WhenShowtimeDoesNotExist_ShouldReturnBadRequest() {
+        // Act & Assert
+        webTestClient.post().uri("/bookings").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(bookingJson(Long.MAX_VALUE, UUID.randomUUID().toString(), 1))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Showtime with ID " + Long.MAX_VALUE + " does not exist");
+    }
+
+    @Test
+    void createBooking_WhenInvalid_ShouldReturnValidationError() {
+        // Act & Assert
+        webTestClient.post().uri("/bookings").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(bookingJson(showtimeId, UUID.randomUUID().toString(), 0))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Validation error: {seatNumber=Seat number must be at least 1}");
+    }
+
+    @Test
+    void getBookingById_WhenNotFound_ShouldReturnNotFound() {
+        // Act & Assert
+        webTestClient.get().uri("/bookings/{id}", UUID.randomUUID()).exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getBookingsByUserId_ShouldPageMostRecentFirst() {
+        // Arrange
+        String userId = UUID.randomUUID().toString();
+        String first = book(userId, 1).get("bookingId").asText();
+        String second = book(userId, 2).get("bookingId").asText();
+        String third = book(userId, 3).get("bookingId").asText();
+
+        // Act
+        String link = webTestClient.get().uri("/bookings/user/{userId}?limit=2", userId).exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.LINK, containsString("rel=\"next\""))
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].id").isEqualTo(third)
+                .jsonPath("$[1].id").isEqualTo(second)
+                .jsonPath("$[0].showtime.id").isEqualTo(showtimeId)
+                .returnResult().getResponseHeaders().getFirst(HttpHeaders.LINK);
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        // Assert
+        webTestClient.get().uri(URI.create(next)).exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.LINK)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(first);
+    }
+
+    @Test
+    void getBookingsByUserId_WhenLimitIsInvalid_ShouldReturnBadRequest() {
+        // Act & Assert
+        webTestClient.get().uri("/bookings/user/{userId}?limit=0", UUID.randomUUID()).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").value(startsWith("Limit must be between 1 and "));
+    }
+
+    @Test
+    void deleteBooking_ShouldRemoveBookingOnce() {
+        // Arrange
+        String bookingId = book(UUID.randomUUID().toString(), 9).get("bookingId").asText();
+
+        // Act & Assert
+        webTestClient.delete().uri("/bookings/{id}", bookingId).exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/bookings/{id}", bookingId).exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete().uri("/bookings/{id}", bookingId).exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private JsonNode book(String userId, int seatNumber) {
+        JsonNode booking = post("/bookings", bookingJson(showtimeId, userId, seatNumber));
+        // Booking times are kept to the microsecond; keep consecutive bookings apart for the paging order
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return booking;
+    }
+
+    private JsonNode post(String uri, String json) {
+        JsonNode body = webTestClient.post().uri(uri).contentType(MediaType.APPLICATION_JSON).bodyValue(json)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult().getResponseBody();
+        assertNotNull(body);
+        return body;
+    }
+
+    private static String bookingJson(long showtimeId, String userId, int seatNumber) {
+        return "{\"showtimeId\":" + showtimeId + ",\"userId\":\"" + userId + "\",\"seatNumber\":" + seatNumber + "}";
+    }
+}
@@ -0,0 +1,19 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Booking API contract on the reactive profile, WebFlux over R2DBC
+ * The web application type is repeated inline because the test context picks its server before
+ * reading profile files; the R2DBC pool opens the same in-memory database as the JDBC one.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///db?options=MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=password"
+})
+@ActiveProfiles("reactive")
+class BookingApiReactiveTest extends BookingApiContractTest {
+}
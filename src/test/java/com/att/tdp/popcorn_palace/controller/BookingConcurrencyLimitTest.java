@@ -0,0 +1,133 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.config.BookingConcurrencyLimitProperties;
+import com.att.tdp.popcorn_palace.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingConcurrencyLimitTest {
+
+    private static final long FAST = Duration.ofMillis(5).toNanos();
+    private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+    private final BookingConcurrencyLimit limit = new BookingConcurrencyLimit(
+            new BookingConcurrencyLimitProperties(true, 10, 2, 20, Duration.ofMillis(100), 0.5));
+
+    @Test
+    void onSample_WhenSlow_ShouldHalveLimit() {
+        // Act
+        limit.onSample(System.nanoTime(), SLOW, 10, false);
+
+        // Assert
+        assertEquals(5, limit.limit());
+    }
+
+    @Test
+    void onSample_WhenSlowBookingsStartedBeforeDecrease_ShouldDecreaseOnce() {
+        // Arrange
+        long start = System.nanoTime();
+
+        // Act
+        limit.onSample(start, SLOW, 10, false);
+        limit.onSample(start, SLOW, 9, false);
+        limit.onSample(start, SLOW, 8, false);
+
+        // Assert
+        assertEquals(5, limit.limit());
+    }
+
+    @Test
+    void onSample_WhenDropped_ShouldDecreaseAndNotGoBelowMinimum() {
+        // Act
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(System.nanoTime() + i * SLOW, FAST, 1, true);
+        }
+
+        // Assert
+        assertEquals(2, limit.limit());
+    }
+
+    @Test
+    void onSample_WhenFastAndBusy_ShouldGrowByAboutOnePerLimitOfBookings() {
+        // Act
+        for (int i = 0; i < 12; i++) {
+            limit.onSample(System.nanoTime(), FAST, 10, false);
+        }
+
+        // Assert
+        assertEquals(11, limit.limit());
+    }
+
+    @Test
+    void onSample_WhenFastButMostlyIdle_ShouldKeepLimit() {
+        // Act
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(System.nanoTime(), FAST, 1, false);
+        }
+
+        // Assert
+        assertEquals(10, limit.limit());
+    }
+
+    @Test
+    void execute_WhenRefusedByBusinessRule_ShouldNotDecrease() {
+        // Act
+        assertThrows(IllegalArgumentException.class, () -> limit.execute(() -> {
+            throw new IllegalArgumentException("Seat 15 is already booked for this showtime");
+        }));
+
+        // Assert
+        assertEquals(10, limit.limit());
+        assertEquals(0, limit.status().inFlight());
+    }
+
+    @Test
+    void execute_WhenDatabaseFails_ShouldDecrease() {
+        // Act
+        assertThrows(DataAccessResourceFailureException.class, () -> limit.execute(() -> {
+            throw new DataAccessResourceFailureException("Connection is not available, request timed out");
+        }));
+
+        // Assert
+        assertEquals(5, limit.limit());
+    }
+
+    @Test
+    void execute_AtLimit_ShouldRejectWithoutWaiting() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(10);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            for (int i = 0; i < 10; i++) {
+                executor.submit(() -> limit.execute(() -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                }));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Act & Assert
+            assertThrows(ServiceOverloadedException.class, () -> limit.execute(() -> "booked"));
+            assertEquals(1, limit.status().rejected());
+            assertEquals(10, limit.status().inFlight());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+}
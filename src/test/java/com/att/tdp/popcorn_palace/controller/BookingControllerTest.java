@@ -1,25 +1,45 @@
 package com.att.tdp.popcorn_palace.controller;
 
+import com.att.tdp.popcorn_palace.config.ResponseCompressionProperties;
+import com.att.tdp.popcorn_palace.dto.BookingResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.dto.UserBookingPage;
+import com.att.tdp.popcorn_palace.dto.UserBookingResponse;
+import com.att.tdp.popcorn_palace.exception.ServiceOverloadedException;
+import com.att.tdp.popcorn_palace.exception.TooManyRequestsException;
 import com.att.tdp.popcorn_palace.model.Booking;
 import com.att.tdp.popcorn_palace.service.BookingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BookingController.class)
+@EnableConfigurationProperties(ResponseCompressionProperties.class)
 public class BookingControllerTest {
 
     @Autowired
@@ -28,6 +48,15 @@ public class BookingControllerTest {
     @MockitoBean
     private BookingService bookingService;
 
+    @MockitoBean
+    private BookingForwarder forwarder;
+
+    @MockitoBean
+    private BookingRateLimiter rateLimiter;
+
+    @MockitoBean
+    private BookingConcurrencyLimit concurrencyLimit;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -38,14 +67,16 @@ public class BookingControllerTest {
     void setUp() {
         bookingId = "d1a6423b-4469-4b00-8c5f-e3cfc42eacae";
         booking = new Booking(bookingId, 1L, "84438967-f68f-4fa0-b620-0f08217e76af", 15);
+        lenient().when(concurrencyLimit.execute(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
     }
 
     @Test
     void getAllBookings_ShouldReturnAllBookings() throws Exception {
         // Arrange
-        List<Booking> bookings = Arrays.asList(
-                booking,
-                new Booking(UUID.randomUUID().toString(), 1L, "84438967-f68f-4fa0-b620-0f08217e76af", 16)
+        List<BookingResponse> bookings = Arrays.asList(
+                BookingResponse.from(booking),
+                BookingResponse.from(new Booking(UUID.randomUUID().toString(), 1L, "84438967-f68f-4fa0-b620-0f08217e76af", 16))
         );
         when(bookingService.getAllBookings()).thenReturn(bookings);
 
@@ -64,7 +95,7 @@ public class BookingControllerTest {
     @Test
     void getBookingById_WithExistingId_ShouldReturnBooking() throws Exception {
         // Arrange
-        when(bookingService.getBookingById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingService.getBookingById(bookingId)).thenReturn(Optional.of(BookingResponse.from(booking)));
 
         // Act & Assert
         mockMvc.perform(get("/bookings/" + bookingId))
@@ -72,7 +103,7 @@ public class BookingControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id", is(bookingId)))
                 .andExpect(jsonPath("$.showtimeId", is(1)))
-                .andExpect(jsonPath("$.userId", is("84438967-f68f-4fa0-b620-0f08217e76af")))
+                .andExpect(jsonPath("$.userId").doesNotExist())
                 .andExpect(jsonPath("$.seatNumber", is(15)));
 
         verify(bookingService, times(1)).getBookingById(bookingId);
@@ -94,9 +125,9 @@ public class BookingControllerTest {
     @Test
     void getBookingsByShowtimeId_ShouldReturnBookingsForShowtime() throws Exception {
         // Arrange
-        List<Booking> bookings = Arrays.asList(
-                booking,
-                new Booking(UUID.randomUUID().toString(), 1L, "84438967-f68f-4fa0-b620-0f08217e76af", 16)
+        List<BookingResponse> bookings = Arrays.asList(
+                BookingResponse.from(booking),
+                BookingResponse.from(new Booking(UUID.randomUUID().toString(), 1L, "84438967-f68f-4fa0-b620-0f08217e76af", 16))
         );
         when(bookingService.getBookingsByShowtimeId(1L)).thenReturn(bookings);
 
@@ -112,6 +143,75 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).getBookingsByShowtimeId(1L);
     }
 
+    @Test
+    void getBookingsByShowtimeId_OverRateLimit_ShouldReturnTooManyRequests() throws Exception {
+        // Arrange
+        doThrow(new TooManyRequestsException("Too many requests; try again later", Duration.ofMillis(1500)))
+                .when(rateLimiter).checkShowtimeBookings("127.0.0.1");
+
+        // Act & Assert
+        mockMvc.perform(get("/bookings/showtime/1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.status", is(429)));
+
+        verify(bookingService, never()).getBookingsByShowtimeId(any());
+    }
+
+    @Test
+    void getBookingsByUserId_ShouldReturnBookingsWithShowtimesAndNextLink() throws Exception {
+        // Arrange
+        String userId = "84438967-f68f-4fa0-b620-0f08217e76af";
+        ShowtimeResponse showtime = new ShowtimeResponse(1L, 1L, "Theater 1",
+                Instant.parse("2025-04-01T10:00:00Z"), Instant.parse("2025-04-01T12:30:00Z"), 12.50);
+        when(bookingService.getBookingsByUserId(userId, null, 1)).thenReturn(new UserBookingPage(
+                List.of(new UserBookingResponse(bookingId, 15, booking.getBookingTime(), showtime)), "abc"));
+
+        // Act & Assert
+        mockMvc.perform(get("/bookings/user/" + userId).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link", containsString("cursor=abc")))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(bookingId)))
+                .andExpect(jsonPath("$[0].showtime.theater", is("Theater 1")));
+
+        verify(bookingService, never()).getAllBookings();
+    }
+
+    @Test
+    void getBookingsByShowtimeId_WithLargeResultAndGzip_ShouldReturnCompressedBody() throws Exception {
+        // Arrange
+        List<BookingResponse> bookings = IntStream.rangeClosed(1, 100)
+                .mapToObj(seat -> BookingResponse.from(new Booking(UUID.randomUUID().toString(), 1L, "84438967-f68f-4fa0-b620-0f08217e76af", seat)))
+                .toList();
+        when(bookingService.getBookingsByShowtimeId(1L)).thenReturn(bookings);
+
+        // Act
+        byte[] body = mockMvc.perform(get("/bookings/showtime/1").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            BookingResponse[] decoded = objectMapper.readValue(in.readAllBytes(), BookingResponse[].class);
+            assertEquals(100, decoded.length);
+        }
+    }
+
+    @Test
+    void getBookingsByShowtimeId_WithSmallResultAndGzip_ShouldNotCompress() throws Exception {
+        // Arrange
+        when(bookingService.getBookingsByShowtimeId(1L)).thenReturn(List.of(BookingResponse.from(booking)));
+
+        // Act & Assert
+        mockMvc.perform(get("/bookings/showtime/1").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$[0].id", is(bookingId)));
+    }
+
     @Test
     void createBooking_WithValidData_ShouldReturnBookingId() throws Exception {
         // Arrange
@@ -144,6 +244,94 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).createBooking(any(Booking.class));
     }
 
+    @Test
+    void createBooking_OverRateLimit_ShouldReturnTooManyRequestsBeforeBooking() throws Exception {
+        // Arrange
+        doThrow(new TooManyRequestsException("Too many requests; try again later", Duration.ofMillis(200)))
+                .when(rateLimiter).checkCreateBooking("127.0.0.1", booking.getUserId());
+
+        // Act & Assert
+        mockMvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(booking)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+
+        verify(forwarder, never()).forward(any());
+        verify(bookingService, never()).createBooking(any());
+    }
+
+    @Test
+    void createBooking_OverConcurrencyLimit_ShouldReturnServiceUnavailable() throws Exception {
+        // Arrange
+        when(concurrencyLimit.execute(any()))
+                .thenThrow(new ServiceOverloadedException("Too many bookings in progress; try again shortly"));
+
+        // Act & Assert
+        mockMvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(booking)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status", is(503)));
+
+        verify(bookingService, never()).createBooking(any());
+    }
+
+    @Test
+    void createBooking_WithShowtimeOwnedElsewhere_ShouldRelayOwnersResponse() throws Exception {
+        // Arrange
+        when(forwarder.forward(any(Booking.class))).thenReturn(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(("{\"bookingId\":\"" + bookingId + "\"}").getBytes(StandardCharsets.UTF_8)));
+
+        // Act & Assert
+        mockMvc.perform(post("/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(booking)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookingId", is(bookingId)));
+
+        verify(bookingService, never()).createBooking(any());
+    }
+
+    @Test
+    void createBooking_WhenForwarded_ShouldBookLocally() throws Exception {
+        // Arrange
+        String forwardedBy = "6f1c2a9e-0000-4000-8000-000000000000;signature";
+        when(forwarder.isForwarded(eq(forwardedBy), any(Booking.class))).thenReturn(true);
+        when(bookingService.createBooking(any(Booking.class))).thenReturn(booking);
+
+        // Act & Assert
+        mockMvc.perform(post("/bookings")
+                        .header(BookingForwarder.FORWARDED_HEADER, forwardedBy)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(booking)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookingId", is(bookingId)));
+
+        verify(forwarder, never()).forward(any());
+        verify(rateLimiter, never()).checkCreateBooking(anyString(), anyString());
+        verify(bookingService, times(1)).createBooking(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_WithUnsignedForwardedHeader_ShouldBeRateLimitedAndForwarded() throws Exception {
+        // Arrange
+        when(forwarder.isForwarded(eq("6f1c2a9e-0000-4000-8000-000000000000"), any(Booking.class))).thenReturn(false);
+        when(bookingService.createBooking(any(Booking.class))).thenReturn(booking);
+
+        // Act & Assert
+        mockMvc.perform(post("/bookings")
+                        .header(BookingForwarder.FORWARDED_HEADER, "6f1c2a9e-0000-4000-8000-000000000000")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(booking)))
+                .andExpect(status().isOk());
+
+        verify(rateLimiter, times(1)).checkCreateBooking("127.0.0.1", booking.getUserId());
+        verify(forwarder, times(1)).forward(any(Booking.class));
+    }
+
     @Test
     void deleteBooking_WithExistingId_ShouldReturnOk() throws Exception {
         // Arrange
@@ -0,0 +1,153 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.exception.ServiceOverloadedException;
+import com.att.tdp.popcorn_palace.model.Booking;
+import com.att.tdp.popcorn_palace.service.ClusterMembership;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingForwarderTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final ClusterMembership.Member self = new ClusterMembership.Member("node-a", "http://a:8080");
+    private final ClusterMembership.Member owner = new ClusterMembership.Member("node-b", "http://b:8080");
+
+    @Mock
+    private ClusterMembership membership;
+
+    private MockRestServiceServer server;
+    private BookingForwarder forwarder;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder builder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(builder).build();
+        forwarder = new BookingForwarder(membership, builder.build(), SECRET);
+        booking = new Booking(null, 1L, "84438967-f68f-4fa0-b620-0f08217e76af", 15);
+        lenient().when(membership.self()).thenReturn(self);
+    }
+
+    @Test
+    void forward_WithOtherOwner_ShouldRelayItsResponse() {
+        // Arrange
+        when(membership.ownerOf(1L)).thenReturn(owner);
+        server.expect(requestTo("http://b:8080/bookings"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(BookingForwarder.FORWARDED_HEADER, forwarder.forwardedBy("node-a", booking)))
+                .andExpect(jsonPath("$.seatNumber").value(15))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"message\":\"Seat 15 is already booked for this showtime\"}"));
+
+        // Act
+        ResponseEntity<byte[]> response = forwarder.forward(booking);
+
+        // Assert
+        server.verify();
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertTrue(new String(response.getBody(), StandardCharsets.UTF_8).contains("Seat 15"));
+    }
+
+    @Test
+    void forward_WithOwnerRateLimited_ShouldRelayEndToEndHeaders() {
+        // Arrange
+        when(membership.ownerOf(1L)).thenReturn(owner);
+        server.expect(requestTo("http://b:8080/bookings"))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Retry-After", "7")
+                        .header("Connection", "close, X-Hop")
+                        .header("X-Hop", "owner only")
+                        .header("Keep-Alive", "timeout=5")
+                        .body("{\"message\":\"Too many requests\"}"));
+
+        // Act
+        ResponseEntity<byte[]> response = forwarder.forward(booking);
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("7", response.getHeaders().getFirst("Retry-After"));
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertFalse(response.getHeaders().containsKey("Connection"));
+        assertFalse(response.getHeaders().containsKey("X-Hop"));
+        assertFalse(response.getHeaders().containsKey("Keep-Alive"));
+    }
+
+    @Test
+    void isForwarded_WithSignatureOfOtherNode_ShouldAccept() {
+        // Arrange
+        BookingForwarder otherNode = new BookingForwarder(membership, RestClient.create(), SECRET);
+
+        // Act & Assert
+        assertTrue(forwarder.isForwarded(otherNode.forwardedBy("node-b", booking), booking));
+    }
+
+    @Test
+    void isForwarded_WithoutValidSignature_ShouldReject() {
+        // Arrange
+        BookingForwarder outsider = new BookingForwarder(membership, RestClient.create(),
+                "fedcba9876543210fedcba9876543210");
+        String signed = forwarder.forwardedBy("node-b", booking);
+        Booking otherSeat = new Booking(null, 1L, booking.getUserId(), 16);
+
+        // Act & Assert
+        assertFalse(forwarder.isForwarded("node-b", booking));
+        assertFalse(forwarder.isForwarded(outsider.forwardedBy("node-b", booking), booking));
+        assertFalse(forwarder.isForwarded(signed, otherSeat));
+        assertFalse(forwarder.isForwarded(null, booking));
+    }
+
+    @Test
+    void forward_WhenOwnedHere_ShouldReturnNull() {
+        // Arrange
+        when(membership.ownerOf(1L)).thenReturn(self);
+
+        // Act & Assert
+        assertNull(forwarder.forward(booking));
+        server.verify();
+    }
+
+    @Test
+    void forward_WithUnreachableOwner_ShouldReturnNull() {
+        // Arrange
+        when(membership.ownerOf(1L)).thenReturn(owner);
+        server.expect(requestTo("http://b:8080/bookings"))
+                .andRespond(withException(new ConnectException("Connection refused")));
+
+        // Act & Assert
+        assertNull(forwarder.forward(booking));
+    }
+
+    @Test
+    void forward_WhenOwnerTimesOut_ShouldNotBookLocally() {
+        // Arrange
+        when(membership.ownerOf(1L)).thenReturn(owner);
+        server.expect(requestTo("http://b:8080/bookings"))
+                .andRespond(withException(new SocketTimeoutException("Read timed out")));
+
+        // Act & Assert
+        assertThrows(ServiceOverloadedException.class, () -> forwarder.forward(booking));
+    }
+}
@@ -0,0 +1,79 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConditionalGetTest {
+
+    @Test
+    void notModifiedTag_WithMatchingTag_ShouldReturnTheClientsTag() {
+        assertEquals("m-1-7", ConditionalGet.notModifiedTag("\"m-1-7\"", "m-1-7"));
+        assertEquals("m-1-7", ConditionalGet.notModifiedTag("\"other\", W/\"m-1-7\"", "m-1-7"));
+        assertEquals("m-1-7-gzip", ConditionalGet.notModifiedTag("\"m-1-7-gzip\"", "m-1-7"));
+        assertEquals("m-1-7", ConditionalGet.notModifiedTag("*", "m-1-7"));
+    }
+
+    @Test
+    void notModifiedTag_WithDifferentOrMissingTag_ShouldReturnNull() {
+        assertNull(ConditionalGet.notModifiedTag(null, "m-1-7"));
+        assertNull(ConditionalGet.notModifiedTag("\"m-1-6\"", "m-1-7"));
+        assertNull(ConditionalGet.notModifiedTag("\"m-1-6-gzip\"", "m-1-7"));
+        assertNull(ConditionalGet.notModifiedTag("m-1-7", "m-1-7"));
+        assertNull(ConditionalGet.notModifiedTag("\"m-1-7\"", null));
+    }
+
+    @Test
+    void gzipVariant_ShouldSuffixOnlyStrongTags() {
+        assertEquals("\"s-1-3-gzip\"", ConditionalGet.gzipVariant("\"s-1-3\""));
+        assertEquals("W/\"s-1-3\"", ConditionalGet.gzipVariant("W/\"s-1-3\""));
+    }
+
+    @Test
+    void unchangedRowTag_ShouldMatchOnlyTagsOfTheCurrentCatalog() {
+        assertEquals("3.s-1-7", ConditionalGet.unchangedRowTag("\"2.s-1-6\", \"3.s-1-7\"", "s-1-7"));
+        assertEquals("3.s-1-7", ConditionalGet.unchangedRowTag("W/\"3.s-1-7\"", "s-1-7"));
+        assertEquals("3.s-1-7-gzip", ConditionalGet.unchangedRowTag("\"3.s-1-7-gzip\"", "s-1-7"));
+        assertNull(ConditionalGet.unchangedRowTag("\"3.s-1-6\"", "s-1-7"));
+        assertNull(ConditionalGet.unchangedRowTag("\"3\"", "s-1-7"));
+        assertNull(ConditionalGet.unchangedRowTag("\"x.s-1-7\"", "s-1-7"));
+        assertNull(ConditionalGet.unchangedRowTag("*", "s-1-7"));
+        assertNull(ConditionalGet.unchangedRowTag(null, "s-1-7"));
+    }
+
+    @Test
+    void isNotModified_WithRowVersion_ShouldCompareTheVersionPart() {
+        assertTrue(ConditionalGet.isNotModified("\"3.s-1-6\"", 3));
+        assertTrue(ConditionalGet.isNotModified("\"3\"", 3));
+        assertTrue(ConditionalGet.isNotModified("\"3.s-1-6-gzip\"", 3));
+        assertTrue(ConditionalGet.isNotModified("*", 3));
+        assertFalse(ConditionalGet.isNotModified("\"2.s-1-7\"", 3));
+        assertFalse(ConditionalGet.isNotModified(null, 3));
+    }
+
+    @Test
+    void acceptsGzip_ShouldHonourQualityValues() {
+        assertTrue(ConditionalGet.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ConditionalGet.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertFalse(ConditionalGet.acceptsGzip("gzip;q=0"));
+        assertFalse(ConditionalGet.acceptsGzip("identity"));
+        assertFalse(ConditionalGet.acceptsGzip(null));
+    }
+
+    @Test
+    void expectedVersion_ShouldParseASingleStrongTag() {
+        assertEquals(3L, ConditionalGet.expectedVersion("\"3\""));
+        assertEquals(0L, ConditionalGet.expectedVersion(" \"0\" "));
+        assertEquals(3L, ConditionalGet.expectedVersion("\"3.s-1-7\""));
+        assertNull(ConditionalGet.expectedVersion(null));
+        assertNull(ConditionalGet.expectedVersion("*"));
+    }
+
+    @Test
+    void expectedVersion_WithWeakListedOrNonNumericTag_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> ConditionalGet.expectedVersion("W/\"3\""));
+        assertThrows(IllegalArgumentException.class, () -> ConditionalGet.expectedVersion("\"3\", \"4\""));
+        assertThrows(IllegalArgumentException.class, () -> ConditionalGet.expectedVersion("\"s-1-3\""));
+        assertThrows(IllegalArgumentException.class, () -> ConditionalGet.expectedVersion("3"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.config.ConnectionPoolMetrics;
+import com.att.tdp.popcorn_palace.dto.BookingLimitStatus;
+import com.att.tdp.popcorn_palace.dto.ConnectionPoolStatus;
+import com.att.tdp.popcorn_palace.dto.DatabaseStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DatabaseEndpointTest {
+
+    @Mock
+    private ConnectionPoolMetrics poolMetrics;
+
+    @Mock
+    private BookingConcurrencyLimit bookingLimit;
+
+    private final List<ConnectionPoolStatus> pools = List.of(
+            new ConnectionPoolStatus("primary", 10, 0, 10, 10, 4, 5000, 1.5, 250.0, 2));
+
+    @Test
+    void status_ShouldReturnPoolUsageAndBookingLimit() {
+        // Arrange
+        BookingLimitStatus limit = new BookingLimitStatus(12, 12, 30);
+        when(poolMetrics.status()).thenReturn(pools);
+        when(bookingLimit.status()).thenReturn(limit);
+
+        // Act
+        DatabaseStatus status = new DatabaseEndpoint(poolMetrics, bookingLimit).status();
+
+        // Assert
+        assertEquals(pools, status.pools());
+        assertEquals(limit, status.bookingLimit());
+    }
+
+    @Test
+    void status_WithoutBookingLimit_ShouldReturnPoolUsageOnly() {
+        // Arrange
+        when(poolMetrics.status()).thenReturn(pools);
+
+        // Act
+        DatabaseStatus status = new DatabaseEndpoint(poolMetrics, null).status();
+
+        // Assert
+        assertEquals(pools, status.pools());
+        assertNull(status.bookingLimit());
+    }
+}
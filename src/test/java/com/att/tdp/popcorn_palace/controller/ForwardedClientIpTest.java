@@ -0,0 +1,69 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rate limits behind a load balancer, with the forwarded-header strategy of the prod profile
+ * Requests reach the server from the loopback address, which Tomcat trusts as a proxy, so the
+ * client IP is taken from X-Forwarded-For.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.forward-headers-strategy=native",
+        "popcorn-palace.rate-limit.enabled=true",
+        "popcorn-palace.rate-limit.create-booking.capacity=2",
+        "popcorn-palace.rate-limit.create-booking.refill-interval=1h"})
+public class ForwardedClientIpTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void prodProfile_ShouldTakeClientIpFromForwardedHeaders() throws Exception {
+        // Act
+        List<PropertySource<?>> prod = new YamlPropertySourceLoader()
+                .load("prod", new ClassPathResource("application-prod.yaml"));
+
+        // Assert
+        assertEquals("native", prod.get(0).getProperty("server.forward-headers-strategy"));
+    }
+
+    @Test
+    void createBooking_ShouldCountEachForwardedClientIpApart() {
+        // Arrange
+        postBooking("203.0.113.10");
+        postBooking("203.0.113.10");
+
+        // Act
+        ResponseEntity<String> limited = postBooking("203.0.113.10");
+        ResponseEntity<String> otherClient = postBooking("203.0.113.20");
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getStatusCode());
+        assertNotEquals(HttpStatus.TOO_MANY_REQUESTS, otherClient.getStatusCode());
+    }
+
+    private ResponseEntity<String> postBooking(String clientIp) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", clientIp);
+        // A new user each time, so only the per-IP limit applies
+        String body = "{\"showtimeId\":999999,\"userId\":\"" + UUID.randomUUID() + "\",\"seatNumber\":1}";
+        return restTemplate.postForEntity("/bookings", new HttpEntity<>(body, headers), String.class);
+    }
+}
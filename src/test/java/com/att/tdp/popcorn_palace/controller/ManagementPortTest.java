@@ -0,0 +1,47 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The operational endpoints answer on the management port only, never next to the public API
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.server.port=0",
+        "management.endpoints.web.exposure.include=health,database,outbox"})
+public class ManagementPortTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void databaseEndpoint_ShouldBeServedOnManagementPortOnly() {
+        // Act
+        ResponseEntity<String> management = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/database", String.class);
+        ResponseEntity<String> api = restTemplate.getForEntity(
+                "http://localhost:" + serverPort + "/actuator/database", String.class);
+        ResponseEntity<String> removed = restTemplate.getForEntity(
+                "http://localhost:" + serverPort + "/database", String.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, management.getStatusCode());
+        assertTrue(management.getBody().contains("\"pools\""));
+        assertFalse(api.getStatusCode().is2xxSuccessful());
+        assertFalse(removed.getStatusCode().is2xxSuccessful());
+    }
+}
@@ -1,16 +1,23 @@
 package com.att.tdp.popcorn_palace.controller;
 
+import com.att.tdp.popcorn_palace.config.CatalogCacheProperties;
+import com.att.tdp.popcorn_palace.config.ResponseCompressionProperties;
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
 import com.att.tdp.popcorn_palace.model.Movie;
+import com.att.tdp.popcorn_palace.service.MovieCatalogCache;
 import com.att.tdp.popcorn_palace.service.MovieService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -18,11 +25,13 @@ import java.util.Optional;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(MovieController.class)
+@EnableConfigurationProperties({CatalogCacheProperties.class, ResponseCompressionProperties.class})
 public class MovieControllerTest {
 
     @Autowired
@@ -31,6 +40,9 @@ public class MovieControllerTest {
     @MockitoBean
     private MovieService movieService;
 
+    @MockitoBean
+    private MovieCatalogCache movieCatalogCache;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -40,14 +52,15 @@ public class MovieControllerTest {
     void setUp() {
         movie = new Movie("Test Movie", "Action", 120, "PG-13", 2023);
         movie.setId(1L);
+        when(movieService.getCatalogTag()).thenReturn("m-1-7");
     }
 
     @Test
     void getAllMovies_ShouldReturnAllMovies() throws Exception {
         // Arrange
-        List<Movie> movies = Arrays.asList(
-                movie,
-                new Movie("Another Movie", "Comedy", 90, "PG", 2022)
+        List<MovieResponse> movies = Arrays.asList(
+                MovieResponse.from(movie),
+                MovieResponse.from(new Movie("Another Movie", "Comedy", 90, "PG", 2022))
         );
         when(movieService.getAllMovies()).thenReturn(movies);
 
@@ -63,6 +76,139 @@ public class MovieControllerTest {
         verify(movieService, times(1)).getAllMovies();
     }
 
+    @Test
+    void getAllMovies_ShouldReturnETagAndCacheControl() throws Exception {
+        // Arrange
+        when(movieService.getAllMovies()).thenReturn(List.of(MovieResponse.from(movie)));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"m-1-7\""))
+                .andExpect(header().string("Cache-Control", "max-age=0, public, s-maxage=30"));
+    }
+
+    @Test
+    void getAllMovies_WithMatchingETag_ShouldReturnNotModifiedWithoutQuery() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/movies/all").header("If-None-Match", "\"m-1-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("ETag", "\"m-1-7\""))
+                .andExpect(content().string(""));
+
+        verify(movieService, never()).getAllMovies();
+    }
+
+    @Test
+    void getAllMovies_WithStaleETag_ShouldReturnMovies() throws Exception {
+        // Arrange
+        when(movieService.getAllMovies()).thenReturn(List.of(MovieResponse.from(movie)));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies/all").header("If-None-Match", "\"m-1-6\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(movieService, times(1)).getAllMovies();
+    }
+
+    @Test
+    void getAllMovies_WithCurrentSnapshot_ShouldServeSerializedBytes() throws Exception {
+        // Arrange
+        byte[] json = "[{\"id\":1,\"title\":\"Test Movie\"}]".getBytes(StandardCharsets.UTF_8);
+        when(movieCatalogCache.getSnapshot("m-1-7")).thenReturn(new MovieCatalogCache.Snapshot("m-1-7", json, new byte[] {1}));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies/all"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().stringValues("ETag", "\"m-1-7\""))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$[0].title", is("Test Movie")));
+
+        verify(movieService, never()).getAllMovies();
+    }
+
+    @Test
+    void getAllMovies_WithCurrentSnapshotAndGzip_ShouldServeCompressedBytes() throws Exception {
+        // Arrange
+        byte[] gzip = {31, -117, 8};
+        when(movieCatalogCache.getSnapshot("m-1-7")).thenReturn(new MovieCatalogCache.Snapshot("m-1-7", new byte[] {1}, gzip));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies/all").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().stringValues("Vary", "Accept-Encoding"))
+                .andExpect(header().stringValues("Content-Encoding", "gzip"))
+                .andExpect(header().stringValues("ETag", "\"m-1-7-gzip\""))
+                .andExpect(content().bytes(gzip));
+
+        verify(movieService, never()).getAllMovies();
+    }
+
+    @Test
+    void getAllMovies_WithMatchingGzipETag_ShouldReturnNotModified() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/movies/all")
+                        .header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", "\"m-1-7-gzip\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("ETag", "\"m-1-7-gzip\""));
+
+        verify(movieCatalogCache, never()).getSnapshot(any());
+    }
+
+    @Test
+    void searchMovies_ShouldReturnMatchesFromService() throws Exception {
+        // Arrange
+        when(movieService.searchMovies("tes mov", "action", null, 2023, 5)).thenReturn(List.of(MovieResponse.from(movie)));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies/search")
+                        .param("q", "tes mov")
+                        .param("genre", "action")
+                        .param("year", "2023")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title", is("Test Movie")));
+
+        verify(movieService, never()).getAllMovies();
+    }
+
+    @Test
+    void searchMovies_WithoutCriteria_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(movieService.searchMovies(null, null, null, null, 20))
+                .thenThrow(new IllegalArgumentException("At least one of q, genre, rating or year is required"));
+
+        // Act & Assert
+        mockMvc.perform(get("/movies/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("At least one of q, genre, rating or year is required")));
+    }
+
+    @Test
+    void getMovieById_WithMatchingETag_ShouldReturnNotModifiedWithoutQuery() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/movies/1").header("If-None-Match", "\"m-1-7-gzip\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("ETag", "\"m-1-7-gzip\""));
+
+        verify(movieService, never()).getMovieById(any());
+    }
+
+    @Test
+    void getMovieById_WithNonExistingId_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(movieService.getMovieById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/movies/99"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void createMovie_WithValidData_ShouldReturnCreatedMovie() throws Exception {
         // Arrange
@@ -102,7 +248,7 @@ public class MovieControllerTest {
     void updateMovie_WithExistingTitleAndValidData_ShouldReturnOk() throws Exception {
         // Arrange
         Movie updatedMovie = new Movie("Updated Movie", "Sci-Fi", 130, "PG-13", 2025);
-        when(movieService.updateMovieByTitle(eq("Test Movie"), any(Movie.class))).thenReturn(true);
+        when(movieService.updateMovieByTitle(eq("Test Movie"), any(Movie.class), isNull())).thenReturn(true);
 
         // Act & Assert
         mockMvc.perform(post("/movies/update/Test Movie")
@@ -110,14 +256,31 @@ public class MovieControllerTest {
                         .content(objectMapper.writeValueAsString(updatedMovie)))
                 .andExpect(status().isOk());
 
-        verify(movieService, times(1)).updateMovieByTitle(eq("Test Movie"), any(Movie.class));
+        verify(movieService, times(1)).updateMovieByTitle(eq("Test Movie"), any(Movie.class), isNull());
+    }
+
+    @Test
+    void updateMovie_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        // Arrange
+        Movie updatedMovie = new Movie("Updated Movie", "Sci-Fi", 130, "PG-13", 2025);
+        when(movieService.updateMovieByTitle(eq("Test Movie"), any(Movie.class), eq(4L)))
+                .thenThrow(new OptimisticLockingFailureException("Movie 'Test Movie' was updated by someone else since version 4"));
+
+        // Act & Assert
+        mockMvc.perform(post("/movies/update/Test Movie")
+                        .header("If-Match", "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedMovie)))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(movieService, times(1)).updateMovieByTitle(eq("Test Movie"), any(Movie.class), eq(4L));
     }
 
     @Test
     void updateMovie_WithNonExistingTitle_ShouldReturnNotFound() throws Exception {
         // Arrange
         Movie updatedMovie = new Movie("Updated Movie", "Sci-Fi", 130, "PG-13", 2025);
-        when(movieService.updateMovieByTitle(eq("Non Existing Movie"), any(Movie.class))).thenReturn(false);
+        when(movieService.updateMovieByTitle(eq("Non Existing Movie"), any(Movie.class), isNull())).thenReturn(false);
 
         // Act & Assert
         mockMvc.perform(post("/movies/update/Non Existing Movie")
@@ -125,7 +288,7 @@ public class MovieControllerTest {
                         .content(objectMapper.writeValueAsString(updatedMovie)))
                 .andExpect(status().isNotFound());
 
-        verify(movieService, times(1)).updateMovieByTitle(eq("Non Existing Movie"), any(Movie.class));
+        verify(movieService, times(1)).updateMovieByTitle(eq("Non Existing Movie"), any(Movie.class), isNull());
     }
 
     @Test
@@ -0,0 +1,36 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.dto.OutboxStatus;
+import com.att.tdp.popcorn_palace.service.BookingOutboxDispatcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxEndpointTest {
+
+    @Mock
+    private BookingOutboxDispatcher dispatcher;
+
+    @InjectMocks
+    private OutboxEndpoint endpoint;
+
+    @Test
+    void status_ShouldReturnDeliveryLag() {
+        // Arrange
+        OutboxStatus lag = new OutboxStatus(3, 1500, 42, 1, 250L);
+        when(dispatcher.status()).thenReturn(lag);
+
+        // Act
+        OutboxStatus status = endpoint.status();
+
+        // Assert
+        assertEquals(lag, status);
+        verify(dispatcher, times(1)).status();
+    }
+}
@@ -0,0 +1,72 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.config.ReadReplicaProperties;
+import com.att.tdp.popcorn_palace.config.ReplicaRoutingDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimaryStickinessFilterTest {
+
+    private static final Instant NOW = Instant.parse("2025-04-01T08:00:00Z");
+
+    private final PrimaryStickinessFilter filter = new PrimaryStickinessFilter(
+            new ReadReplicaProperties(true, "jdbc:postgresql://replica:5432/popcorn-palace", null, null, 10,
+                    Duration.ofSeconds(5)),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void write_ShouldSetStickinessCookie() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("POST", "/bookings"), response, new MockFilterChain());
+
+        // Assert
+        Cookie cookie = response.getCookie(PrimaryStickinessFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertEquals(Long.toString(NOW.plusSeconds(5).toEpochMilli()), cookie.getValue());
+        assertEquals(5, cookie.getMaxAge());
+    }
+
+    @Test
+    void read_WithUnexpiredCookie_ShouldStayOnPrimary() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings/user/1");
+        request.setCookies(new Cookie(PrimaryStickinessFilter.COOKIE_NAME, Long.toString(NOW.plusSeconds(2).toEpochMilli())));
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertEquals(Boolean.TRUE, request.getAttribute(ReplicaRoutingDataSource.READ_PRIMARY_ATTRIBUTE));
+    }
+
+    @Test
+    void read_WithExpiredOrNoCookie_ShouldUseReplica() throws Exception {
+        // Arrange
+        MockHttpServletRequest expired = new MockHttpServletRequest("GET", "/bookings/user/1");
+        expired.setCookies(new Cookie(PrimaryStickinessFilter.COOKIE_NAME, Long.toString(NOW.minusSeconds(1).toEpochMilli())));
+        MockHttpServletRequest none = new MockHttpServletRequest("GET", "/bookings/user/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(expired, response, new MockFilterChain());
+        filter.doFilter(none, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Assert
+        assertNull(expired.getAttribute(ReplicaRoutingDataSource.READ_PRIMARY_ATTRIBUTE));
+        assertNull(none.getAttribute(ReplicaRoutingDataSource.READ_PRIMARY_ATTRIBUTE));
+        assertNull(response.getCookie(PrimaryStickinessFilter.COOKIE_NAME));
+    }
+}
@@ -0,0 +1,206 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.config.ResponseCompressionProperties;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ResponseCompressionFilterTest {
+
+    private final ResponseCompressionFilter filter =
+            new ResponseCompressionFilter(new ResponseCompressionProperties(true, DataSize.ofBytes(64), 1));
+
+    @Test
+    void doFilter_WithLargeJsonAndGzip_ShouldStreamCompressedBody() throws Exception {
+        // Arrange
+        byte[] json = ("[" + "{\"seatNumber\":1},".repeat(50) + "{}]").getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(gzipRequest(), response, chain((req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write(json, 0, 10);
+            res.getOutputStream().write(json, 10, json.length - 10);
+        }));
+
+        // Assert
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals(List.of("Accept-Encoding"), response.getHeaders("Vary"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void doFilter_WithStrongETag_ShouldTagCompressedBodyAsGzipVariant() throws Exception {
+        // Arrange
+        byte[] json = ("[" + "{\"seatNumber\":1},".repeat(50) + "{}]").getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(gzipRequest(), response, chain((req, res) -> {
+            res.setContentType("application/json");
+            res.setHeader("ETag", "\"s-1-3\"");
+            res.getOutputStream().write(json);
+        }));
+
+        // Assert
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("\"s-1-3-gzip\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    void doFilter_WithSmallJson_ShouldSendItAsIs() throws Exception {
+        // Arrange
+        byte[] json = "{\"bookingId\":\"1\"}".getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(gzipRequest(), response, chain((req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write(json);
+        }));
+
+        // Assert
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(json.length, response.getContentLength());
+        assertArrayEquals(json, response.getContentAsByteArray());
+    }
+
+    @Test
+    void doFilter_WithPreEncodedBody_ShouldPassThroughWithoutDuplicatingVary() throws Exception {
+        // Arrange
+        byte[] gzip = new byte[200];
+        gzip[0] = 31;
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(gzipRequest(), response, chain((req, res) -> {
+            res.setContentType("application/json");
+            res.addHeader("Vary", "Accept-Encoding");
+            res.setHeader("Content-Encoding", "gzip");
+            res.setContentLength(gzip.length);
+            res.getOutputStream().write(gzip);
+        }));
+
+        // Assert
+        assertEquals(List.of("Accept-Encoding"), response.getHeaders("Vary"));
+        assertEquals(List.of("gzip"), response.getHeaders("Content-Encoding"));
+        assertEquals(gzip.length, response.getContentLength());
+        assertArrayEquals(gzip, response.getContentAsByteArray());
+    }
+
+    @Test
+    void doFilter_WithoutBody_ShouldNotAddVary() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(gzipRequest(), response, chain((req, res) -> res.setStatus(304)));
+
+        // Assert
+        assertEquals(304, response.getStatus());
+        assertTrue(response.getHeaders("Vary").isEmpty());
+    }
+
+    @Test
+    void doFilter_WithSmallJsonOrNonJson_ShouldNotAddVary() throws Exception {
+        // Arrange
+        byte[] text = "x".repeat(200).getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse small = new MockHttpServletResponse();
+        MockHttpServletResponse plain = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(gzipRequest(), small, chain((req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+        }));
+        filter.doFilter(gzipRequest(), plain, chain((req, res) -> {
+            res.setContentType("text/plain");
+            res.getOutputStream().write(text);
+        }));
+
+        // Assert
+        assertTrue(small.getHeaders("Vary").isEmpty());
+        assertTrue(plain.getHeaders("Vary").isEmpty());
+        assertArrayEquals(text, plain.getContentAsByteArray());
+    }
+
+    @Test
+    void doFilter_WithLargeJsonWithoutGzip_ShouldSendItAsIsWithVary() throws Exception {
+        // Arrange
+        byte[] json = ("[" + "{\"seatNumber\":1},".repeat(50) + "{}]").getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/bookings/showtime/1"), response, chain((req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write(json);
+        }));
+
+        // Assert
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(List.of("Accept-Encoding"), response.getHeaders("Vary"));
+        assertArrayEquals(json, response.getContentAsByteArray());
+    }
+
+    @Test
+    void doFilter_WithWriteListener_ShouldHandItToTheContainerStream() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletOutputStream containerStream = mock(ServletOutputStream.class);
+        HttpServletResponse container = new HttpServletResponseWrapper(response) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return containerStream;
+            }
+        };
+        WriteListener listener = mock(WriteListener.class);
+
+        // Act
+        filter.doFilter(gzipRequest(), container, chain((req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().setWriteListener(listener);
+        }));
+
+        // Assert
+        verify(containerStream).setWriteListener(listener);
+        assertNull(response.getHeader("Content-Encoding"));
+    }
+
+    private static MockHttpServletRequest gzipRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings/showtime/1");
+        request.addHeader("Accept-Encoding", "gzip");
+        return request;
+    }
+
+    private static MockFilterChain chain(Handler handler) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                handler.handle(request, response);
+            }
+        });
+    }
+
+    private interface Handler {
+        void handle(HttpServletRequest request, HttpServletResponse response) throws IOException;
+    }
+}
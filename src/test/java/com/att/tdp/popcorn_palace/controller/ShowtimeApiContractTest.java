@@ -0,0 +1,252 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Showtime API behaviour every web stack must keep, run over HTTP against the whole application
+ * Each subclass starts the application on one stack; the same requests must get the same answers.
+ */
+abstract class ShowtimeApiContractTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private long movieId;
+    private String theater;
+    private Instant startTime;
+
+    @BeforeEach
+    void setUp() {
+        // Each test gets its own movie and theater, since the in-memory database outlives the test
+        JsonNode movie = post("/movies", "{\"title\":\"Contract " + UUID.randomUUID()
+                + "\",\"genre\":\"Drama\",\"duration\":120,\"rating\":\"PG\",\"releaseYear\":2025}");
+        movieId = movie.get("id").asLong();
+        theater = "Contract " + UUID.randomUUID();
+        startTime = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void createShowtime_ShouldBeReadableWithItsVersionAsETag() {
+        // Act
+        JsonNode created = post("/showtimes", showtimeJson(movieId, startTime, 20.0));
+        long id = created.get("id").asLong();
+
+        // Assert
+        assertEquals(theater, created.get("theater").asText());
+        String eTag = webTestClient.get().uri("/showtimes/{id}", id).exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, startsWith("\"0."))
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(id)
+                .jsonPath("$.movieId").isEqualTo(movieId)
+                .jsonPath("$.startTime").isEqualTo(startTime.toString())
+                .jsonPath("$.version").isEqualTo(0)
+                .returnResult().getResponseHeaders().getETag();
+        webTestClient.get().uri("/showtimes/{id}", id).header(HttpHeaders.IF_NONE_MATCH, eTag).exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void getShowtimes_WhenCatalogIsUnchanged_ShouldReturnNotModified() {
+        // Arrange
+        post("/showtimes", showtimeJson(movieId, startTime, 20.0));
+        String eTag = webTestClient.get().uri("/showtimes").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.theater == '" + theater + "')]").exists()
+                .returnResult().getResponseHeaders().getETag();
+
+        // Act & Assert
+        webTestClient.get().uri("/showtimes").header(HttpHeaders.IF_NONE_MATCH, eTag).exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag);
+    }
+
+    @Test
+    void createShowtime_WhenTheaterIsTaken_ShouldReturnBadRequest() {
+        // Arrange
+        post("/showtimes", showtimeJson(movieId, startTime, 20.0));
+
+        // Act & Assert
+        webTestClient.post().uri("/showtimes").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(showtimeJson(movieId, startTime.plus(1, ChronoUnit.HOURS), 20.0))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("There is already a showtime scheduled in this theater during the specified time")
+                .jsonPath("$.path").isEqualTo("/showtimes");
+    }
+
+    @Test
+    void createShowtime_WhenMovieDoesNotExist_ShouldReturnBadRequest() {
+        // Act & Assert
+        webTestClient.post().uri("/showtimes").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(showtimeJson(Long.MAX_VALUE, startTime, 20.0))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Movie with ID " + Long.MAX_VALUE + " does not exist");
+    }
+
+    @Test
+    void createShowtime_WhenInvalid_ShouldReturnValidationError() {
+        // Act & Assert
+        webTestClient.post().uri("/showtimes").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(showtimeJson(movieId, startTime, 0.0))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Validation error: {price=Price must be greater than 0}");
+    }
+
+    @Test
+    void updateShowtime_ShouldApplyOnlyAtTheIfMatchVersion() {
+        // Arrange
+        long id = post("/showtimes", showtimeJson(movieId, startTime, 20.0)).get("id").asLong();
+
+        // Act & Assert
+        webTestClient.post().uri("/showtimes/update/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(showtimeJson(movieId, startTime, 25.0))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody()
+                .jsonPath("$.price").isEqualTo(25.0)
+                .jsonPath("$.version").isEqualTo(1);
+        webTestClient.post().uri("/showtimes/update/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(showtimeJson(movieId, startTime, 30.0))
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(412);
+        webTestClient.get().uri("/showtimes/{id}", id).exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.price").isEqualTo(25.0);
+    }
+
+    @Test
+    void updateShowtime_WhenIfMatchIsMalformed_ShouldReturnBadRequest() {
+        // Arrange
+        long id = post("/showtimes", showtimeJson(movieId, startTime, 20.0)).get("id").asLong();
+
+        // Act & Assert
+        webTestClient.post().uri("/showtimes/update/{id}", id).contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"0\", \"1\"")
+                .bodyValue(showtimeJson(movieId, startTime, 25.0))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void updateShowtime_WhenNotFound_ShouldReturnNotFound() {
+        // Act & Assert
+        webTestClient.post().uri("/showtimes/update/{id}", Long.MAX_VALUE).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(showtimeJson(movieId, startTime, 25.0))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getShowtimes_ByTheater_ShouldPageInStartTimeOrder() {
+        // Arrange
+        long first = post("/showtimes", showtimeJson(movieId, startTime, 20.0)).get("id").asLong();
+        long second = post("/showtimes", showtimeJson(movieId, startTime.plus(3, ChronoUnit.HOURS), 20.0))
+                .get("id").asLong();
+        long third = post("/showtimes", showtimeJson(movieId, startTime.plus(6, ChronoUnit.HOURS), 20.0))
+                .get("id").asLong();
+
+        // Act
+        String link = webTestClient.get()
+                .uri(uri -> uri.path("/showtimes").queryParam("theater", theater).queryParam("limit", 2).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.LINK, containsString("rel=\"next\""))
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].id").isEqualTo(first)
+                .jsonPath("$[1].id").isEqualTo(second)
+                .returnResult().getResponseHeaders().getFirst(HttpHeaders.LINK);
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        // Assert
+        webTestClient.get().uri(URI.create(next)).exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.LINK)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(third);
+    }
+
+    @Test
+    void getShowtimes_WhenFromIsMalformed_ShouldReturnBadRequest() {
+        // Act & Assert
+        webTestClient.get().uri("/showtimes?from=tomorrow").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid value for parameter 'from': tomorrow");
+    }
+
+    @Test
+    void getShowtimesWithMovies_ShouldIncludeTheMovie() {
+        // Arrange
+        long id = post("/showtimes", showtimeJson(movieId, startTime, 20.0)).get("id").asLong();
+
+        // Act & Assert
+        webTestClient.get()
+                .uri(uri -> uri.path("/showtimes/with-movies").queryParam("theater", theater).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(id)
+                .jsonPath("$[0].movie.id").isEqualTo(movieId);
+    }
+
+    @Test
+    void deleteShowtime_ShouldRemoveShowtimeOnce() {
+        // Arrange
+        long id = post("/showtimes", showtimeJson(movieId, startTime, 20.0)).get("id").asLong();
+
+        // Act & Assert
+        webTestClient.delete().uri("/showtimes/{id}", id).exchange()
+                .expectStatus().isOk();
+        webTestClient.get().uri("/showtimes/{id}", id).exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete().uri("/showtimes/{id}", id).exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private JsonNode post(String uri, String json) {
+        JsonNode body = webTestClient.post().uri(uri).contentType(MediaType.APPLICATION_JSON).bodyValue(json)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult().getResponseBody();
+        assertNotNull(body);
+        return body;
+    }
+
+    private String showtimeJson(long movieId, Instant startTime, double price) {
+        return "{\"movieId\":" + movieId + ",\"theater\":\"" + theater + "\",\"startTime\":\"" + startTime
+                + "\",\"endTime\":\"" + startTime.plus(2, ChronoUnit.HOURS) + "\",\"price\":" + price + "}";
+    }
+}
@@ -0,0 +1,10 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Showtime API contract on the default stack, Spring MVC over JPA
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ShowtimeApiServletTest extends ShowtimeApiContractTest {
+}
@@ -1,16 +1,27 @@
 package com.att.tdp.popcorn_palace.controller;
 
+import com.att.tdp.popcorn_palace.config.CatalogCacheProperties;
+import com.att.tdp.popcorn_palace.config.ResponseCompressionProperties;
+import com.att.tdp.popcorn_palace.dto.ShowtimePage;
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMoviePage;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMovieResponse;
 import com.att.tdp.popcorn_palace.model.Showtime;
+import com.att.tdp.popcorn_palace.service.NowPlayingSchedule;
 import com.att.tdp.popcorn_palace.service.ShowtimeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
@@ -19,11 +30,13 @@ import java.util.Optional;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ShowtimeController.class)
+@EnableConfigurationProperties({CatalogCacheProperties.class, ResponseCompressionProperties.class})
 public class ShowtimeControllerTest {
 
     @Autowired
@@ -32,6 +45,9 @@ public class ShowtimeControllerTest {
     @MockitoBean
     private ShowtimeService showtimeService;
 
+    @MockitoBean
+    private NowPlayingSchedule nowPlayingSchedule;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -45,16 +61,18 @@ public class ShowtimeControllerTest {
         endTime = Instant.parse("2025-04-01T12:30:00Z");
         showtime = new Showtime(1L, "Theater 1", startTime, endTime, 12.50);
         showtime.setId(1L);
+        showtime.setVersion(0L);
+        when(showtimeService.getCatalogTag()).thenReturn("s-1-3");
     }
 
     @Test
     void getAllShowtimes_ShouldReturnAllShowtimes() throws Exception {
         // Arrange
-        List<Showtime> showtimes = Arrays.asList(
-                showtime,
-                new Showtime(2L, "Theater 2",
+        List<ShowtimeResponse> showtimes = Arrays.asList(
+                ShowtimeResponse.from(showtime),
+                ShowtimeResponse.from(new Showtime(2L, "Theater 2",
                         Instant.parse("2025-04-01T13:00:00Z"),
-                        Instant.parse("2025-04-01T15:30:00Z"), 14.00)
+                        Instant.parse("2025-04-01T15:30:00Z"), 14.00))
         );
         when(showtimeService.getAllShowtimes()).thenReturn(showtimes);
 
@@ -70,10 +88,161 @@ public class ShowtimeControllerTest {
         verify(showtimeService, times(1)).getAllShowtimes();
     }
 
+    @Test
+    void getAllShowtimes_WithMatchingETag_ShouldReturnNotModifiedWithoutQuery() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/showtimes").header("If-None-Match", "\"s-1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("ETag", "\"s-1-3\""));
+
+        verify(showtimeService, never()).getAllShowtimes();
+    }
+
+    @Test
+    void getShowtimes_WithFilters_ShouldReturnPageWithNextLink() throws Exception {
+        // Arrange
+        Instant from = Instant.parse("2025-04-01T00:00:00Z");
+        Instant to = Instant.parse("2025-04-02T00:00:00Z");
+        when(showtimeService.findShowtimes(1L, "Theater 1", from, to, null, 1))
+                .thenReturn(new ShowtimePage(List.of(ShowtimeResponse.from(showtime)), "abc"));
+
+        // Act & Assert
+        mockMvc.perform(get("/showtimes")
+                        .param("movieId", "1")
+                        .param("theater", "Theater 1")
+                        .param("from", "2025-04-01T00:00:00Z")
+                        .param("to", "2025-04-02T00:00:00Z")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"s-1-3\""))
+                .andExpect(header().string("Link", allOf(containsString("cursor=abc"), endsWith("; rel=\"next\""))))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+
+        verify(showtimeService, never()).getAllShowtimes();
+    }
+
+    @Test
+    void getShowtimes_FromNow_ShouldNotBeConditional() throws Exception {
+        // Arrange
+        when(showtimeService.findShowtimes(null, "Theater 1", null, null, null, 50))
+                .thenReturn(new ShowtimePage(List.of(), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/showtimes").param("theater", "Theater 1").header("If-None-Match", "\"s-1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().doesNotExist("Link"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void getShowtimes_WithMalformedTime_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/showtimes").param("from", "tonight"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Invalid value for parameter 'from': tonight")));
+
+        verify(showtimeService, never()).findShowtimes(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getNowPlaying_ShouldReturnShowtimesWithMovies() throws Exception {
+        // Arrange
+        when(nowPlayingSchedule.getNowPlaying(Duration.ofHours(3))).thenReturn(List.of(
+                new ShowtimeWithMovieResponse(1L, "Theater 1", startTime, endTime, 12.50,
+                        new MovieResponse(1L, "Test Movie", "Action", 120, "PG-13", 2023))));
+
+        // Act & Assert
+        mockMvc.perform(get("/showtimes/now-playing").param("hours", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].theater", is("Theater 1")))
+                .andExpect(jsonPath("$[0].movie.title", is("Test Movie")));
+
+        verify(showtimeService, never()).getAllShowtimes();
+    }
+
+    @Test
+    void getShowtimesWithMovies_ShouldReturnPageWithNextLink() throws Exception {
+        // Arrange
+        when(showtimeService.findShowtimesWithMovies(1L, null, null, null, null, 50))
+                .thenReturn(new ShowtimeWithMoviePage(List.of(
+                        new ShowtimeWithMovieResponse(1L, "Theater 1", startTime, endTime, 12.50,
+                                new MovieResponse(1L, "Test Movie", "Action", 120, "PG-13", 2023))), "abc"));
+
+        // Act & Assert
+        mockMvc.perform(get("/showtimes/with-movies").param("movieId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link", containsString("cursor=abc")))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].movie.title", is("Test Movie")))
+                .andExpect(jsonPath("$[0].movie.duration", is(120)))
+                .andExpect(jsonPath("$[0].movie.rating", is("PG-13")));
+    }
+
+    @Test
+    void getShowtimeById_WithTagOfCurrentCatalog_ShouldReturnNotModifiedWithoutQuery() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/showtimes/1").header("If-None-Match", "\"3.s-1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3.s-1-3\""));
+
+        verify(showtimeService, never()).getShowtimeById(any());
+    }
+
+    @Test
+    void getShowtimeById_WithMatchingVersionOfOlderCatalog_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        showtime.setVersion(3L);
+        when(showtimeService.getShowtimeById(1L)).thenReturn(Optional.of(ShowtimeResponse.from(showtime)));
+
+        // Act & Assert
+        mockMvc.perform(get("/showtimes/1").header("If-None-Match", "\"3.s-1-2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3.s-1-3\""));
+
+        verify(showtimeService, times(1)).getShowtimeById(1L);
+    }
+
+    @Test
+    void getShowtimeById_WithStaleVersion_ShouldReturnShowtimeWithVersionETag() throws Exception {
+        // Arrange
+        showtime.setVersion(3L);
+        when(showtimeService.getShowtimeById(1L)).thenReturn(Optional.of(ShowtimeResponse.from(showtime)));
+
+        // Act & Assert
+        mockMvc.perform(get("/showtimes/1").header("If-None-Match", "\"2.s-1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3.s-1-3\""))
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.version", is(3)));
+    }
+
+    @Test
+    void getShowtimeById_ETag_ShouldBeAcceptedAsIfMatchOfUpdate() throws Exception {
+        // Arrange
+        showtime.setVersion(3L);
+        when(showtimeService.getShowtimeById(1L)).thenReturn(Optional.of(ShowtimeResponse.from(showtime)));
+        String eTag = mockMvc.perform(get("/showtimes/1"))
+                .andReturn().getResponse().getHeader("ETag");
+        Showtime updated = new Showtime(1L, "Theater 1", startTime, endTime, 15.00);
+        updated.setVersion(4L);
+        when(showtimeService.updateShowtime(eq(1L), any(Showtime.class), eq(3L))).thenReturn(updated);
+
+        // Act & Assert
+        mockMvc.perform(post("/showtimes/update/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updated))
+                        .header("If-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+    }
+
     @Test
     void getShowtimeById_WithExistingId_ShouldReturnShowtime() throws Exception {
         // Arrange
-        when(showtimeService.getShowtimeById(1L)).thenReturn(Optional.of(showtime));
+        when(showtimeService.getShowtimeById(1L)).thenReturn(Optional.of(ShowtimeResponse.from(showtime)));
 
         // Act & Assert
         mockMvc.perform(get("/showtimes/1"))
@@ -140,7 +309,8 @@ public class ShowtimeControllerTest {
         // Arrange
         Showtime updatedShowtime = new Showtime(1L, "Theater 1 Updated", startTime, endTime, 18.00);
         updatedShowtime.setId(1L);
-        when(showtimeService.updateShowtime(eq(1L), any(Showtime.class))).thenReturn(updatedShowtime);
+        updatedShowtime.setVersion(3L);
+        when(showtimeService.updateShowtime(eq(1L), any(Showtime.class), isNull())).thenReturn(updatedShowtime);
 
         // Act & Assert
         mockMvc.perform(post("/showtimes/update/1")
@@ -150,16 +320,18 @@ public class ShowtimeControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.theater", is("Theater 1 Updated")))
-                .andExpect(jsonPath("$.price", is(18.0)));
+                .andExpect(jsonPath("$.price", is(18.0)))
+                .andExpect(jsonPath("$.version", is(3)))
+                .andExpect(header().string("ETag", "\"3\""));
 
-        verify(showtimeService, times(1)).updateShowtime(eq(1L), any(Showtime.class));
+        verify(showtimeService, times(1)).updateShowtime(eq(1L), any(Showtime.class), isNull());
     }
 
     @Test
     void updateShowtime_WithNonExistingId_ShouldReturnNotFound() throws Exception {
         // Arrange
         Showtime updatedShowtime = new Showtime(1L, "Theater 1 Updated", startTime, endTime, 18.00);
-        when(showtimeService.updateShowtime(eq(99L), any(Showtime.class))).thenReturn(null);
+        when(showtimeService.updateShowtime(eq(99L), any(Showtime.class), isNull())).thenReturn(null);
 
         // Act & Assert
         mockMvc.perform(post("/showtimes/update/99")
@@ -167,7 +339,40 @@ public class ShowtimeControllerTest {
                         .content(objectMapper.writeValueAsString(updatedShowtime)))
                 .andExpect(status().isNotFound());
 
-        verify(showtimeService, times(1)).updateShowtime(eq(99L), any(Showtime.class));
+        verify(showtimeService, times(1)).updateShowtime(eq(99L), any(Showtime.class), isNull());
+    }
+
+    @Test
+    void updateShowtime_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        // Arrange
+        Showtime updatedShowtime = new Showtime(1L, "Theater 1 Updated", startTime, endTime, 18.00);
+        when(showtimeService.updateShowtime(eq(1L), any(Showtime.class), eq(2L)))
+                .thenThrow(new OptimisticLockingFailureException("Showtime with ID 1 was updated by someone else since version 2"));
+
+        // Act & Assert
+        mockMvc.perform(post("/showtimes/update/1")
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedShowtime)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status", is(412)));
+
+        verify(showtimeService, times(1)).updateShowtime(eq(1L), any(Showtime.class), eq(2L));
+    }
+
+    @Test
+    void updateShowtime_WithMalformedIfMatch_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        Showtime updatedShowtime = new Showtime(1L, "Theater 1 Updated", startTime, endTime, 18.00);
+
+        // Act & Assert
+        mockMvc.perform(post("/showtimes/update/1")
+                        .header("If-Match", "W/\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedShowtime)))
+                .andExpect(status().isBadRequest());
+
+        verify(showtimeService, never()).updateShowtime(any(), any(), any());
     }
 
     @Test
@@ -0,0 +1,144 @@
+package com.att.tdp.popcorn_palace.controller;
+
+import com.att.tdp.popcorn_palace.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenBucketsTest {
+
+    private static final long NOW = 1_000_000L;
+    private static final RateLimitProperties.Limit LIMIT = new RateLimitProperties.Limit(3, Duration.ofSeconds(1));
+
+    @Mock
+    private Clock clock;
+
+    private TokenBuckets buckets;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clock.millis()).thenReturn(NOW);
+        buckets = new TokenBuckets(LIMIT, 2, clock);
+    }
+
+    @Test
+    void tryAcquire_WithinCapacity_ShouldAllowBurst() {
+        // Act & Assert
+        assertEquals(0, buckets.tryAcquire("ip:10.0.0.1"));
+        assertEquals(0, buckets.tryAcquire("ip:10.0.0.1"));
+        assertEquals(0, buckets.tryAcquire("ip:10.0.0.1"));
+    }
+
+    @Test
+    void tryAcquire_OverCapacity_ShouldReturnWaitUntilNextToken() {
+        // Arrange
+        IntStream.range(0, 3).forEach(i -> buckets.tryAcquire("ip:10.0.0.1"));
+
+        // Act & Assert
+        assertEquals(1000, buckets.tryAcquire("ip:10.0.0.1"));
+        when(clock.millis()).thenReturn(NOW + 400);
+        assertEquals(600, buckets.tryAcquire("ip:10.0.0.1"));
+    }
+
+    @Test
+    void tryAcquire_AfterRefillInterval_ShouldAllowOneMore() {
+        // Arrange
+        IntStream.range(0, 3).forEach(i -> buckets.tryAcquire("ip:10.0.0.1"));
+        when(clock.millis()).thenReturn(NOW + 1000);
+
+        // Act & Assert
+        assertEquals(0, buckets.tryAcquire("ip:10.0.0.1"));
+        assertTrue(buckets.tryAcquire("ip:10.0.0.1") > 0);
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepClientsApart() {
+        // Arrange
+        IntStream.range(0, 3).forEach(i -> buckets.tryAcquire("ip:10.0.0.1"));
+
+        // Act & Assert
+        assertTrue(buckets.tryAcquire("ip:10.0.0.1") > 0);
+        assertEquals(0, buckets.tryAcquire("ip:10.0.0.2"));
+    }
+
+    @Test
+    void tryAcquireAll_WhenSecondRefuses_ShouldGiveFirstTokenBack() {
+        // Arrange
+        IntStream.range(0, 3).forEach(i -> buckets.tryAcquire("user:a"));
+
+        // Act
+        long wait = buckets.tryAcquireAll("ip:10.0.0.1", "user:a");
+
+        // Assert
+        assertEquals(1000, wait);
+        IntStream.range(0, 3).forEach(i -> assertEquals(0, buckets.tryAcquire("ip:10.0.0.1")));
+        assertTrue(buckets.tryAcquire("ip:10.0.0.1") > 0);
+    }
+
+    @Test
+    void tryAcquire_WhenFull_ShouldEvictRefilledBuckets() {
+        // Arrange
+        buckets.tryAcquire("ip:10.0.0.1");
+        buckets.tryAcquire("ip:10.0.0.2");
+        when(clock.millis()).thenReturn(NOW + 1000);
+
+        // Act
+        long wait = buckets.tryAcquire("ip:10.0.0.3");
+
+        // Assert
+        assertEquals(0, wait);
+        assertEquals(1, buckets.size());
+    }
+
+    @Test
+    void tryAcquire_WhenFullOfBusyClients_ShouldRefuseNewClient() {
+        // Arrange
+        buckets.tryAcquire("ip:10.0.0.1");
+        buckets.tryAcquire("ip:10.0.0.2");
+
+        // Act & Assert
+        assertEquals(1000, buckets.tryAcquire("ip:10.0.0.3"));
+        assertEquals(0, buckets.tryAcquire("ip:10.0.0.1"));
+        assertEquals(2, buckets.size());
+    }
+
+    @Test
+    void tryAcquire_Concurrently_ShouldGrantExactlyCapacity() throws Exception {
+        // Arrange
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        try {
+            for (Future<?> future : IntStream.range(0, 100)
+                    .mapToObj(i -> executor.submit(() -> {
+                        if (buckets.tryAcquire("user:84438967-f68f-4fa0-b620-0f08217e76af") == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }))
+                    .toList()) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertEquals(3, granted.get());
+    }
+}
@@ -0,0 +1,90 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.BookingResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimePage;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads an in-memory database holding the archive tables of the V6 migration
+ */
+public class ArchiveServiceTest {
+
+    private static final Instant START = Instant.parse("2024-01-05T10:00:00Z");
+
+    private ArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:archive;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS showtime_archive");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS booking_archive");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V6__archive_tables.sql")).execute(dataSource);
+        for (long id = 1; id <= 3; id++) {
+            Instant start = START.plusSeconds(86400 * id);
+            jdbcTemplate.update("INSERT INTO showtime_archive (id, movie_id, theater, start_time, end_time, price) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", id, id == 3 ? 2L : 1L, "Theater 1",
+                    Timestamp.from(start), Timestamp.from(start.plusSeconds(9000)), 12.50);
+        }
+        jdbcTemplate.update("INSERT INTO booking_archive (id, showtime_id, user_id, seat_number, booking_time) "
+                + "VALUES (?, ?, ?, ?, ?)", "d1a6423b-4469-4b00-8c5f-e3cfc42eacae", 1L,
+                "84438967-f68f-4fa0-b620-0f08217e76af", 15, Timestamp.from(START));
+        archiveService = new ArchiveService(jdbcTemplate);
+    }
+
+    @Test
+    void findShowtimes_ShouldPageInStartTimeOrder() {
+        // Act
+        ShowtimePage first = archiveService.findShowtimes(null, null, null, null, null, 2);
+        ShowtimePage second = archiveService.findShowtimes(null, null, null, null, first.nextCursor(), 2);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), first.showtimes().stream().map(ShowtimeResponse::id).toList());
+        assertNotNull(first.nextCursor());
+        assertEquals(List.of(3L), second.showtimes().stream().map(ShowtimeResponse::id).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void findShowtimes_WithMovieAndWindow_ShouldFilter() {
+        // Act
+        ShowtimePage page = archiveService.findShowtimes(1L, "Theater 1", START.plusSeconds(86400 * 2), null, null, 10);
+
+        // Assert
+        assertEquals(List.of(2L), page.showtimes().stream().map(ShowtimeResponse::id).toList());
+        assertEquals(12.50, page.showtimes().get(0).price());
+    }
+
+    @Test
+    void findShowtimes_WithInvalidLimit_ShouldThrowException() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> archiveService.findShowtimes(null, null, null, null, null, 0));
+        assertEquals("Limit must be between 1 and 500", exception.getMessage());
+    }
+
+    @Test
+    void getBookingsByShowtimeId_ShouldReturnArchivedBookings() {
+        // Act
+        List<BookingResponse> bookings = archiveService.getBookingsByShowtimeId(1L);
+
+        // Assert
+        assertEquals(1, bookings.size());
+        assertEquals(15, bookings.get(0).seatNumber());
+        assertEquals(START, bookings.get(0).bookingTime());
+        assertTrue(archiveService.getBookingsByShowtimeId(2L).isEmpty());
+    }
+}
@@ -0,0 +1,192 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.BookingGroupCommitProperties;
+import com.att.tdp.popcorn_palace.model.Booking;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingGroupCommitTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BookingGroupCommit groupCommit;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        groupCommit.shutdown();
+    }
+
+    @Test
+    void insert_ConcurrentBookings_ShouldShareOneBatch() {
+        // Arrange
+        // A long wait, so the batch closes only once it is full
+        start(3, Duration.ofSeconds(5));
+        when(jdbcTemplate.batchUpdate(eq(BookingGroupCommit.INSERT_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[] {1, 1, 1});
+
+        // Act
+        List<CompletableFuture<Boolean>> results = IntStream.rangeClosed(1, 3)
+                .mapToObj(seat -> CompletableFuture.supplyAsync(() -> groupCommit.insert(booking("booking-" + seat, seat))))
+                .toList();
+
+        // Assert
+        results.forEach(result -> assertTrue(result.join()));
+        ArgumentCaptor<BatchPreparedStatementSetter> setter = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(BookingGroupCommit.INSERT_SQL), setter.capture());
+        assertEquals(3, setter.getValue().getBatchSize());
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+
+    @Test
+    void insert_SameSeatInOneBatch_ShouldConflictWithoutInsert() {
+        // Arrange
+        start(2, Duration.ofSeconds(5));
+        when(jdbcTemplate.batchUpdate(eq(BookingGroupCommit.INSERT_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[] {1});
+
+        // Act
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> groupCommit.insert(booking("booking-1", 15)));
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(() -> groupCommit.insert(booking("booking-2", 15)));
+
+        // Assert
+        assertEquals(List.of(false, true), List.of(first.join(), second.join()).stream().sorted().toList());
+        ArgumentCaptor<BatchPreparedStatementSetter> setter = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(BookingGroupCommit.INSERT_SQL), setter.capture());
+        assertEquals(1, setter.getValue().getBatchSize());
+    }
+
+    @Test
+    void insert_WithTakenSeat_ShouldReturnFalse() {
+        // Arrange
+        start(1, Duration.ZERO);
+        when(jdbcTemplate.batchUpdate(eq(BookingGroupCommit.INSERT_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenReturn(new int[] {0});
+
+        // Act & Assert
+        assertFalse(groupCommit.insert(booking("booking-1", 15)));
+    }
+
+    @Test
+    void insert_WhenBatchFails_ShouldRetryAlone() {
+        // Arrange
+        start(1, Duration.ZERO);
+        when(jdbcTemplate.batchUpdate(eq(BookingGroupCommit.INSERT_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("fk_booking_showtime"));
+        when(jdbcTemplate.update(eq(BookingGroupCommit.INSERT_SQL), any(), any(), any(), any(), any(), any())).thenReturn(1);
+
+        // Act & Assert
+        assertTrue(groupCommit.insert(booking("booking-1", 15)));
+    }
+
+    @Test
+    void insert_InterruptedWhileQueued_ShouldWithdrawClaim() throws Exception {
+        // Arrange
+        // The committer is not started, so the claim stays queued
+        groupCommit = new BookingGroupCommit(jdbcTemplate, transactionTemplate,
+                new BookingGroupCommitProperties(true, 1, Duration.ZERO), null);
+        CompletableFuture<RuntimeException> failure = new CompletableFuture<>();
+        Thread caller = new Thread(() -> {
+            try {
+                groupCommit.insert(booking("booking-1", 15));
+            } catch (RuntimeException e) {
+                failure.complete(e);
+            }
+        });
+        caller.start();
+
+        // Act
+        awaitWaiting(caller);
+        caller.interrupt();
+        caller.join(5000);
+
+        // Assert
+        assertInstanceOf(IllegalStateException.class, failure.getNow(null));
+        groupCommit.start();
+        groupCommit.shutdown();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void insert_InterruptedWhileCommitting_ShouldAwaitOutcome() throws Exception {
+        // Arrange
+        start(1, Duration.ZERO);
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.batchUpdate(eq(BookingGroupCommit.INSERT_SQL), any(BatchPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    committing.countDown();
+                    release.await();
+                    return new int[] {1};
+                });
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        CompletableFuture<Boolean> interrupted = new CompletableFuture<>();
+        Thread caller = new Thread(() -> {
+            result.complete(groupCommit.insert(booking("booking-1", 15)));
+            interrupted.complete(Thread.currentThread().isInterrupted());
+        });
+        caller.start();
+
+        // Act
+        assertTrue(committing.await(5, TimeUnit.SECONDS));
+        caller.interrupt();
+        release.countDown();
+        caller.join(5000);
+
+        // Assert
+        assertTrue(result.getNow(false));
+        assertTrue(interrupted.getNow(false));
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void start(int maxBatchSize, Duration maxWait) {
+        groupCommit = new BookingGroupCommit(jdbcTemplate, transactionTemplate,
+                new BookingGroupCommitProperties(true, maxBatchSize, maxWait), null);
+        groupCommit.start();
+    }
+
+    private static Booking booking(String id, int seatNumber) {
+        Booking booking = new Booking(id, 1L, "84438967-f68f-4fa0-b620-0f08217e76af", seatNumber);
+        booking.setShowtimeStart(Instant.parse("2025-04-01T10:00:00Z"));
+        return booking;
+    }
+}
@@ -0,0 +1,146 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.model.Booking;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingJournalTest {
+
+    private static final int CAPACITY = 4096;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void recover_AfterCrash_ShouldReturnDurableBookings() throws IOException {
+        // Arrange
+        Booking first = booking(1);
+        Booking second = booking(2);
+        try (BookingJournal journal = new BookingJournal(directory, CAPACITY)) {
+            journal.recover();
+            journal.append(first);
+            journal.awaitDurable(journal.append(second));
+            // Closed without a checkpoint, as if the process died before the database write
+        }
+
+        // Act
+        List<BookingJournal.Entry> recovered;
+        try (BookingJournal journal = new BookingJournal(directory, CAPACITY)) {
+            recovered = journal.recover();
+        }
+
+        // Assert
+        assertEquals(List.of(1L, 2L), recovered.stream().map(BookingJournal.Entry::seq).toList());
+        assertEquals(first.toString(), recovered.get(0).booking().toString());
+        assertEquals(second.toString(), recovered.get(1).booking().toString());
+        assertEquals(first.getShowtimeStart(), recovered.get(0).booking().getShowtimeStart());
+    }
+
+    @Test
+    void recover_AfterCheckpoint_ShouldSkipFlushedBookings() throws IOException {
+        // Arrange
+        try (BookingJournal journal = new BookingJournal(directory, CAPACITY)) {
+            journal.recover();
+            journal.append(booking(1));
+            journal.append(booking(2));
+            journal.awaitDurable(journal.append(booking(3)));
+            journal.checkpoint(2);
+        }
+
+        // Act
+        List<BookingJournal.Entry> recovered;
+        try (BookingJournal journal = new BookingJournal(directory, CAPACITY)) {
+            recovered = journal.recover();
+        }
+
+        // Assert
+        assertEquals(1, recovered.size());
+        assertEquals(3, recovered.get(0).seq());
+        assertEquals(3, recovered.get(0).booking().getSeatNumber());
+    }
+
+    @Test
+    void recover_WithTornRecord_ShouldStopBeforeIt() throws IOException {
+        // Arrange
+        try (BookingJournal journal = new BookingJournal(directory, CAPACITY)) {
+            journal.recover();
+            journal.append(booking(1));
+            journal.awaitDurable(journal.append(booking(2)));
+        }
+        // Damage the body of the second record, as a write cut short by a power loss would
+        try (FileChannel channel = FileChannel.open(directory.resolve("booking-journal-0.log"),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(length, Long.BYTES);
+            int second = Long.BYTES + 2 * Integer.BYTES + length.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[] {0x7F, 0x7F}), second + 2 * Integer.BYTES + Long.BYTES);
+        }
+
+        // Act
+        List<BookingJournal.Entry> recovered;
+        try (BookingJournal journal = new BookingJournal(directory, CAPACITY)) {
+            recovered = journal.recover();
+        }
+
+        // Assert
+        assertEquals(List.of(1L), recovered.stream().map(BookingJournal.Entry::seq).toList());
+    }
+
+    @Test
+    void append_WhenBothSegmentsFull_ShouldWaitForCheckpoint() throws IOException {
+        try (BookingJournal journal = new BookingJournal(directory, 1024)) {
+            // Arrange
+            journal.recover();
+            long last = 0;
+            long seq;
+            while ((seq = journal.append(booking((int) last + 1))) > 0) {
+                last = seq;
+            }
+
+            // Act
+            journal.checkpoint(last);
+
+            // Assert
+            assertEquals(last + 1, journal.append(booking(1)));
+        }
+    }
+
+    @Test
+    void recover_WithNulAndSupplementaryCharacters_ShouldKeepUserId() throws IOException {
+        // Arrange
+        // writeUTF encodes NUL as two bytes and a supplementary character as two three-byte surrogates
+        String userId = "user\u0000🍿";
+        Booking booking = new Booking("booking-1", 1L, userId, 1);
+        booking.setShowtimeStart(Instant.parse("2025-04-01T10:00:00Z"));
+        try (BookingJournal journal = new BookingJournal(directory, CAPACITY)) {
+            journal.recover();
+            journal.awaitDurable(journal.append(booking));
+        }
+
+        // Act
+        List<BookingJournal.Entry> recovered;
+        try (BookingJournal journal = new BookingJournal(directory, CAPACITY)) {
+            recovered = journal.recover();
+        }
+
+        // Assert
+        assertEquals(1, recovered.size());
+        assertEquals(userId, recovered.get(0).booking().getUserId());
+    }
+
+    private static Booking booking(int seatNumber) {
+        Booking booking = new Booking("booking-" + seatNumber, 1L, "84438967-f68f-4fa0-b620-0f08217e76af", seatNumber);
+        booking.setShowtimeStart(Instant.parse("2025-04-01T10:00:00Z"));
+        return booking;
+    }
+}
@@ -0,0 +1,160 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.BookingOutboxProperties;
+import com.att.tdp.popcorn_palace.dto.BookingEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingOutboxDispatcherTest {
+
+    private static final Instant NOW = Instant.parse("2025-04-01T10:00:05Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private BookingEventSink sink;
+
+    private BookingOutboxDispatcher dispatcher;
+
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            inTransaction.set(true);
+            try {
+                return invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            } finally {
+                inTransaction.set(false);
+            }
+        });
+        lenient().when(jdbcTemplate.queryForObject(BookingOutboxDispatcher.LIVE_CLAIMS_SQL, Integer.class)).thenReturn(0);
+        BookingOutboxProperties properties = new BookingOutboxProperties(true, BookingOutboxProperties.Sink.FILE,
+                Path.of("unused.ndjson"), null, Duration.ofSeconds(5), 2, Duration.ofMillis(200), Duration.ZERO,
+                Duration.ofMinutes(1));
+        dispatcher = new BookingOutboxDispatcher(jdbcTemplate, transactionTemplate, sink, properties,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatchBatch_ShouldClaimThenDeliverOutsideTransactionThenDelete() throws IOException {
+        // Arrange
+        List<BookingEvent> events = List.of(event(1, 10L), event(2, 11L));
+        when(jdbcTemplate.query(eq(BookingOutboxDispatcher.BATCH_SQL), any(RowMapper.class), eq(2))).thenReturn(events);
+        doAnswer(invocation -> {
+            assertFalse(inTransaction.get());
+            return null;
+        }).when(sink).deliver(events);
+
+        // Act
+        int delivered = dispatcher.dispatchBatch();
+
+        // Assert
+        assertEquals(2, delivered);
+        InOrder order = inOrder(sink, jdbcTemplate);
+        order.verify(jdbcTemplate).update(BookingOutboxDispatcher.CLAIM_SQL + "(?, ?)", 60.0, 1L, 2L);
+        order.verify(sink).deliver(events);
+        order.verify(jdbcTemplate).update(BookingOutboxDispatcher.DELETE_SQL + "(?, ?)", 1L, 2L);
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+
+    @Test
+    void dispatchBatch_WhileAnotherNodeHoldsClaim_ShouldNotDeliver() {
+        // Arrange
+        when(jdbcTemplate.query(eq(BookingOutboxDispatcher.BATCH_SQL), any(RowMapper.class), eq(2)))
+                .thenReturn(List.of(event(1, 10L), event(2, 11L)));
+        when(jdbcTemplate.queryForObject(BookingOutboxDispatcher.LIVE_CLAIMS_SQL, Integer.class)).thenReturn(2);
+
+        // Act
+        int delivered = dispatcher.dispatchBatch();
+
+        // Assert
+        assertEquals(0, delivered);
+        verifyNoInteractions(sink);
+        verify(jdbcTemplate, never()).update(startsWith(BookingOutboxDispatcher.CLAIM_SQL), any(Object[].class));
+    }
+
+    @Test
+    void dispatch_ShouldDrainFullBatchesUntilOutboxIsEmpty() throws IOException {
+        // Arrange
+        when(jdbcTemplate.query(eq(BookingOutboxDispatcher.BATCH_SQL), any(RowMapper.class), eq(2)))
+                .thenReturn(List.of(event(1, 10L), event(2, 10L)), List.of(event(3, 10L)));
+
+        // Act
+        int delivered = dispatcher.dispatch();
+
+        // Assert
+        assertEquals(3, delivered);
+        verify(sink, times(2)).deliver(any());
+    }
+
+    @Test
+    void dispatch_WhenSinkFails_ShouldReleaseEventsInOutbox() throws IOException {
+        // Arrange
+        when(jdbcTemplate.query(eq(BookingOutboxDispatcher.BATCH_SQL), any(RowMapper.class), eq(2)))
+                .thenReturn(List.of(event(1, 10L)));
+        doThrow(new IOException("disk full")).when(sink).deliver(any());
+
+        // Act
+        int delivered = dispatcher.dispatch();
+
+        // Assert
+        assertEquals(0, delivered);
+        verify(jdbcTemplate, times(1)).query(eq(BookingOutboxDispatcher.BATCH_SQL), any(RowMapper.class), eq(2));
+        // Nothing was deleted, and the released batch is delivered again ahead of anything newer
+        verify(jdbcTemplate, times(1)).update(BookingOutboxDispatcher.RELEASE_SQL + "(?)", 1L);
+        verify(jdbcTemplate, never()).update(startsWith(BookingOutboxDispatcher.DELETE_SQL), any(Object[].class));
+    }
+
+    @Test
+    void dispatchBatch_WithEmptyOutbox_ShouldNotCallSink() {
+        // Arrange
+        when(jdbcTemplate.query(eq(BookingOutboxDispatcher.BATCH_SQL), any(RowMapper.class), eq(2))).thenReturn(List.of());
+
+        // Act
+        int delivered = dispatcher.dispatchBatch();
+
+        // Assert
+        assertEquals(0, delivered);
+        verifyNoInteractions(sink);
+    }
+
+    private static BookingEvent event(long id, Long showtimeId) {
+        return new BookingEvent(id, BookingEvent.Type.BOOKING_CREATED, "booking-" + id, showtimeId,
+                "84438967-f68f-4fa0-b620-0f08217e76af", (int) id, NOW.minusSeconds(5));
+    }
+}
@@ -1,5 +1,9 @@
 package com.att.tdp.popcorn_palace.service;
 
+import com.att.tdp.popcorn_palace.dto.BookingResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.dto.UserBookingPage;
+import com.att.tdp.popcorn_palace.dto.UserBookingResponse;
 import com.att.tdp.popcorn_palace.model.Booking;
 import com.att.tdp.popcorn_palace.repository.BookingRepository;
 import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
@@ -9,7 +13,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +30,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class BookingServiceTest {
 
+    private static final Instant SHOWTIME_START = Instant.parse("2025-04-01T10:00:00Z");
+
     @Mock
     private BookingRepository bookingRepository;
 
@@ -43,72 +53,73 @@ public class BookingServiceTest {
     @Test
     void getAllBookings_ShouldReturnAllBookings() {
         // Arrange
-        List<Booking> expectedBookings = Arrays.asList(
-                booking,
-                new Booking(UUID.randomUUID().toString(), 1L, "84438967-f68f-4fa0-b620-0f08217e76af", 16)
+        List<BookingResponse> expectedBookings = Arrays.asList(
+                BookingResponse.from(booking),
+                BookingResponse.from(new Booking(UUID.randomUUID().toString(), 1L, "84438967-f68f-4fa0-b620-0f08217e76af", 16))
         );
-        when(bookingRepository.findAll()).thenReturn(expectedBookings);
+        when(bookingRepository.findAllResponses()).thenReturn(expectedBookings);
 
         // Act
-        List<Booking> actualBookings = bookingService.getAllBookings();
+        List<BookingResponse> actualBookings = bookingService.getAllBookings();
 
         // Assert
         assertEquals(expectedBookings.size(), actualBookings.size());
         assertEquals(expectedBookings, actualBookings);
-        verify(bookingRepository, times(1)).findAll();
+        verify(bookingRepository, times(1)).findAllResponses();
+        verify(bookingRepository, never()).findAll();
     }
 
     @Test
     void getBookingById_WithExistingId_ShouldReturnBooking() {
         // Arrange
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findResponseById(bookingId)).thenReturn(Optional.of(BookingResponse.from(booking)));
 
         // Act
-        Optional<Booking> result = bookingService.getBookingById(bookingId);
+        Optional<BookingResponse> result = bookingService.getBookingById(bookingId);
 
         // Assert
         assertTrue(result.isPresent());
-        assertEquals(booking, result.get());
-        verify(bookingRepository, times(1)).findById(bookingId);
+        assertEquals(BookingResponse.from(booking), result.get());
+        verify(bookingRepository, times(1)).findResponseById(bookingId);
     }
 
     @Test
     void getBookingById_WithNonExistingId_ShouldReturnEmptyOptional() {
         // Arrange
         String nonExistingId = UUID.randomUUID().toString();
-        when(bookingRepository.findById(nonExistingId)).thenReturn(Optional.empty());
+        when(bookingRepository.findResponseById(nonExistingId)).thenReturn(Optional.empty());
 
         // Act
-        Optional<Booking> result = bookingService.getBookingById(nonExistingId);
+        Optional<BookingResponse> result = bookingService.getBookingById(nonExistingId);
 
         // Assert
         assertFalse(result.isPresent());
-        verify(bookingRepository, times(1)).findById(nonExistingId);
+        verify(bookingRepository, times(1)).findResponseById(nonExistingId);
     }
 
     @Test
     void getBookingsByShowtimeId_ShouldReturnBookingsForShowtime() {
         // Arrange
-        List<Booking> expectedBookings = Arrays.asList(
-                booking,
-                new Booking(UUID.randomUUID().toString(), 1L, "84438967-f68f-4fa0-b620-0f08217e76af", 16)
+        List<BookingResponse> expectedBookings = Arrays.asList(
+                BookingResponse.from(booking),
+                BookingResponse.from(new Booking(UUID.randomUUID().toString(), 1L, "84438967-f68f-4fa0-b620-0f08217e76af", 16))
         );
-        when(bookingRepository.findByShowtimeId(1L)).thenReturn(expectedBookings);
+        when(bookingRepository.findResponsesByShowtimeId(1L)).thenReturn(expectedBookings);
 
         // Act
-        List<Booking> actualBookings = bookingService.getBookingsByShowtimeId(1L);
+        List<BookingResponse> actualBookings = bookingService.getBookingsByShowtimeId(1L);
 
         // Assert
         assertEquals(expectedBookings.size(), actualBookings.size());
         assertEquals(expectedBookings, actualBookings);
-        verify(bookingRepository, times(1)).findByShowtimeId(1L);
+        verify(bookingRepository, times(1)).findResponsesByShowtimeId(1L);
     }
 
     @Test
     void createBooking_WithValidData_ShouldSaveAndReturnBooking() {
         // Arrange
-        when(showtimeRepository.existsById(1L)).thenReturn(true);
-        when(bookingRepository.existsByShowtimeIdAndSeatNumber(1L, 15)).thenReturn(false);
+        when(showtimeRepository.findStartTimeById(1L)).thenReturn(Optional.of(SHOWTIME_START));
+        when(bookingRepository.existsByShowtimeIdAndShowtimeStartAndSeatNumber(1L, SHOWTIME_START, 15)).thenReturn(false);
         when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         // Act
@@ -116,37 +127,38 @@ public class BookingServiceTest {
 
         // Assert
         assertEquals(booking, result);
-        verify(showtimeRepository, times(1)).existsById(1L);
-        verify(bookingRepository, times(1)).existsByShowtimeIdAndSeatNumber(1L, 15);
+        verify(showtimeRepository, times(1)).findStartTimeById(1L);
+        verify(bookingRepository, times(1)).existsByShowtimeIdAndShowtimeStartAndSeatNumber(1L, SHOWTIME_START, 15);
         verify(bookingRepository, times(1)).save(booking);
+        assertEquals(SHOWTIME_START, booking.getShowtimeStart());
     }
 
     @Test
     void createBooking_WithNonExistingShowtime_ShouldThrowException() {
         // Arrange
-        when(showtimeRepository.existsById(1L)).thenReturn(false);
+        when(showtimeRepository.findStartTimeById(1L)).thenReturn(Optional.empty());
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> bookingService.createBooking(booking));
         assertEquals("Showtime with ID 1 does not exist", exception.getMessage());
-        verify(showtimeRepository, times(1)).existsById(1L);
-        verify(bookingRepository, never()).existsByShowtimeIdAndSeatNumber(anyLong(), anyInt());
+        verify(showtimeRepository, times(1)).findStartTimeById(1L);
+        verify(bookingRepository, never()).existsByShowtimeIdAndShowtimeStartAndSeatNumber(anyLong(), any(), anyInt());
         verify(bookingRepository, never()).save(any());
     }
 
     @Test
     void createBooking_WithAlreadyBookedSeat_ShouldThrowException() {
         // Arrange
-        when(showtimeRepository.existsById(1L)).thenReturn(true);
-        when(bookingRepository.existsByShowtimeIdAndSeatNumber(1L, 15)).thenReturn(true);
+        when(showtimeRepository.findStartTimeById(1L)).thenReturn(Optional.of(SHOWTIME_START));
+        when(bookingRepository.existsByShowtimeIdAndShowtimeStartAndSeatNumber(1L, SHOWTIME_START, 15)).thenReturn(true);
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> bookingService.createBooking(booking));
         assertEquals("Seat 15 is already booked for this showtime", exception.getMessage());
-        verify(showtimeRepository, times(1)).existsById(1L);
-        verify(bookingRepository, times(1)).existsByShowtimeIdAndSeatNumber(1L, 15);
+        verify(showtimeRepository, times(1)).findStartTimeById(1L);
+        verify(bookingRepository, times(1)).existsByShowtimeIdAndShowtimeStartAndSeatNumber(1L, SHOWTIME_START, 15);
         verify(bookingRepository, never()).save(any());
     }
 
@@ -154,8 +166,8 @@ public class BookingServiceTest {
     void createBooking_WithNullId_ShouldGenerateIdAndSave() {
         // Arrange
         Booking bookingWithoutId = new Booking(null, 1L, "84438967-f68f-4fa0-b620-0f08217e76af", 15);
-        when(showtimeRepository.existsById(1L)).thenReturn(true);
-        when(bookingRepository.existsByShowtimeIdAndSeatNumber(1L, 15)).thenReturn(false);
+        when(showtimeRepository.findStartTimeById(1L)).thenReturn(Optional.of(SHOWTIME_START));
+        when(bookingRepository.existsByShowtimeIdAndShowtimeStartAndSeatNumber(1L, SHOWTIME_START, 15)).thenReturn(false);
         when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
             Booking savedBooking = invocation.getArgument(0);
             assertNotNull(savedBooking.getId());
@@ -167,39 +179,193 @@ public class BookingServiceTest {
 
         // Assert
         assertNotNull(result.getId());
-        verify(showtimeRepository, times(1)).existsById(1L);
-        verify(bookingRepository, times(1)).existsByShowtimeIdAndSeatNumber(1L, 15);
+        verify(showtimeRepository, times(1)).findStartTimeById(1L);
+        verify(bookingRepository, times(1)).existsByShowtimeIdAndShowtimeStartAndSeatNumber(1L, SHOWTIME_START, 15);
         verify(bookingRepository, times(1)).save(any(Booking.class));
     }
 
+    @Test
+    void createBooking_WithClientId_ShouldReplaceIt() {
+        // Arrange
+        when(showtimeRepository.findStartTimeById(1L)).thenReturn(Optional.of(SHOWTIME_START));
+        when(bookingRepository.existsByShowtimeIdAndShowtimeStartAndSeatNumber(1L, SHOWTIME_START, 15)).thenReturn(false);
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Booking result = bookingService.createBooking(booking);
+
+        // Assert
+        assertNotEquals(bookingId, result.getId());
+        assertEquals(UUID.fromString(result.getId()).toString(), result.getId());
+    }
+
+    @Test
+    void createBooking_WithWriteBehind_ShouldSubmitInsteadOfSave() {
+        // Arrange
+        WriteBehindBookingWriter writeBehind = mock(WriteBehindBookingWriter.class);
+        BookingService writeBehindService = new BookingService(bookingRepository, showtimeRepository, writeBehind, null, null, null);
+        when(showtimeRepository.findStartTimeById(1L)).thenReturn(Optional.of(SHOWTIME_START));
+
+        // Act
+        Booking result = writeBehindService.createBooking(booking);
+
+        // Assert
+        assertEquals(booking, result);
+        verify(writeBehind, times(1)).submit(booking);
+        verify(bookingRepository, never()).existsByShowtimeIdAndShowtimeStartAndSeatNumber(anyLong(), any(), anyInt());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void createBooking_WithGroupCommit_ShouldInsertWithoutSeatQuery() {
+        // Arrange
+        BookingGroupCommit groupCommit = mock(BookingGroupCommit.class);
+        BookingService batchingService = new BookingService(bookingRepository, showtimeRepository, null, groupCommit, null, null);
+        when(showtimeRepository.findStartTimeById(1L)).thenReturn(Optional.of(SHOWTIME_START));
+        when(groupCommit.insert(booking)).thenReturn(true);
+
+        // Act
+        Booking result = batchingService.createBooking(booking);
+
+        // Assert
+        assertEquals(booking, result);
+        verify(bookingRepository, never()).existsByShowtimeIdAndShowtimeStartAndSeatNumber(anyLong(), any(), anyInt());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void createBooking_WithGroupCommitConflict_ShouldThrowException() {
+        // Arrange
+        BookingGroupCommit groupCommit = mock(BookingGroupCommit.class);
+        BookingService batchingService = new BookingService(bookingRepository, showtimeRepository, null, groupCommit, null, null);
+        when(showtimeRepository.findStartTimeById(1L)).thenReturn(Optional.of(SHOWTIME_START));
+        when(groupCommit.insert(booking)).thenReturn(false);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> batchingService.createBooking(booking));
+        assertEquals("Seat 15 is already booked for this showtime", exception.getMessage());
+    }
+
     @Test
     void deleteBooking_WithExistingId_ShouldReturnTrue() {
         // Arrange
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        doNothing().when(bookingRepository).deleteById(bookingId);
+        when(bookingRepository.removeById(bookingId)).thenReturn(1);
 
         // Act
         boolean result = bookingService.deleteBooking(bookingId);
 
         // Assert
         assertTrue(result);
-        verify(bookingRepository, times(1)).findById(bookingId);
-        verify(bookingRepository, times(1)).deleteById(bookingId);
+        verify(bookingRepository, times(1)).removeById(bookingId);
+        verify(bookingRepository, never()).findById(any());
     }
 
     @Test
     void deleteBooking_WithNonExistingId_ShouldReturnFalse() {
         // Arrange
         String nonExistingId = UUID.randomUUID().toString();
-        when(bookingRepository.findById(nonExistingId)).thenReturn(Optional.empty());
+        when(bookingRepository.removeById(nonExistingId)).thenReturn(0);
 
         // Act
         boolean result = bookingService.deleteBooking(nonExistingId);
 
         // Assert
         assertFalse(result);
-        verify(bookingRepository, times(1)).findById(nonExistingId);
-        verify(bookingRepository, never()).deleteById(any());
+        verify(bookingRepository, times(1)).removeById(nonExistingId);
     }
-}
 
+    @Test
+    void createBooking_WithOutbox_ShouldRecordEventInTheSameTransaction() {
+        // Arrange
+        BookingOutbox outbox = mock(BookingOutbox.class);
+        BookingService outboxService = new BookingService(bookingRepository, showtimeRepository, null, null,
+                inlineTransactions(), outbox);
+        when(showtimeRepository.findStartTimeById(1L)).thenReturn(Optional.of(SHOWTIME_START));
+        when(bookingRepository.existsByShowtimeIdAndShowtimeStartAndSeatNumber(1L, SHOWTIME_START, 15)).thenReturn(false);
+        when(bookingRepository.save(booking)).thenReturn(booking);
+
+        // Act
+        Booking result = outboxService.createBooking(booking);
+
+        // Assert
+        assertEquals(booking, result);
+        verify(outbox, times(1)).bookingsCreated(List.of(booking));
+    }
+
+    @Test
+    void deleteBooking_WithOutbox_ShouldRecordCancellation() {
+        // Arrange
+        BookingOutbox outbox = mock(BookingOutbox.class);
+        BookingService outboxService = new BookingService(bookingRepository, showtimeRepository, null, null,
+                inlineTransactions(), outbox);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.removeById(bookingId)).thenReturn(1);
+
+        // Act
+        boolean result = outboxService.deleteBooking(bookingId);
+
+        // Assert
+        assertTrue(result);
+        verify(outbox, times(1)).bookingCancelled(booking);
+    }
+
+    @Test
+    void deleteBooking_WithOutboxAndNonExistingId_ShouldRecordNothing() {
+        // Arrange
+        BookingOutbox outbox = mock(BookingOutbox.class);
+        BookingService outboxService = new BookingService(bookingRepository, showtimeRepository, null, null,
+                inlineTransactions(), outbox);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+
+        // Act
+        boolean result = outboxService.deleteBooking(bookingId);
+
+        // Assert
+        assertFalse(result);
+        verify(bookingRepository, never()).removeById(any());
+        verifyNoInteractions(outbox);
+    }
+
+    @Test
+    void getBookingsByUserId_ShouldPageNewestFirst() {
+        // Arrange
+        String userId = "84438967-f68f-4fa0-b620-0f08217e76af";
+        ShowtimeResponse showtime = new ShowtimeResponse(1L, 1L, "Theater 1",
+                Instant.parse("2025-04-01T10:00:00Z"), Instant.parse("2025-04-01T12:30:00Z"), 12.50);
+        UserBookingResponse newer = new UserBookingResponse("b", 16, Instant.parse("2025-03-02T10:00:00Z"), showtime);
+        UserBookingResponse older = new UserBookingResponse("a", 15, Instant.parse("2025-03-01T10:00:00Z"), showtime);
+        when(bookingRepository.findPageByUserId(userId, Instant.parse("9999-12-31T23:59:59Z"), "", Limit.of(2)))
+                .thenReturn(List.of(newer, older));
+        when(bookingRepository.findPageByUserId(userId, newer.bookingTime(), "b", Limit.of(2)))
+                .thenReturn(List.of(older));
+
+        // Act
+        UserBookingPage first = bookingService.getBookingsByUserId(userId, null, 1);
+        UserBookingPage second = bookingService.getBookingsByUserId(userId, first.nextCursor(), 1);
+
+        // Assert
+        assertEquals(List.of(newer), first.bookings());
+        assertNotNull(first.nextCursor());
+        assertEquals(List.of(older), second.bookings());
+        assertNull(second.nextCursor());
+        verifyNoInteractions(showtimeRepository);
+    }
+
+    @Test
+    void getBookingsByUserId_WithInvalidArguments_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> bookingService.getBookingsByUserId("u", null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.getBookingsByUserId("u", null, BookingService.MAX_PAGE_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.getBookingsByUserId("u", "!!", 10));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    private static TransactionTemplate inlineTransactions() {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        return transactionTemplate;
+    }
+}
@@ -0,0 +1,64 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.CatalogBusProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two buses on one PostgreSQL database, standing in for two nodes
+ * Run with a local database (see compose.yml): mvn test -Dgroups=postgres -DexcludedGroups= -Dtest=CatalogChangeBusPostgresTest
+ */
+@Tag("postgres")
+public class CatalogChangeBusPostgresTest {
+
+    private final CatalogVersions firstVersions = mock(CatalogVersions.class);
+    private final CatalogVersions secondVersions = mock(CatalogVersions.class);
+
+    private CatalogChangeBus first;
+    private CatalogChangeBus second;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("postgres.url", "jdbc:postgresql://localhost:5432/popcorn-palace"),
+                System.getProperty("postgres.username", "popcorn-palace"),
+                System.getProperty("postgres.password", "popcorn-palace"));
+        CatalogBusProperties properties = new CatalogBusProperties(true, "popcorn_palace_catalog_test", Duration.ofSeconds(1));
+        first = new CatalogChangeBus(firstVersions, new JdbcTemplate(dataSource), dataSource, properties);
+        second = new CatalogChangeBus(secondVersions, new JdbcTemplate(dataSource), dataSource, properties);
+        first.start();
+        second.start();
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!(first.isListening() && second.isListening())) {
+            assertTrue(System.nanoTime() < deadline, "Listeners did not connect");
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    void onCatalogChanged_ShouldReachOnlyTheOtherNode() {
+        // Act
+        long start = System.nanoTime();
+        first.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Table.MOVIES));
+
+        // Assert
+        verify(secondVersions, timeout(2000)).remoteChanged(CatalogChangedEvent.Table.MOVIES);
+        System.out.printf("%nInvalidation delivered in %.2f ms%n", (System.nanoTime() - start) / 1e6);
+        verify(firstVersions, after(1000).never()).remoteChanged(any());
+    }
+}
@@ -0,0 +1,96 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.CatalogBusProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CatalogChangeBusTest {
+
+    private static final String CHANNEL = "popcorn_palace_catalog";
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DataSource dataSource;
+
+    private CatalogChangeBus bus;
+
+    @BeforeEach
+    void setUp() {
+        // The listener thread is not started; announcements are fed to handle directly
+        bus = new CatalogChangeBus(catalogVersions, jdbcTemplate, dataSource,
+                new CatalogBusProperties(true, CHANNEL, Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void onCatalogChanged_WithLocalWrite_ShouldNotify() {
+        // Act
+        bus.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Table.SHOWTIMES));
+
+        // Assert
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(1)).queryForList(eq(CatalogChangeBus.NOTIFY_SQL), eq(CHANNEL), payload.capture());
+        assertTrue(payload.getValue().startsWith("SHOWTIMES "));
+    }
+
+    @Test
+    void onCatalogChanged_WithRemoteWrite_ShouldNotNotifyAgain() {
+        // Act
+        bus.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Table.MOVIES, true));
+
+        // Assert
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void handle_WithOtherNodesWrite_ShouldReplayIt() {
+        // Act
+        bus.handle("MOVIES 6f1c2a9e-0000-4000-8000-000000000000");
+
+        // Assert
+        verify(catalogVersions, times(1)).remoteChanged(CatalogChangedEvent.Table.MOVIES);
+    }
+
+    @Test
+    void handle_WithOwnWrite_ShouldIgnoreIt() {
+        // Arrange
+        bus.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Table.MOVIES));
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).queryForList(eq(CatalogChangeBus.NOTIFY_SQL), eq(CHANNEL), payload.capture());
+
+        // Act
+        bus.handle(payload.getValue());
+        bus.handle("garbage");
+        bus.handle("BOOKINGS 6f1c2a9e-0000-4000-8000-000000000000");
+
+        // Assert
+        verify(catalogVersions, never()).remoteChanged(any());
+    }
+
+    @Test
+    void properties_WithChannelThatIsNotAnIdentifier_ShouldBeRejected() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new CatalogBusProperties(true,
+                "catalog; NOTIFY other", Duration.ofSeconds(5)));
+        assertThrows(IllegalArgumentException.class, () -> new CatalogBusProperties(true,
+                "Catalog", Duration.ofSeconds(5)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.att.tdp.popcorn_palace.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogVersionsTest {
+
+    private CatalogVersions catalogVersions;
+    private List<Object> events;
+
+    @BeforeEach
+    void setUp() {
+        events = new ArrayList<>();
+        catalogVersions = new CatalogVersions(events::add);
+    }
+
+    @Test
+    void movieChanged_ShouldChangeOnlyMovieTag() {
+        // Arrange
+        String movieTag = catalogVersions.getMovieTag();
+        String showtimeTag = catalogVersions.getShowtimeTag();
+
+        // Act
+        catalogVersions.movieChanged();
+
+        // Assert
+        assertNotEquals(movieTag, catalogVersions.getMovieTag());
+        assertEquals(showtimeTag, catalogVersions.getShowtimeTag());
+        assertEquals(List.of(new CatalogChangedEvent(CatalogChangedEvent.Table.MOVIES)), events);
+    }
+
+    @Test
+    void showtimeChanged_ShouldChangeOnlyShowtimeTag() {
+        // Arrange
+        String movieTag = catalogVersions.getMovieTag();
+        String showtimeTag = catalogVersions.getShowtimeTag();
+
+        // Act
+        catalogVersions.showtimeChanged();
+
+        // Assert
+        assertEquals(movieTag, catalogVersions.getMovieTag());
+        assertNotEquals(showtimeTag, catalogVersions.getShowtimeTag());
+        assertEquals(List.of(new CatalogChangedEvent(CatalogChangedEvent.Table.SHOWTIMES)), events);
+    }
+
+    @Test
+    void remoteChanged_ShouldChangeTagAndPublishRemoteEvent() {
+        // Arrange
+        String showtimeTag = catalogVersions.getShowtimeTag();
+
+        // Act
+        catalogVersions.remoteChanged(CatalogChangedEvent.Table.SHOWTIMES);
+
+        // Assert
+        assertNotEquals(showtimeTag, catalogVersions.getShowtimeTag());
+        assertEquals(List.of(new CatalogChangedEvent(CatalogChangedEvent.Table.SHOWTIMES, true)), events);
+    }
+
+    @Test
+    void getTags_WithoutWrites_ShouldBeStable() {
+        // Assert
+        assertEquals(catalogVersions.getMovieTag(), catalogVersions.getMovieTag());
+        assertNotEquals(catalogVersions.getMovieTag(), catalogVersions.getShowtimeTag());
+    }
+}
@@ -0,0 +1,79 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.ClusterProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ClusterMembershipTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ClusterMembership membership;
+
+    @BeforeEach
+    void setUp() {
+        membership = new ClusterMembership(jdbcTemplate, new ClusterProperties(
+                true, "http://a:8080", Duration.ofSeconds(2), Duration.ofSeconds(10), 100, Duration.ofSeconds(3),
+                "0123456789abcdef0123456789abcdef"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        membership.shutdown();
+    }
+
+    @Test
+    void ownerOf_BeforeFirstHeartbeat_ShouldReturnNull() {
+        // Act & Assert
+        assertNull(membership.ownerOf(1L));
+    }
+
+    @Test
+    void heartbeat_ShouldRegisterAndAssignShowtimesToLiveMembers() {
+        // Arrange
+        ClusterMembership.Member other = new ClusterMembership.Member("node-b", "http://b:8080");
+        when(jdbcTemplate.query(eq(ClusterMembership.MEMBERS_SQL), any(RowMapper.class)))
+                .thenReturn(List.of(membership.self(), other));
+
+        // Act
+        membership.heartbeat();
+
+        // Assert
+        verify(jdbcTemplate, times(1)).update(ClusterMembership.HEARTBEAT_SQL, membership.self().nodeId(), "http://a:8080");
+        verify(jdbcTemplate, times(1)).update(ClusterMembership.EXPIRE_SQL, 10.0);
+        assertTrue(List.of(membership.self(), other).contains(membership.ownerOf(1L)));
+    }
+
+    @Test
+    void heartbeat_WhenDatabaseFails_ShouldKeepLastRing() {
+        // Arrange
+        when(jdbcTemplate.query(eq(ClusterMembership.MEMBERS_SQL), any(RowMapper.class)))
+                .thenReturn(List.of(membership.self()));
+        membership.heartbeat();
+        when(jdbcTemplate.update(ClusterMembership.HEARTBEAT_SQL, membership.self().nodeId(), "http://a:8080"))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        // Act
+        membership.heartbeat();
+
+        // Assert
+        assertEquals(membership.self(), membership.ownerOf(1L));
+    }
+}
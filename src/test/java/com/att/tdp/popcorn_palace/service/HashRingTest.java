@@ -0,0 +1,63 @@
+package com.att.tdp.popcorn_palace.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashRingTest {
+
+    private static final int SHOWTIMES = 10_000;
+
+    private final ClusterMembership.Member a = new ClusterMembership.Member("node-a", "http://a:8080");
+    private final ClusterMembership.Member b = new ClusterMembership.Member("node-b", "http://b:8080");
+    private final ClusterMembership.Member c = new ClusterMembership.Member("node-c", "http://c:8080");
+
+    @Test
+    void ownerOf_ShouldSpreadShowtimesEvenly() {
+        // Arrange
+        HashRing ring = new HashRing(List.of(a, b, c), 100);
+
+        // Act
+        Map<ClusterMembership.Member, Long> counts = LongStream.rangeClosed(1, SHOWTIMES)
+                .mapToObj(ring::ownerOf)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+        // Assert
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > SHOWTIMES / 5, "Uneven share: " + counts));
+    }
+
+    @Test
+    void ownerOf_AfterJoin_ShouldMoveShowtimesOnlyToNewMember() {
+        // Arrange
+        HashRing before = new HashRing(List.of(a, b), 100);
+        // Member order does not matter
+        HashRing after = new HashRing(List.of(c, b, a), 100);
+
+        // Act
+        long moved = 0;
+        for (long id = 1; id <= SHOWTIMES; id++) {
+            ClusterMembership.Member previous = before.ownerOf(id);
+            ClusterMembership.Member current = after.ownerOf(id);
+            if (!previous.equals(current)) {
+                assertEquals(c, current);
+                moved++;
+            }
+        }
+
+        // Assert
+        assertTrue(moved > SHOWTIMES / 5 && moved < SHOWTIMES / 2, "Moved " + moved);
+    }
+
+    @Test
+    void ownerOf_WithoutMembers_ShouldReturnNull() {
+        // Act & Assert
+        assertNull(new HashRing(List.of(), 100).ownerOf(1));
+    }
+}
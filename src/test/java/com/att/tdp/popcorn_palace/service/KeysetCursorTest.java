@@ -0,0 +1,32 @@
+package com.att.tdp.popcorn_palace.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class KeysetCursorTest {
+
+    @Test
+    void decode_ShouldReverseEncode() {
+        // Arrange
+        KeysetCursor numeric = KeysetCursor.of(Instant.parse("2025-04-01T10:00:00Z"), 42L);
+        KeysetCursor uuid = KeysetCursor.of(Instant.parse("2025-04-01T10:00:00.125Z"),
+                "d1a6423b-4469-4b00-8c5f-e3cfc42eacae");
+
+        // Act & Assert
+        assertEquals(numeric, KeysetCursor.decode(numeric.encode()));
+        assertEquals(42L, KeysetCursor.decode(numeric.encode()).longId());
+        assertEquals(uuid, KeysetCursor.decode(uuid.encode()));
+    }
+
+    @Test
+    void decode_WithMalformedCursor_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("!!"));
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.of(Instant.EPOCH, "abc").longId());
+    }
+}
@@ -0,0 +1,93 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MovieCatalogCacheTest {
+
+    @Mock
+    private MovieService movieService;
+
+    private MovieCatalogCache movieCatalogCache;
+
+    @BeforeEach
+    void setUp() {
+        movieCatalogCache = new MovieCatalogCache(movieService, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieCatalogCache.shutdown();
+    }
+
+    @Test
+    void rebuild_ShouldSerializeCatalogForCurrentTag() throws Exception {
+        // Arrange
+        when(movieService.getCatalogTag()).thenReturn("m-1-1");
+        when(movieService.getAllMovies()).thenReturn(List.of(
+                new MovieResponse(1L, "Test Movie", "Action", 120, "PG-13", 2023)));
+
+        // Act
+        movieCatalogCache.rebuild();
+        MovieCatalogCache.Snapshot snapshot = movieCatalogCache.getSnapshot("m-1-1");
+
+        // Assert
+        assertNotNull(snapshot);
+        String json = new String(snapshot.json(), StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("[{\"id\":1,\"title\":\"Test Movie\""));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.gzip()))) {
+            assertArrayEquals(snapshot.json(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void getSnapshot_WithNewerTag_ShouldReturnNull() {
+        // Arrange
+        when(movieService.getCatalogTag()).thenReturn("m-1-1");
+        when(movieService.getAllMovies()).thenReturn(List.of());
+        movieCatalogCache.rebuild();
+
+        // Act
+        MovieCatalogCache.Snapshot snapshot = movieCatalogCache.getSnapshot("m-1-2");
+
+        // Assert
+        assertNull(snapshot);
+    }
+
+    @Test
+    void onCatalogChanged_WithMovieChange_ShouldRebuildInBackground() {
+        // Arrange
+        when(movieService.getCatalogTag()).thenReturn("m-1-2");
+        when(movieService.getAllMovies()).thenReturn(List.of());
+
+        // Act
+        movieCatalogCache.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Table.MOVIES));
+
+        // Assert
+        verify(movieService, timeout(5000)).getAllMovies();
+    }
+
+    @Test
+    void onCatalogChanged_WithShowtimeChange_ShouldNotRebuild() {
+        // Act
+        movieCatalogCache.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Table.SHOWTIMES));
+
+        // Assert
+        verify(movieService, after(200).never()).getAllMovies();
+    }
+}
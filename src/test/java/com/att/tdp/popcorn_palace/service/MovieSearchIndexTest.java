@@ -0,0 +1,164 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
+import com.att.tdp.popcorn_palace.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MovieSearchIndexTest {
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    private MovieSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(movieRepository.findAllResponses()).thenReturn(List.of(
+                new MovieResponse(1L, "The Avengers", "Action", 143, "PG-13", 2012),
+                new MovieResponse(2L, "Avatar", "Sci-Fi", 162, "PG-13", 2009),
+                new MovieResponse(3L, "Amélie", "Romance", 122, "R", 2001),
+                new MovieResponse(4L, "Inception", "Sci-Fi", 148, "PG-13", 2010)));
+        searchIndex = new MovieSearchIndex(movieRepository);
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void search_WithPrefix_ShouldMatchTitleWords() {
+        // Act
+        List<MovieResponse> result = searchIndex.search("av", null, null, null, 10);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), ids(result));
+    }
+
+    @Test
+    void search_WithExactWord_ShouldRankAboveTypos() {
+        // Arrange
+        searchIndex.put(new MovieResponse(5L, "Avengers Assemble", "Action", 90, "PG", 2015));
+
+        // Act
+        List<MovieResponse> exact = searchIndex.search("avengers", null, null, null, 10);
+        List<MovieResponse> typo = searchIndex.search("avnegers", null, null, null, 10);
+
+        // Assert
+        assertEquals(List.of(5L, 1L), ids(exact));
+        assertEquals(List.of(5L, 1L), ids(typo));
+    }
+
+    @Test
+    void search_WithTypoInPrefix_ShouldMatch() {
+        // Act & Assert
+        assertEquals(List.of(4L), ids(searchIndex.search("incpe", null, null, null, 10)));
+        assertTrue(searchIndex.search("xyz", null, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void search_WithAccentsAndCase_ShouldNormalize() {
+        // Act & Assert
+        assertEquals(List.of(3L), ids(searchIndex.search("AMELIE", null, null, null, 10)));
+    }
+
+    @Test
+    void search_WithFilters_ShouldIntersect() {
+        // Act & Assert
+        assertEquals(List.of(2L, 4L), ids(searchIndex.search(null, "sci-fi", null, null, 10)));
+        assertEquals(List.of(4L), ids(searchIndex.search(null, "SCI-FI", "pg-13", 2010, 10)));
+        assertEquals(List.of(2L), ids(searchIndex.search("a", "Sci-Fi", null, null, 10)));
+        assertTrue(searchIndex.search(null, "Horror", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void search_ShouldApplyLimit() {
+        // Act & Assert
+        assertEquals(1, searchIndex.search(null, null, "PG-13", null, 1).size());
+    }
+
+    @Test
+    void put_WithExistingId_ShouldReplaceOldTerms() {
+        // Act
+        searchIndex.put(new MovieResponse(2L, "Titanic", "Romance", 195, "PG-13", 1997));
+
+        // Assert
+        assertTrue(searchIndex.search("avatar", null, null, null, 10).isEmpty());
+        assertEquals(List.of(2L), ids(searchIndex.search("titanic", "romance", null, 1997, 10)));
+        assertEquals(List.of(4L), ids(searchIndex.search(null, "Sci-Fi", null, null, 10)));
+    }
+
+    @Test
+    void put_WithOlderVersion_ShouldKeepNewerEntry() {
+        // Arrange
+        searchIndex.put(new MovieResponse(4L, "Tenet", "Sci-Fi", 150, "PG-13", 2020, 3L));
+
+        // Act
+        searchIndex.put(new MovieResponse(4L, "Inception", "Sci-Fi", 148, "PG-13", 2010, 2L));
+
+        // Assert
+        assertTrue(searchIndex.search("inception", null, null, null, 10).isEmpty());
+        assertEquals(List.of(4L), ids(searchIndex.search("tenet", null, null, 2020, 10)));
+    }
+
+    @Test
+    void removeByIdAndTitle_ShouldDropMovies() {
+        // Act
+        searchIndex.removeById(1L);
+        searchIndex.removeByTitle("Avatar");
+
+        // Assert
+        assertTrue(searchIndex.search("av", null, null, null, 10).isEmpty());
+        assertTrue(searchIndex.search(null, "Action", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void put_AfterRemove_ShouldNotBringMovieBack() {
+        // Arrange
+        // An update read back before the delete committed, reaching the index after it
+        MovieResponse lateUpdate = new MovieResponse(1L, "The Avengers", "Action", 143, "PG-13", 2012, 5L);
+        searchIndex.removeById(1L);
+        searchIndex.removeByTitle("Avatar");
+
+        // Act
+        searchIndex.put(lateUpdate);
+        searchIndex.put(new MovieResponse(2L, "Avatar", "Sci-Fi", 162, "PG-13", 2009, 5L));
+
+        // Assert
+        assertTrue(searchIndex.search("av", null, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void put_AfterRebuildWithoutMovie_ShouldNotBringMovieBack() {
+        // Arrange
+        // Movie 4 was deleted by another node
+        when(movieRepository.findAllResponses()).thenReturn(List.of(
+                new MovieResponse(1L, "The Avengers", "Action", 143, "PG-13", 2012)));
+        searchIndex.rebuild();
+
+        // Act
+        searchIndex.put(new MovieResponse(4L, "Inception", "Sci-Fi", 148, "PG-13", 2010, 3L));
+
+        // Assert
+        assertTrue(searchIndex.search("inception", null, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void editDistance_ShouldCountTranspositionsAsOneEdit() {
+        // Act & Assert
+        assertEquals(0, MovieSearchIndex.editDistance("matrix", "matrix", 2));
+        assertEquals(1, MovieSearchIndex.editDistance("matirx", "matrix", 2));
+        assertEquals(1, MovieSearchIndex.editDistance("matrx", "matrix", 2));
+        assertEquals(3, MovieSearchIndex.editDistance("abc", "xyz", 2));
+    }
+
+    private static List<Long> ids(List<MovieResponse> movies) {
+        return movies.stream().map(MovieResponse::id).toList();
+    }
+}
@@ -1,13 +1,18 @@
 package com.att.tdp.popcorn_palace.service;
 
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
 import com.att.tdp.popcorn_palace.model.Movie;
 import com.att.tdp.popcorn_palace.repository.MovieRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Arrays;
 import java.util.List;
@@ -23,6 +28,15 @@ public class MovieServiceTest {
     @Mock
     private MovieRepository movieRepository;
 
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @Mock
+    private MovieSearchIndex searchIndex;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private MovieService movieService;
 
@@ -32,38 +46,54 @@ public class MovieServiceTest {
     void setUp() {
         movie = new Movie("Test Movie", "Action", 120, "PG-13", 2023);
         movie.setId(1L);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
     void getAllMovies_ShouldReturnAllMovies() {
         // Arrange
-        List<Movie> expectedMovies = Arrays.asList(
-                movie,
-                new Movie("Another Movie", "Comedy", 90, "PG", 2022)
+        List<MovieResponse> expectedMovies = Arrays.asList(
+                MovieResponse.from(movie),
+                MovieResponse.from(new Movie("Another Movie", "Comedy", 90, "PG", 2022))
         );
-        when(movieRepository.findAll()).thenReturn(expectedMovies);
+        when(movieRepository.findAllResponses()).thenReturn(expectedMovies);
 
         // Act
-        List<Movie> actualMovies = movieService.getAllMovies();
+        List<MovieResponse> actualMovies = movieService.getAllMovies();
 
         // Assert
         assertEquals(expectedMovies.size(), actualMovies.size());
         assertEquals(expectedMovies, actualMovies);
-        verify(movieRepository, times(1)).findAll();
+        verify(movieRepository, times(1)).findAllResponses();
+        verify(movieRepository, never()).findAll();
+    }
+
+    @Test
+    void getCatalogTag_ShouldNotQueryRepository() {
+        // Arrange
+        when(catalogVersions.getMovieTag()).thenReturn("m-1-0");
+
+        // Act
+        String tag = movieService.getCatalogTag();
+
+        // Assert
+        assertEquals("m-1-0", tag);
+        verifyNoInteractions(movieRepository);
     }
 
     @Test
     void getMovieById_WithExistingId_ShouldReturnMovie() {
         // Arrange
-        when(movieRepository.findById(1L)).thenReturn(Optional.of(movie));
+        when(movieRepository.findResponseById(1L)).thenReturn(Optional.of(MovieResponse.from(movie)));
 
         // Act
-        Optional<Movie> result = movieService.getMovieById(1L);
+        Optional<MovieResponse> result = movieService.getMovieById(1L);
 
         // Assert
         assertTrue(result.isPresent());
-        assertEquals(movie, result.get());
-        verify(movieRepository, times(1)).findById(1L);
+        assertEquals(MovieResponse.from(movie), result.get());
+        verify(movieRepository, times(1)).findResponseById(1L);
     }
 
     @Test
@@ -105,65 +135,199 @@ public class MovieServiceTest {
         // Assert
         assertEquals(newMovie, result);
         verify(movieRepository, times(1)).save(newMovie);
+        verify(catalogVersions, times(1)).movieChanged();
+        verify(searchIndex, times(1)).put(MovieResponse.from(newMovie));
     }
 
     @Test
     void updateMovieByTitle_WithExistingTitle_ShouldReturnTrue() {
         // Arrange
         Movie updatedMovie = new Movie("Updated Movie", "Sci-Fi", 130, "PG-13", 2025);
-        when(movieRepository.findByTitle("Test Movie")).thenReturn(Optional.of(movie));
-        when(movieRepository.save(any(Movie.class))).thenReturn(updatedMovie);
+        MovieResponse stored = new MovieResponse(1L, "Updated Movie", "Sci-Fi", 130, "PG-13", 2025, 2L);
+        when(movieRepository.findIdsByTitle("Test Movie")).thenReturn(List.of(1L));
+        when(movieRepository.updateByTitleAndIdIn(List.of(1L), "Test Movie", null, "Updated Movie", "Sci-Fi", 130, "PG-13", 2025))
+                .thenReturn(1);
+        when(movieRepository.findResponsesByIdIn(List.of(1L))).thenReturn(List.of(stored));
 
         // Act
-        boolean result = movieService.updateMovieByTitle("Test Movie", updatedMovie);
+        boolean result = movieService.updateMovieByTitle("Test Movie", updatedMovie, null);
 
         // Assert
         assertTrue(result);
-        verify(movieRepository, times(1)).findByTitle("Test Movie");
-        verify(movieRepository, times(1)).save(any(Movie.class));
+        verify(movieRepository, times(1))
+                .updateByTitleAndIdIn(List.of(1L), "Test Movie", null, "Updated Movie", "Sci-Fi", 130, "PG-13", 2025);
+        verify(movieRepository, never()).findByTitle(any());
+        verify(movieRepository, never()).save(any(Movie.class));
+        verify(catalogVersions, times(1)).movieChanged();
+        verify(searchIndex, times(1)).put(stored);
+    }
+
+    @Test
+    void updateMovieByTitle_WithDuplicateTitle_ShouldUpdateAndIndexOnlyThoseMovies() {
+        // Arrange
+        // Another movie may already have the new title; only the two renamed ones are read back
+        Movie updatedMovie = new Movie("Updated Movie", "Sci-Fi", 130, "PG-13", 2025);
+        MovieResponse first = new MovieResponse(1L, "Updated Movie", "Sci-Fi", 130, "PG-13", 2025, 2L);
+        MovieResponse second = new MovieResponse(2L, "Updated Movie", "Sci-Fi", 130, "PG-13", 2025, 1L);
+        when(movieRepository.findIdsByTitle("Test Movie")).thenReturn(List.of(1L, 2L));
+        when(movieRepository.updateByTitleAndIdIn(List.of(1L, 2L), "Test Movie", null, "Updated Movie", "Sci-Fi", 130,
+                "PG-13", 2025)).thenReturn(2);
+        when(movieRepository.findResponsesByIdIn(List.of(1L, 2L))).thenReturn(List.of(first, second));
+
+        // Act
+        boolean result = movieService.updateMovieByTitle("Test Movie", updatedMovie, null);
+
+        // Assert
+        assertTrue(result);
+        verify(searchIndex, times(1)).put(first);
+        verify(searchIndex, times(1)).put(second);
+        verifyNoMoreInteractions(searchIndex);
+    }
+
+    @Test
+    void updateMovie_WithExpectedVersion_ShouldIndexStoredVersion() {
+        // Arrange
+        Movie updatedMovie = new Movie("Updated Movie", "Sci-Fi", 130, "PG-13", 2025);
+        MovieResponse stored = new MovieResponse(1L, "Updated Movie", "Sci-Fi", 130, "PG-13", 2025, 5L);
+        when(movieRepository.updateById(1L, 4L, "Updated Movie", "Sci-Fi", 130, "PG-13", 2025)).thenReturn(1);
+        when(movieRepository.findResponseById(1L)).thenReturn(Optional.of(stored));
+
+        // Act
+        Movie result = movieService.updateMovie(1L, updatedMovie, 4L);
+
+        // Assert
+        assertEquals(1L, result.getId());
+        assertEquals(5L, result.getVersion());
+        verify(catalogVersions, times(1)).movieChanged();
+        verify(searchIndex, times(1)).put(stored);
+    }
+
+    @Test
+    void updateMovie_WithStaleExpectedVersion_ShouldThrowConflict() {
+        // Arrange
+        Movie updatedMovie = new Movie("Updated Movie", "Sci-Fi", 130, "PG-13", 2025);
+        when(movieRepository.updateById(1L, 4L, "Updated Movie", "Sci-Fi", 130, "PG-13", 2025)).thenReturn(0);
+        when(movieRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class, () -> movieService.updateMovie(1L, updatedMovie, 4L));
+        verify(catalogVersions, never()).movieChanged();
+        verifyNoInteractions(searchIndex);
     }
 
     @Test
     void updateMovieByTitle_WithNonExistingTitle_ShouldReturnFalse() {
         // Arrange
         Movie updatedMovie = new Movie("Updated Movie", "Sci-Fi", 130, "PG-13", 2025);
-        when(movieRepository.findByTitle("Non Existing Movie")).thenReturn(Optional.empty());
+        when(movieRepository.findIdsByTitle("Non Existing Movie")).thenReturn(List.of());
 
         // Act
-        boolean result = movieService.updateMovieByTitle("Non Existing Movie", updatedMovie);
+        boolean result = movieService.updateMovieByTitle("Non Existing Movie", updatedMovie, null);
 
         // Assert
         assertFalse(result);
-        verify(movieRepository, times(1)).findByTitle("Non Existing Movie");
+        verify(movieRepository, never()).updateByTitleAndIdIn(any(), any(), any(), any(), any(), any(), any(), any());
         verify(movieRepository, never()).save(any(Movie.class));
+        verify(catalogVersions, never()).movieChanged();
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void updateMovieByTitle_WithStaleExpectedVersion_ShouldThrowConflict() {
+        // Arrange
+        Movie updatedMovie = new Movie("Updated Movie", "Sci-Fi", 130, "PG-13", 2025);
+        when(movieRepository.findIdsByTitle("Test Movie")).thenReturn(List.of(1L));
+        when(movieRepository.updateByTitleAndIdIn(List.of(1L), "Test Movie", 4L, "Updated Movie", "Sci-Fi", 130, "PG-13", 2025))
+                .thenReturn(0);
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> movieService.updateMovieByTitle("Test Movie", updatedMovie, 4L));
+        verify(catalogVersions, never()).movieChanged();
+        verifyNoInteractions(searchIndex);
     }
 
     @Test
     void deleteMovieByTitle_WithExistingTitle_ShouldReturnTrue() {
         // Arrange
-        when(movieRepository.findByTitle("Test Movie")).thenReturn(Optional.of(movie));
-        doNothing().when(movieRepository).delete(movie);
+        when(movieRepository.removeByTitle("Test Movie")).thenReturn(1);
 
         // Act
         boolean result = movieService.deleteMovieByTitle("Test Movie");
 
         // Assert
         assertTrue(result);
-        verify(movieRepository, times(1)).findByTitle("Test Movie");
-        verify(movieRepository, times(1)).delete(movie);
+        verify(movieRepository, times(1)).removeByTitle("Test Movie");
+        verify(movieRepository, never()).findByTitle(any());
+        verify(catalogVersions, times(1)).movieChanged();
+        verify(catalogVersions, times(1)).showtimeChanged();
+        verify(searchIndex, times(1)).removeByTitle("Test Movie");
+    }
+
+    @Test
+    void deleteMovieByTitle_WithOutbox_ShouldRecordCancellationsAndDeleteThoseMovies() {
+        // Arrange
+        BookingOutbox outbox = mock(BookingOutbox.class);
+        MovieService outboxService = new MovieService(movieRepository, catalogVersions, searchIndex,
+                transactionTemplate, outbox);
+        when(movieRepository.findIdsByTitle("Test Movie")).thenReturn(List.of(1L));
+        when(movieRepository.removeByIdIn(List.of(1L))).thenReturn(1);
+
+        // Act
+        boolean result = outboxService.deleteMovieByTitle("Test Movie");
+
+        // Assert
+        assertTrue(result);
+        InOrder inOrder = inOrder(outbox, movieRepository);
+        inOrder.verify(outbox).movieBookingsCancelled(List.of(1L));
+        inOrder.verify(movieRepository).removeByIdIn(List.of(1L));
+        verify(movieRepository, never()).removeByTitle(any());
+        verify(searchIndex, times(1)).removeByTitle("Test Movie");
     }
 
     @Test
     void deleteMovieByTitle_WithNonExistingTitle_ShouldReturnFalse() {
         // Arrange
-        when(movieRepository.findByTitle("Non Existing Movie")).thenReturn(Optional.empty());
+        when(movieRepository.removeByTitle("Non Existing Movie")).thenReturn(0);
 
         // Act
         boolean result = movieService.deleteMovieByTitle("Non Existing Movie");
 
         // Assert
         assertFalse(result);
-        verify(movieRepository, times(1)).findByTitle("Non Existing Movie");
-        verify(movieRepository, never()).delete(any());
+        verify(movieRepository, times(1)).removeByTitle("Non Existing Movie");
+        verify(catalogVersions, never()).movieChanged();
+    }
+
+    @Test
+    void searchMovies_ShouldQueryIndexWithoutRepository() {
+        // Arrange
+        List<MovieResponse> expected = List.of(MovieResponse.from(movie));
+        when(searchIndex.search("test", null, "PG-13", null, 20)).thenReturn(expected);
+
+        // Act
+        List<MovieResponse> result = movieService.searchMovies("test", " ", "PG-13", null, 20);
+
+        // Assert
+        assertEquals(expected, result);
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    void searchMovies_WithoutCriteria_ShouldThrowException() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> movieService.searchMovies(" ", null, "", null, 20));
+        assertEquals("At least one of q, genre, rating or year is required", exception.getMessage());
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void searchMovies_WithLimitOutOfRange_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> movieService.searchMovies("test", null, null, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> movieService.searchMovies("test", null, null, null, MovieService.MAX_SEARCH_RESULTS + 1));
+        verifyNoInteractions(searchIndex);
     }
 }
@@ -0,0 +1,46 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.dto.BookingEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NdjsonFileSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void deliver_ShouldAppendOneJsonLinePerEvent() throws IOException {
+        // Arrange
+        Path file = directory.resolve("outbox/booking-events.ndjson");
+        NdjsonFileSink sink = new NdjsonFileSink(file, objectMapper);
+        BookingEvent created = new BookingEvent(1L, BookingEvent.Type.BOOKING_CREATED, "booking-1", 10L,
+                "84438967-f68f-4fa0-b620-0f08217e76af", 15, Instant.parse("2025-04-01T10:00:00Z"));
+        BookingEvent cancelled = new BookingEvent(2L, BookingEvent.Type.BOOKING_CANCELLED, "booking-1", 10L,
+                "84438967-f68f-4fa0-b620-0f08217e76af", 15, Instant.parse("2025-04-01T10:05:00Z"));
+
+        // Act
+        sink.deliver(List.of(created));
+        sink.deliver(List.of(cancelled));
+
+        // Assert
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertEquals(created, objectMapper.readValue(lines.get(0), BookingEvent.class));
+        assertEquals(cancelled, objectMapper.readValue(lines.get(1), BookingEvent.class));
+        assertTrue(lines.get(1).contains("\"occurredAt\":\"2025-04-01T10:05:00Z\""));
+    }
+}
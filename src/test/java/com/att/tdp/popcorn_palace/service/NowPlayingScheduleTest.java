@@ -0,0 +1,84 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.NowPlayingProperties;
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMovieResponse;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NowPlayingScheduleTest {
+
+    private static final Instant NOW = Instant.parse("2025-04-01T08:00:00Z");
+
+    @Mock
+    private ShowtimeRepository showtimeRepository;
+
+    private NowPlayingSchedule schedule;
+
+    private final ShowtimeWithMovieResponse morning = showtime(1L, "2025-04-01T10:00:00Z");
+    private final ShowtimeWithMovieResponse evening = showtime(2L, "2025-04-01T20:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        schedule = new NowPlayingSchedule(showtimeRepository,
+                new NowPlayingProperties(Duration.ofHours(24), Duration.ofMinutes(1)),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        schedule.shutdown();
+    }
+
+    @Test
+    void getNowPlaying_AfterRebuild_ShouldSliceSnapshotWithoutQuery() {
+        // Arrange
+        when(showtimeRepository.findWithMovieStartingBetween(NOW, Instant.parse("2025-04-02T08:01:00Z")))
+                .thenReturn(List.of(morning, evening));
+        schedule.rebuild();
+
+        // Act & Assert
+        assertEquals(List.of(morning), schedule.getNowPlaying(Duration.ofHours(6)));
+        assertEquals(List.of(morning, evening), schedule.getNowPlaying(Duration.ofHours(24)));
+        verify(showtimeRepository, times(1)).findWithMovieStartingBetween(any(), any());
+    }
+
+    @Test
+    void getNowPlaying_BeforeFirstBuild_ShouldQueryDatabase() {
+        // Arrange
+        when(showtimeRepository.findWithMovieStartingBetween(NOW, NOW.plus(Duration.ofHours(6))))
+                .thenReturn(List.of(morning));
+
+        // Act & Assert
+        assertEquals(List.of(morning), schedule.getNowPlaying(Duration.ofHours(6)));
+    }
+
+    @Test
+    void getNowPlaying_BeyondHorizon_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> schedule.getNowPlaying(Duration.ofHours(25)));
+        assertThrows(IllegalArgumentException.class, () -> schedule.getNowPlaying(Duration.ZERO));
+        verifyNoInteractions(showtimeRepository);
+    }
+
+    private static ShowtimeWithMovieResponse showtime(Long id, String startTime) {
+        Instant start = Instant.parse(startTime);
+        return new ShowtimeWithMovieResponse(id, "Theater 1", start, start.plus(Duration.ofHours(2)), 12.50,
+                new MovieResponse(1L, "Test Movie", "Action", 120, "PG-13", 2023));
+    }
+}
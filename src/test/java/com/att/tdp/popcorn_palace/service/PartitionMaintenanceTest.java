@@ -0,0 +1,128 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.PartitioningProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PartitionMaintenanceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PartitionMaintenance maintenance;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        maintenance = new PartitionMaintenance(jdbcTemplate, transactionTemplate,
+                new PartitioningProperties(true, 2, 12, Duration.ofHours(6)),
+                Clock.fixed(Instant.parse("2025-04-15T12:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    void maintain_ShouldCreateCurrentAndComingMonths() {
+        // Act
+        maintenance.maintain();
+
+        // Assert
+        verify(jdbcTemplate, times(1)).execute("CREATE TABLE IF NOT EXISTS showtime_p2025_04 PARTITION OF showtime "
+                + "FOR VALUES FROM ('2025-04-01') TO ('2025-05-01')");
+        verify(jdbcTemplate, times(1)).execute("CREATE TABLE IF NOT EXISTS booking_p2025_06 PARTITION OF booking "
+                + "FOR VALUES FROM ('2025-06-01') TO ('2025-07-01')");
+        verify(jdbcTemplate, times(6)).execute(startsWith("CREATE TABLE IF NOT EXISTS"));
+    }
+
+    @Test
+    void maintain_ShouldDetachMonthsPastRetentionBookingsFirst() {
+        // Arrange
+        when(jdbcTemplate.queryForList(PartitionMaintenance.PARTITIONS_SQL, String.class, "booking"))
+                .thenReturn(List.of("booking_default", "booking_p2024_03", "booking_p2024_04"));
+        when(jdbcTemplate.queryForList(PartitionMaintenance.PARTITIONS_SQL, String.class, "showtime"))
+                .thenReturn(List.of("showtime_default", "showtime_p2024_03", "showtime_p2024_04"));
+
+        // Act
+        maintenance.maintain();
+
+        // Assert
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE booking DETACH PARTITION booking_p2024_03");
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE booking_p2024_03 DROP CONSTRAINT IF EXISTS booking_showtime_fk");
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE showtime DETACH PARTITION showtime_p2024_03");
+        verify(jdbcTemplate, never()).execute(contains("p2024_04"));
+        verify(jdbcTemplate, never()).execute(contains("_default"));
+    }
+
+    @Test
+    void maintain_WhenStatementFails_ShouldCarryOn() {
+        // Arrange
+        doThrow(new DataIntegrityViolationException("default partition holds rows"))
+                .when(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS showtime_p2025_06"));
+
+        // Act
+        maintenance.maintain();
+
+        // Assert
+        verify(jdbcTemplate, times(1)).execute(startsWith("CREATE TABLE IF NOT EXISTS booking_p2025_06"));
+        verify(jdbcTemplate, times(1)).queryForList(PartitionMaintenance.PARTITIONS_SQL, String.class, "showtime");
+    }
+
+    @Test
+    void maintain_WhenDefaultPartitionHoldsRowsOfMonth_ShouldMoveThemIntoItsNewPartitions() {
+        // Arrange
+        LocalDateTime june = LocalDateTime.parse("2025-06-01T00:00");
+        LocalDateTime july = LocalDateTime.parse("2025-07-01T00:00");
+        lenient().when(jdbcTemplate.queryForObject(PartitionMaintenance.DEFAULT_ROWS_SQL, Boolean.class,
+                june, july, june, july)).thenReturn(true);
+
+        // Act
+        maintenance.maintain();
+
+        // Assert
+        String june2025 = "'2025-06-01' AND start_time < '2025-07-01'";
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute(PartitionMaintenance.LOCK_SQL);
+        inOrder.verify(jdbcTemplate).execute("DELETE FROM booking WHERE showtime_start >= '2025-06-01' "
+                + "AND showtime_start < '2025-07-01'");
+        inOrder.verify(jdbcTemplate).execute("DELETE FROM showtime WHERE start_time >= " + june2025);
+        inOrder.verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS showtime_p2025_06"));
+        inOrder.verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS booking_p2025_06"));
+        inOrder.verify(jdbcTemplate).execute("INSERT INTO showtime SELECT * FROM moving_showtime");
+        inOrder.verify(jdbcTemplate).execute("INSERT INTO booking SELECT * FROM moving_booking");
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(jdbcTemplate, times(6)).execute(startsWith("CREATE TABLE IF NOT EXISTS"));
+    }
+
+    @Test
+    void monthOf_ShouldParseMonthlyPartitionsOnly() {
+        // Act & Assert
+        assertEquals(YearMonth.of(2025, 4), PartitionMaintenance.monthOf("showtime_p2025_04"));
+        assertNull(PartitionMaintenance.monthOf("showtime_default"));
+        assertEquals("booking_p2025_04", PartitionMaintenance.partitionName("booking", YearMonth.of(2025, 4)));
+    }
+}
@@ -0,0 +1,159 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.ArchivalProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShowtimeArchiverTest {
+
+    // Inside the default 02:00-06:00 window
+    private static final Instant NOW = Instant.parse("2025-04-15T03:00:00Z");
+    private static final Timestamp CUTOFF = Timestamp.from(NOW.minus(Duration.ofDays(90)));
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @Mock
+    private BookingOutbox outbox;
+
+    private ShowtimeArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        archiver = archiver(NOW);
+    }
+
+    @AfterEach
+    void tearDown() {
+        archiver.shutdown();
+    }
+
+    @Test
+    void archiveBatch_ShouldCopyThenDeleteInOneTransaction() {
+        // Arrange
+        when(jdbcTemplate.queryForList(ShowtimeArchiver.BATCH_SQL, Long.class, CUTOFF, CUTOFF, 2))
+                .thenReturn(List.of(7L, 8L));
+
+        // Act
+        int moved = archiver.archiveBatch();
+
+        // Assert
+        assertEquals(2, moved);
+        verify(transactionTemplate, times(1)).execute(any());
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).update(ShowtimeArchiver.ARCHIVE_BOOKINGS_SQL + "(?, ?)", CUTOFF, 7L, 8L);
+        inOrder.verify(jdbcTemplate).update(ShowtimeArchiver.ARCHIVE_SHOWTIMES_SQL + "(?, ?)", CUTOFF, 7L, 8L);
+        inOrder.verify(jdbcTemplate).update(ShowtimeArchiver.DELETE_SHOWTIMES_SQL + "(?, ?)", CUTOFF, 7L, 8L);
+    }
+
+    @Test
+    void archiveBatch_WithOutbox_ShouldRecordCancellationsBeforeDelete() {
+        // Arrange
+        archiver = archiver(NOW, outbox);
+        when(jdbcTemplate.queryForList(ShowtimeArchiver.BATCH_SQL, Long.class, CUTOFF, CUTOFF, 2))
+                .thenReturn(List.of(7L, 8L));
+
+        // Act
+        archiver.archiveBatch();
+
+        // Assert
+        InOrder inOrder = inOrder(outbox, jdbcTemplate);
+        inOrder.verify(outbox).showtimeBookingsCancelled(List.of(7L, 8L));
+        inOrder.verify(jdbcTemplate).update(ShowtimeArchiver.DELETE_SHOWTIMES_SQL + "(?, ?)", CUTOFF, 7L, 8L);
+    }
+
+    @Test
+    void archive_ShouldRepeatFullBatchesAndBumpCatalogOnce() {
+        // Arrange
+        when(jdbcTemplate.queryForList(ShowtimeArchiver.BATCH_SQL, Long.class, CUTOFF, CUTOFF, 2))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+
+        // Act
+        int archived = archiver.archive();
+
+        // Assert
+        assertEquals(3, archived);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(catalogVersions, times(1)).showtimeChanged();
+    }
+
+    @Test
+    void archive_OutsideWindow_ShouldNotTouchTheDatabase() {
+        // Arrange
+        archiver = archiver(Instant.parse("2025-04-15T18:00:00Z"));
+
+        // Act
+        int archived = archiver.archive();
+
+        // Assert
+        assertEquals(0, archived);
+        verifyNoInteractions(transactionTemplate, jdbcTemplate, catalogVersions);
+    }
+
+    @Test
+    void archive_WhenBatchFails_ShouldStopUntilNextCheck() {
+        // Arrange
+        when(jdbcTemplate.queryForList(ShowtimeArchiver.BATCH_SQL, Long.class, CUTOFF, CUTOFF, 2))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"));
+
+        // Act
+        int archived = archiver.archive();
+
+        // Assert
+        assertEquals(0, archived);
+        verify(catalogVersions, never()).showtimeChanged();
+    }
+
+    @Test
+    void isInWindow_SpanningMidnight_ShouldIncludeBothSides() {
+        // Arrange
+        ArchivalProperties properties = new ArchivalProperties(true, Duration.ofDays(90), 500, Duration.ofSeconds(1),
+                LocalTime.of(22, 0), LocalTime.of(4, 0), Duration.ofMinutes(15));
+
+        // Act & Assert
+        assertTrue(properties.isInWindow(LocalTime.of(23, 30)));
+        assertTrue(properties.isInWindow(LocalTime.of(3, 0)));
+        assertFalse(properties.isInWindow(LocalTime.of(12, 0)));
+    }
+
+    private ShowtimeArchiver archiver(Instant now) {
+        return archiver(now, null);
+    }
+
+    private ShowtimeArchiver archiver(Instant now, BookingOutbox bookingOutbox) {
+        ArchivalProperties properties = new ArchivalProperties(true, Duration.ofDays(90), 2, Duration.ZERO,
+                LocalTime.of(2, 0), LocalTime.of(6, 0), Duration.ofMinutes(15));
+        return new ShowtimeArchiver(jdbcTemplate, transactionTemplate, catalogVersions, properties, bookingOutbox,
+                Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
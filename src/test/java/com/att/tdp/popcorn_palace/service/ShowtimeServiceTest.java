@@ -1,14 +1,24 @@
 package com.att.tdp.popcorn_palace.service;
 
+import com.att.tdp.popcorn_palace.dto.MovieResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimePage;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMoviePage;
+import com.att.tdp.popcorn_palace.dto.ShowtimeWithMovieResponse;
 import com.att.tdp.popcorn_palace.model.Showtime;
 import com.att.tdp.popcorn_palace.repository.MovieRepository;
 import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.util.Arrays;
@@ -29,6 +39,15 @@ public class ShowtimeServiceTest {
     @Mock
     private MovieRepository movieRepository;
 
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @Mock
+    private UpcomingShowtimesCache upcomingShowtimes;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private ShowtimeService showtimeService;
 
@@ -42,60 +61,63 @@ public class ShowtimeServiceTest {
         endTime = Instant.parse("2025-04-01T12:30:00Z");
         showtime = new Showtime(1L, "Theater 1", startTime, endTime, 12.50);
         showtime.setId(1L);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
     void getAllShowtimes_ShouldReturnAllShowtimes() {
         // Arrange
-        List<Showtime> expectedShowtimes = Arrays.asList(
-                showtime,
-                new Showtime(2L, "Theater 2",
+        List<ShowtimeResponse> expectedShowtimes = Arrays.asList(
+                ShowtimeResponse.from(showtime),
+                ShowtimeResponse.from(new Showtime(2L, "Theater 2",
                         Instant.parse("2025-04-01T13:00:00Z"),
-                        Instant.parse("2025-04-01T15:30:00Z"), 14.00)
+                        Instant.parse("2025-04-01T15:30:00Z"), 14.00))
         );
-        when(showtimeRepository.findAll()).thenReturn(expectedShowtimes);
+        when(showtimeRepository.findAllResponses()).thenReturn(expectedShowtimes);
 
         // Act
-        List<Showtime> actualShowtimes = showtimeService.getAllShowtimes();
+        List<ShowtimeResponse> actualShowtimes = showtimeService.getAllShowtimes();
 
         // Assert
         assertEquals(expectedShowtimes.size(), actualShowtimes.size());
         assertEquals(expectedShowtimes, actualShowtimes);
-        verify(showtimeRepository, times(1)).findAll();
+        verify(showtimeRepository, times(1)).findAllResponses();
+        verify(showtimeRepository, never()).findAll();
     }
 
     @Test
     void getShowtimeById_WithExistingId_ShouldReturnShowtime() {
         // Arrange
-        when(showtimeRepository.findById(1L)).thenReturn(Optional.of(showtime));
+        when(showtimeRepository.findResponseById(1L)).thenReturn(Optional.of(ShowtimeResponse.from(showtime)));
 
         // Act
-        Optional<Showtime> result = showtimeService.getShowtimeById(1L);
+        Optional<ShowtimeResponse> result = showtimeService.getShowtimeById(1L);
 
         // Assert
         assertTrue(result.isPresent());
-        assertEquals(showtime, result.get());
-        verify(showtimeRepository, times(1)).findById(1L);
+        assertEquals(ShowtimeResponse.from(showtime), result.get());
+        verify(showtimeRepository, times(1)).findResponseById(1L);
     }
 
     @Test
     void getShowtimeById_WithNonExistingId_ShouldReturnEmptyOptional() {
         // Arrange
-        when(showtimeRepository.findById(99L)).thenReturn(Optional.empty());
+        when(showtimeRepository.findResponseById(99L)).thenReturn(Optional.empty());
 
         // Act
-        Optional<Showtime> result = showtimeService.getShowtimeById(99L);
+        Optional<ShowtimeResponse> result = showtimeService.getShowtimeById(99L);
 
         // Assert
         assertFalse(result.isPresent());
-        verify(showtimeRepository, times(1)).findById(99L);
+        verify(showtimeRepository, times(1)).findResponseById(99L);
     }
 
     @Test
     void createShowtime_WithValidData_ShouldSaveAndReturnShowtime() {
         // Arrange
         when(movieRepository.existsById(1L)).thenReturn(true);
-        when(showtimeRepository.findOverlappingShowtimes(anyString(), any(Instant.class), any(Instant.class), any()))
+        when(showtimeRepository.findOverlappingShowtimes(anyString(), any(Instant.class), any(Instant.class), any(Instant.class), any()))
                 .thenReturn(Collections.emptyList());
         when(showtimeRepository.save(any(Showtime.class))).thenReturn(showtime);
 
@@ -106,8 +128,10 @@ public class ShowtimeServiceTest {
         assertEquals(showtime, result);
         verify(movieRepository, times(1)).existsById(1L);
         verify(showtimeRepository, times(1)).findOverlappingShowtimes(
-                showtime.getTheater(), showtime.getStartTime(), showtime.getEndTime(), null);
+                showtime.getTheater(), showtime.getStartTime().minus(ShowtimeService.MAX_SHOWTIME_LENGTH),
+                showtime.getStartTime(), showtime.getEndTime(), null);
         verify(showtimeRepository, times(1)).save(showtime);
+        verify(catalogVersions, times(1)).showtimeChanged();
     }
 
     @Test
@@ -120,7 +144,7 @@ public class ShowtimeServiceTest {
                 () -> showtimeService.createShowtime(showtime));
         assertEquals("Movie with ID 1 does not exist", exception.getMessage());
         verify(movieRepository, times(1)).existsById(1L);
-        verify(showtimeRepository, never()).findOverlappingShowtimes(anyString(), any(), any(), any());
+        verify(showtimeRepository, never()).findOverlappingShowtimes(anyString(), any(), any(), any(), any());
         verify(showtimeRepository, never()).save(any());
     }
 
@@ -135,7 +159,22 @@ public class ShowtimeServiceTest {
                 () -> showtimeService.createShowtime(invalidShowtime));
         assertEquals("Start time must be before end time", exception.getMessage());
         verify(movieRepository, times(1)).existsById(1L);
-        verify(showtimeRepository, never()).findOverlappingShowtimes(anyString(), any(), any(), any());
+        verify(showtimeRepository, never()).findOverlappingShowtimes(anyString(), any(), any(), any(), any());
+        verify(showtimeRepository, never()).save(any());
+    }
+
+    @Test
+    void createShowtime_LongerThanMaximum_ShouldThrowException() {
+        // Arrange
+        Showtime longShowtime = new Showtime(1L, "Theater 1", startTime,
+                startTime.plus(ShowtimeService.MAX_SHOWTIME_LENGTH).plusSeconds(1), 12.50);
+        when(movieRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> showtimeService.createShowtime(longShowtime));
+        assertEquals("Showtime cannot be longer than 24 hours", exception.getMessage());
+        verify(showtimeRepository, never()).findOverlappingShowtimes(anyString(), any(), any(), any(), any());
         verify(showtimeRepository, never()).save(any());
     }
 
@@ -143,7 +182,7 @@ public class ShowtimeServiceTest {
     void createShowtime_WithOverlappingShowtime_ShouldThrowException() {
         // Arrange
         when(movieRepository.existsById(1L)).thenReturn(true);
-        when(showtimeRepository.findOverlappingShowtimes(anyString(), any(Instant.class), any(Instant.class), any()))
+        when(showtimeRepository.findOverlappingShowtimes(anyString(), any(Instant.class), any(Instant.class), any(Instant.class), any()))
                 .thenReturn(Collections.singletonList(showtime));
 
         // Act & Assert
@@ -152,7 +191,8 @@ public class ShowtimeServiceTest {
         assertEquals("There is already a showtime scheduled in this theater during the specified time", exception.getMessage());
         verify(movieRepository, times(1)).existsById(1L);
         verify(showtimeRepository, times(1)).findOverlappingShowtimes(
-                showtime.getTheater(), showtime.getStartTime(), showtime.getEndTime(), null);
+                showtime.getTheater(), showtime.getStartTime().minus(ShowtimeService.MAX_SHOWTIME_LENGTH),
+                showtime.getStartTime(), showtime.getEndTime(), null);
         verify(showtimeRepository, never()).save(any());
     }
 
@@ -160,52 +200,258 @@ public class ShowtimeServiceTest {
     void updateShowtime_WithValidData_ShouldUpdateAndReturnShowtime() {
         // Arrange
         Showtime updatedShowtime = new Showtime(1L, "Theater 1 Updated", startTime, endTime, 15.00);
-        when(showtimeRepository.findById(1L)).thenReturn(Optional.of(showtime));
+        when(showtimeRepository.findVersionById(1L)).thenReturn(Optional.of(2L));
         when(movieRepository.existsById(1L)).thenReturn(true);
-        when(showtimeRepository.findOverlappingShowtimes(anyString(), any(Instant.class), any(Instant.class), any()))
+        when(showtimeRepository.findOverlappingShowtimes(anyString(), any(Instant.class), any(Instant.class), any(Instant.class), any()))
                 .thenReturn(Collections.emptyList());
-        when(showtimeRepository.save(any(Showtime.class))).thenReturn(updatedShowtime);
+        when(showtimeRepository.updateById(1L, 2L, 1L, "Theater 1 Updated", startTime, endTime, 15.00)).thenReturn(1);
 
         // Act
-        Showtime result = showtimeService.updateShowtime(1L, updatedShowtime);
+        Showtime result = showtimeService.updateShowtime(1L, updatedShowtime, null);
 
         // Assert
         assertNotNull(result);
-        assertEquals(updatedShowtime, result);
-        verify(showtimeRepository, times(1)).findById(1L);
+        assertEquals(1L, result.getId());
+        assertEquals(3L, result.getVersion());
+        assertEquals("Theater 1 Updated", result.getTheater());
         verify(movieRepository, times(1)).existsById(1L);
         verify(showtimeRepository, times(1)).findOverlappingShowtimes(
-                updatedShowtime.getTheater(), updatedShowtime.getStartTime(), updatedShowtime.getEndTime(), 1L);
-        verify(showtimeRepository, times(1)).save(any());
+                updatedShowtime.getTheater(), updatedShowtime.getStartTime().minus(ShowtimeService.MAX_SHOWTIME_LENGTH),
+                updatedShowtime.getStartTime(), updatedShowtime.getEndTime(), 1L);
+        verify(showtimeRepository, never()).findById(any());
+        verify(showtimeRepository, never()).save(any());
+        verify(catalogVersions, times(1)).showtimeChanged();
+        // Version read, validation and update share one transaction, announced after it
+        InOrder inOrder = inOrder(transactionTemplate, showtimeRepository, catalogVersions);
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(showtimeRepository).updateById(any(), any(), any(), any(), any(), any(), any());
+        inOrder.verify(catalogVersions).showtimeChanged();
+    }
+
+    @Test
+    void updateShowtime_WithNonExistingId_ShouldReturnNull() {
+        // Arrange
+        Showtime updatedShowtime = new Showtime(1L, "Theater 1 Updated", startTime, endTime, 15.00);
+        when(showtimeRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        // Act
+        Showtime result = showtimeService.updateShowtime(99L, updatedShowtime, null);
+
+        // Assert
+        assertNull(result);
+        verify(showtimeRepository, never()).updateById(any(), any(), any(), any(), any(), any(), any());
+        verify(catalogVersions, never()).showtimeChanged();
+    }
+
+    @Test
+    void updateShowtime_WithNonExistingIdAndInvalidData_ShouldReturnNull() {
+        // Arrange
+        Showtime invalidShowtime = new Showtime(1L, "Theater 1", endTime, startTime, 12.50);
+        when(movieRepository.existsById(1L)).thenReturn(true);
+        when(showtimeRepository.existsById(99L)).thenReturn(false);
+
+        // Act
+        Showtime result = showtimeService.updateShowtime(99L, invalidShowtime, 0L);
+
+        // Assert
+        assertNull(result);
+        verify(showtimeRepository, never()).updateById(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void updateShowtime_WithStaleExpectedVersion_ShouldThrowConflictWithoutRetrying() {
+        // Arrange
+        Showtime updatedShowtime = new Showtime(1L, "Theater 1 Updated", startTime, endTime, 15.00);
+        when(movieRepository.existsById(1L)).thenReturn(true);
+        when(showtimeRepository.findOverlappingShowtimes(anyString(), any(Instant.class), any(Instant.class), any(Instant.class), any()))
+                .thenReturn(Collections.emptyList());
+        when(showtimeRepository.updateById(1L, 2L, 1L, "Theater 1 Updated", startTime, endTime, 15.00)).thenReturn(0);
+        when(showtimeRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> showtimeService.updateShowtime(1L, updatedShowtime, 2L));
+        verify(showtimeRepository, times(1)).updateById(any(), any(), any(), any(), any(), any(), any());
+        verify(showtimeRepository, never()).findVersionById(any());
+        verify(catalogVersions, never()).showtimeChanged();
+    }
+
+    @Test
+    void updateShowtime_WithoutExpectedVersion_ShouldRetryAfterConflict() {
+        // Arrange
+        Showtime updatedShowtime = new Showtime(1L, "Theater 1 Updated", startTime, endTime, 15.00);
+        when(showtimeRepository.findVersionById(1L)).thenReturn(Optional.of(2L), Optional.of(3L));
+        when(movieRepository.existsById(1L)).thenReturn(true);
+        when(showtimeRepository.findOverlappingShowtimes(anyString(), any(Instant.class), any(Instant.class), any(Instant.class), any()))
+                .thenReturn(Collections.emptyList());
+        when(showtimeRepository.updateById(1L, 2L, 1L, "Theater 1 Updated", startTime, endTime, 15.00)).thenReturn(0);
+        when(showtimeRepository.updateById(1L, 3L, 1L, "Theater 1 Updated", startTime, endTime, 15.00)).thenReturn(1);
+        when(showtimeRepository.existsById(1L)).thenReturn(true);
+
+        // Act
+        Showtime result = showtimeService.updateShowtime(1L, updatedShowtime, null);
+
+        // Assert
+        assertEquals(4L, result.getVersion());
+        // Validation ran again against the state the retry overwrote
+        verify(showtimeRepository, times(2)).findOverlappingShowtimes(anyString(), any(Instant.class), any(Instant.class), any(Instant.class), any());
+        verify(catalogVersions, times(1)).showtimeChanged();
+    }
+
+    @Test
+    void updateShowtime_WhenEveryAttemptConflicts_ShouldGiveUp() {
+        // Arrange
+        Showtime updatedShowtime = new Showtime(1L, "Theater 1 Updated", startTime, endTime, 15.00);
+        when(showtimeRepository.findVersionById(1L)).thenReturn(Optional.of(2L));
+        when(movieRepository.existsById(1L)).thenReturn(true);
+        when(showtimeRepository.findOverlappingShowtimes(anyString(), any(Instant.class), any(Instant.class), any(Instant.class), any()))
+                .thenReturn(Collections.emptyList());
+        when(showtimeRepository.updateById(1L, 2L, 1L, "Theater 1 Updated", startTime, endTime, 15.00)).thenReturn(0);
+        when(showtimeRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> showtimeService.updateShowtime(1L, updatedShowtime, null));
+        verify(showtimeRepository, times(OptimisticRetry.MAX_ATTEMPTS))
+                .updateById(any(), any(), any(), any(), any(), any(), any());
     }
 
     @Test
     void deleteShowtime_WithExistingId_ShouldReturnTrue() {
         // Arrange
-        when(showtimeRepository.findById(1L)).thenReturn(Optional.of(showtime));
-        doNothing().when(showtimeRepository).deleteById(1L);
+        when(showtimeRepository.removeById(1L)).thenReturn(1);
 
         // Act
         boolean result = showtimeService.deleteShowtime(1L);
 
         // Assert
         assertTrue(result);
-        verify(showtimeRepository, times(1)).findById(1L);
-        verify(showtimeRepository, times(1)).deleteById(1L);
+        verify(showtimeRepository, times(1)).removeById(1L);
+        verify(showtimeRepository, never()).findById(any());
+        verify(catalogVersions, times(1)).showtimeChanged();
     }
 
     @Test
     void deleteShowtime_WithNonExistingId_ShouldReturnFalse() {
         // Arrange
-        when(showtimeRepository.findById(99L)).thenReturn(Optional.empty());
+        when(showtimeRepository.removeById(99L)).thenReturn(0);
 
         // Act
         boolean result = showtimeService.deleteShowtime(99L);
 
         // Assert
         assertFalse(result);
-        verify(showtimeRepository, times(1)).findById(99L);
-        verify(showtimeRepository, never()).deleteById(any());
+        verify(showtimeRepository, times(1)).removeById(99L);
+        verify(catalogVersions, never()).showtimeChanged();
     }
-}
 
+    @Test
+    void deleteShowtime_WithOutbox_ShouldRecordCancellationsBeforeDelete() {
+        // Arrange
+        BookingOutbox outbox = mock(BookingOutbox.class);
+        ShowtimeService outboxService = new ShowtimeService(showtimeRepository, movieRepository, catalogVersions,
+                upcomingShowtimes, transactionTemplate, outbox);
+        when(showtimeRepository.removeById(1L)).thenReturn(1);
+
+        // Act
+        boolean result = outboxService.deleteShowtime(1L);
+
+        // Assert
+        assertTrue(result);
+        InOrder inOrder = inOrder(transactionTemplate, outbox, showtimeRepository);
+        inOrder.verify(transactionTemplate).execute(any());
+        inOrder.verify(outbox).showtimeBookingsCancelled(List.of(1L));
+        inOrder.verify(showtimeRepository).removeById(1L);
+    }
+
+    @Test
+    void findShowtimes_InsideHotWindow_ShouldNotQueryRepository() {
+        // Arrange
+        Instant to = Instant.parse("2025-04-02T00:00:00Z");
+        List<ShowtimeResponse> cached = List.of(ShowtimeResponse.from(showtime));
+        when(upcomingShowtimes.find(1L, null, startTime, 0L, to, 11)).thenReturn(cached);
+
+        // Act
+        ShowtimePage page = showtimeService.findShowtimes(1L, " ", startTime, to, null, 10);
+
+        // Assert
+        assertEquals(cached, page.showtimes());
+        assertNull(page.nextCursor());
+        verifyNoInteractions(showtimeRepository);
+    }
+
+    @Test
+    void findShowtimes_OutsideHotWindow_ShouldUseMatchingRangeQuery() {
+        // Arrange
+        Instant to = Instant.parse("2025-04-02T00:00:00Z");
+        ShowtimeResponse second = new ShowtimeResponse(2L, 1L, "Theater 1",
+                Instant.parse("2025-04-01T13:00:00Z"), Instant.parse("2025-04-01T15:30:00Z"), 14.00);
+        when(upcomingShowtimes.find(1L, "Theater 1", startTime, 0L, to, 2)).thenReturn(null);
+        when(showtimeRepository.findPageByMovieIdAndTheater(1L, "Theater 1", startTime, 0L, to, Limit.of(2)))
+                .thenReturn(List.of(ShowtimeResponse.from(showtime), second));
+
+        // Act
+        ShowtimePage page = showtimeService.findShowtimes(1L, "Theater 1", startTime, to, null, 1);
+
+        // Assert
+        assertEquals(List.of(ShowtimeResponse.from(showtime)), page.showtimes());
+        assertNotNull(page.nextCursor());
+        verify(showtimeRepository, never()).findPage(any(), any(), any(), any());
+        verify(showtimeRepository, never()).findAllResponses();
+    }
+
+    @Test
+    void findShowtimes_WithCursor_ShouldContinueAfterLastShowtime() {
+        // Arrange
+        String cursor = KeysetCursor.of(startTime, 1L).encode();
+        when(upcomingShowtimes.find(null, null, startTime, 1L, Instant.parse("9999-12-31T23:59:59Z"), 51))
+                .thenReturn(null);
+        when(showtimeRepository.findPage(startTime, 1L, Instant.parse("9999-12-31T23:59:59Z"), Limit.of(51)))
+                .thenReturn(List.of());
+
+        // Act
+        ShowtimePage page = showtimeService.findShowtimes(null, null, Instant.parse("2025-04-01T00:00:00Z"),
+                null, cursor, 50);
+
+        // Assert
+        assertTrue(page.showtimes().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void findShowtimes_WithInvalidArguments_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> showtimeService.findShowtimes(null, null, startTime, null, null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> showtimeService.findShowtimes(null, null, endTime, startTime, null, 10));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> showtimeService.findShowtimes(null, null, startTime, null, "not-a-cursor", 10));
+        assertEquals("Invalid cursor", exception.getMessage());
+        verifyNoInteractions(upcomingShowtimes, showtimeRepository);
+    }
+
+    @Test
+    void findShowtimesWithMovies_ShouldLoadMoviesInOneBatch() {
+        // Arrange
+        Instant to = Instant.parse("2025-04-02T00:00:00Z");
+        ShowtimeResponse second = new ShowtimeResponse(2L, 1L, "Theater 2",
+                Instant.parse("2025-04-01T13:00:00Z"), Instant.parse("2025-04-01T15:30:00Z"), 14.00);
+        MovieResponse movie = new MovieResponse(1L, "Test Movie", "Action", 120, "PG-13", 2023);
+        when(upcomingShowtimes.find(null, null, startTime, 0L, to, 11))
+                .thenReturn(List.of(ShowtimeResponse.from(showtime), second));
+        when(movieRepository.findResponsesByIdIn(List.of(1L))).thenReturn(List.of(movie));
+
+        // Act
+        ShowtimeWithMoviePage page = showtimeService.findShowtimesWithMovies(null, null, startTime, to, null, 10);
+
+        // Assert
+        assertEquals(List.of(
+                new ShowtimeWithMovieResponse(1L, "Theater 1", startTime, endTime, 12.50, movie),
+                new ShowtimeWithMovieResponse(2L, "Theater 2", second.startTime(), second.endTime(), 14.00, movie)),
+                page.showtimes());
+        assertNull(page.nextCursor());
+        verify(movieRepository, times(1)).findResponsesByIdIn(any());
+        verify(movieRepository, never()).findResponseById(any());
+    }
+}
@@ -0,0 +1,92 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.ShowtimeWindowProperties;
+import com.att.tdp.popcorn_palace.dto.ShowtimeResponse;
+import com.att.tdp.popcorn_palace.repository.ShowtimeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UpcomingShowtimesCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-04-01T08:00:00Z");
+    private static final Instant WINDOW_END = Instant.parse("2025-04-03T08:05:00Z");
+
+    @Mock
+    private ShowtimeRepository showtimeRepository;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    private UpcomingShowtimesCache cache;
+
+    private final ShowtimeResponse first = showtime(1L, 1L, "Theater 1", "2025-04-01T10:00:00Z");
+    private final ShowtimeResponse second = showtime(2L, 2L, "Theater 2", "2025-04-01T10:00:00Z");
+    private final ShowtimeResponse third = showtime(3L, 1L, "Theater 2", "2025-04-01T13:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        cache = new UpcomingShowtimesCache(showtimeRepository, catalogVersions,
+                new ShowtimeWindowProperties(Duration.ofHours(48), Duration.ofMinutes(5)),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+        when(catalogVersions.getShowtimeTag()).thenReturn("s-1-1");
+        when(showtimeRepository.findPage(NOW, 0L, WINDOW_END, Limit.unlimited()))
+                .thenReturn(List.of(first, second, third));
+        cache.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void find_InsideWindow_ShouldFilterInKeysetOrder() {
+        // Act & Assert
+        assertEquals(List.of(first, second, third), cache.find(null, null, NOW, 0L, WINDOW_END, 10));
+        assertEquals(List.of(first, third), cache.find(1L, null, NOW, 0L, WINDOW_END, 10));
+        assertEquals(List.of(third), cache.find(1L, "Theater 2", NOW, 0L, WINDOW_END, 10));
+        assertEquals(List.of(second), cache.find(null, null, first.startTime(), 1L, third.startTime(), 10));
+    }
+
+    @Test
+    void find_WithFullPage_ShouldAnswerUnboundedQuery() {
+        // Act & Assert
+        assertEquals(List.of(first, second), cache.find(null, null, NOW, 0L, Instant.parse("9999-12-31T23:59:59Z"), 2));
+    }
+
+    @Test
+    void find_BeyondWindow_ShouldReturnNull() {
+        // Act & Assert
+        assertNull(cache.find(2L, null, NOW, 0L, WINDOW_END.plusSeconds(1), 10));
+        assertNull(cache.find(null, null, NOW.minusSeconds(1), 0L, WINDOW_END, 10));
+    }
+
+    @Test
+    void find_WithNewerTag_ShouldReturnNull() {
+        // Arrange
+        when(catalogVersions.getShowtimeTag()).thenReturn("s-1-2");
+
+        // Act & Assert
+        assertNull(cache.find(null, null, NOW, 0L, WINDOW_END, 10));
+    }
+
+    private static ShowtimeResponse showtime(Long id, Long movieId, String theater, String startTime) {
+        Instant start = Instant.parse(startTime);
+        return new ShowtimeResponse(id, movieId, theater, start, start.plus(Duration.ofHours(2)), 12.50);
+    }
+}
@@ -0,0 +1,237 @@
+package com.att.tdp.popcorn_palace.service;
+
+import com.att.tdp.popcorn_palace.config.BookingWriteBehindProperties;
+import com.att.tdp.popcorn_palace.model.Booking;
+import com.att.tdp.popcorn_palace.repository.BookingRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WriteBehindBookingWriterTest {
+
+    private static final int CAPACITY = 4096;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private WriteBehindLease lease;
+
+    @TempDir
+    private Path directory;
+
+    private WriteBehindBookingWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(lease.acquire()).thenReturn(true);
+        lenient().when(lease.isValid()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (writer != null) {
+            writer.shutdown();
+        }
+    }
+
+    @Test
+    void start_WithJournaledBookings_ShouldInsertMissingOnes() throws IOException {
+        // Arrange
+        Booking saved = booking("booking-1", 15);
+        Booking lost = booking("booking-2", 16);
+        try (BookingJournal journal = new BookingJournal(directory, CAPACITY)) {
+            journal.recover();
+            journal.append(saved);
+            journal.awaitDurable(journal.append(lost));
+        }
+        when(bookingRepository.findAllById(List.of("booking-1", "booking-2"))).thenReturn(List.of(saved));
+        writer = writer();
+
+        // Act
+        writer.start();
+
+        // Assert
+        verify(entityManager, times(1)).persist(argThat(booking -> "booking-2".equals(((Booking) booking).getId())));
+        verify(entityManager, times(1)).persist(any());
+    }
+
+    @Test
+    void start_WithJournaledBookingRejectedByDatabase_ShouldMoveItToDeadLetter() throws IOException {
+        // Arrange
+        Booking taken = booking("booking-1", 15);
+        try (BookingJournal journal = new BookingJournal(directory, CAPACITY)) {
+            journal.recover();
+            journal.awaitDurable(journal.append(taken));
+        }
+        when(bookingRepository.findAllById(List.of("booking-1"))).thenReturn(List.of());
+        doThrow(new DataIntegrityViolationException("Seat taken", new SQLException("duplicate key", "23505")))
+                .when(entityManager).flush();
+        writer = writer();
+
+        // Act
+        writer.start();
+
+        // Assert
+        verify(jdbcTemplate, times(1)).update(eq(WriteBehindBookingWriter.DEAD_LETTER_SQL), eq("booking-1"), eq(1L),
+                any(), eq("84438967-f68f-4fa0-b620-0f08217e76af"), eq(15), any(), eq("duplicate key"));
+    }
+
+    @Test
+    void start_WithBookingJournaledWithoutShowtimeStart_ShouldResolveItFromShowtime() {
+        // Arrange
+        Booking old = new Booking("booking-1", 1L, "84438967-f68f-4fa0-b620-0f08217e76af", 15);
+        old.setBookingTime(Instant.parse("2025-03-01T10:00:00Z"));
+        Instant start = Instant.parse("2025-04-01T10:00:00Z");
+        BookingJournal journal = mock(BookingJournal.class);
+        when(journal.recover()).thenReturn(List.of(new BookingJournal.Entry(1, old)));
+        when(bookingRepository.findAllById(List.of("booking-1"))).thenReturn(List.of());
+        TypedQuery<Instant> query = showtimeStartQuery(List.of(start));
+        writer = writer(journal);
+
+        // Act
+        writer.start();
+
+        // Assert
+        verify(query).setParameter("id", 1L);
+        verify(entityManager, times(1)).persist(argThat(booking -> start.equals(((Booking) booking).getShowtimeStart())));
+    }
+
+    @Test
+    void start_WithBookingJournaledWithoutShowtimeStartOfDeletedShowtime_ShouldMoveItToDeadLetter() {
+        // Arrange
+        Booking old = new Booking("booking-1", 1L, "84438967-f68f-4fa0-b620-0f08217e76af", 15);
+        old.setBookingTime(Instant.parse("2025-03-01T10:00:00Z"));
+        BookingJournal journal = mock(BookingJournal.class);
+        when(journal.recover()).thenReturn(List.of(new BookingJournal.Entry(1, old)));
+        when(bookingRepository.findAllById(List.of("booking-1"))).thenReturn(List.of());
+        showtimeStartQuery(List.of());
+        writer = writer(journal);
+
+        // Act
+        writer.start();
+
+        // Assert
+        verify(entityManager, never()).persist(any());
+        verify(jdbcTemplate, times(1)).update(eq(WriteBehindBookingWriter.DEAD_LETTER_SQL), eq("booking-1"), eq(1L),
+                isNull(), eq("84438967-f68f-4fa0-b620-0f08217e76af"), eq(15), any(), eq("Showtime 1 no longer exists"));
+    }
+
+    @Test
+    void start_WhenAnotherNodeHoldsLease_ShouldFail() throws IOException {
+        // Arrange
+        when(lease.acquire()).thenReturn(false);
+        writer = writer();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> writer.start());
+        verify(bookingRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void submit_WithoutValidLease_ShouldRefuseBooking() throws IOException {
+        // Arrange
+        when(lease.isValid()).thenReturn(false);
+        writer = writer();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> writer.submit(booking("booking-1", 15)));
+        verify(bookingRepository, never()).existsByShowtimeIdAndShowtimeStartAndSeatNumber(any(), any(), any());
+    }
+
+    @Test
+    void submit_WithFreeSeat_ShouldConfirmAndWriteInBackground() throws IOException {
+        // Arrange
+        Booking booking = booking("booking-1", 15);
+        writer = writer();
+        writer.start();
+
+        // Act
+        writer.submit(booking);
+
+        // Assert
+        verify(entityManager, timeout(2000)).persist(booking);
+    }
+
+    @Test
+    void submit_WithSeatClaimedButNotWritten_ShouldThrowException() throws IOException {
+        // Arrange
+        // The writer thread is not started, so the first claim is still pending
+        writer = writer();
+        writer.submit(booking("booking-1", 15));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> writer.submit(booking("booking-2", 15)));
+        assertEquals("Seat 15 is already booked for this showtime", exception.getMessage());
+        verify(entityManager, never()).persist(any());
+    }
+
+    private WriteBehindBookingWriter writer() throws IOException {
+        BookingWriteBehindProperties properties = new BookingWriteBehindProperties(
+                true, directory, DataSize.ofBytes(CAPACITY), 500, Duration.ofMillis(100), Duration.ofSeconds(30));
+        return new WriteBehindBookingWriter(bookingRepository, entityManager, transactionTemplate, jdbcTemplate,
+                properties, new BookingJournal(directory, CAPACITY), lease, null);
+    }
+
+    private WriteBehindBookingWriter writer(BookingJournal journal) {
+        BookingWriteBehindProperties properties = new BookingWriteBehindProperties(
+                true, directory, DataSize.ofBytes(CAPACITY), 500, Duration.ofMillis(100), Duration.ofSeconds(30));
+        return new WriteBehindBookingWriter(bookingRepository, entityManager, transactionTemplate, jdbcTemplate,
+                properties, journal, lease, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypedQuery<Instant> showtimeStartQuery(List<Instant> result) {
+        TypedQuery<Instant> query = mock(TypedQuery.class);
+        when(entityManager.createQuery(WriteBehindBookingWriter.SHOWTIME_START_QUERY, Instant.class)).thenReturn(query);
+        when(query.setParameter("id", 1L)).thenReturn(query);
+        when(query.getResultList()).thenReturn(result);
+        return query;
+    }
+
+    private static Booking booking(String id, int seatNumber) {
+        Booking booking = new Booking(id, 1L, "84438967-f68f-4fa0-b620-0f08217e76af", seatNumber);
+        booking.setShowtimeStart(Instant.parse("2025-04-01T10:00:00Z"));
+        return booking;
+    }
+}
@@ -0,0 +1,65 @@
+package com.att.tdp.popcorn_palace.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WriteBehindLeaseTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void acquire_WhenRowTaken_ShouldBeValidAndNotDue() {
+        // Arrange
+        WriteBehindLease lease = new WriteBehindLease(jdbcTemplate, "node-1", Duration.ofSeconds(30));
+        when(jdbcTemplate.update(WriteBehindLease.ACQUIRE_SQL, "node-1", 30.0)).thenReturn(1);
+
+        // Act
+        boolean held = lease.acquire();
+
+        // Assert
+        assertTrue(held);
+        assertTrue(lease.isValid());
+        assertFalse(lease.isDue());
+    }
+
+    @Test
+    void acquire_WhenHeldByAnotherNode_ShouldNotBeValid() {
+        // Arrange
+        WriteBehindLease lease = new WriteBehindLease(jdbcTemplate, "node-1", Duration.ofSeconds(30));
+        when(jdbcTemplate.update(WriteBehindLease.ACQUIRE_SQL, "node-1", 30.0)).thenReturn(0);
+
+        // Act
+        boolean held = lease.acquire();
+
+        // Assert
+        assertFalse(held);
+        assertFalse(lease.isValid());
+        assertTrue(lease.isDue());
+    }
+
+    @Test
+    void nodeId_ShouldSurviveRestartsWithTheJournal() throws IOException {
+        // Act
+        String first = new WriteBehindLease(jdbcTemplate, directory, Duration.ofSeconds(30)).nodeId();
+        String second = new WriteBehindLease(jdbcTemplate, directory, Duration.ofSeconds(30)).nodeId();
+
+        // Assert
+        assertEquals(first, second);
+    }
+}